@@ -0,0 +1,117 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+
+import java.util.*;
+
+/**
+ * Synthetic conversion input. Rows are cycled over a bounded pool of distinct records, so that even 10M row
+ * collections take constant heap and only the converter itself is measured.
+ */
+public final class BenchmarkData {
+
+    private static final int RECORD_POOL_SIZE = 4096;
+    private static final String[] SPECIAL_FRAGMENTS = {",", "\"", "\t", "'"};
+
+    private final int rows;
+    private final List<String> headers;
+    private final List<Map<String, String>> recordPool;
+
+    /**
+     * @param rows         number of rows in the collection
+     * @param columns      number of columns of every row
+     * @param valueLength  length of every value
+     * @param escapedRatio share of values that contain a character requiring escaping, from 0 to 1
+     */
+    public BenchmarkData(int rows, int columns, int valueLength, double escapedRatio) {
+        this.rows = rows;
+        List<String> columnNames = new ArrayList<>(columns);
+        for (int column = 0; column < columns; column++) {
+            columnNames.add("column" + column);
+        }
+        this.headers = Collections.unmodifiableList(columnNames);
+        Random random = new Random(42);
+        int poolSize = Math.min(rows, RECORD_POOL_SIZE);
+        this.recordPool = new ArrayList<>(poolSize);
+        for (int row = 0; row < poolSize; row++) {
+            Map<String, String> record = new LinkedHashMap<>();
+            for (String header : headers) {
+                record.put(header, randomValue(random, valueLength, random.nextDouble() < escapedRatio));
+            }
+            recordPool.add(record);
+        }
+    }
+
+    private static String randomValue(Random random, int length, boolean escaped) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append((char) ('a' + random.nextInt(26)));
+        }
+        if (escaped && length > 0) {
+            String fragment = SPECIAL_FRAGMENTS[random.nextInt(SPECIAL_FRAGMENTS.length)];
+            value.replace(length / 2, length / 2 + 1, fragment);
+        }
+        return value.toString();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return rows as a list of maps, as taken by {@link org.eagleinvsys.test.converters.StandardConverter}
+     */
+    public List<Map<String, String>> asMaps() {
+        return new RandomAccessList<>() {
+            @Override
+            public Map<String, String> get(int index) {
+                return recordPool.get(index % recordPool.size());
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    /**
+     * @return rows as map backed {@link ConvertibleCollection}, as taken by {@link org.eagleinvsys.test.converters.Converter}
+     */
+    public ConvertibleCollection asConvertibleCollection() {
+        List<ConvertibleMessage> messagePool = new ArrayList<>(recordPool.size());
+        for (Map<String, String> record : recordPool) {
+            messagePool.add(record::get);
+        }
+        List<ConvertibleMessage> records = new RandomAccessList<>() {
+            @Override
+            public ConvertibleMessage get(int index) {
+                return messagePool.get(index % messagePool.size());
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+        return new ConvertibleCollection() {
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return records;
+            }
+        };
+    }
+
+    private abstract static class RandomAccessList<E> extends AbstractList<E> implements RandomAccess {
+    }
+}
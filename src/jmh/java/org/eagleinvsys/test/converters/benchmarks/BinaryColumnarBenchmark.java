@@ -0,0 +1,134 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.impl.BinaryColumnarConverter;
+import org.eagleinvsys.test.converters.impl.BinaryColumnarReader;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.MappedCsvParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CsvConverter} with {@link BinaryColumnarConverter} on the same rows: encoding to a discarding
+ * stream, and decoding a file of every format reading every value, CSV by {@link MappedCsvParser} and binary by
+ * {@link BinaryColumnarReader}. Half of the columns hold values drawn from a pool of the given cardinality, the other
+ * half unique values. Sizes of both formats are printed by the setup
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BinaryColumnarBenchmark {
+
+    @Param({"500000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"100"})
+    public int cardinality;
+
+    @Param({"csv", "binary"})
+    public String format;
+
+    private Converter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+    private Path file;
+    private long fileSize;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        converter = "binary".equals(format) ? new BinaryColumnarConverter() : new CsvConverter();
+        outputStream = new CountingOutputStream();
+        Random random = new Random(42);
+        ColumnarConvertibleCollection.Builder builder = ColumnarConvertibleCollection.builder();
+        for (int column = 0; column < columns; column++) {
+            String[] values = new String[rows];
+            if (column % 2 == 0) {
+                String[] pool = new String[cardinality];
+                for (int value = 0; value < cardinality; value++) {
+                    pool[value] = randomValue(random);
+                }
+                for (int row = 0; row < rows; row++) {
+                    values[row] = pool[random.nextInt(cardinality)];
+                }
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    values[row] = randomValue(random);
+                }
+            }
+            builder.column("column" + column, values);
+        }
+        collection = builder.build();
+        file = Files.createTempFile("benchmark", "." + format);
+        try (OutputStream fileStream = Files.newOutputStream(file)) {
+            converter.convert(collection, fileStream);
+        }
+        fileSize = Files.size(file);
+        System.out.printf("%n# Size of %s output: %.1f MB, %.1f bytes per row%n", format, fileSize / 1e6,
+                (double) fileSize / rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static String randomValue(Random random) {
+        StringBuilder value = new StringBuilder(16);
+        for (int i = 0; i < 16; i++) {
+            value.append((char) ('a' + random.nextInt(26)));
+        }
+        if (random.nextInt(10) == 0) {
+            value.setCharAt(8, ',');
+        }
+        return value.toString();
+    }
+
+    @Benchmark
+    public long encode(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+
+    @Benchmark
+    public void decode(ConversionCounters counters, Blackhole blackhole) throws IOException {
+        if ("binary".equals(format)) {
+            try (BinaryColumnarReader reader = new BinaryColumnarReader(Files.newInputStream(file))) {
+                ColumnarConvertibleCollection rowGroup;
+                while ((rowGroup = reader.nextRowGroup()) != null) {
+                    consume(rowGroup, blackhole);
+                }
+            }
+        } else {
+            consume(new MappedCsvParser().parse(file), blackhole);
+        }
+        counters.record(rows, fileSize);
+    }
+
+    private void consume(ConvertibleCollection decoded, Blackhole blackhole) {
+        for (ConvertibleMessage message : decoded.getRecords()) {
+            IndexedConvertibleMessage indexedMessage = (IndexedConvertibleMessage) message;
+            for (int column = 0; column < columns; column++) {
+                blackhole.consume(indexedMessage.getElement(column));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.BufferPoolOptions;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.DirectBufferPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures many small conversions to a channel with direct buffers taken from {@link DirectBufferPool} and with a
+ * pool keeping nothing, so every conversion allocates its buffers, and to an output stream which needs no direct
+ * buffers. Encoders are reused by the converter in all cases. Run with -prof gc to see allocation rate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=256m")
+@State(Scope.Benchmark)
+public class BufferPoolBenchmark {
+
+    @Param({"100"})
+    public int rows;
+
+    @Param({"8"})
+    public int columns;
+
+    @Param({"pooled", "unpooled"})
+    public String pool;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private DiscardingChannel channel;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BufferPoolOptions options = "pooled".equals(pool)
+                ? BufferPoolOptions.builder().build()
+                : BufferPoolOptions.builder().maxPooledBytes(0).threadLocalBuffers(0).build();
+        converter = new CsvConverter(CsvOptions.builder().build(), new DirectBufferPool(options));
+        collection = new BenchmarkData(rows, columns, 16, 0.1).asConvertibleCollection();
+        channel = new DiscardingChannel();
+        outputStream = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        channel.count = 0;
+        converter.convert(collection, channel);
+        counters.record(rows, channel.count);
+        return channel.count;
+    }
+
+    @Benchmark
+    public long convertToOutputStream(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        private long count;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            count += remaining;
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
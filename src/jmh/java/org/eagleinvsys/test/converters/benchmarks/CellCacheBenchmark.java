@@ -0,0 +1,96 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.CellCacheStatistics;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion with and without encoded cell cache for columns of the given cardinality. Values of plain
+ * content need no escaping, quoted values contain a comma and a quote, non ASCII values mix in Cyrillic letters.
+ * Hit ratio of the first column is printed on tear down
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CellCacheBenchmark {
+
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"8"})
+    public int columns;
+
+    @Param({"16", "1000", "200000"})
+    public int cardinality;
+
+    @Param({"plain", "quoted", "nonAscii"})
+    public String content;
+
+    @Param({"0", "1024"})
+    public int cacheCapacity;
+
+    private CsvConverter converter;
+    private ColumnarConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter(CsvOptions.builder().cellCacheCapacity(cacheCapacity).build());
+        outputStream = new CountingOutputStream();
+        Random random = new Random(42);
+        ColumnarConvertibleCollection.Builder builder = ColumnarConvertibleCollection.builder();
+        for (int column = 0; column < columns; column++) {
+            String[] pool = new String[cardinality];
+            for (int value = 0; value < cardinality; value++) {
+                pool[value] = randomValue(random);
+            }
+            String[] values = new String[rows];
+            for (int row = 0; row < rows; row++) {
+                values[row] = pool[random.nextInt(cardinality)];
+            }
+            builder.column("column" + column, values);
+        }
+        collection = builder.build();
+    }
+
+    private String randomValue(Random random) {
+        StringBuilder value = new StringBuilder(24);
+        for (int i = 0; i < 24; i++) {
+            value.append("nonAscii".equals(content) && i % 3 == 0
+                    ? (char) ('\u0430' + random.nextInt(32))
+                    : (char) ('a' + random.nextInt(26)));
+        }
+        if ("quoted".equals(content)) {
+            value.setCharAt(8, ',');
+            value.setCharAt(16, '"');
+        }
+        return value.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void printStatistics() {
+        Map<String, CellCacheStatistics> statistics = converter.getCellCacheStatistics();
+        CellCacheStatistics first = statistics.get("column0");
+        if (first != null) {
+            System.out.printf("%n# column0 hit ratio %.3f, evictions %d, disabled in %d conversions%n",
+                    first.getHitRatio(), first.getEvictions(), first.getDisabledConversions());
+        }
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
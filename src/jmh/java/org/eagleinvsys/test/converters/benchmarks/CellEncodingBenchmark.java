@@ -0,0 +1,59 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.impl.CsvEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures escaping and encoding of single cells of free text, which dominates conversion of long values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CellEncodingBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int valueLength;
+
+    /**
+     * plain - nothing to escape, whitespace - one tab in the middle, quoted - one quote in the middle,
+     * nonAscii - every 16th char is outside of ASCII
+     */
+    @Param({"plain", "whitespace", "quoted", "nonAscii"})
+    public String content;
+
+    private CsvEncoder encoder;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        encoder = new CsvEncoder();
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(valueLength);
+        for (int i = 0; i < valueLength; i++) {
+            if ("nonAscii".equals(content) && i % 16 == 15) {
+                builder.append('\u00e9');
+            } else {
+                builder.append(i % 6 == 5 ? ' ' : (char) ('a' + random.nextInt(26)));
+            }
+        }
+        if ("whitespace".equals(content)) {
+            builder.setCharAt(valueLength / 2, '\t');
+        } else if ("quoted".equals(content)) {
+            builder.setCharAt(valueLength / 2, '"');
+        }
+        value = builder.toString();
+    }
+
+    @Benchmark
+    public int encodeCell() {
+        encoder.reset();
+        encoder.encodeCell(value);
+        return encoder.size();
+    }
+}
@@ -0,0 +1,105 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion throughput by output charset, of pure ASCII values and of mixed script values, where every value mixes
+ * ASCII with Latin, Cyrillic and CJK characters. ISO-8859-1 output of mixed values replaces unmappable characters
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharsetBenchmark {
+
+    private static final int RECORD_POOL_SIZE = 4096;
+    private static final String NON_ASCII_CHARACTERS = "\u00e9\u00fc\u00df\u0416\u044f\u0449\u4e2d\u6587\u5b57";
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    @Param({"UTF-8", "UTF-16", "ISO-8859-1"})
+    public String charset;
+
+    @Param({"ascii", "mixed"})
+    public String payload;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter(CsvOptions.builder().charset(Charset.forName(charset)).build());
+        outputStream = new CountingOutputStream();
+        BenchmarkData data = new BenchmarkData(rows, columns, valueLength, 0.1);
+        collection = "mixed".equals(payload) ? mixedScript(data) : data.asConvertibleCollection();
+    }
+
+    /**
+     * @return collection of the same values as the given data, with every fourth character replaced by a non ASCII one
+     */
+    private ConvertibleCollection mixedScript(BenchmarkData data) {
+        Random random = new Random(42);
+        List<ConvertibleMessage> pool = new ArrayList<>(RECORD_POOL_SIZE);
+        Iterator<Map<String, String>> maps = data.asMaps().iterator();
+        for (int row = 0; row < Math.min(rows, RECORD_POOL_SIZE); row++) {
+            Map<String, String> record = new HashMap<>();
+            for (Map.Entry<String, String> entry : maps.next().entrySet()) {
+                char[] chars = entry.getValue().toCharArray();
+                for (int i = 0; i < chars.length; i += 4) {
+                    chars[i] = NON_ASCII_CHARACTERS.charAt(random.nextInt(NON_ASCII_CHARACTERS.length()));
+                }
+                record.put(entry.getKey(), new String(chars));
+            }
+            pool.add(record::get);
+        }
+        List<ConvertibleMessage> records = new AbstractList<>() {
+            @Override
+            public ConvertibleMessage get(int index) {
+                return pool.get(index % pool.size());
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+        List<String> headers = data.getHeaders();
+        return new ConvertibleCollection() {
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return records;
+            }
+        };
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,119 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.mappers.ConvertibleCollectionMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares conversion of map backed rows with {@link ColumnarConvertibleCollection} of plain and dictionary encoded
+ * columns. Every row is distinct, values of a column are drawn from a pool of the given cardinality shared by all
+ * layouts, so the retained heap printed by the setup shows the overhead of the layout itself
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ColumnarBenchmark {
+
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"1000"})
+    public int cardinality;
+
+    @Param({"maps", "columns", "dictionary"})
+    public String layout;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter();
+        outputStream = new CountingOutputStream();
+        String[] headers = new String[columns];
+        String[][] valuePools = new String[columns][cardinality];
+        Random random = new Random(42);
+        for (int column = 0; column < columns; column++) {
+            headers[column] = "column" + column;
+            for (int value = 0; value < cardinality; value++) {
+                valuePools[column][value] = randomValue(random);
+            }
+        }
+        long usedBefore = usedHeap();
+        collection = build(headers, valuePools);
+        long usedAfter = usedHeap();
+        System.out.printf("%n# Retained heap of %s layout: %.1f MB, %.1f bytes per row%n", layout,
+                (usedAfter - usedBefore) / 1e6, (double) (usedAfter - usedBefore) / rows);
+    }
+
+    private ConvertibleCollection build(String[] headers, String[][] valuePools) {
+        Random random = new Random(7);
+        if ("maps".equals(layout)) {
+            List<Map<String, String>> maps = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                Map<String, String> map = new LinkedHashMap<>();
+                for (int column = 0; column < columns; column++) {
+                    map.put(headers[column], valuePools[column][random.nextInt(cardinality)]);
+                }
+                maps.add(map);
+            }
+            return ConvertibleCollectionMapper.getInstance().toConvertibleCollectionView(maps).get();
+        }
+        ColumnarConvertibleCollection.Builder builder = ColumnarConvertibleCollection.builder();
+        for (int column = 0; column < columns; column++) {
+            if ("dictionary".equals(layout)) {
+                int[] codes = new int[rows];
+                for (int row = 0; row < rows; row++) {
+                    codes[row] = random.nextInt(cardinality);
+                }
+                builder.column(headers[column], codes, valuePools[column]);
+            } else {
+                String[] values = new String[rows];
+                for (int row = 0; row < rows; row++) {
+                    values[row] = valuePools[column][random.nextInt(cardinality)];
+                }
+                builder.column(headers[column], values);
+            }
+        }
+        return builder.build();
+    }
+
+    private static String randomValue(Random random) {
+        StringBuilder value = new StringBuilder(16);
+        for (int i = 0; i < 16; i++) {
+            value.append((char) ('a' + random.nextInt(26)));
+        }
+        if (random.nextInt(10) == 0) {
+            value.setCharAt(8, ',');
+        }
+        return value.toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,31 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary benchmark results reported as rates per second next to the primary score: {@code bytes} divided by
+ * 1_000_000 gives MB/s, {@code rows} gives rows/s. Allocated bytes per row is {@code gc.alloc.rate.norm} of the
+ * GC profiler divided by the {@code rows} parameter.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ConversionCounters {
+
+    public long bytes;
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void clean() {
+        bytes = 0;
+        rows = 0;
+    }
+
+    void record(long conversionRows, long conversionBytes) {
+        rows += conversionRows;
+        bytes += conversionBytes;
+    }
+}
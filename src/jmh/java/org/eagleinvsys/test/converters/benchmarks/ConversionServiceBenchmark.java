@@ -0,0 +1,76 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConversionServiceOptions;
+import org.eagleinvsys.test.converters.ConversionServiceStatistics;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.impl.FairConversionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of {@link FairConversionService}: a heavy tenant keeps submitting large conversions while the measured
+ * tenant submits small ones. Sample time mode reports latency percentiles of the small conversions, with the small
+ * conversions submitted either as their own tenant or queued behind the heavy tenant's conversions.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean ownTenant;
+
+    @Param({"64"})
+    public int heavyQueueDepth;
+
+    private FairConversionService service;
+    private ConvertibleCollection heavyCollection;
+    private ConvertibleCollection smallCollection;
+    private Thread heavyTenant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new FairConversionService(ConversionServiceOptions.builder()
+                .maxQueuedConversionsPerTenant(heavyQueueDepth + 1000)
+                .build());
+        heavyCollection = new BenchmarkData(20000, 16, 32, 0.1).asConvertibleCollection();
+        smallCollection = new BenchmarkData(100, 16, 32, 0.1).asConvertibleCollection();
+        Semaphore queueSlots = new Semaphore(heavyQueueDepth);
+        heavyTenant = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    queueSlots.acquire();
+                    service.submit("heavy", heavyCollection, OutputStream.nullOutputStream())
+                            .whenComplete((result, failure) -> queueSlots.release());
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                // stopped by tear down
+            }
+        }, "heavy-tenant");
+        heavyTenant.setDaemon(true);
+        heavyTenant.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        heavyTenant.interrupt();
+        heavyTenant.join();
+        ConversionServiceStatistics statistics = service.getStatistics();
+        System.out.printf("%nservice: completed %d, queue wait p50 %.2f ms p99 %.2f ms, latency p50 %.2f ms p99 %.2f ms%n",
+                statistics.getCompletedConversions(),
+                statistics.getQueueWaitP50Nanos() / 1e6, statistics.getQueueWaitP99Nanos() / 1e6,
+                statistics.getLatencyP50Nanos() / 1e6, statistics.getLatencyP99Nanos() / 1e6);
+        service.close();
+    }
+
+    @Benchmark
+    public void submitSmallConversion() {
+        service.submit(ownTenant ? "small" : "heavy", smallCollection, OutputStream.nullOutputStream()).join();
+    }
+}
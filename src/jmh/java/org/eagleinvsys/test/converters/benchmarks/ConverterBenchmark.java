@@ -0,0 +1,52 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Converter} entry point of the CSV conversion. Primary score is whole conversions per second,
+ * see {@link ConversionCounters} for MB/s and rows/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"1", "1000", "100000", "10000000"})
+    public int rows;
+
+    @Param({"4", "16"})
+    public int columns;
+
+    @Param({"8", "64"})
+    public int valueLength;
+
+    @Param({"0", "0.1", "1"})
+    public double escapedRatio;
+
+    private Converter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter();
+        collection = new BenchmarkData(rows, columns, valueLength, escapedRatio).asConvertibleCollection();
+        outputStream = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,29 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * Output stream discarding everything written to it, only counting bytes
+ */
+public final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void reset() {
+        count = 0;
+    }
+}
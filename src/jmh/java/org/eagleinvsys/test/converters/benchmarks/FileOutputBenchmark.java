@@ -0,0 +1,70 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.FileOutputOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing conversion results to a file through {@link FileOutputStream} and through file channel with direct
+ * buffers. Default row counts produce outputs from about 50 MB to several GB, the directory of the file can be set
+ * with -Dbenchmark.dir=...
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileOutputBenchmark {
+
+    @Param({"100000", "5000000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    @Param({"outputStream", "channel"})
+    public String output;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        converter = new CsvConverter();
+        collection = new BenchmarkData(rows, columns, valueLength, 0.1).asConvertibleCollection();
+        file = Files.createTempFile(Path.of(System.getProperty("benchmark.dir", System.getProperty("java.io.tmpdir"))),
+                "benchmark", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) throws IOException {
+        if ("channel".equals(output)) {
+            converter.convert(collection, file, FileOutputOptions.builder().build());
+        } else {
+            try (OutputStream outputStream = new FileOutputStream(file.toFile())) {
+                converter.convert(collection, outputStream);
+            }
+        }
+        long size = Files.size(file);
+        counters.record(rows, size);
+        return size;
+    }
+}
@@ -0,0 +1,79 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.GzipOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.GzipConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares {@link CsvConverter} writing through {@link GZIPOutputStream} with {@link GzipConverter} compressing
+ * blocks in parallel. Counted bytes are compressed bytes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GzipBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    @Param({"0.1"})
+    public double escapedRatio;
+
+    @Param({"gzipOutputStream", "parallelGzip"})
+    public String mode;
+
+    @Param({"131072"})
+    public int blockSize;
+
+    @Param({"6"})
+    public int level;
+
+    private CsvConverter csvConverter;
+    private Converter gzipConverter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csvConverter = new CsvConverter();
+        gzipConverter = new GzipConverter(csvConverter, ForkJoinPool.commonPool(),
+                GzipOptions.builder().blockSize(blockSize).level(level).build());
+        collection = new BenchmarkData(rows, columns, valueLength, escapedRatio).asConvertibleCollection();
+        outputStream = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) throws IOException {
+        outputStream.reset();
+        if ("parallelGzip".equals(mode)) {
+            gzipConverter.convert(collection, outputStream);
+        } else {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 64 * 1024) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            csvConverter.convert(collection, gzipOutputStream);
+            gzipOutputStream.close();
+        }
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
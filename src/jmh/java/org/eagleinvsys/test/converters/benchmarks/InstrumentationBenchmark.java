@@ -0,0 +1,72 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import jdk.jfr.Recording;
+import org.eagleinvsys.test.converters.ConversionListener;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures overhead of conversion metrics: none collects nothing, listener reports metrics to a no-op
+ * {@link ConversionListener}, jfr records conversion and chunk events without a listener
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"4", "16"})
+    public int columns;
+
+    @Param({"8"})
+    public int valueLength;
+
+    @Param({"none", "listener", "jfr"})
+    public String metrics;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+    private Recording recording;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsvOptions.CsvOptionsBuilder options = CsvOptions.builder();
+        if ("listener".equals(metrics)) {
+            options.conversionListener(new ConversionListener() {
+            });
+        } else if ("jfr".equals(metrics)) {
+            recording = new Recording();
+            recording.enable("org.eagleinvsys.test.converters.Conversion");
+            recording.enable("org.eagleinvsys.test.converters.ConversionChunk");
+            recording.start();
+        }
+        converter = new CsvConverter(options.build());
+        collection = new BenchmarkData(rows, columns, valueLength, 0.1).asConvertibleCollection();
+        outputStream = new CountingOutputStream();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,55 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel {@link Converter} on large collections
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelConverterBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    @Param({"0.1"})
+    public double escapedRatio;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private Converter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = "parallel".equals(mode) ? new ParallelCsvConverter() : new CsvConverter();
+        collection = new BenchmarkData(rows, columns, valueLength, escapedRatio).asConvertibleCollection();
+        outputStream = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,74 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.MappedCsvParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link MappedCsvParser} on a file written by {@link CsvConverter}: indexing only, and indexing
+ * followed by reading every value. The default file takes about 1 GB, {@code -p rows=8000000} gives a multi-GB
+ * file spanning several mapped segments. The directory of the file can be set with -Dbenchmark.dir=...
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    private MappedCsvParser parser;
+    private Path file;
+    private long fileSize;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        parser = new MappedCsvParser();
+        file = Files.createTempFile(Path.of(System.getProperty("benchmark.dir", System.getProperty("java.io.tmpdir"))),
+                "benchmark", ".csv");
+        new CsvConverter().convert(new BenchmarkData(rows, columns, valueLength, 0.1).asConvertibleCollection(), file);
+        fileSize = Files.size(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ConvertibleCollection parse(ConversionCounters counters) {
+        ConvertibleCollection collection = parser.parse(file);
+        counters.record(rows, fileSize);
+        return collection;
+    }
+
+    @Benchmark
+    public void parseAndRead(ConversionCounters counters, Blackhole blackhole) {
+        ConvertibleCollection collection = parser.parse(file);
+        for (ConvertibleMessage message : collection.getRecords()) {
+            IndexedConvertibleMessage indexedMessage = (IndexedConvertibleMessage) message;
+            for (int column = 0; column < columns; column++) {
+                blackhole.consume(indexedMessage.getElement(column));
+            }
+        }
+        counters.record(rows, fileSize);
+    }
+}
@@ -0,0 +1,57 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of many small collections of a few header layouts, with and without the cache of conversion plans. Every
+ * operation converts {@code collections} collections, cycling over layouts of different numbers of columns
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanCacheBenchmark {
+
+    @Param({"10000"})
+    public int collections;
+
+    @Param({"8"})
+    public int rows;
+
+    @Param({"4"})
+    public int layouts;
+
+    @Param({"0", "256"})
+    public int planCacheCapacity;
+
+    private CsvConverter converter;
+    private ConvertibleCollection[] layoutCollections;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter(CsvOptions.builder().planCacheCapacity(planCacheCapacity).build());
+        outputStream = new CountingOutputStream();
+        layoutCollections = new ConvertibleCollection[layouts];
+        for (int layout = 0; layout < layouts; layout++) {
+            layoutCollections[layout] = new BenchmarkData(rows, 12 + layout, 12, 0.1).asConvertibleCollection();
+        }
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        for (int i = 0; i < collections; i++) {
+            converter.convert(layoutCollections[i % layouts], outputStream);
+        }
+        counters.record((long) collections * rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
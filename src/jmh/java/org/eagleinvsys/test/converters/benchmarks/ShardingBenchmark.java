@@ -0,0 +1,82 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ShardInfo;
+import org.eagleinvsys.test.converters.ShardingOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ShardedCsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares writing conversion results to a single file with splitting them into files of the given size written
+ * concurrently. The directory of the files can be set with -Dbenchmark.dir=...
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardingBenchmark {
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"32"})
+    public int valueLength;
+
+    @Param({"0", "16", "64"})
+    public int shardMegabytes;
+
+    private CsvConverter singleFileConverter;
+    private ShardedCsvConverter shardedConverter;
+    private ConvertibleCollection collection;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        singleFileConverter = new CsvConverter();
+        shardedConverter = new ShardedCsvConverter(ForkJoinPool.commonPool(), ShardingOptions.builder()
+                .maxBytesPerShard(Math.max(shardMegabytes, 1) * 1024L * 1024)
+                .build());
+        collection = new BenchmarkData(rows, columns, valueLength, 0.1).asConvertibleCollection();
+        directory = Files.createTempDirectory(Path.of(System.getProperty("benchmark.dir",
+                System.getProperty("java.io.tmpdir"))), "benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) throws IOException {
+        long size = 0;
+        if (shardMegabytes == 0) {
+            Path file = directory.resolve("single.csv");
+            singleFileConverter.convert(collection, file);
+            size = Files.size(file);
+        } else {
+            List<ShardInfo> shards = shardedConverter.convertToShards(collection, directory);
+            for (ShardInfo shard : shards) {
+                size += shard.getBytes();
+            }
+        }
+        counters.record(rows, size);
+        return size;
+    }
+}
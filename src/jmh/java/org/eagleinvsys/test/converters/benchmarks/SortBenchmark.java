@@ -0,0 +1,115 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.SortOptions;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.SortingConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted conversion of rows of random keys: {@code inMemory} sorts a copy of the record list before converting it,
+ * {@code external} converts with {@link SortingConverter} under the given memory budget, spilling runs when the rows
+ * do not fit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"8"})
+    public int columns;
+
+    @Param({"inMemory", "external"})
+    public String mode;
+
+    @Param({"33554432"})
+    public long memoryBudget;
+
+    private CsvConverter converter;
+    private SortingConverter sortingConverter;
+    private List<String> headers;
+    private List<ConvertibleMessage> records;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter();
+        sortingConverter = new SortingConverter(converter, SortOptions.builder()
+                .sortColumn("column0")
+                .memoryBudget(memoryBudget)
+                .build());
+        outputStream = new CountingOutputStream();
+        headers = new ArrayList<>();
+        for (int column = 0; column < columns; column++) {
+            headers.add("column" + column);
+        }
+        Random random = new Random(42);
+        records = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            String[] values = new String[columns];
+            values[0] = String.format("%016x", random.nextLong());
+            for (int column = 1; column < columns; column++) {
+                values[column] = "value" + random.nextInt(100000);
+            }
+            records.add(new Row(values));
+        }
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        if ("external".equals(mode)) {
+            sortingConverter.convert(collection(records), outputStream);
+        } else {
+            List<ConvertibleMessage> sorted = new ArrayList<>(records);
+            sorted.sort(Comparator.comparing(record -> ((Row) record).values[0]));
+            converter.convert(collection(sorted), outputStream);
+        }
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+
+    private ConvertibleCollection collection(List<ConvertibleMessage> collectionRecords) {
+        return new ConvertibleCollection() {
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return collectionRecords;
+            }
+        };
+    }
+
+    private class Row implements IndexedConvertibleMessage {
+
+        private final String[] values;
+
+        Row(String[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            return values[headers.indexOf(elementId)];
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            return values[columnIndex];
+        }
+    }
+}
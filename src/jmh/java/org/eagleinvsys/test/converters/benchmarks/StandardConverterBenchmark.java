@@ -0,0 +1,59 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.StandardConverter;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.StandardCsvConverter;
+import org.eagleinvsys.test.converters.mappers.MappingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StandardConverter} entry point, which includes validation and mapping done by
+ * {@link org.eagleinvsys.test.converters.mappers.ConvertibleCollectionMapper}. Primary score is whole conversions per
+ * second, see {@link ConversionCounters} for MB/s and rows/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StandardConverterBenchmark {
+
+    @Param({"1", "1000", "100000", "10000000"})
+    public int rows;
+
+    @Param({"4", "16"})
+    public int columns;
+
+    @Param({"8", "64"})
+    public int valueLength;
+
+    @Param({"0", "0.1", "1"})
+    public double escapedRatio;
+
+    @Param({"COPY", "VIEW"})
+    public MappingMode mappingMode;
+
+    private StandardConverter converter;
+    private List<Map<String, String>> collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new StandardCsvConverter(new CsvConverter(), null, mappingMode);
+        collection = new BenchmarkData(rows, columns, valueLength, escapedRatio).asMaps();
+        outputStream = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+}
@@ -0,0 +1,145 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.TypedConvertibleMessage;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares conversion of numeric columns read as strings formatted by the message, as done by sources holding
+ * primitives before {@link TypedConvertibleMessage}, with the same values read as primitives. Half of the columns are
+ * longs, the other half prices with two fraction digits. Run with {@code -prof gc} to compare allocation per row
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedColumnsBenchmark {
+
+    private static final int ROW_POOL_SIZE = 4096;
+
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"strings", "typed"})
+    public String access;
+
+    private CsvConverter converter;
+    private ConvertibleCollection collection;
+    private CountingOutputStream outputStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CsvConverter();
+        outputStream = new CountingOutputStream();
+        List<String> headers = new ArrayList<>(columns);
+        for (int column = 0; column < columns; column++) {
+            headers.add("column" + column);
+        }
+        Random random = new Random(42);
+        List<ConvertibleMessage> pool = new ArrayList<>(ROW_POOL_SIZE);
+        for (int row = 0; row < ROW_POOL_SIZE; row++) {
+            long[] longs = new long[columns];
+            double[] doubles = new double[columns];
+            for (int column = 0; column < columns; column++) {
+                longs[column] = random.nextInt(1_000_000_000);
+                doubles[column] = random.nextInt(10_000_000) / 100.0;
+            }
+            pool.add("typed".equals(access) ? new TypedRow(headers, longs, doubles) : new StringRow(headers, longs, doubles));
+        }
+        List<ConvertibleMessage> records = new AbstractList<>() {
+            @Override
+            public ConvertibleMessage get(int index) {
+                return pool.get(index % pool.size());
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+        collection = new ConvertibleCollection() {
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return records;
+            }
+
+            @Override
+            public ColumnType getColumnType(int columnIndex) {
+                return columnIndex % 2 == 0 ? ColumnType.LONG : ColumnType.DOUBLE;
+            }
+        };
+    }
+
+    @Benchmark
+    public long convert(ConversionCounters counters) {
+        outputStream.reset();
+        converter.convert(collection, outputStream);
+        counters.record(rows, outputStream.getCount());
+        return outputStream.getCount();
+    }
+
+    /**
+     * Row holding primitives and formatting them on every read, as a message without typed accessors has to
+     */
+    private static class StringRow implements IndexedConvertibleMessage {
+
+        private final List<String> headers;
+        final long[] longs;
+        final double[] doubles;
+
+        StringRow(List<String> headers, long[] longs, double[] doubles) {
+            this.headers = headers;
+            this.longs = longs;
+            this.doubles = doubles;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            return getElement(headers.indexOf(elementId));
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            return columnIndex % 2 == 0 ? Long.toString(longs[columnIndex]) : Double.toString(doubles[columnIndex]);
+        }
+    }
+
+    private static final class TypedRow extends StringRow implements TypedConvertibleMessage {
+
+        TypedRow(List<String> headers, long[] longs, double[] doubles) {
+            super(headers, longs, doubles);
+        }
+
+        @Override
+        public long getLong(int columnIndex) {
+            return longs[columnIndex];
+        }
+
+        @Override
+        public double getDouble(int columnIndex) {
+            return doubles[columnIndex];
+        }
+
+        @Override
+        public boolean isNull(int columnIndex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.eagleinvsys.test.converters.benchmarks;
+
+import org.eagleinvsys.test.converters.validators.CollectionValidator;
+import org.eagleinvsys.test.converters.validators.ParallelCollectionValidator;
+import org.eagleinvsys.test.converters.validators.SequentialCollectionValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares validation of key sets by {@link Set#equals(Object)} of every map with {@link CollectionValidator}
+ * implementations. Maps either share key instances with the first map or hold copies of them, which cannot be
+ * recognized by identity
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"16"})
+    public int columns;
+
+    @Param({"shared", "copied"})
+    public String keys;
+
+    @Param({"keySetEquals", "sequential", "parallel"})
+    public String validator;
+
+    private List<Map<String, String>> collection;
+    private CollectionValidator collectionValidator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Map<String, String>> maps = new BenchmarkData(rows, columns, 8, 0).asMaps();
+        collection = new ArrayList<>(rows);
+        for (Map<String, String> map : maps) {
+            if ("copied".equals(keys) && !collection.isEmpty()) {
+                Map<String, String> copy = new LinkedHashMap<>();
+                map.forEach((key, value) -> copy.put(new String(key), value));
+                map = copy;
+            }
+            collection.add(map);
+        }
+        if ("parallel".equals(validator)) {
+            collectionValidator = new ParallelCollectionValidator();
+        } else {
+            collectionValidator = new SequentialCollectionValidator();
+        }
+    }
+
+    @Benchmark
+    public int validate() {
+        if ("keySetEquals".equals(validator)) {
+            Set<String> headers = collection.get(0).keySet();
+            for (Map<String, String> map : collection) {
+                if (map == null || map.isEmpty() || !map.keySet().equals(headers)) {
+                    throw new IllegalStateException();
+                }
+            }
+        } else {
+            collectionValidator.validate(collection);
+        }
+        return collection.size();
+    }
+}
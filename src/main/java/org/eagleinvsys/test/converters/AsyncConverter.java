@@ -0,0 +1,29 @@
+package org.eagleinvsys.test.converters;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncConverter {
+
+    /**
+     * Converts given {@link ConvertibleCollection} asynchronously and writes result as a text to the provided
+     * {@link AsynchronousFileChannel} starting at position 0. Cancelling the returned future stops the conversion
+     *
+     * @param collectionToConvert collection to convert
+     * @param channel             channel to write results to, it is not closed
+     * @return                    future completed with {@link ConversionResult} once everything is written
+     */
+    CompletableFuture<ConversionResult> convertAsync(ConvertibleCollection collectionToConvert, AsynchronousFileChannel channel);
+
+    /**
+     * Converts given {@link ConvertibleCollection} asynchronously and writes result as a text to the provided
+     * {@link WritableByteChannel}. Cancelling the returned future stops the conversion
+     *
+     * @param collectionToConvert collection to convert
+     * @param channel             channel to write results to, it is not closed
+     * @return                    future completed with {@link ConversionResult} once everything is written
+     */
+    CompletableFuture<ConversionResult> convertAsync(ConvertibleCollection collectionToConvert, WritableByteChannel channel);
+
+}
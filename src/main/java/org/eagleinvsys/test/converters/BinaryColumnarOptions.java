@@ -0,0 +1,26 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of writing collections in binary columnar format
+ */
+@Builder
+@Getter
+public class BinaryColumnarOptions {
+
+    /**
+     * Number of rows buffered and written together, column by column
+     */
+    @Builder.Default
+    private final int rowGroupSize = 65536;
+
+    /**
+     * Maximum number of distinct values of a column in a row group to consider dictionary encoding, columns with more
+     * distinct values are written plain
+     */
+    @Builder.Default
+    private final int maxDictionarySize = 65536;
+
+}
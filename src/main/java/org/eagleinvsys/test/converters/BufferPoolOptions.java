@@ -0,0 +1,34 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of pool of direct buffers used to write conversion results to channels
+ */
+@Builder
+@Getter
+public class BufferPoolOptions {
+
+    /**
+     * Maximum total size of idle buffers kept by the pool over all threads. Buffers returned to a full pool are left
+     * to the garbage collector
+     */
+    @Builder.Default
+    private final long maxPooledBytes = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of idle buffers kept by every thread for itself, taken and returned without touching buffers
+     * shared by all threads
+     */
+    @Builder.Default
+    private final int threadLocalBuffers = 4;
+
+    /**
+     * Whether the pool remembers where every borrowed buffer was taken, so buffers never returned can be reported.
+     * Meant for tests, enabled by default if system property org.eagleinvsys.bufferPool.leakDetection is true
+     */
+    @Builder.Default
+    private final boolean leakDetection = Boolean.getBoolean("org.eagleinvsys.bufferPool.leakDetection");
+
+}
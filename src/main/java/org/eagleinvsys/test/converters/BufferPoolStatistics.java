@@ -0,0 +1,49 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Statistics of pool of direct buffers accumulated since it was created
+ */
+@Value
+public class BufferPoolStatistics {
+
+    /**
+     * Number of buffers taken from idle buffers of the borrowing thread
+     */
+    long threadLocalHits;
+
+    /**
+     * Number of buffers taken from idle buffers shared by all threads
+     */
+    long globalHits;
+
+    /**
+     * Number of buffers allocated because there was no idle buffer of the requested size
+     */
+    long misses;
+
+    /**
+     * Number of returned buffers left to the garbage collector because the pool was full
+     */
+    long drops;
+
+    /**
+     * Total size of idle buffers kept by the pool now
+     */
+    long pooledBytes;
+
+    /**
+     * Number of buffers borrowed and not returned yet
+     */
+    long borrowedBuffers;
+
+    /**
+     * @return share of borrowed buffers taken from idle buffers, 0 if nothing was borrowed
+     */
+    public double getHitRatio() {
+        long hits = threadLocalHits + globalHits;
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Statistics of encoded cell cache of a single column accumulated over conversions
+ */
+@Value
+public class CellCacheStatistics {
+
+    /**
+     * Number of values found in the cache
+     */
+    long hits;
+
+    /**
+     * Number of values encoded because they were not found in the cache
+     */
+    long misses;
+
+    /**
+     * Number of values evicted to make room for other values
+     */
+    long evictions;
+
+    /**
+     * Number of conversions in which the cache was switched off because of low hit ratio
+     */
+    long disabledConversions;
+
+    /**
+     * @return share of lookups found in the cache, 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.eagleinvsys.test.converters;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+public interface ChannelConverter extends Converter {
+
+    /**
+     * Converts given {@link ConvertibleCollection} and writes result as a text to the provided {@link WritableByteChannel}
+     *
+     * @param collectionToConvert collection to convert
+     * @param channel             channel to write results to, it is not closed
+     */
+    void convert(ConvertibleCollection collectionToConvert, WritableByteChannel channel);
+
+    /**
+     * Converts given {@link ConvertibleCollection} and writes result as a text to the file at the provided {@link Path}
+     *
+     * @param collectionToConvert collection to convert
+     * @param path                path of the file to write results to
+     * @param options             options of writing the file
+     */
+    void convert(ConvertibleCollection collectionToConvert, Path path, FileOutputOptions options);
+
+    /**
+     * Converts given {@link ConvertibleCollection} and writes result as a text to the file at the provided {@link Path}
+     * with default {@link FileOutputOptions}
+     *
+     * @param collectionToConvert collection to convert
+     * @param path                path of the file to write results to
+     */
+    default void convert(ConvertibleCollection collectionToConvert, Path path) {
+        convert(collectionToConvert, path, FileOutputOptions.builder().build());
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of resumable conversions writing checkpoints next to the result file
+ */
+@Builder
+@Getter
+public class CheckpointOptions {
+
+    /**
+     * Number of records written after which a checkpoint is written
+     */
+    @Builder.Default
+    private final long checkpointIntervalRows = 100_000;
+
+    /**
+     * Number of bytes written after which a checkpoint is written, whichever interval passes first
+     */
+    @Builder.Default
+    private final long checkpointIntervalBytes = 64L * 1024 * 1024;
+
+    /**
+     * Suffix appended to the name of the result file to get the name of its checkpoint file
+     */
+    @Builder.Default
+    private final String checkpointFileSuffix = ".checkpoint";
+
+    @Builder.Default
+    private final FileOutputOptions fileOutputOptions = FileOutputOptions.builder().build();
+
+}
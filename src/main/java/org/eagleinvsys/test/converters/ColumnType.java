@@ -0,0 +1,24 @@
+package org.eagleinvsys.test.converters;
+
+/**
+ * Type of values of a column, declared by {@link ConvertibleCollection#getColumnType(int)}
+ */
+public enum ColumnType {
+
+    /**
+     * Values are read by {@link ConvertibleMessage#getElement(String)}
+     */
+    STRING,
+
+    /**
+     * Values are read by {@link TypedConvertibleMessage#getLong(int)} and formatted as by {@link Long#toString(long)}
+     */
+    LONG,
+
+    /**
+     * Values are read by {@link TypedConvertibleMessage#getDouble(int)} and formatted as by
+     * {@link Double#toString(double)}
+     */
+    DOUBLE
+
+}
@@ -0,0 +1,225 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.*;
+
+/**
+ * {@link ConvertibleCollection} storing values column by column. Every column is either an array of values or an
+ * array of codes into a dictionary of distinct values. Arrays are used as given without copying and must not be
+ * modified afterwards.
+ * <p>
+ * Converters recognizing this collection read values by row and column index without any per row objects, others
+ * read {@link #getRecords()}, which creates a lightweight {@link IndexedConvertibleMessage} for every row.
+ */
+public final class ColumnarConvertibleCollection implements ConvertibleCollection {
+
+    private final List<String> headers;
+    private final String[][] values;
+    private final int[][] codes;
+    private final String[][] dictionaries;
+    private final int rowCount;
+    private final Map<String, Integer> columnIndexes;
+    private final List<ConvertibleMessage> records;
+
+    private ColumnarConvertibleCollection(List<String> headers, String[][] values, int[][] codes,
+                                          String[][] dictionaries, int rowCount) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.values = values;
+        this.codes = codes;
+        this.dictionaries = dictionaries;
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>();
+        for (int column = headers.size() - 1; column >= 0; column--) {
+            columnIndexes.put(headers.get(column), column);
+        }
+        this.records = new RowView();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Collection<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return random access view of rows, every row is read through a new lightweight message
+     */
+    @Override
+    public Iterable<ConvertibleMessage> getRecords() {
+        return records;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return headers.size();
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the column in the order of headers
+     * @return       value at the given position, may be null
+     */
+    public String getValue(int row, int column) {
+        int[] columnCodes = codes[column];
+        return columnCodes == null ? values[column][row] : dictionaries[column][columnCodes[row]];
+    }
+
+    /**
+     * @return backing values of the column, null if the column is dictionary encoded
+     */
+    public String[] getColumnValues(int column) {
+        return values[column];
+    }
+
+    /**
+     * @return backing dictionary codes of the column, null if the column is not dictionary encoded
+     */
+    public int[] getColumnCodes(int column) {
+        return codes[column];
+    }
+
+    /**
+     * @return backing dictionary of the column, null if the column is not dictionary encoded
+     */
+    public String[] getColumnDictionary(int column) {
+        return dictionaries[column];
+    }
+
+    private class RowView extends AbstractList<ConvertibleMessage> implements RandomAccess {
+
+        @Override
+        public ConvertibleMessage get(int row) {
+            Objects.checkIndex(row, rowCount);
+            return new RowMessage(row);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private class RowMessage implements IndexedConvertibleMessage {
+
+        private final int row;
+
+        RowMessage(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            Integer column = columnIndexes.get(elementId);
+            return column == null ? null : getValue(row, column);
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            return getValue(row, columnIndex);
+        }
+    }
+
+    public static class Builder {
+
+        private final List<String> headers = new ArrayList<>();
+        private final List<String[]> values = new ArrayList<>();
+        private final List<int[]> codes = new ArrayList<>();
+        private final List<String[]> dictionaries = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds column of plain values
+         *
+         * @param header header of the column
+         * @param values values of the column, one per row
+         * @return       this builder
+         */
+        public Builder column(String header, @NonNull String[] values) {
+            return addColumn(header, values, null, null);
+        }
+
+        /**
+         * Adds dictionary encoded column
+         *
+         * @param header     header of the column
+         * @param codes      indexes into the dictionary, one per row
+         * @param dictionary distinct values of the column
+         * @return           this builder
+         */
+        public Builder column(String header, @NonNull int[] codes, @NonNull String[] dictionary) {
+            return addColumn(header, null, codes, dictionary);
+        }
+
+        /**
+         * Adds column of given values encoded into a dictionary of distinct values, which saves memory and
+         * conversion time for columns with few distinct values
+         *
+         * @param header header of the column
+         * @param values values of the column, one per row
+         * @return       this builder
+         */
+        public Builder dictionaryColumn(String header, @NonNull String[] values) {
+            Map<String, Integer> dictionaryIndexes = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            int[] columnCodes = new int[values.length];
+            for (int row = 0; row < values.length; row++) {
+                String value = values[row];
+                Integer code = dictionaryIndexes.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionaryIndexes.put(value, code);
+                    dictionary.add(value);
+                }
+                columnCodes[row] = code;
+            }
+            return addColumn(header, null, columnCodes, dictionary.toArray(new String[0]));
+        }
+
+        private Builder addColumn(String header, String[] columnValues, int[] columnCodes, String[] dictionary) {
+            headers.add(header);
+            values.add(columnValues);
+            codes.add(columnCodes);
+            dictionaries.add(dictionary);
+            return this;
+        }
+
+        /**
+         * @return collection of added columns
+         *
+         * @throws InvalidCollectionException if columns have different number of rows
+         * @throws InvalidCollectionException if any dictionary code is out of range of its dictionary
+         */
+        public ColumnarConvertibleCollection build() {
+            int rowCount = -1;
+            for (int column = 0; column < headers.size(); column++) {
+                int[] columnCodes = codes.get(column);
+                int columnRows = columnCodes == null ? values.get(column).length : columnCodes.length;
+                if (rowCount >= 0 && columnRows != rowCount) {
+                    throw new InvalidCollectionException("Columns have different number of rows.");
+                }
+                rowCount = columnRows;
+                if (columnCodes != null) {
+                    int dictionarySize = dictionaries.get(column).length;
+                    for (int code : columnCodes) {
+                        if (code < 0 || code >= dictionarySize) {
+                            throw new InvalidCollectionException("Dictionary code is out of range.");
+                        }
+                    }
+                }
+            }
+            return new ColumnarConvertibleCollection(new ArrayList<>(headers), values.toArray(new String[0][]),
+                    codes.toArray(new int[0][]), dictionaries.toArray(new String[0][]), Math.max(rowCount, 0));
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.eagleinvsys.test.converters;
+
+/**
+ * Listener of conversion progress, set by {@link CsvOptions#getConversionListener()}. Methods are called by the thread
+ * writing the output, one at a time even if a conversion writes several files at once, and should return quickly
+ */
+public interface ConversionListener {
+
+    /**
+     * Called after every chunk of encoded records is written
+     *
+     * @param chunkMetrics metrics of the written chunk
+     */
+    default void onChunkWritten(ConversionMetrics chunkMetrics) {
+    }
+
+    /**
+     * Called after the whole conversion result is written
+     *
+     * @param metrics metrics of the conversion
+     */
+    default void onConversionCompleted(ConversionMetrics metrics) {
+    }
+
+    /**
+     * Called when conversion fails, before the exception is rethrown
+     *
+     * @param metrics metrics of everything written before the failure
+     * @param cause   exception the conversion fails with
+     */
+    default void onConversionFailed(ConversionMetrics metrics, Throwable cause) {
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Metrics of a whole conversion or of a single written chunk of it. Time of reading and encoding is estimated from a
+ * sample of records timed on the encoding threads, so for parallel conversions it is the sum over all threads
+ */
+@Value
+public class ConversionMetrics {
+
+    /**
+     * Number of chunks written to the output
+     */
+    long chunks;
+
+    /**
+     * Number of records written, header line is not counted
+     */
+    long rows;
+
+    /**
+     * Number of bytes written, including header line
+     */
+    long bytes;
+
+    /**
+     * Number of cells surrounded by quotes, cells copied from encoded cell cache are not counted
+     */
+    long escapedCells;
+
+    /**
+     * Estimated nanoseconds spent getting values from {@link ConvertibleMessage}
+     */
+    long readNanos;
+
+    /**
+     * Estimated nanoseconds spent escaping and encoding values
+     */
+    long encodeNanos;
+
+    /**
+     * Nanoseconds spent writing to the output
+     */
+    long writeNanos;
+
+    /**
+     * Nanoseconds since the conversion started, for a chunk the same as {@link #getWriteNanos()}
+     */
+    long totalNanos;
+
+}
@@ -0,0 +1,21 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Summary of a completed conversion
+ */
+@Value
+public class ConversionResult {
+
+    /**
+     * Number of written records, header line excluded
+     */
+    long rowsWritten;
+
+    /**
+     * Number of written bytes, header line included
+     */
+    long bytesWritten;
+
+}
@@ -0,0 +1,48 @@
+package org.eagleinvsys.test.converters;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs conversions requested by many tenants, limiting how many of them run at the same time and sharing that
+ * capacity fairly between tenants
+ */
+public interface ConversionService extends AutoCloseable {
+
+    /**
+     * Schedules conversion of given {@link ConvertibleCollection} with {@link Converter}
+     *
+     * @param tenant              tenant requesting the conversion
+     * @param collectionToConvert collection to convert
+     * @param outputStream        output stream to write results to, it is not closed
+     *
+     * @return future completed once the conversion is written, or completed exceptionally with its failure
+     */
+    CompletableFuture<Void> submit(String tenant, ConvertibleCollection collectionToConvert, OutputStream outputStream);
+
+    /**
+     * Schedules conversion of given {@link List<Map>} with {@link StandardConverter}
+     *
+     * @param tenant              tenant requesting the conversion
+     * @param collectionToConvert collection to convert. All maps must have the same set of keys
+     * @param outputStream        output stream to write results to, it is not closed
+     *
+     * @return future completed once the conversion is written, or completed exceptionally with its failure
+     */
+    CompletableFuture<Void> submit(String tenant, List<Map<String, String>> collectionToConvert,
+                                   OutputStream outputStream);
+
+    /**
+     * @return current state and statistics of the service
+     */
+    ConversionServiceStatistics getStatistics();
+
+    /**
+     * Stops accepting conversions and cancels conversions waiting to run, running conversions are completed
+     */
+    @Override
+    void close();
+
+}
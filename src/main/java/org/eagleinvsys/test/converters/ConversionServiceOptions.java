@@ -0,0 +1,39 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of scheduling conversions of many tenants
+ */
+@Builder
+@Getter
+public class ConversionServiceOptions {
+
+    /**
+     * Maximum number of conversions encoding at the same time over all tenants, encoding is CPU bound so it defaults
+     * to the number of cores. Conversions writing to their output streams do not count
+     */
+    @Builder.Default
+    private final int maxConcurrentConversions = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of conversions of a single tenant encoding at the same time, so a tenant with many large
+     * conversions leaves room for others
+     */
+    @Builder.Default
+    private final int maxConcurrentConversionsPerTenant = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Maximum number of conversions of a single tenant waiting to start encoding, further conversions are rejected
+     */
+    @Builder.Default
+    private final int maxQueuedConversionsPerTenant = 1024;
+
+    /**
+     * Whether conversions run on virtual threads when the JDK provides them, platform threads are used otherwise
+     */
+    @Builder.Default
+    private final boolean virtualThreads = true;
+
+}
@@ -0,0 +1,55 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Snapshot of state and statistics of {@link ConversionService}. Percentiles are approximate, with relative error
+ * below 25%
+ */
+@Value
+public class ConversionServiceStatistics {
+
+    /**
+     * Number of conversions waiting to run
+     */
+    int queuedConversions;
+
+    /**
+     * Number of conversions waiting to run by tenant, tenants without waiting conversions are omitted
+     */
+    Map<String, Integer> queuedConversionsByTenant;
+
+    /**
+     * Number of conversions running now
+     */
+    int runningConversions;
+
+    long completedConversions;
+
+    long failedConversions;
+
+    long rejectedConversions;
+
+    /**
+     * Median time conversions waited to run, in nanoseconds
+     */
+    long queueWaitP50Nanos;
+
+    /**
+     * 99th percentile of time conversions waited to run, in nanoseconds
+     */
+    long queueWaitP99Nanos;
+
+    /**
+     * Median time from submitting to finishing conversions, in nanoseconds
+     */
+    long latencyP50Nanos;
+
+    /**
+     * 99th percentile of time from submitting to finishing conversions, in nanoseconds
+     */
+    long latencyP99Nanos;
+
+}
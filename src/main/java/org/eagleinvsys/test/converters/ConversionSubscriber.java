@@ -0,0 +1,17 @@
+package org.eagleinvsys.test.converters;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscriber converting received messages
+ */
+public interface ConversionSubscriber extends Flow.Subscriber<ConvertibleMessage> {
+
+    /**
+     * @return future completed once the publisher completes and everything is written, or exceptionally with the
+     *         publisher's error or the exception of a failed write
+     */
+    CompletableFuture<ConversionResult> getResult();
+
+}
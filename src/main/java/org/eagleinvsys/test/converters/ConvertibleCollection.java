@@ -19,4 +19,15 @@ public interface ConvertibleCollection {
      */
     Iterable<ConvertibleMessage> getRecords();
 
+    /**
+     * Gets type of values of the column at the provided position. Values of numeric columns are read from
+     * {@link TypedConvertibleMessage} records as primitives, any other records are read as strings
+     *
+     * @param columnIndex position of the column in headers
+     * @return type of values of the column, {@link ColumnType#STRING} by default
+     */
+    default ColumnType getColumnType(int columnIndex) {
+        return ColumnType.STRING;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Options of CSV conversion
+ */
+@Builder
+@Getter
+public class CsvOptions {
+
+    /**
+     * Maximum number of distinct values of a single column kept escaped and encoded during a conversion, so repeated
+     * values are only copied. 0 disables the cache, which suits columns of mostly distinct values
+     */
+    @Builder.Default
+    private final int cellCacheCapacity = 0;
+
+    /**
+     * Number of lookups of a column cache after which its hit ratio is checked, repeated for every such window
+     */
+    @Builder.Default
+    private final int cellCacheSampleSize = 4096;
+
+    /**
+     * Minimum hit ratio of a window of lookups, column cache with lower hit ratio is switched off for the rest of the
+     * conversion
+     */
+    @Builder.Default
+    private final double cellCacheMinHitRatio = 0.5;
+
+    /**
+     * Longer values are never cached
+     */
+    @Builder.Default
+    private final int cellCacheMaxValueLength = 256;
+
+    /**
+     * Maximum number of distinct header layouts whose conversion plans, holding validated headers and the encoded
+     * header line, are kept by a converter, so collections of a known layout skip validating and encoding headers.
+     * Plans compiled first are evicted first, 0 disables the cache
+     */
+    @Builder.Default
+    private final int planCacheCapacity = 256;
+
+    /**
+     * Charset of the output. Charsets encoding ASCII characters to sequences of different lengths are not supported,
+     * UTF-16 is written big endian
+     */
+    @Builder.Default
+    private final Charset charset = StandardCharsets.UTF_8;
+
+    /**
+     * Whether the output starts with byte order mark of the charset, which tells spreadsheet applications the charset
+     * of the file
+     */
+    @Builder.Default
+    private final boolean byteOrderMark = false;
+
+    /**
+     * Listener of conversion metrics, null disables collecting them unless JFR events of conversion are recorded
+     */
+    private final ConversionListener conversionListener;
+
+}
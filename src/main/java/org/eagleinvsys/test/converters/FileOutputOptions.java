@@ -0,0 +1,47 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of writing conversion results to a file channel
+ */
+@Builder
+@Getter
+public class FileOutputOptions {
+
+    public enum ForcePolicy {
+        /**
+         * Written data is left to the operating system
+         */
+        NONE,
+        /**
+         * Written data is forced to the storage device once conversion completes
+         */
+        ON_COMPLETION
+    }
+
+    /**
+     * Size of a single direct buffer
+     */
+    @Builder.Default
+    private final int bufferSize = 256 * 1024;
+
+    /**
+     * Number of buffers filled before they are written with a single gathering write
+     */
+    @Builder.Default
+    private final int buffersPerWrite = 4;
+
+    /**
+     * Expected size of the result in bytes, 0 if unknown. If set, the file is extended to this size before writing
+     * and truncated to the actual size afterwards, so the file system does not grow it on every write. Most file
+     * systems create sparse files in this case, it does not reserve disk space
+     */
+    @Builder.Default
+    private final long expectedSize = 0;
+
+    @Builder.Default
+    private final ForcePolicy forcePolicy = ForcePolicy.NONE;
+
+}
@@ -0,0 +1,33 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.zip.Deflater;
+
+/**
+ * Options of compressing conversion results to gzip format
+ */
+@Builder
+@Getter
+public class GzipOptions {
+
+    /**
+     * Number of uncompressed bytes compressed independently into a single gzip member
+     */
+    @Builder.Default
+    private final int blockSize = 128 * 1024;
+
+    /**
+     * Compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    @Builder.Default
+    private final int level = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Maximum number of blocks being compressed or waiting to be written at the same time
+     */
+    @Builder.Default
+    private final int maxBlocksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+}
@@ -0,0 +1,15 @@
+package org.eagleinvsys.test.converters;
+
+public interface IndexedConvertibleMessage extends ConvertibleMessage {
+
+    /**
+     * Gets value of the element at the provided position. Positions follow the iteration order of
+     * {@link ConvertibleCollection#getHeaders()} of the collection this message belongs to, so
+     * {@code getElement(i)} returns the same value as {@code getElement(id)} for the i-th header id
+     *
+     * @param columnIndex position of the element in headers of the collection
+     * @return value of the element at the provided position
+     */
+    String getElement(int columnIndex);
+
+}
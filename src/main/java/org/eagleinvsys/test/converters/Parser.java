@@ -0,0 +1,16 @@
+package org.eagleinvsys.test.converters;
+
+import java.nio.file.Path;
+
+public interface Parser {
+
+    /**
+     * Parses the file at the provided {@link Path} into a {@link ConvertibleCollection}, the first line of the file
+     * holding headers
+     *
+     * @param path path of the file to parse
+     * @return     collection of records of the file
+     */
+    ConvertibleCollection parse(Path path);
+
+}
@@ -0,0 +1,39 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Statistics of cache of conversion plans by header layout accumulated since the converter was created
+ */
+@Value
+public class PlanCacheStatistics {
+
+    /**
+     * Number of conversions which found the plan of their headers in the cache
+     */
+    long hits;
+
+    /**
+     * Number of conversions which compiled the plan of their headers because it was not found in the cache
+     */
+    long misses;
+
+    /**
+     * Number of plans evicted to make room for plans of other headers
+     */
+    long evictions;
+
+    /**
+     * Number of plans kept by the cache now
+     */
+    int size;
+
+    /**
+     * @return share of conversions which found their plan in the cache, 0 if there were no conversions
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.eagleinvsys.test.converters;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.Flow;
+
+public interface ReactiveConverter {
+
+    /**
+     * Creates publisher of the given {@link ConvertibleCollection} converted to chunks of text. Chunks are produced
+     * only on demand, each subscriber iterates records of the collection anew
+     *
+     * @param collectionToConvert collection to convert
+     * @return                    publisher of converted chunks, each chunk belongs to the subscriber
+     */
+    Flow.Publisher<ByteBuffer> publish(ConvertibleCollection collectionToConvert);
+
+    /**
+     * Creates subscriber converting received messages and writing result as a text to the provided
+     * {@link OutputStream}. Messages are requested only when the subscriber is ready to take them
+     *
+     * @param headers      headers of received messages
+     * @param outputStream output stream to write results to, it is not closed
+     * @return             subscriber to subscribe to a publisher of messages
+     */
+    ConversionSubscriber subscriber(Collection<String> headers, OutputStream outputStream);
+
+}
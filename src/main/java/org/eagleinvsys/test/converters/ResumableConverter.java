@@ -0,0 +1,30 @@
+package org.eagleinvsys.test.converters;
+
+import java.nio.file.Path;
+
+public interface ResumableConverter {
+
+    /**
+     * Converts given {@link ConvertibleCollection} and writes result to the file at the provided {@link Path},
+     * periodically writing durable checkpoints. If a checkpoint of an interrupted conversion exists, the file is
+     * truncated to it and records written before it are skipped, so the collection must provide the same records
+     * in the same order again
+     *
+     * @param collectionToConvert collection to convert
+     * @param path                path of the file to write results to
+     * @return                    number of records and bytes written by this call
+     */
+    ConversionResult convertResumable(ConvertibleCollection collectionToConvert, Path path);
+
+    /**
+     * Converts given {@link ConvertibleCollection} and appends result to the file at the provided {@link Path}
+     * without writing headers again, headers are written only if the file is empty or does not exist. Interrupted
+     * appends are resumed from their checkpoint like {@link #convertResumable(ConvertibleCollection, Path)}
+     *
+     * @param collectionToConvert collection to convert
+     * @param path                path of the file to append results to
+     * @return                    number of records and bytes written by this call
+     */
+    ConversionResult append(ConvertibleCollection collectionToConvert, Path path);
+
+}
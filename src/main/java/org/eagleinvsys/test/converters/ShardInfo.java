@@ -0,0 +1,26 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Single file written by {@link ShardedConverter}
+ */
+@Value
+public class ShardInfo {
+
+    /**
+     * Name of the file within the output directory
+     */
+    String fileName;
+
+    /**
+     * Number of records in the file, header line is not counted
+     */
+    long rows;
+
+    /**
+     * Size of the file in bytes
+     */
+    long bytes;
+
+}
@@ -0,0 +1,19 @@
+package org.eagleinvsys.test.converters;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ShardedConverter {
+
+    /**
+     * Converts given {@link ConvertibleCollection} and writes result to several files in the provided directory, every
+     * file starting with the header line. Manifest listing the files is written once all of them are complete
+     *
+     * @param collectionToConvert collection to convert
+     * @param directory           directory to write files to, created if it does not exist
+     *
+     * @return written files in the order of records
+     */
+    List<ShardInfo> convertToShards(ConvertibleCollection collectionToConvert, Path directory);
+
+}
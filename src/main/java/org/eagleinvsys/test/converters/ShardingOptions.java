@@ -0,0 +1,50 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of splitting conversion results into several files
+ */
+@Builder
+@Getter
+public class ShardingOptions {
+
+    /**
+     * Maximum number of records in a single file
+     */
+    @Builder.Default
+    private final long maxRowsPerShard = Long.MAX_VALUE;
+
+    /**
+     * Maximum size of a single file in bytes including header line. File holding a single record may be larger if
+     * the record itself does not fit
+     */
+    @Builder.Default
+    private final long maxBytesPerShard = 256L * 1024 * 1024;
+
+    /**
+     * Prefix of file names, followed by zero padded index of the file and .csv extension
+     */
+    @Builder.Default
+    private final String fileNamePrefix = "part-";
+
+    /**
+     * Name of the file listing all written files with their number of records and size, written last
+     */
+    @Builder.Default
+    private final String manifestFileName = "manifest.csv";
+
+    /**
+     * Maximum number of encoded chunks waiting to be written at the same time, over all files
+     */
+    @Builder.Default
+    private final int maxChunksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Options of writing every single file
+     */
+    @Builder.Default
+    private final FileOutputOptions fileOutputOptions = FileOutputOptions.builder().build();
+
+}
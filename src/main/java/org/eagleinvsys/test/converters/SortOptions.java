@@ -0,0 +1,58 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Options of sorting records by values of their columns before conversion
+ */
+@Builder
+@Getter
+public class SortOptions {
+
+    /**
+     * Headers of columns records are sorted by, compared in the given order. Records of equal values keep their order
+     */
+    @Singular
+    private final List<String> sortColumns;
+
+    /**
+     * Comparator of values of every sort column, values of missing elements are null
+     */
+    @Builder.Default
+    private final Comparator<String> comparator = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    /**
+     * Approximate maximum size of records held in memory, including records of runs being sorted. Records exceeding
+     * the budget are sorted in runs spilled to temporary files, which are merged while converting
+     */
+    @Builder.Default
+    private final long memoryBudget = 256L * 1024 * 1024;
+
+    /**
+     * Maximum number of runs being sorted and spilled by workers at the same time, while the next run is read. Every
+     * run takes an equal share of the memory budget
+     */
+    @Builder.Default
+    private final int maxRunsInFlight = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of spilled runs merged at once, so at most this number of temporary files is open for reading.
+     * More runs are merged in passes writing merged runs back to temporary files. Every run read by a merge takes an
+     * equal share of the memory budget for the rows it decodes at once
+     */
+    @Builder.Default
+    private final int maxMergeFanIn = 64;
+
+    /**
+     * Directory of temporary files of spilled runs, null for the default temporary directory. Files are deleted once
+     * the conversion finishes
+     */
+    private final Path tempDirectory;
+
+}
@@ -0,0 +1,27 @@
+package org.eagleinvsys.test.converters;
+
+import lombok.Value;
+
+/**
+ * Statistics of external sorting accumulated since the converter was created
+ */
+@Value
+public class SortStatistics {
+
+    /**
+     * Number of runs of read records spilled to temporary files
+     */
+    long spilledRuns;
+
+    /**
+     * Number of runs written back to temporary files by merging other runs, because there were more runs than the
+     * maximum merge fan-in
+     */
+    long mergedRuns;
+
+    /**
+     * Maximum number of spilled runs read at the same time by a single conversion
+     */
+    int maxOpenRuns;
+
+}
@@ -1,8 +1,11 @@
 package org.eagleinvsys.test.converters;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface StandardConverter {
 
@@ -14,4 +17,36 @@ public interface StandardConverter {
      */
     void convert(List<Map<String, String>> collectionToConvert, OutputStream outputStream);
 
-}
\ No newline at end of file
+    /**
+     * Converts maps provided by the given {@link Iterator} and outputs result as a text to the provided
+     * {@link OutputStream}. Maps are validated and written one by one, so the collection is never held in memory.
+     * If an invalid map is found, exception is thrown after all maps preceding it have been written.
+     * <p>
+     * Default implementation collects the maps into a list and converts it by {@link #convert(List, OutputStream)},
+     * implementations able to write maps one by one override it
+     *
+     * @param collectionToConvert iterator over maps to convert. All maps must have the same set of keys
+     * @param outputStream        output stream to write results to
+     */
+    default void convertStreaming(Iterator<Map<String, String>> collectionToConvert, OutputStream outputStream) {
+        if (collectionToConvert == null) {
+            convert(null, outputStream);
+            return;
+        }
+        List<Map<String, String>> maps = new ArrayList<>();
+        collectionToConvert.forEachRemaining(maps::add);
+        convert(maps, outputStream);
+    }
+
+    /**
+     * Converts maps of the given {@link Stream} the same way as {@link #convertStreaming(Iterator, OutputStream)}.
+     * The stream is consumed but not closed
+     *
+     * @param collectionToConvert stream of maps to convert. All maps must have the same set of keys
+     * @param outputStream        output stream to write results to
+     */
+    default void convertStreaming(Stream<Map<String, String>> collectionToConvert, OutputStream outputStream) {
+        convertStreaming(collectionToConvert == null ? null : collectionToConvert.iterator(), outputStream);
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.eagleinvsys.test.converters;
+
+/**
+ * Message providing values of numeric columns as primitives, so converters write their digits without creating any
+ * strings. Converters read values of {@link ColumnType#LONG} and {@link ColumnType#DOUBLE} columns by
+ * {@link #getLong(int)} and {@link #getDouble(int)} unless {@link #isNull(int)} returns true, and values of other
+ * columns by {@link #getElement(int)}.
+ * <p>
+ * {@link #getElement(int)} must return the value of numeric columns formatted as by {@link Long#toString(long)} or
+ * {@link Double#toString(double)}, or null, for converters reading only strings.
+ */
+public interface TypedConvertibleMessage extends IndexedConvertibleMessage {
+
+    /**
+     * @param columnIndex position of the element in headers of the collection
+     * @return value of the {@link ColumnType#LONG} element at the provided position
+     */
+    long getLong(int columnIndex);
+
+    /**
+     * @param columnIndex position of the element in headers of the collection
+     * @return value of the {@link ColumnType#DOUBLE} element at the provided position
+     */
+    double getDouble(int columnIndex);
+
+    /**
+     * @param columnIndex position of the element in headers of the collection
+     * @return whether the element at the provided position has no value, in which case it is written as empty field
+     */
+    boolean isNull(int columnIndex);
+
+}
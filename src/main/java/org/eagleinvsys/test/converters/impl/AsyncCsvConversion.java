@@ -0,0 +1,179 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ConversionResult;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single asynchronous conversion. Records are encoded chunk by chunk on the executor into one of two encoders, so the
+ * next chunk is encoded while the previous one is being written. Chunks are written strictly one after another and
+ * nothing blocks waiting for a write, encoding of a chunk is scheduled once the write of its encoder's previous
+ * chunk completes. Encoders are borrowed from the converter and returned once the last chunk is written
+ */
+class AsyncCsvConversion {
+
+    /**
+     * Asynchronous destination of encoded chunks, writes are issued one after another
+     */
+    interface ChunkWriter {
+
+        /**
+         * @param chunk bytes to write completely
+         * @return      future completed once all bytes of the chunk are written
+         */
+        CompletableFuture<Void> write(ByteBuffer chunk);
+
+    }
+
+    private final CsvConverter converter;
+    private final ConversionPlan plan;
+    private final ColumnType[] columnTypes;
+    private final String[] headers;
+    private final Iterator<ConvertibleMessage> records;
+    private final ChunkWriter writer;
+    private final Executor executor;
+    private final CompletableFuture<ConversionResult> result = new CompletableFuture<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final CsvChunkSink handOver = encoder -> {
+        pendingChunk = ByteBuffer.wrap(encoder.array(), 0, encoder.size());
+        encoder.reset();
+    };
+    private final ConversionRecorder recorder;
+    private final CsvEncoder[] encoders = new CsvEncoder[2];
+    private final CompletableFuture<?>[] encoderWrites = new CompletableFuture<?>[]{
+            CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null)};
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    private ByteBuffer pendingChunk;
+    private boolean headersPending = true;
+    private long rows;
+    private long bytes;
+
+    AsyncCsvConversion(CsvConverter converter, ConversionPlan plan, ColumnType[] columnTypes,
+                       Iterator<ConvertibleMessage> records, ChunkWriter writer, Executor executor) {
+        this.converter = converter;
+        this.plan = plan;
+        this.columnTypes = columnTypes;
+        this.headers = plan.headers();
+        this.records = records;
+        this.writer = writer;
+        this.executor = executor;
+        this.recorder = converter.startRecorder(handOver);
+    }
+
+    CompletableFuture<ConversionResult> start() {
+        schedule(0);
+        return result;
+    }
+
+    private void schedule(int slot) {
+        try {
+            executor.execute(() -> encodeChunk(slot));
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void encodeChunk(int slot) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            if (encoders[slot] == null) {
+                encoders[slot] = converter.newEncoder(plan, columnTypes, recorder != null);
+            }
+            CsvEncoder encoder = encoders[slot];
+            encoder.reset();
+            if (headersPending) {
+                encoder.putEncoded(plan.headerLine());
+                headersPending = false;
+            }
+            boolean lastChunk = false;
+            InvalidCollectionException invalidRecord = null;
+            try {
+                while (encoder.size() < CsvConverter.FLUSH_THRESHOLD) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    if (!records.hasNext()) {
+                        lastChunk = true;
+                        break;
+                    }
+                    encoder.encodeRecord(headers, records.next());
+                    rows++;
+                }
+            } catch (InvalidCollectionException e) {
+                // records preceding the invalid one are still written, the same as by the synchronous converter
+                invalidRecord = e;
+                lastChunk = true;
+            }
+            bytes += encoder.size();
+            if (recorder == null) {
+                handOver.write(encoder);
+            } else {
+                recorder.write(encoder);
+            }
+            ByteBuffer chunk = pendingChunk;
+            CompletableFuture<Void> write = lastWrite.thenCompose(ignored -> writer.write(chunk));
+            lastWrite = write;
+            encoderWrites[slot] = write;
+            write.whenComplete((ignored, e) -> {
+                if (e != null) {
+                    fail(e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+            if (invalidRecord != null) {
+                InvalidCollectionException cause = invalidRecord;
+                write.thenRun(() -> {
+                    releaseEncoders();
+                    fail(cause);
+                });
+            } else if (lastChunk) {
+                ConversionResult conversionResult = new ConversionResult(rows, bytes);
+                write.thenRun(() -> {
+                    releaseEncoders();
+                    if (finished.compareAndSet(false, true)) {
+                        if (recorder != null) {
+                            recorder.completed();
+                        }
+                        result.complete(conversionResult);
+                    }
+                });
+            } else {
+                int nextSlot = 1 - slot;
+                encoderWrites[nextSlot].thenRun(() -> schedule(nextSlot));
+            }
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Returns encoders to the converter once all chunks are written, so no encoding or write uses them any more
+     */
+    private void releaseEncoders() {
+        for (CsvEncoder encoder : encoders) {
+            if (encoder != null) {
+                encoder.flushCellCacheStatistics();
+                converter.releaseEncoder(encoder);
+            }
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (finished.compareAndSet(false, true)) {
+            if (recorder != null) {
+                recorder.failed(cause);
+            }
+            result.completeExceptionally(cause);
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.AsyncConverter;
+import org.eagleinvsys.test.converters.ConversionResult;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CSV converter with asynchronous conversion methods. Encoding runs on the configured executor and overlaps with
+ * writing of the previously encoded chunk. Output is exactly the same as of {@link CsvConverter}
+ */
+public class AsyncCsvConverter extends CsvConverter implements AsyncConverter {
+
+    private final Executor executor;
+
+    public AsyncCsvConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor executor to encode records and to perform blocking channel writes on
+     */
+    public AsyncCsvConverter(@NonNull Executor executor) {
+        this(executor, CsvOptions.builder().build());
+    }
+
+    /**
+     * @param executor executor to encode records and to perform blocking channel writes on
+     * @param options  options of conversion, the conversion listener is called by the threads encoding chunks and
+     *                 completing writes, write time of a chunk is the time of handing it over to the channel
+     *
+     * @throws IllegalArgumentException if the charset of options is not supported or plan cache capacity is negative
+     */
+    public AsyncCsvConverter(@NonNull Executor executor, @NonNull CsvOptions options) {
+        super(options);
+        this.executor = executor;
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV asynchronously and writes result to the provided
+     * {@link AsynchronousFileChannel} starting at position 0
+     *
+     * @param collectionToConvert collection to convert to CSV format
+     * @param channel             channel to write CSV conversion result to, it is not closed
+     * @return                    future completed with number of written rows and bytes, or exceptionally with
+     *                            {@link org.eagleinvsys.test.converters.exceptions.InvalidCollectionException} if the
+     *                            collection is invalid or with exception of a failed write
+     *
+     * @throws NullPointerException if collectionToConvert or channel is null
+     */
+    @Override
+    public CompletableFuture<ConversionResult> convertAsync(@NonNull ConvertibleCollection collectionToConvert,
+                                                            @NonNull AsynchronousFileChannel channel) {
+        return convertAsync(collectionToConvert, new AsynchronousFileChunkWriter(channel));
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV asynchronously and writes result to the provided
+     * {@link WritableByteChannel}. Blocking writes run on the configured executor
+     *
+     * @param collectionToConvert collection to convert to CSV format
+     * @param channel             channel to write CSV conversion result to, it is not closed
+     * @return                    future completed with number of written rows and bytes, or exceptionally with
+     *                            {@link org.eagleinvsys.test.converters.exceptions.InvalidCollectionException} if the
+     *                            collection is invalid or with exception of a failed write
+     *
+     * @throws NullPointerException if collectionToConvert or channel is null
+     */
+    @Override
+    public CompletableFuture<ConversionResult> convertAsync(@NonNull ConvertibleCollection collectionToConvert,
+                                                            @NonNull WritableByteChannel channel) {
+        return convertAsync(collectionToConvert, chunk -> CompletableFuture.runAsync(() -> {
+            try {
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor));
+    }
+
+    private CompletableFuture<ConversionResult> convertAsync(ConvertibleCollection collectionToConvert,
+                                                             AsyncCsvConversion.ChunkWriter writer) {
+        ConversionPlan plan;
+        try {
+            plan = plan(collectionToConvert);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return new AsyncCsvConversion(this, plan, columnTypes(collectionToConvert, plan.headers().length),
+                collectionToConvert.getRecords().iterator(), writer, executor).start();
+    }
+
+    /**
+     * Writes chunks one after another to consecutive positions of an {@link AsynchronousFileChannel}
+     */
+    private static class AsynchronousFileChunkWriter implements AsyncCsvConversion.ChunkWriter {
+
+        private final AsynchronousFileChannel channel;
+        private long position;
+
+        AsynchronousFileChunkWriter(AsynchronousFileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public CompletableFuture<Void> write(ByteBuffer chunk) {
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            long chunkPosition = position;
+            position += chunk.remaining();
+            write(chunk, chunkPosition, written);
+            return written;
+        }
+
+        private void write(ByteBuffer chunk, long chunkPosition, CompletableFuture<Void> written) {
+            try {
+                channel.write(chunk, chunkPosition, null, new CompletionHandler<Integer, Void>() {
+                    @Override
+                    public void completed(Integer count, Void attachment) {
+                        if (chunk.hasRemaining()) {
+                            write(chunk, chunkPosition + count, written);
+                        } else {
+                            written.complete(null);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Throwable e, Void attachment) {
+                        written.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                written.completeExceptionally(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,381 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.BinaryColumnarOptions;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts collections to a self describing binary columnar format read by {@link BinaryColumnarReader}. Rows are
+ * buffered into row groups and every column of a row group is written either plain or dictionary encoded, whichever
+ * takes less bytes. Values are written as length prefixed UTF-8, so readers never scan for delimiters or unescape
+ * anything, and null values are kept apart from empty strings.
+ * <p>
+ * Layout of the output, all numbers except dictionary codes are unsigned LEB128 varints:
+ * <pre>
+ * file       = magic "ECOL", version byte 1, column count, header..., row group..., 0
+ * header     = byte length, UTF-8 bytes
+ * row group  = row count (positive), column... (one per header)
+ * column     = encoding byte (0 plain, 1 dictionary), byte length of the body, body
+ * plain      = value... (one per row)
+ * dictionary = dictionary size, value... (one per entry), code... (one per row)
+ * value      = 0 for null, otherwise byte length + 1 followed by UTF-8 bytes
+ * </pre>
+ * Dictionary codes are big endian, 1 byte wide for dictionaries of at most 256 values, 2 bytes for at most 65536
+ * values and 4 bytes otherwise.
+ */
+public class BinaryColumnarConverter implements Converter {
+
+    static final byte[] MAGIC = {'E', 'C', 'O', 'L'};
+    static final int VERSION = 1;
+    static final int PLAIN = 0;
+    static final int DICTIONARY = 1;
+
+    private final BinaryColumnarOptions options;
+
+    public BinaryColumnarConverter() {
+        this(BinaryColumnarOptions.builder().build());
+    }
+
+    /**
+     * @param options options of conversion
+     *
+     * @throws IllegalArgumentException if row group size is not positive or maximum dictionary size is negative
+     */
+    public BinaryColumnarConverter(@NonNull BinaryColumnarOptions options) {
+        if (options.getRowGroupSize() <= 0) {
+            throw new IllegalArgumentException("Row group size must be positive.");
+        }
+        if (options.getMaxDictionarySize() < 0) {
+            throw new IllegalArgumentException("Maximum dictionary size must not be negative.");
+        }
+        this.options = options;
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to binary columnar format and outputs result to the provided
+     * {@link OutputStream}
+     *
+     * @param collectionToConvert collection to convert
+     * @param outputStream        output stream to write conversion result to
+     *
+     * @throws NullPointerException       if collectionToConvert or outputStream is null
+     * @throws InvalidCollectionException if getHeaders() returns null, empty collection or collection with null header
+     * @throws InvalidCollectionException if getRecords() returns null
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written as a
+     *                                    complete file
+     * @throws UncheckedIOException       if writing to the output stream fails
+     */
+    @Override
+    public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull OutputStream outputStream) {
+        CollectionValidation.validate(collectionToConvert);
+        String[] headers = collectionToConvert.getHeaders().toArray(new String[0]);
+        ByteSink output = new ByteSink(64 * 1024);
+        RowGroup rowGroup = new RowGroup(headers.length, options);
+        try {
+            output.putBytes(MAGIC, 0, MAGIC.length);
+            output.putByte(VERSION);
+            output.putVarint(headers.length);
+            for (String header : headers) {
+                byte[] bytes = header.getBytes(StandardCharsets.UTF_8);
+                output.putVarint(bytes.length);
+                output.putBytes(bytes, 0, bytes.length);
+            }
+            if (collectionToConvert instanceof ColumnarConvertibleCollection) {
+                convertColumnar((ColumnarConvertibleCollection) collectionToConvert, rowGroup, output, outputStream);
+            } else {
+                convertRecords(collectionToConvert.getRecords(), headers, rowGroup, output, outputStream);
+            }
+            finish(rowGroup, output, outputStream);
+        } catch (InvalidCollectionException e) {
+            try {
+                finish(rowGroup, output, outputStream);
+            } catch (IOException writeException) {
+                e.addSuppressed(writeException);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void convertRecords(Iterable<ConvertibleMessage> records, String[] headers, RowGroup rowGroup,
+                                       ByteSink output, OutputStream outputStream) throws IOException {
+        for (ConvertibleMessage message : records) {
+            String[] row = rowGroup.nextRow();
+            if (message instanceof IndexedConvertibleMessage) {
+                IndexedConvertibleMessage indexedMessage = (IndexedConvertibleMessage) message;
+                for (int column = 0; column < headers.length; column++) {
+                    row[column] = indexedMessage.getElement(column);
+                }
+            } else {
+                for (int column = 0; column < headers.length; column++) {
+                    row[column] = message.getElement(headers[column]);
+                }
+            }
+            rowGroup.rows++;
+            if (rowGroup.isFull()) {
+                writeRowGroup(rowGroup, output, outputStream);
+            }
+        }
+    }
+
+    private static void convertColumnar(ColumnarConvertibleCollection collectionToConvert, RowGroup rowGroup,
+                                        ByteSink output, OutputStream outputStream) throws IOException {
+        int rows = collectionToConvert.getRowCount();
+        int columns = collectionToConvert.getColumnCount();
+        for (int row = 0; row < rows; row++) {
+            String[] values = rowGroup.nextRow();
+            for (int column = 0; column < columns; column++) {
+                values[column] = collectionToConvert.getValue(row, column);
+            }
+            rowGroup.rows++;
+            if (rowGroup.isFull()) {
+                writeRowGroup(rowGroup, output, outputStream);
+            }
+        }
+    }
+
+    /**
+     * Writes pending rows followed by the end of file marker
+     */
+    private static void finish(RowGroup rowGroup, ByteSink output, OutputStream outputStream) throws IOException {
+        if (rowGroup.rows > 0) {
+            rowGroup.encode(output);
+        }
+        output.putVarint(0);
+        output.writeTo(outputStream);
+    }
+
+    private static void writeRowGroup(RowGroup rowGroup, ByteSink output, OutputStream outputStream) throws IOException {
+        rowGroup.encode(output);
+        output.writeTo(outputStream);
+    }
+
+    /**
+     * Rows buffered until the row group is full, stored row by row and encoded column by column
+     */
+    private static final class RowGroup {
+
+        private final String[][] cells;
+        private final int columns;
+        private final int maxDictionarySize;
+        private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+        private final int[] codes;
+        private final ByteSink entries = new ByteSink(16 * 1024);
+        private final ByteSink body = new ByteSink(64 * 1024);
+        private int[] entryEnds = new int[256];
+        private int rows;
+
+        RowGroup(int columns, BinaryColumnarOptions options) {
+            this.cells = new String[options.getRowGroupSize()][];
+            this.columns = columns;
+            this.maxDictionarySize = options.getMaxDictionarySize();
+            this.codes = new int[options.getRowGroupSize()];
+        }
+
+        String[] nextRow() {
+            String[] row = cells[rows];
+            if (row == null) {
+                row = new String[columns];
+                cells[rows] = row;
+            }
+            return row;
+        }
+
+        boolean isFull() {
+            return rows == cells.length;
+        }
+
+        /**
+         * Writes buffered rows to the output and clears the row group
+         */
+        void encode(ByteSink output) {
+            output.putVarint(rows);
+            for (int column = 0; column < columns; column++) {
+                body.reset();
+                int encoding = encodeColumn(column);
+                output.putByte(encoding);
+                output.putVarint(body.size());
+                output.putBytes(body.buffer, 0, body.size());
+            }
+            for (int row = 0; row < rows; row++) {
+                Arrays.fill(cells[row], null);
+            }
+            rows = 0;
+        }
+
+        /**
+         * Encodes values of the column into the body. Distinct values are encoded once into entries, plain encoding
+         * then copies entry bytes for every row, so neither encoding encodes any value twice
+         *
+         * @return encoding of the column
+         */
+        private int encodeColumn(int column) {
+            dictionaryCodes.clear();
+            entries.reset();
+            for (int row = 0; row < rows; row++) {
+                String value = cells[row][column];
+                Integer code = dictionaryCodes.get(value);
+                if (code == null) {
+                    if (dictionaryCodes.size() == maxDictionarySize) {
+                        encodePlain(column);
+                        return PLAIN;
+                    }
+                    code = dictionaryCodes.size();
+                    dictionaryCodes.put(value, code);
+                    entries.putValue(value);
+                    if (code == entryEnds.length) {
+                        entryEnds = Arrays.copyOf(entryEnds, code * 2);
+                    }
+                    entryEnds[code] = entries.size();
+                }
+                codes[row] = code;
+            }
+            int dictionarySize = dictionaryCodes.size();
+            int codeWidth = codeWidth(dictionarySize);
+            long plainSize = 0;
+            for (int row = 0; row < rows; row++) {
+                int code = codes[row];
+                plainSize += entryEnds[code] - (code == 0 ? 0 : entryEnds[code - 1]);
+            }
+            long dictionaryEncodedSize = ByteSink.varintSize(dictionarySize) + entries.size() + (long) rows * codeWidth;
+            if (plainSize <= dictionaryEncodedSize) {
+                for (int row = 0; row < rows; row++) {
+                    int code = codes[row];
+                    int start = code == 0 ? 0 : entryEnds[code - 1];
+                    body.putBytes(entries.buffer, start, entryEnds[code] - start);
+                }
+                return PLAIN;
+            }
+            body.putVarint(dictionarySize);
+            body.putBytes(entries.buffer, 0, entries.size());
+            for (int row = 0; row < rows; row++) {
+                body.putCode(codes[row], codeWidth);
+            }
+            return DICTIONARY;
+        }
+
+        private void encodePlain(int column) {
+            for (int row = 0; row < rows; row++) {
+                body.putValue(cells[row][column]);
+            }
+        }
+    }
+
+    /**
+     * @return number of bytes of every code of a dictionary of the given size
+     */
+    static int codeWidth(int dictionarySize) {
+        if (dictionarySize <= 1 << 8) {
+            return 1;
+        }
+        return dictionarySize <= 1 << 16 ? 2 : 4;
+    }
+
+    /**
+     * Growable byte array
+     */
+    private static final class ByteSink {
+
+        private byte[] buffer;
+        private int size;
+
+        ByteSink(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(buffer, 0, size);
+            size = 0;
+        }
+
+        void putByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void putBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        void putVarint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void putCode(int code, int width) {
+            ensureCapacity(4);
+            for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (code >>> shift);
+            }
+        }
+
+        /**
+         * Writes nullable value as its UTF-8 byte length plus one followed by the bytes, ASCII values are copied
+         * without creating a byte array
+         */
+        void putValue(String value) {
+            if (value == null) {
+                putByte(0);
+                return;
+            }
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    putVarint(bytes.length + 1);
+                    putBytes(bytes, 0, bytes.length);
+                    return;
+                }
+            }
+            putVarint(length + 1);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        static int varintSize(int value) {
+            int bytes = 1;
+            while ((value & ~0x7F) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+    }
+
+}
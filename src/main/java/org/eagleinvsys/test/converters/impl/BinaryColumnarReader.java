@@ -0,0 +1,231 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming reader of the binary columnar format written by {@link BinaryColumnarConverter}. Headers are read when
+ * the reader is created, rows are read one row group at a time, so memory taken by the reader is bounded by the size
+ * of a row group regardless of the size of the stream.
+ * <p>
+ * Every row group is returned as {@link ColumnarConvertibleCollection}, keeping dictionary encoded columns dictionary
+ * encoded, so each distinct value of such columns is decoded once per row group. Instances are not thread safe.
+ */
+public class BinaryColumnarReader implements Closeable {
+
+    private final InputStream inputStream;
+    private final List<String> headers;
+    private byte[] buffer = new byte[64 * 1024];
+    private boolean finished;
+
+    /**
+     * Reads headers from the provided stream
+     *
+     * @param inputStream stream to read, it is buffered by the reader and closed by {@link #close()}
+     *
+     * @throws NullPointerException       if inputStream is null
+     * @throws InvalidCollectionException if the stream does not start with binary columnar headers
+     * @throws UncheckedIOException       if reading the stream fails
+     */
+    public BinaryColumnarReader(@NonNull InputStream inputStream) {
+        this.inputStream = new BufferedInputStream(inputStream, 8192);
+        try {
+            byte[] magic = readBytes(BinaryColumnarConverter.MAGIC.length);
+            if (!Arrays.equals(magic, BinaryColumnarConverter.MAGIC)) {
+                throw new InvalidCollectionException("Stream is not in binary columnar format.");
+            }
+            int version = readByte();
+            if (version != BinaryColumnarConverter.VERSION) {
+                throw new InvalidCollectionException("Binary columnar format version " + version + " is not supported.");
+            }
+            int columns = readVarint();
+            if (columns == 0) {
+                throw new InvalidCollectionException("Headers are empty.");
+            }
+            List<String> columnHeaders = new ArrayList<>(columns);
+            for (int column = 0; column < columns; column++) {
+                columnHeaders.add(new String(readBytes(readVarint()), StandardCharsets.UTF_8));
+            }
+            this.headers = Collections.unmodifiableList(columnHeaders);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Reads the next row group
+     *
+     * @return rows of the next row group, null if all row groups were read
+     *
+     * @throws InvalidCollectionException if the stream is truncated or malformed
+     * @throws UncheckedIOException       if reading the stream fails
+     */
+    public ColumnarConvertibleCollection nextRowGroup() {
+        if (finished) {
+            return null;
+        }
+        try {
+            int rows = readVarint();
+            if (rows == 0) {
+                finished = true;
+                return null;
+            }
+            ColumnarConvertibleCollection.Builder builder = ColumnarConvertibleCollection.builder();
+            for (String header : headers) {
+                int encoding = readByte();
+                int length = readVarint();
+                if (buffer.length < length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                readFully(buffer, length);
+                ColumnDecoder decoder = new ColumnDecoder(buffer, length);
+                if (encoding == BinaryColumnarConverter.PLAIN) {
+                    builder.column(header, decoder.readValues(rows));
+                } else if (encoding == BinaryColumnarConverter.DICTIONARY) {
+                    String[] dictionary = decoder.readValues(decoder.readVarint());
+                    builder.column(header, decoder.readCodes(rows, BinaryColumnarConverter.codeWidth(dictionary.length)),
+                            dictionary);
+                } else {
+                    throw new InvalidCollectionException("Unknown column encoding " + encoding + ".");
+                }
+                decoder.checkFullyRead();
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readByte() throws IOException {
+        int value = inputStream.read();
+        if (value < 0) {
+            throw new InvalidCollectionException("Stream is truncated.");
+        }
+        return value;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new InvalidCollectionException("Length is out of range.");
+                }
+                return value;
+            }
+        }
+        throw new InvalidCollectionException("Length is out of range.");
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        byte[] bytes = inputStream.readNBytes(length);
+        if (bytes.length < length) {
+            throw new InvalidCollectionException("Stream is truncated.");
+        }
+        return bytes;
+    }
+
+    private void readFully(byte[] target, int length) throws IOException {
+        if (inputStream.readNBytes(target, 0, length) < length) {
+            throw new InvalidCollectionException("Stream is truncated.");
+        }
+    }
+
+    /**
+     * Decodes values of a column held in a byte array
+     */
+    private static final class ColumnDecoder {
+
+        private final byte[] bytes;
+        private final int length;
+        private int position;
+
+        ColumnDecoder(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        String[] readValues(int count) {
+            checkAvailable(count);
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) {
+                int valueLength = readVarint() - 1;
+                if (valueLength >= 0) {
+                    checkAvailable(valueLength);
+                    values[i] = new String(bytes, position, valueLength, StandardCharsets.UTF_8);
+                    position += valueLength;
+                }
+            }
+            return values;
+        }
+
+        int[] readCodes(int count, int width) {
+            checkAvailable((long) count * width);
+            int[] codes = new int[count];
+            for (int i = 0; i < count; i++) {
+                int code = 0;
+                for (int b = 0; b < width; b++) {
+                    code = code << 8 | bytes[position++] & 0xFF;
+                }
+                codes[i] = code;
+            }
+            return codes;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                checkAvailable(1);
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        throw new InvalidCollectionException("Length is out of range.");
+                    }
+                    return value;
+                }
+            }
+            throw new InvalidCollectionException("Length is out of range.");
+        }
+
+        void checkFullyRead() {
+            if (position != length) {
+                throw new InvalidCollectionException("Column length does not match its values.");
+            }
+        }
+
+        private void checkAvailable(long count) {
+            if (count > length - position) {
+                throw new InvalidCollectionException("Column is truncated.");
+            }
+        }
+    }
+
+}
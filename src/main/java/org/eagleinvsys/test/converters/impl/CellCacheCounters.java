@@ -0,0 +1,21 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.CellCacheStatistics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe counters of encoded cell caches of a single column, updated by caches of concurrent conversions
+ */
+final class CellCacheCounters {
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+    final LongAdder disabledConversions = new LongAdder();
+
+    CellCacheStatistics snapshot() {
+        return new CellCacheStatistics(hits.sum(), misses.sum(), evictions.sum(), disabledConversions.sum());
+    }
+
+}
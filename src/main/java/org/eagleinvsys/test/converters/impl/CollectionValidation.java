@@ -0,0 +1,71 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Validation of headers and records of converted collections shared by converters of this package
+ */
+final class CollectionValidation {
+
+    private CollectionValidation() {
+    }
+
+    /**
+     * Validates headers and records of given collection
+     *
+     * @throws InvalidCollectionException if getHeaders() returns null, empty collection or collection with null header
+     * @throws InvalidCollectionException if getRecords() returns null
+     */
+    static void validate(ConvertibleCollection collectionToConvert) {
+        validateHeaders(collectionToConvert.getHeaders());
+        validateRecords(collectionToConvert.getRecords());
+    }
+
+    /**
+     * Validates given headers
+     *
+     * @throws InvalidCollectionException if headers are null or empty
+     * @throws InvalidCollectionException if any header is null
+     */
+    static void validateHeaders(Collection<String> headers) {
+        if (Objects.isNull(headers) || headers.isEmpty()) {
+            throw headersAreNull();
+        }
+        if (headers.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidCollectionException("At least one of the headers is null.");
+        }
+    }
+
+    /**
+     * Checks only that given headers are not null, leaving the rest of validation to the time they are first seen
+     *
+     * @throws InvalidCollectionException if headers are null
+     */
+    static Collection<String> requireHeaders(Collection<String> headers) {
+        if (Objects.isNull(headers)) {
+            throw headersAreNull();
+        }
+        return headers;
+    }
+
+    /**
+     * Validates given records
+     *
+     * @throws InvalidCollectionException if records are null
+     */
+    static void validateRecords(Iterable<ConvertibleMessage> records) {
+        if (Objects.isNull(records)) {
+            throw new InvalidCollectionException("Records are null.");
+        }
+    }
+
+    private static InvalidCollectionException headersAreNull() {
+        return new InvalidCollectionException("Headers are null.");
+    }
+
+}
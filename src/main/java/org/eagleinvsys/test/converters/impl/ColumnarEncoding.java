@@ -0,0 +1,71 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+
+/**
+ * Encodes rows of {@link ColumnarConvertibleCollection} by index straight from its column arrays. Every dictionary
+ * value is escaped and encoded once up front, rows of dictionary encoded columns only copy encoded bytes.
+ * <p>
+ * Instances are immutable once created and can be shared by threads encoding different rows.
+ */
+final class ColumnarEncoding {
+
+    private final String[][] values;
+    private final int[][] codes;
+    private final byte[][][] encodedDictionaries;
+
+    /**
+     * @param collection collection to encode
+     * @param charset    charset to encode dictionary values to
+     */
+    ColumnarEncoding(ColumnarConvertibleCollection collection, CsvCharset charset) {
+        int columns = collection.getColumnCount();
+        this.values = new String[columns][];
+        this.codes = new int[columns][];
+        this.encodedDictionaries = new byte[columns][][];
+        CsvEncoder dictionaryEncoder = new CsvEncoder(1024, charset);
+        for (int column = 0; column < columns; column++) {
+            values[column] = collection.getColumnValues(column);
+            codes[column] = collection.getColumnCodes(column);
+            String[] dictionary = collection.getColumnDictionary(column);
+            if (dictionary != null) {
+                byte[][] encodedDictionary = new byte[dictionary.length][];
+                for (int code = 0; code < dictionary.length; code++) {
+                    dictionaryEncoder.reset();
+                    dictionaryEncoder.encodeCell(dictionary[code]);
+                    encodedDictionary[code] = dictionaryEncoder.toByteArray();
+                }
+                encodedDictionaries[column] = encodedDictionary;
+            }
+        }
+    }
+
+    /**
+     * Encodes given row terminated by line separator
+     */
+    void encodeRow(CsvEncoder encoder, int row) {
+        if (encoder.timesNextRow()) {
+            long start = System.nanoTime();
+            encodeCells(encoder, row);
+            encoder.addSampledEncodeNanos(System.nanoTime() - start);
+        } else {
+            encodeCells(encoder, row);
+        }
+    }
+
+    private void encodeCells(CsvEncoder encoder, int row) {
+        for (int column = 0; column < values.length; column++) {
+            if (column > 0) {
+                encoder.putDelimiter();
+            }
+            int[] columnCodes = codes[column];
+            if (columnCodes == null) {
+                encoder.encodeCell(values[column][row], column);
+            } else {
+                encoder.putEncoded(encodedDictionaries[column][columnCodes[row]]);
+            }
+        }
+        encoder.putLineSeparator();
+    }
+
+}
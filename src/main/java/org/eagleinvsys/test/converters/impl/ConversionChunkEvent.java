@@ -0,0 +1,32 @@
+package org.eagleinvsys.test.converters.impl;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of writing a single chunk of CSV conversion result, its duration is the time of writing
+ */
+@Name("org.eagleinvsys.test.converters.ConversionChunk")
+@Label("CSV Conversion Chunk")
+@Category({"Eagle", "Converters"})
+@StackTrace(false)
+final class ConversionChunkEvent extends Event {
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Escaped Cells")
+    long escapedCells;
+
+    @Label("Read Time")
+    @Timespan
+    long readNanos;
+
+    @Label("Encode Time")
+    @Timespan
+    long encodeNanos;
+
+}
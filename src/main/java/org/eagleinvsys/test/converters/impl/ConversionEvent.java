@@ -0,0 +1,39 @@
+package org.eagleinvsys.test.converters.impl;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of a whole CSV conversion
+ */
+@Name("org.eagleinvsys.test.converters.Conversion")
+@Label("CSV Conversion")
+@Category({"Eagle", "Converters"})
+@StackTrace(false)
+final class ConversionEvent extends Event {
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Escaped Cells")
+    long escapedCells;
+
+    @Label("Read Time")
+    @Timespan
+    long readNanos;
+
+    @Label("Encode Time")
+    @Timespan
+    long encodeNanos;
+
+    @Label("Write Time")
+    @Timespan
+    long writeNanos;
+
+    @Label("Failed")
+    boolean failed;
+
+}
@@ -0,0 +1,60 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.util.List;
+
+/**
+ * Everything a conversion needs to know about a header layout, compiled once per distinct list of headers: validated
+ * headers in the order of columns, the header line escaped and encoded in the charset of the converter together with
+ * its byte order mark, and cell cache counters resolved per column.
+ * <p>
+ * Instances are immutable and shared by concurrent conversions of the same converter.
+ */
+final class ConversionPlan {
+
+    private final List<String> headerList;
+    private final String[] headers;
+    private final byte[] headerLine;
+    private final CellCacheCounters[] cellCacheCounters;
+
+    /**
+     * @param headers           validated headers, not modified afterwards
+     * @param headerLine        encoded header line
+     * @param cellCacheCounters counters of cell caches per column, null if cell caches are disabled
+     */
+    ConversionPlan(String[] headers, byte[] headerLine, CellCacheCounters[] cellCacheCounters) {
+        this.headerList = List.of(headers);
+        this.headers = headers;
+        this.headerLine = headerLine;
+        this.cellCacheCounters = cellCacheCounters;
+    }
+
+    /**
+     * @return headers as an immutable list, the key of the plan in {@link ConversionPlanCache}
+     */
+    List<String> headerList() {
+        return headerList;
+    }
+
+    /**
+     * @return headers in the order of columns, must not be modified
+     */
+    String[] headers() {
+        return headers;
+    }
+
+    /**
+     * @return header line terminated by line separator, preceded by byte order mark if the converter writes it, must
+     * not be modified
+     */
+    byte[] headerLine() {
+        return headerLine;
+    }
+
+    /**
+     * @return counters of cell caches per column, null if cell caches are disabled
+     */
+    CellCacheCounters[] cellCacheCounters() {
+        return cellCacheCounters;
+    }
+
+}
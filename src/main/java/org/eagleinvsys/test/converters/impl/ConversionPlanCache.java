@@ -0,0 +1,78 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.PlanCacheStatistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link ConversionPlan} by list of headers. Once the cache is full, plans compiled first are
+ * evicted first. Concurrent conversions of a layout not cached yet may compile its plan more than once, only one of
+ * the plans is kept.
+ * <p>
+ * Instances are thread safe.
+ */
+final class ConversionPlanCache {
+
+    private final int capacity;
+    private final ConcurrentMap<List<String>, ConversionPlan> plans = new ConcurrentHashMap<>();
+    private final Queue<List<String>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity maximum number of cached plans, 0 disables caching
+     */
+    ConversionPlanCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns plan of given headers, compiling it if it is not cached. Cached plans are only found for headers equal
+     * to headers of a plan compiled before, so they are valid as well
+     *
+     * @param headers  headers of a collection, not null
+     * @param compiler validates headers and compiles their plan
+     */
+    ConversionPlan get(Collection<String> headers, Function<Collection<String>, ConversionPlan> compiler) {
+        List<String> key = headers instanceof List ? (List<String>) headers : new ArrayList<>(headers);
+        ConversionPlan plan = capacity == 0 ? null : plans.get(key);
+        if (plan != null) {
+            hits.increment();
+            return plan;
+        }
+        misses.increment();
+        plan = compiler.apply(headers);
+        if (capacity == 0) {
+            return plan;
+        }
+        ConversionPlan cached = plans.putIfAbsent(plan.headerList(), plan);
+        if (cached != null) {
+            return cached;
+        }
+        insertionOrder.add(plan.headerList());
+        while (plans.size() > capacity) {
+            List<String> eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (plans.remove(eldest) != null) {
+                evictions.increment();
+            }
+        }
+        return plan;
+    }
+
+    PlanCacheStatistics statistics() {
+        return new PlanCacheStatistics(hits.sum(), misses.sum(), evictions.sum(), plans.size());
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ConversionListener;
+import org.eagleinvsys.test.converters.ConversionMetrics;
+
+import java.io.IOException;
+
+/**
+ * Sink collecting metrics of every written chunk from its encoder, reporting them to {@link ConversionListener} and
+ * as JFR events. Recorder is only created when there is a listener or the events are recorded, so conversions
+ * without them pay nothing.
+ * <p>
+ * Chunks written by {@link #write(CsvEncoder)} go to the sink of the recorder one after another. Chunks of
+ * conversions writing several outputs at once go to their own sinks by {@link #write(CsvEncoder, CsvChunkSink)}, their
+ * metrics are added up and reported to the listener one chunk at a time.
+ */
+final class ConversionRecorder implements CsvChunkSink {
+
+    private final CsvChunkSink sink;
+    private final ConversionListener listener;
+    private final ConversionEvent event;
+    private final long startNanos;
+    private long chunks;
+    private long rows;
+    private long bytes;
+    private long escapedCells;
+    private long readNanos;
+    private long encodeNanos;
+    private long writeNanos;
+
+    private ConversionRecorder(CsvChunkSink sink, ConversionListener listener) {
+        this.sink = sink;
+        this.listener = listener;
+        this.event = new ConversionEvent();
+        this.startNanos = System.nanoTime();
+        event.begin();
+    }
+
+    /**
+     * @param sink     sink to write chunks to, null if chunks are only written to sinks of their own
+     * @param listener listener of metrics, may be null
+     *
+     * @return recorder writing to the sink, or null if there is no listener and no JFR event of conversion is enabled
+     */
+    static ConversionRecorder start(CsvChunkSink sink, ConversionListener listener) {
+        if (listener == null && !new ConversionEvent().isEnabled() && !new ConversionChunkEvent().isEnabled()) {
+            return null;
+        }
+        return new ConversionRecorder(sink, listener);
+    }
+
+    @Override
+    public void write(CsvEncoder encoder) throws IOException {
+        write(encoder, sink);
+    }
+
+    /**
+     * Writes chunk to the given sink and records its metrics, may be called by several threads at once
+     *
+     * @param encoder encoder holding the chunk
+     * @param target  sink to write the chunk to
+     *
+     * @throws IOException if writing to the sink fails
+     */
+    void write(CsvEncoder encoder, CsvChunkSink target) throws IOException {
+        int size = encoder.size();
+        ConversionChunkEvent chunkEvent = new ConversionChunkEvent();
+        chunkEvent.begin();
+        long start = System.nanoTime();
+        target.write(encoder);
+        long chunkWriteNanos = System.nanoTime() - start;
+        chunkEvent.end();
+        int chunkRows = encoder.encodedRows();
+        if (size == 0 && chunkRows == 0) {
+            return;
+        }
+        long chunkEscapedCells = encoder.escapedCells();
+        long chunkReadNanos = encoder.readNanos();
+        long chunkEncodeNanos = encoder.encodeNanos();
+        encoder.resetMetrics();
+        if (chunkEvent.shouldCommit()) {
+            chunkEvent.rows = chunkRows;
+            chunkEvent.bytes = size;
+            chunkEvent.escapedCells = chunkEscapedCells;
+            chunkEvent.readNanos = chunkReadNanos;
+            chunkEvent.encodeNanos = chunkEncodeNanos;
+            chunkEvent.commit();
+        }
+        add(chunkRows, size, chunkEscapedCells, chunkReadNanos, chunkEncodeNanos, chunkWriteNanos);
+    }
+
+    private synchronized void add(int chunkRows, int size, long chunkEscapedCells, long chunkReadNanos,
+                                  long chunkEncodeNanos, long chunkWriteNanos) {
+        chunks++;
+        rows += chunkRows;
+        bytes += size;
+        escapedCells += chunkEscapedCells;
+        readNanos += chunkReadNanos;
+        encodeNanos += chunkEncodeNanos;
+        writeNanos += chunkWriteNanos;
+        if (listener != null) {
+            listener.onChunkWritten(new ConversionMetrics(1, chunkRows, size, chunkEscapedCells, chunkReadNanos,
+                    chunkEncodeNanos, chunkWriteNanos, chunkWriteNanos));
+        }
+    }
+
+    /**
+     * Reports metrics of the completed conversion
+     */
+    synchronized void completed() {
+        commitEvent(false);
+        if (listener != null) {
+            listener.onConversionCompleted(metrics());
+        }
+    }
+
+    /**
+     * Reports metrics of everything written before the conversion failed
+     */
+    synchronized void failed(Throwable cause) {
+        commitEvent(true);
+        if (listener != null) {
+            listener.onConversionFailed(metrics(), cause);
+        }
+    }
+
+    private void commitEvent(boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = rows;
+            event.bytes = bytes;
+            event.escapedCells = escapedCells;
+            event.readNanos = readNanos;
+            event.encodeNanos = encodeNanos;
+            event.writeNanos = writeNanos;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private ConversionMetrics metrics() {
+        return new ConversionMetrics(chunks, rows, bytes, escapedCells, readNanos, encodeNanos, writeNanos,
+                System.nanoTime() - startNanos);
+    }
+
+}
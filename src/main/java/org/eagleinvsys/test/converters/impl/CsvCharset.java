@@ -0,0 +1,153 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Charset of CSV output with encoded ASCII characters and byte order mark computed up front. Encoders write CSV
+ * syntax and pure ASCII values as ASCII bytes, which are widened through the table of encoded ASCII characters for
+ * charsets not compatible with ASCII, such as UTF-16.
+ * <p>
+ * Instances are immutable and shared by all encoders of a converter.
+ */
+final class CsvCharset {
+
+    static final CsvCharset UTF_8 = of(StandardCharsets.UTF_8, false);
+
+    private final Charset charset;
+    private final byte[] asciiTable;
+    private final int asciiWidth;
+    private final int asciiValueIndex;
+    private final byte[] byteOrderMark;
+
+    private CsvCharset(Charset charset, byte[] asciiTable, int asciiWidth, int asciiValueIndex, byte[] byteOrderMark) {
+        this.charset = charset;
+        this.asciiTable = asciiTable;
+        this.asciiWidth = asciiWidth;
+        this.asciiValueIndex = asciiValueIndex;
+        this.byteOrderMark = byteOrderMark;
+    }
+
+    /**
+     * @param charset       charset of the output, UTF-16 is written big endian
+     * @param byteOrderMark whether the output starts with byte order mark
+     *
+     * @throws IllegalArgumentException if the charset can not encode, encodes ASCII characters to sequences of
+     *                                  different lengths, or can not encode byte order mark while it is requested
+     */
+    static CsvCharset of(Charset charset, boolean byteOrderMark) {
+        // UTF-16 encoder starts every encoded sequence with its own byte order mark
+        Charset encodingCharset = StandardCharsets.UTF_16.equals(charset) ? StandardCharsets.UTF_16BE : charset;
+        if (!encodingCharset.canEncode()) {
+            throw new IllegalArgumentException("Charset " + charset + " can not encode.");
+        }
+        CharsetEncoder encoder = encodingCharset.newEncoder();
+        byte[][] encodedAscii = new byte[128][];
+        boolean asciiCompatible = true;
+        try {
+            for (char c = 0; c < 128; c++) {
+                encodedAscii[c] = encode(encoder, String.valueOf(c));
+                asciiCompatible &= encodedAscii[c].length == 1 && encodedAscii[c][0] == c;
+                if (encodedAscii[c].length != encodedAscii[0].length) {
+                    throw new IllegalArgumentException("Charset " + charset
+                            + " encodes ASCII characters to sequences of different lengths.");
+                }
+            }
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Charset " + charset + " can not encode ASCII characters.", e);
+        }
+        int asciiWidth = encodedAscii[0].length;
+        byte[] asciiTable = null;
+        int asciiValueIndex = -1;
+        if (!asciiCompatible) {
+            asciiTable = new byte[128 * asciiWidth];
+            for (int c = 0; c < 128; c++) {
+                System.arraycopy(encodedAscii[c], 0, asciiTable, c * asciiWidth, asciiWidth);
+            }
+            asciiValueIndex = valueIndex(encodedAscii);
+        }
+        byte[] encodedByteOrderMark = null;
+        if (byteOrderMark) {
+            try {
+                encodedByteOrderMark = encode(encoder, "\uFEFF");
+            } catch (CharacterCodingException e) {
+                throw new IllegalArgumentException("Charset " + charset + " has no byte order mark.", e);
+            }
+        }
+        return new CsvCharset(encodingCharset, asciiTable, asciiWidth, asciiValueIndex, encodedByteOrderMark);
+    }
+
+    /**
+     * @return index of the byte holding the value of every encoded ASCII character whose other bytes are zero, as in
+     * UTF-16 and UTF-32, -1 if there is no such byte
+     */
+    private static int valueIndex(byte[][] encodedAscii) {
+        for (int index = 0; index < encodedAscii[0].length; index++) {
+            boolean valueIndex = true;
+            for (int c = 0; c < encodedAscii.length && valueIndex; c++) {
+                for (int i = 0; i < encodedAscii[c].length; i++) {
+                    valueIndex &= encodedAscii[c][i] == (i == index ? c : 0);
+                }
+            }
+            if (valueIndex) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] encode(CharsetEncoder encoder, String value) throws CharacterCodingException {
+        ByteBuffer encoded = encoder.reset().encode(CharBuffer.wrap(value));
+        return Arrays.copyOf(encoded.array(), encoded.limit());
+    }
+
+    /**
+     * @return charset values are encoded with
+     */
+    Charset charset() {
+        return charset;
+    }
+
+    /**
+     * @return true if the charset is UTF-8, which encoders encode by their own code without {@link CharsetEncoder}
+     */
+    boolean isUtf8() {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * @return encoded ASCII characters, {@link #asciiWidth()} bytes per character in the order of characters, null
+     * if the charset encodes them as single bytes of the same value
+     */
+    byte[] asciiTable() {
+        return asciiTable;
+    }
+
+    /**
+     * @return number of bytes of every encoded ASCII character
+     */
+    int asciiWidth() {
+        return asciiWidth;
+    }
+
+    /**
+     * @return index of the byte holding the value in every encoded ASCII character with all other bytes zero, -1 if
+     * ASCII characters are encoded otherwise or the charset is compatible with ASCII
+     */
+    int asciiValueIndex() {
+        return asciiValueIndex;
+    }
+
+    /**
+     * @return encoded byte order mark written before headers, null if it is not written
+     */
+    byte[] byteOrderMark() {
+        return byteOrderMark;
+    }
+
+}
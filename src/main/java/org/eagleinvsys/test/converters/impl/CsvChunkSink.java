@@ -0,0 +1,18 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.io.IOException;
+
+/**
+ * Destination of encoded CSV chunks
+ */
+interface CsvChunkSink {
+
+    /**
+     * Writes all bytes held by the given encoder and resets it
+     *
+     * @param encoder encoder holding encoded chunk
+     * @throws IOException if writing fails
+     */
+    void write(CsvEncoder encoder) throws IOException;
+
+}
@@ -1,19 +1,95 @@
 package org.eagleinvsys.test.converters.impl;
 
 import lombok.NonNull;
-import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.CellCacheStatistics;
+import org.eagleinvsys.test.converters.ChannelConverter;
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
 import org.eagleinvsys.test.converters.ConvertibleCollection;
 import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.FileOutputOptions;
+import org.eagleinvsys.test.converters.PlanCacheStatistics;
 import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class CsvConverter implements Converter {
+public class CsvConverter implements ChannelConverter {
 
-    private static final String DELIMITER = ",";
+    static final int FLUSH_THRESHOLD = CsvEncoder.DEFAULT_CAPACITY - 1024;
+
+    // enough idle encoders for every core to convert at the same time
+    static final int MAX_IDLE_ENCODERS = Runtime.getRuntime().availableProcessors();
+
+    private final CsvOptions options;
+    private final CsvCharset charset;
+    private final DirectBufferPool bufferPool;
+    private final ConversionPlanCache planCache;
+    private final ConcurrentMap<String, CellCacheCounters> cellCacheCounters = new ConcurrentHashMap<>();
+    private final Queue<CsvEncoder> idleEncoders = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleEncoderCount = new AtomicInteger();
+
+    public CsvConverter() {
+        this(CsvOptions.builder().build());
+    }
+
+    /**
+     * @param options options of conversion
+     *
+     * @throws IllegalArgumentException if the charset of options is not supported or plan cache capacity is negative
+     */
+    public CsvConverter(@NonNull CsvOptions options) {
+        this(options, DirectBufferPool.getDefault());
+    }
+
+    /**
+     * @param options    options of conversion
+     * @param bufferPool pool of direct buffers used to write to channels and files
+     *
+     * @throws IllegalArgumentException if the charset of options is not supported or plan cache capacity is negative
+     */
+    public CsvConverter(@NonNull CsvOptions options, @NonNull DirectBufferPool bufferPool) {
+        if (options.getPlanCacheCapacity() < 0) {
+            throw new IllegalArgumentException("Plan cache capacity must not be negative.");
+        }
+        this.options = options;
+        this.charset = CsvCharset.of(options.getCharset(), options.isByteOrderMark());
+        this.bufferPool = bufferPool;
+        this.planCache = new ConversionPlanCache(options.getPlanCacheCapacity());
+    }
+
+    /**
+     * @return statistics of encoded cell caches by header, accumulated over all conversions of this converter, empty if
+     * the cache is disabled by {@link CsvOptions#getCellCacheCapacity()}
+     */
+    public Map<String, CellCacheStatistics> getCellCacheStatistics() {
+        Map<String, CellCacheStatistics> statistics = new TreeMap<>();
+        cellCacheCounters.forEach((header, counters) -> statistics.put(header, counters.snapshot()));
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * @return statistics of the cache of conversion plans by header layout, accumulated over all conversions of this
+     * converter
+     */
+    public PlanCacheStatistics getPlanCacheStatistics() {
+        return planCache.statistics();
+    }
 
     /**
      * Converts given {@link ConvertibleCollection} to CSV and outputs result as a text to the provided {@link OutputStream}
@@ -21,70 +97,299 @@ public class CsvConverter implements Converter {
      * @param collectionToConvert   collection to convert to CSV format
      * @param outputStream          output stream to write CSV conversion result as text to
      *
-     * @throws NullPointerException if collectionToConvert or outputStream is null
+     * @throws NullPointerException       if collectionToConvert or outputStream is null
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written
+     * @throws UncheckedIOException       if writing to the output stream fails
      */
     @Override
     public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull OutputStream outputStream) {
-        validateConvertibleCollection(collectionToConvert);
         try {
-            String headersAsString = collectionToConvert.getHeaders().stream()
-                    .map(this::escapeSpecialCharacters)
-                    .collect(Collectors.joining(DELIMITER));
-            outputStream.write(headersAsString.getBytes());
-            outputStream.write("\n".getBytes());
+            convert(collectionToConvert, encoder -> encoder.writeTo(outputStream));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV and writes result to the provided channel through direct
+     * buffers borrowed from {@link DirectBufferPool}, using gathering writes when the channel supports them
+     *
+     * @param collectionToConvert   collection to convert to CSV format
+     * @param channel               channel to write CSV conversion result to, it is not closed
+     *
+     * @throws NullPointerException       if collectionToConvert or channel is null
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written
+     * @throws UncheckedIOException       if writing to the channel fails
+     */
+    @Override
+    public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull WritableByteChannel channel) {
+        try (DirectBufferChannelWriter writer = new DirectBufferChannelWriter(channel, FileOutputOptions.builder().build(),
+                bufferPool)) {
+            convert(collectionToConvert, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV and writes result to the file at the provided path. Existing
+     * file is truncated
+     *
+     * @param collectionToConvert   collection to convert to CSV format
+     * @param path                  path of the file to write CSV conversion result to
+     * @param options               options of writing the file
+     *
+     * @throws NullPointerException       if any argument is null
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written
+     * @throws UncheckedIOException       if opening or writing the file fails
+     */
+    @Override
+    public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull Path path, @NonNull FileOutputOptions options) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DirectBufferChannelWriter writer = new DirectBufferChannelWriter(channel, options, bufferPool)) {
+            convert(collectionToConvert, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV chunks written to the provided sink, reporting metrics to the
+     * conversion listener and JFR if either of them is enabled
+     *
+     * @param collectionToConvert         collection to convert to CSV format
+     * @param sink                        sink to write encoded chunks to
+     *
+     * @throws IOException                if writing to the sink fails
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written
+     */
+    void convert(ConvertibleCollection collectionToConvert, CsvChunkSink sink) throws IOException {
+        ConversionRecorder recorder = startRecorder(sink);
+        if (recorder == null) {
+            convertRecords(collectionToConvert, sink, false);
+            return;
+        }
+        try {
+            convertRecords(collectionToConvert, recorder, true);
+        } catch (IOException | RuntimeException | Error e) {
+            recorder.failed(e);
+            throw e;
+        }
+        recorder.completed();
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV chunks written to the provided sink
+     *
+     * @param collectionToConvert         collection to convert to CSV format
+     * @param sink                        sink to write encoded chunks to
+     * @param timed                       whether encoders measure time of reading and encoding records
+     *
+     * @throws IOException                if writing to the sink fails
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written
+     */
+    void convertRecords(ConvertibleCollection collectionToConvert, CsvChunkSink sink, boolean timed) throws IOException {
+        ConversionPlan plan = plan(collectionToConvert);
+        String[] headers = plan.headers();
+        CsvEncoder encoder = newEncoder(plan, columnTypes(collectionToConvert, headers.length), timed);
+        try {
+            encoder.putEncoded(plan.headerLine());
+            if (collectionToConvert instanceof ColumnarConvertibleCollection) {
+                convertColumnar((ColumnarConvertibleCollection) collectionToConvert, encoder, sink);
+                return;
+            }
             Iterable<ConvertibleMessage> records = collectionToConvert.getRecords();
             for (ConvertibleMessage message :
                     records) {
-                String record = collectionToConvert.getHeaders().stream()
-                        .map(message::getElement)
-                        .map(this::escapeSpecialCharacters)
-                        .collect(Collectors.joining(DELIMITER));
-                outputStream.write(record.getBytes());
-                outputStream.write("\n".getBytes());
+                encoder.encodeRecord(headers, message);
+                if (encoder.size() >= FLUSH_THRESHOLD) {
+                    sink.write(encoder);
+                }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            sink.write(encoder);
+        } catch (InvalidCollectionException e) {
+            writePendingRecords(encoder, sink, e);
+            throw e;
+        } finally {
+            encoder.flushCellCacheStatistics();
+            releaseEncoder(encoder);
         }
     }
 
     /**
-     * Validates given collection
+     * @param sink sink to write chunks to
      *
-     * @param collectionToConvert         collection to convert to CSV format.
+     * @return recorder of metrics of a conversion writing to the sink, null if there is no conversion listener in the
+     * options and no JFR event of conversion is enabled
+     */
+    ConversionRecorder startRecorder(CsvChunkSink sink) {
+        return ConversionRecorder.start(sink, options.getConversionListener());
+    }
+
+    /**
+     * @return pool of direct buffers used to write to channels and files
+     */
+    DirectBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * @return charset of the output
+     */
+    CsvCharset charset() {
+        return charset;
+    }
+
+    /**
+     * Validates given collection and returns plan of its headers, taken from the cache of plans if headers of the same
+     * layout were converted before. Headers are read once
+     *
+     * @param collectionToConvert         collection to convert to CSV format
      *
      * @throws NullPointerException       if collectionToConvert is null
      * @throws InvalidCollectionException if getHeaders() returns null or empty collection
      * @throws InvalidCollectionException if getRecords() returns null
      * @throws InvalidCollectionException if any header is null
      */
-    private void validateConvertibleCollection(@NonNull ConvertibleCollection collectionToConvert) {
-        if (Objects.isNull(collectionToConvert.getHeaders()) || collectionToConvert.getHeaders().isEmpty()) {
-            throw new InvalidCollectionException("Headers are null.");
+    ConversionPlan plan(@NonNull ConvertibleCollection collectionToConvert) {
+        ConversionPlan plan = plan(collectionToConvert.getHeaders());
+        CollectionValidation.validateRecords(collectionToConvert.getRecords());
+        return plan;
+    }
+
+    /**
+     * Validates given headers and returns their plan, taken from the cache of plans if headers of the same layout were
+     * converted before
+     *
+     * @param headers                     headers of converted records
+     *
+     * @throws InvalidCollectionException if headers are null or empty or any header is null
+     */
+    ConversionPlan plan(Collection<String> headers) {
+        return planCache.get(CollectionValidation.requireHeaders(headers), this::compilePlan);
+    }
+
+    /**
+     * Validates given headers and compiles their plan
+     *
+     * @throws InvalidCollectionException if headers are empty or any header is null
+     */
+    private ConversionPlan compilePlan(Collection<String> headers) {
+        CollectionValidation.validateHeaders(headers);
+        String[] headerArray = headers.toArray(new String[0]);
+        CsvEncoder headerEncoder = new CsvEncoder(1024, charset);
+        headerEncoder.encodeHeaders(headerArray);
+        CellCacheCounters[] counters = null;
+        if (options.getCellCacheCapacity() > 0) {
+            counters = new CellCacheCounters[headerArray.length];
+            for (int i = 0; i < headerArray.length; i++) {
+                counters[i] = cellCacheCounters.computeIfAbsent(headerArray[i], header -> new CellCacheCounters());
+            }
         }
-        if (collectionToConvert.getHeaders().stream().anyMatch(Objects::isNull)) {
-            throw new InvalidCollectionException("At least one of the headers is null.");
+        return new ConversionPlan(headerArray, headerEncoder.toByteArray(), counters);
+    }
+
+    /**
+     * Borrows an idle encoder of this converter, or creates one, for records of given plan, with a cache of encoded
+     * cells per column if enabled by options. The encoder should be returned by {@link #releaseEncoder(CsvEncoder)}
+     * once its bytes are written out
+     *
+     * @param plan        plan of headers of encoded records
+     * @param columnTypes types of columns, null if all columns hold strings
+     * @param timed       whether the encoder measures time of reading and encoding records
+     */
+    CsvEncoder newEncoder(ConversionPlan plan, ColumnType[] columnTypes, boolean timed) {
+        CsvEncoder encoder = idleEncoders.poll();
+        if (encoder == null) {
+            encoder = new CsvEncoder(CsvEncoder.DEFAULT_CAPACITY, charset);
+        } else {
+            idleEncoderCount.decrementAndGet();
         }
-        if (Objects.isNull(collectionToConvert.getRecords())) {
-            throw new InvalidCollectionException("Records are null.");
+        encoder.setTimed(timed);
+        encoder.setColumnTypes(columnTypes);
+        CellCacheCounters[] counters = plan.cellCacheCounters();
+        if (counters != null) {
+            EncodedCellCache[] cellCaches = new EncodedCellCache[counters.length];
+            for (int i = 0; i < counters.length; i++) {
+                cellCaches[i] = new EncodedCellCache(options, counters[i]);
+            }
+            encoder.setCellCaches(cellCaches);
         }
+        return encoder;
     }
 
     /**
-     * Fields containing commas or quotes will be surrounded by quotes and quotes will be escaped with double quotes
+     * Returns encoder borrowed by {@link #newEncoder} to idle encoders, unless its buffer grew beyond the default
+     * capacity or enough encoders are idle. The encoder must not be used afterwards
      *
-     * @param data data to escape special characters
-     * @return     data with escaped quotes and commas or empty string if provided data is null
+     * @param encoder encoder to return, its pending bytes are discarded
      */
-    private String escapeSpecialCharacters(String data) {
-        if (Objects.isNull(data)) {
-            return "";
+    void releaseEncoder(CsvEncoder encoder) {
+        encoder.reset();
+        encoder.resetMetrics();
+        encoder.setCellCaches(null);
+        encoder.setColumnTypes(null);
+        if (encoder.capacity() > CsvEncoder.DEFAULT_CAPACITY) {
+            return;
         }
-        String escapedData = data.replaceAll("\\s", " ");
-        if (escapedData.contains(",") || escapedData.contains("\"") || escapedData.contains("'")) {
-            escapedData = escapedData.replace("\"", "\"\"");
-            escapedData = "\"" + escapedData + "\"";
+        if (idleEncoderCount.incrementAndGet() > MAX_IDLE_ENCODERS) {
+            idleEncoderCount.decrementAndGet();
+            return;
+        }
+        idleEncoders.offer(encoder);
+    }
+
+    /**
+     * @return number of idle encoders kept for next conversions
+     */
+    int idleEncoders() {
+        return idleEncoderCount.get();
+    }
+
+    /**
+     * @return types of columns declared by the collection, null if all columns hold strings
+     */
+    static ColumnType[] columnTypes(ConvertibleCollection collectionToConvert, int columns) {
+        ColumnType[] columnTypes = new ColumnType[columns];
+        boolean typed = false;
+        for (int column = 0; column < columns; column++) {
+            ColumnType type = collectionToConvert.getColumnType(column);
+            columnTypes[column] = type == null ? ColumnType.STRING : type;
+            typed |= columnTypes[column] != ColumnType.STRING;
+        }
+        return typed ? columnTypes : null;
+    }
+
+    /**
+     * Converts rows of {@link ColumnarConvertibleCollection} by index without creating any messages
+     */
+    private void convertColumnar(ColumnarConvertibleCollection collectionToConvert, CsvEncoder encoder,
+                                 CsvChunkSink sink) throws IOException {
+        ColumnarEncoding encoding = new ColumnarEncoding(collectionToConvert, charset);
+        int rows = collectionToConvert.getRowCount();
+        for (int row = 0; row < rows; row++) {
+            encoding.encodeRow(encoder, row);
+            if (encoder.size() >= FLUSH_THRESHOLD) {
+                sink.write(encoder);
+            }
+        }
+        sink.write(encoder);
+    }
+
+    /**
+     * Writes records encoded before an invalid record was found, so the output ends right before the invalid record
+     *
+     * @param encoder encoder holding pending records
+     * @param sink    sink to write pending records to
+     * @param cause   exception caused by the invalid record
+     */
+    void writePendingRecords(CsvEncoder encoder, CsvChunkSink sink, InvalidCollectionException cause) {
+        try {
+            sink.write(encoder);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
         }
-        return escapedData;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,755 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.TypedConvertibleMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Encodes CSV cells and records straight into a reusable byte buffer, as UTF-8 unless other charset is given. Escaping
+ * follows the rules of {@link CsvConverter}: whitespace characters are replaced by spaces, and fields containing
+ * commas or quotes are surrounded by quotes with inner double quotes doubled. Null values are encoded as empty fields.
+ * <p>
+ * Pure ASCII values are encoded as ASCII bytes in any charset, widened afterwards for charsets not compatible with
+ * ASCII. Other values are encoded by own code for UTF-8, and by a reused {@link CharsetEncoder} for other charsets,
+ * with unmappable characters replaced by the replacement of the charset as {@link String#getBytes} does.
+ * <p>
+ * Instances are not thread safe and are meant to be reused for the whole conversion.
+ */
+public class CsvEncoder {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    // shorter values are escaped faster by the single pass loop than by copying and scanning words
+    private static final int SWAR_THRESHOLD = 32;
+
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final byte QUOTE = '"';
+    private static final byte SPACE = ' ';
+    private static final byte MALFORMED_REPLACEMENT = '?';
+
+    // only every 16th record is timed when timing is on, its times are multiplied to estimate time of all records
+    private static final int TIMING_SAMPLE_INTERVAL = 16;
+
+    private static final byte PLAIN = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte QUOTING_TRIGGER = 2;
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char c : new char[]{'\t', '\n', '\u000B', '\f', '\r'}) {
+            ASCII_CLASSES[c] = WHITESPACE;
+        }
+        for (char c : new char[]{',', '"', '\''}) {
+            ASCII_CLASSES[c] = QUOTING_TRIGGER;
+        }
+    }
+
+    private final CsvCharset charset;
+    private final byte[] asciiTable;
+    private final int asciiWidth;
+    private final int asciiValueIndex;
+    private final CharsetEncoder charsetEncoder;
+    private byte[] buffer;
+    private int position;
+    private char[] chars = new char[256];
+    private byte[] narrow;
+    private char[] escaped;
+    private CharBuffer escapedView;
+    private ByteBuffer bufferView;
+    private EncodedCellCache[] cellCaches;
+    private ColumnType[] columnTypes;
+    private boolean timed;
+    private String[] values = new String[0];
+    private int rows;
+    private long escapedCells;
+    private long readNanos;
+    private long encodeNanos;
+
+    public CsvEncoder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CsvEncoder(int initialCapacity) {
+        this(initialCapacity, CsvCharset.UTF_8);
+    }
+
+    /**
+     * @param initialCapacity initial size of the buffer
+     * @param charset         charset to encode to
+     */
+    CsvEncoder(int initialCapacity, CsvCharset charset) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+        this.charset = charset;
+        this.asciiTable = charset.asciiTable();
+        this.asciiWidth = charset.asciiWidth();
+        this.asciiValueIndex = charset.asciiValueIndex();
+        this.charsetEncoder = charset.isUtf8() ? null : charset.charset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Encodes header line terminated by line separator, preceded by byte order mark if the charset is configured to
+     * write it
+     *
+     * @param headers headers to encode
+     */
+    public void encodeHeaders(String[] headers) {
+        if (charset.byteOrderMark() != null) {
+            putEncoded(charset.byteOrderMark());
+        }
+        for (int i = 0; i < headers.length; i++) {
+            if (i > 0) {
+                putByte(DELIMITER);
+            }
+            encodeCell(headers[i]);
+        }
+        putByte(LINE_SEPARATOR);
+    }
+
+    /**
+     * Encodes values of the given message in the order of headers, terminated by line separator. Values of
+     * {@link IndexedConvertibleMessage} are read by position
+     *
+     * @param headers headers to get values of
+     * @param message message to encode
+     */
+    public void encodeRecord(String[] headers, ConvertibleMessage message) {
+        if (columnTypes != null && message instanceof TypedConvertibleMessage) {
+            encodeTypedRecord((TypedConvertibleMessage) message);
+            return;
+        }
+        if (timesNextRow()) {
+            rows++;
+            encodeTimedRecord(headers, message);
+            return;
+        }
+        rows++;
+        if (message instanceof IndexedConvertibleMessage) {
+            encodeIndexedRecord(headers.length, (IndexedConvertibleMessage) message);
+            return;
+        }
+        for (int i = 0; i < headers.length; i++) {
+            if (i > 0) {
+                putByte(DELIMITER);
+            }
+            encodeCell(message.getElement(headers[i]), i);
+        }
+        putByte(LINE_SEPARATOR);
+    }
+
+    private void encodeIndexedRecord(int columns, IndexedConvertibleMessage message) {
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                putByte(DELIMITER);
+            }
+            encodeCell(message.getElement(i), i);
+        }
+        putByte(LINE_SEPARATOR);
+    }
+
+    /**
+     * Encodes values of numeric columns by writing their digits directly, values of other columns as strings. Values
+     * are read and encoded together, so time of sample rows is counted as encoding time
+     */
+    private void encodeTypedRecord(TypedConvertibleMessage message) {
+        boolean sampled = timesNextRow();
+        long start = sampled ? System.nanoTime() : 0;
+        rows++;
+        ColumnType[] types = columnTypes;
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                putByte(DELIMITER);
+            }
+            switch (types[i]) {
+                case LONG:
+                    if (!message.isNull(i)) {
+                        encodeLong(message.getLong(i));
+                    }
+                    break;
+                case DOUBLE:
+                    if (!message.isNull(i)) {
+                        encodeDouble(message.getDouble(i));
+                    }
+                    break;
+                default:
+                    encodeCell(message.getElement(i), i);
+            }
+        }
+        putByte(LINE_SEPARATOR);
+        if (sampled) {
+            encodeNanos += (System.nanoTime() - start) * TIMING_SAMPLE_INTERVAL;
+        }
+    }
+
+    /**
+     * Encodes single cell holding digits of the value as by {@link Long#toString(long)}, without any delimiter
+     *
+     * @param value value to encode
+     */
+    public void encodeLong(long value) {
+        ensureCapacity(NumberFormatter.MAX_LENGTH);
+        int start = position;
+        position = NumberFormatter.putLong(buffer, position, value);
+        widenAscii(start);
+    }
+
+    /**
+     * Encodes single cell holding the value as by {@link Double#toString(double)}, without any delimiter
+     *
+     * @param value value to encode
+     */
+    public void encodeDouble(double value) {
+        ensureCapacity(NumberFormatter.MAX_LENGTH);
+        int start = position;
+        position = NumberFormatter.putDouble(buffer, position, value);
+        widenAscii(start);
+    }
+
+    /**
+     * Reads all values of the record before encoding them, so time spent in the message and in encoding is measured
+     * separately
+     */
+    private void encodeTimedRecord(String[] headers, ConvertibleMessage message) {
+        long start = System.nanoTime();
+        int columns = headers.length;
+        if (values.length < columns) {
+            values = new String[columns];
+        }
+        if (message instanceof IndexedConvertibleMessage) {
+            IndexedConvertibleMessage indexedMessage = (IndexedConvertibleMessage) message;
+            for (int i = 0; i < columns; i++) {
+                values[i] = indexedMessage.getElement(i);
+            }
+        } else {
+            for (int i = 0; i < columns; i++) {
+                values[i] = message.getElement(headers[i]);
+            }
+        }
+        long read = System.nanoTime();
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                putByte(DELIMITER);
+            }
+            encodeCell(values[i], i);
+            values[i] = null;
+        }
+        putByte(LINE_SEPARATOR);
+        readNanos += (read - start) * TIMING_SAMPLE_INTERVAL;
+        encodeNanos += (System.nanoTime() - read) * TIMING_SAMPLE_INTERVAL;
+    }
+
+    /**
+     * Encodes single escaped cell of the given column, copying its bytes from the column cache when they are cached
+     */
+    void encodeCell(String data, int column) {
+        EncodedCellCache cache;
+        if (cellCaches == null || data == null || !(cache = cellCaches[column]).accepts(data)) {
+            encodeCell(data);
+            return;
+        }
+        byte[] encoded = cache.lookup(data);
+        if (encoded != null) {
+            putEncoded(encoded);
+            return;
+        }
+        int start = position;
+        encodeCell(data);
+        cache.put(data, buffer, start, position);
+    }
+
+    /**
+     * Encodes single escaped cell without any delimiter. Long pure ASCII values are copied first and then checked for special
+     * characters by {@link SpecialCharacterScanner}, escaping rewrites copied bytes in place only when needed. Other
+     * values are escaped and encoded char by char in a single pass. In charsets other than UTF-8 all pure ASCII values
+     * are copied and checked, other values are escaped first and then encoded by the charset encoder
+     *
+     * @param data data to encode, null is encoded as empty field
+     */
+    public void encodeCell(String data) {
+        if (data == null) {
+            return;
+        }
+        int length = data.length();
+        if (length == 0) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        data.getChars(0, length, chars, 0);
+        // every char takes at most 3 bytes, doubled quote takes 2, plus surrounding quotes
+        ensureCapacity(3 * length + 2);
+        if (charsetEncoder != null) {
+            int start = position;
+            if (encodeAscii(length)) {
+                widenAscii(start);
+            } else {
+                encodeEscapedChars(escape(length));
+            }
+            return;
+        }
+        if (length < SWAR_THRESHOLD || !encodeAscii(length)) {
+            if (!encodeUnquoted(length)) {
+                encodeQuoted(length);
+                escapedCells++;
+            }
+        }
+    }
+
+    /**
+     * Encodes scratch chars if all of them are ASCII. Chars are checked and copied by simple loops the JIT compiler
+     * can vectorize
+     *
+     * @return false if there is non ASCII char, in which case nothing is written
+     */
+    private boolean encodeAscii(int length) {
+        char[] source = chars;
+        byte[] target = buffer;
+        int i = 0;
+        for (int last = length - 8; i <= last; i += 8) {
+            if ((source[i] | source[i + 1] | source[i + 2] | source[i + 3]
+                    | source[i + 4] | source[i + 5] | source[i + 6] | source[i + 7]) >= 0x80) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (source[i] >= 0x80) {
+                return false;
+            }
+        }
+        int start = position;
+        for (int j = 0; j < length; j++) {
+            target[start + j] = (byte) source[j];
+        }
+        int end = start + length;
+        int flags = SpecialCharacterScanner.scan(target, start, end);
+        if (flags == 0) {
+            position = end;
+        } else if ((flags & SpecialCharacterScanner.QUOTING) == 0) {
+            SpecialCharacterScanner.replaceWhitespace(target, start, end);
+            position = end;
+        } else {
+            position = quote(start, end, flags);
+            escapedCells++;
+        }
+        return true;
+    }
+
+    /**
+     * Encodes scratch chars assuming no quoting is needed
+     *
+     * @return false if quoting trigger was found, in which case nothing is written
+     */
+    private boolean encodeUnquoted(int length) {
+        char[] source = chars;
+        byte[] target = buffer;
+        int p = position;
+        for (int i = 0; i < length; i++) {
+            char c = source[i];
+            if (c < 0x80) {
+                byte cls = ASCII_CLASSES[c];
+                if (cls == PLAIN) {
+                    target[p++] = (byte) c;
+                } else if (cls == WHITESPACE) {
+                    target[p++] = SPACE;
+                } else {
+                    return false;
+                }
+            } else {
+                p = encodeNonAscii(source, i, length, target, p);
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(source[i + 1])) {
+                    i++;
+                }
+            }
+        }
+        position = p;
+        return true;
+    }
+
+    private void encodeQuoted(int length) {
+        char[] source = chars;
+        byte[] target = buffer;
+        int p = position;
+        target[p++] = QUOTE;
+        for (int i = 0; i < length; i++) {
+            char c = source[i];
+            if (c < 0x80) {
+                byte cls = ASCII_CLASSES[c];
+                if (cls == WHITESPACE) {
+                    target[p++] = SPACE;
+                } else {
+                    if (c == '"') {
+                        target[p++] = QUOTE;
+                    }
+                    target[p++] = (byte) c;
+                }
+            } else {
+                p = encodeNonAscii(source, i, length, target, p);
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(source[i + 1])) {
+                    i++;
+                }
+            }
+        }
+        target[p++] = QUOTE;
+        position = p;
+    }
+
+    /**
+     * Escapes scratch chars into escaped chars
+     *
+     * @return number of escaped chars
+     */
+    private int escape(int length) {
+        char[] source = chars;
+        boolean quoted = false;
+        for (int i = 0; i < length && !quoted; i++) {
+            char c = source[i];
+            quoted = c < 0x80 && ASCII_CLASSES[c] == QUOTING_TRIGGER;
+        }
+        if (escaped == null || escaped.length < 2 * length + 2) {
+            escaped = new char[Math.max(2 * length + 2, 512)];
+            escapedView = CharBuffer.wrap(escaped);
+        }
+        char[] target = escaped;
+        int p = 0;
+        if (quoted) {
+            target[p++] = QUOTE;
+            escapedCells++;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = source[i];
+            if (c < 0x80 && ASCII_CLASSES[c] == WHITESPACE) {
+                target[p++] = SPACE;
+            } else {
+                if (quoted && c == '"') {
+                    target[p++] = QUOTE;
+                }
+                target[p++] = c;
+            }
+        }
+        if (quoted) {
+            target[p++] = QUOTE;
+        }
+        return p;
+    }
+
+    /**
+     * Encodes given number of escaped chars by the charset encoder, growing the buffer until they fit
+     */
+    private void encodeEscapedChars(int length) {
+        ensureCapacity((int) Math.ceil(length * charsetEncoder.maxBytesPerChar()));
+        while (true) {
+            if (bufferView == null || bufferView.array() != buffer) {
+                bufferView = ByteBuffer.wrap(buffer);
+            }
+            bufferView.limit(buffer.length).position(position);
+            escapedView.limit(length).position(0);
+            charsetEncoder.reset();
+            CoderResult result = charsetEncoder.encode(escapedView, bufferView, true);
+            if (!result.isOverflow()) {
+                result = charsetEncoder.flush(bufferView);
+            }
+            if (!result.isOverflow()) {
+                position = bufferView.position();
+                return;
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    /**
+     * Replaces ASCII bytes written from the given index by their encoding in a charset not compatible with ASCII.
+     * Bytes are copied aside first, so they are widened by a forward loop, which for UTF-16 only interleaves them with
+     * zeros
+     */
+    private void widenAscii(int start) {
+        if (asciiTable == null) {
+            return;
+        }
+        int count = position - start;
+        int width = asciiWidth;
+        if (narrow == null || narrow.length < count) {
+            narrow = new byte[Math.max(count, 256)];
+        }
+        byte[] source = narrow;
+        System.arraycopy(buffer, start, source, 0, count);
+        ensureCapacity(count * (width - 1));
+        byte[] target = buffer;
+        if (width == 2 && asciiValueIndex >= 0) {
+            int value = start + asciiValueIndex;
+            int zero = start + 1 - asciiValueIndex;
+            for (int i = 0; i < count; i++) {
+                target[value + 2 * i] = source[i];
+                target[zero + 2 * i] = 0;
+            }
+        } else {
+            byte[] table = asciiTable;
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(table, source[i] * width, target, start + i * width, width);
+            }
+        }
+        position = start + count * width;
+    }
+
+    /**
+     * Surrounds encoded bytes with quotes, doubling inner quotes and replacing whitespace
+     *
+     * @return position after the closing quote
+     */
+    private int quote(int start, int end, int flags) {
+        byte[] target = buffer;
+        int quotes = 0;
+        for (int i = start; i < end; i++) {
+            quotes += target[i] == QUOTE ? 1 : 0;
+        }
+        int quotedEnd = end + quotes + 2;
+        if (quotes == 0) {
+            System.arraycopy(target, start, target, start + 1, end - start);
+            if ((flags & SpecialCharacterScanner.WHITESPACE) != 0) {
+                SpecialCharacterScanner.replaceWhitespace(target, start + 1, end + 1);
+            }
+        } else {
+            SpecialCharacterScanner.moveEscapingQuotes(target, start, end, quotedEnd - 1);
+        }
+        target[start] = QUOTE;
+        target[quotedEnd - 1] = QUOTE;
+        return quotedEnd;
+    }
+
+    /**
+     * Encodes non ASCII char at given index the same way {@link String#getBytes} does for UTF-8, unpaired surrogates
+     * are replaced by '?'
+     *
+     * @return position after encoded bytes
+     */
+    private static int encodeNonAscii(char[] source, int index, int length, byte[] target, int p) {
+        char c = source[index];
+        if (c < 0x800) {
+            target[p++] = (byte) (0xC0 | (c >> 6));
+            target[p++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(source[index + 1])) {
+                int codePoint = Character.toCodePoint(c, source[index + 1]);
+                target[p++] = (byte) (0xF0 | (codePoint >> 18));
+                target[p++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                target[p++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                target[p++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                target[p++] = MALFORMED_REPLACEMENT;
+            }
+        } else {
+            target[p++] = (byte) (0xE0 | (c >> 12));
+            target[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            target[p++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return p;
+    }
+
+    /**
+     * Puts single delimiter between cells
+     */
+    void putDelimiter() {
+        putByte(DELIMITER);
+    }
+
+    /**
+     * Puts line separator ending a record
+     */
+    void putLineSeparator() {
+        putByte(LINE_SEPARATOR);
+        rows++;
+    }
+
+    /**
+     * Puts cell already encoded by {@link #encodeCell(String)}
+     */
+    void putEncoded(byte[] encodedCell) {
+        putEncoded(encodedCell, 0, encodedCell.length);
+    }
+
+    /**
+     * Sets types of columns of records encoded afterwards, numeric values of {@link TypedConvertibleMessage} records
+     * are encoded without reading them as strings
+     *
+     * @param columnTypes types of columns in the order of headers, null if all columns hold strings
+     */
+    void setColumnTypes(ColumnType[] columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    /**
+     * Sets caches of encoded cells used by records encoded afterwards, one per column
+     */
+    void setCellCaches(EncodedCellCache[] cellCaches) {
+        this.cellCaches = cellCaches;
+    }
+
+    /**
+     * Adds counts of cell caches to statistics of the converter that created them
+     */
+    void flushCellCacheStatistics() {
+        if (cellCaches != null) {
+            for (EncodedCellCache cache : cellCaches) {
+                cache.flush();
+            }
+        }
+    }
+
+    /**
+     * Switches estimating of time spent reading and encoding records, off by default
+     */
+    void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * @return true if the next encoded row is a timing sample
+     */
+    boolean timesNextRow() {
+        return timed && (rows + 1) % TIMING_SAMPLE_INTERVAL == 0;
+    }
+
+    /**
+     * Adds time spent encoding a timing sample row outside of {@link #encodeRecord}
+     */
+    void addSampledEncodeNanos(long nanos) {
+        encodeNanos += nanos * TIMING_SAMPLE_INTERVAL;
+    }
+
+    /**
+     * @return number of records encoded since metrics were last reset
+     */
+    int encodedRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of cells surrounded by quotes since metrics were last reset, cells copied from cell caches are not
+     * counted
+     */
+    long escapedCells() {
+        return escapedCells;
+    }
+
+    /**
+     * @return estimated nanoseconds spent getting values from messages since metrics were last reset, 0 unless timed
+     */
+    long readNanos() {
+        return readNanos;
+    }
+
+    /**
+     * @return estimated nanoseconds spent encoding values since metrics were last reset, 0 unless timed
+     */
+    long encodeNanos() {
+        return encodeNanos;
+    }
+
+    void resetMetrics() {
+        rows = 0;
+        escapedCells = 0;
+        readNanos = 0;
+        encodeNanos = 0;
+    }
+
+    private void putByte(byte b) {
+        if (asciiTable != null) {
+            putEncoded(asciiTable, b * asciiWidth, asciiWidth);
+            return;
+        }
+        ensureCapacity(1);
+        buffer[position++] = b;
+    }
+
+    private void putEncoded(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * @return encoded line separator ending every record
+     */
+    byte[] lineSeparator() {
+        return asciiTable == null
+                ? new byte[]{LINE_SEPARATOR}
+                : Arrays.copyOfRange(asciiTable, LINE_SEPARATOR * asciiWidth, (LINE_SEPARATOR + 1) * asciiWidth);
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        int required = position + additionalBytes;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    /**
+     * @return number of encoded bytes not yet written out
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Writes all encoded bytes to the provided {@link OutputStream} and resets this encoder
+     *
+     * @param outputStream output stream to write encoded bytes to
+     * @throws IOException if writing to the output stream fails
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * @return size of the internal buffer
+     */
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return internal buffer holding {@link #size()} encoded bytes from index 0, valid until next modification
+     */
+    byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * @return copy of encoded bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Discards encoded bytes following the given size
+     *
+     * @param size number of encoded bytes to keep, not greater than {@link #size()}
+     */
+    void truncate(int size) {
+        position = size;
+    }
+
+    /**
+     * Discards all encoded bytes
+     */
+    public void reset() {
+        position = 0;
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of CSV chunks of a collection. Every subscription iterates records anew and encodes chunks on the
+ * executor only when they are requested, so no more than one chunk per subscription is held in memory by the
+ * publisher. Signals of a subscription are emitted by one drain loop at a time. Every subscription borrows an encoder
+ * from the converter and returns it once the subscription is done
+ */
+class CsvPublisher implements Flow.Publisher<ByteBuffer> {
+
+    private final CsvConverter converter;
+    private final ConversionPlan plan;
+    private final ColumnType[] columnTypes;
+    private final String[] headers;
+    private final ConvertibleCollection collection;
+    private final Executor executor;
+
+    CsvPublisher(CsvConverter converter, ConversionPlan plan, ColumnType[] columnTypes, ConvertibleCollection collection,
+                 Executor executor) {
+        this.converter = converter;
+        this.plan = plan;
+        this.columnTypes = columnTypes;
+        this.headers = plan.headers();
+        this.collection = collection;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(@NonNull Flow.Subscriber<? super ByteBuffer> subscriber) {
+        ChunkSubscription subscription = new ChunkSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class ChunkSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final CsvChunkSink emitter = encoder -> {
+            ByteBuffer chunk = ByteBuffer.wrap(encoder.toByteArray());
+            encoder.reset();
+            emit(chunk);
+        };
+        private final ConversionRecorder recorder = converter.startRecorder(emitter);
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean invalidRequest;
+        private Iterator<ConvertibleMessage> records;
+        private CsvEncoder encoder;
+        private boolean headersEncoded;
+        private RuntimeException failure;
+        private boolean done;
+
+        ChunkSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = true;
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                long requested = demand.get();
+                long emitted = 0;
+                while (!done) {
+                    if (cancelled) {
+                        done = true;
+                        if (recorder != null) {
+                            recorder.failed(new CancellationException("Subscription is cancelled."));
+                        }
+                    } else if (invalidRequest) {
+                        terminate(new IllegalArgumentException("Number of requested chunks must be positive."));
+                    } else if (failure != null) {
+                        terminate(failure);
+                    } else if (headersEncoded && !hasNextRecord()) {
+                        if (failure == null) {
+                            done = true;
+                            releaseEncoder();
+                            if (recorder != null) {
+                                recorder.completed();
+                            }
+                            subscriber.onComplete();
+                        }
+                    } else if (emitted == requested) {
+                        break;
+                    } else if (nextChunk()) {
+                        emitted++;
+                    }
+                }
+                if (done) {
+                    releaseEncoder();
+                }
+                if (emitted > 0) {
+                    demand.addAndGet(-emitted);
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean hasNextRecord() {
+            try {
+                if (records == null) {
+                    records = collection.getRecords().iterator();
+                }
+                return records.hasNext();
+            } catch (RuntimeException e) {
+                failure = e;
+                return false;
+            }
+        }
+
+        /**
+         * Encodes and emits next chunk, a failing record ends the chunk right before it and is signalled after the
+         * chunk
+         *
+         * @return false if the chunk is empty and nothing was emitted
+         */
+        private boolean nextChunk() {
+            if (encoder == null) {
+                encoder = converter.newEncoder(plan, columnTypes, recorder != null);
+            }
+            encoder.reset();
+            if (!headersEncoded) {
+                encoder.putEncoded(plan.headerLine());
+                headersEncoded = true;
+            }
+            int recordStart = encoder.size();
+            try {
+                while (encoder.size() < CsvConverter.FLUSH_THRESHOLD && hasNextRecord()) {
+                    recordStart = encoder.size();
+                    encoder.encodeRecord(headers, records.next());
+                }
+            } catch (RuntimeException e) {
+                encoder.truncate(recordStart);
+                failure = e;
+            }
+            if (encoder.size() == 0) {
+                return false;
+            }
+            try {
+                if (recorder == null) {
+                    emitter.write(encoder);
+                } else {
+                    recorder.write(encoder);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+
+        private void releaseEncoder() {
+            if (encoder != null) {
+                encoder.flushCellCacheStatistics();
+                converter.releaseEncoder(encoder);
+                encoder = null;
+            }
+        }
+
+        private void emit(ByteBuffer chunk) {
+            try {
+                subscriber.onNext(chunk);
+            } catch (RuntimeException e) {
+                // subscriber violated the specification, it is considered cancelled
+                done = true;
+            }
+        }
+
+        private void terminate(Throwable cause) {
+            done = true;
+            releaseEncoder();
+            if (recorder != null) {
+                recorder.failed(cause);
+            }
+            subscriber.onError(cause);
+        }
+    }
+
+}
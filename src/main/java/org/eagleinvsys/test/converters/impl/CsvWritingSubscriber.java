@@ -0,0 +1,159 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ConversionResult;
+import org.eagleinvsys.test.converters.ConversionSubscriber;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscriber encoding received messages to CSV. Demand is signalled only after all previously requested messages are
+ * received, for as many messages as fit into the free space of the encoder at the average record size seen so far.
+ * The encoder is written to the sink when there is no room for another record. The encoder is borrowed from the
+ * converter when subscribed and returned once the result is completed
+ */
+class CsvWritingSubscriber implements ConversionSubscriber {
+
+    private static final int INITIAL_REQUEST = 16;
+
+    private final CsvConverter converter;
+    private final ConversionPlan plan;
+    private final String[] headers;
+    private final CsvChunkSink sink;
+    private final ConversionRecorder recorder;
+    private CsvEncoder encoder;
+    private final CompletableFuture<ConversionResult> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private long outstanding;
+    private long rows;
+    private long writtenBytes;
+    private boolean done;
+
+    /**
+     * @param converter converter to borrow the encoder from and to report metrics of
+     * @param plan      plan of headers of received messages
+     * @param sink      sink to write encoded records to
+     */
+    CsvWritingSubscriber(CsvConverter converter, ConversionPlan plan, CsvChunkSink sink) {
+        this.converter = converter;
+        this.plan = plan;
+        this.headers = plan.headers();
+        this.recorder = converter.startRecorder(sink);
+        this.sink = recorder == null ? sink : recorder;
+    }
+
+    @Override
+    public void onSubscribe(@NonNull Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        encoder = converter.newEncoder(plan, null, recorder != null);
+        encoder.putEncoded(plan.headerLine());
+        requestMore();
+    }
+
+    @Override
+    public void onNext(@NonNull ConvertibleMessage message) {
+        if (done) {
+            return;
+        }
+        int recordStart = encoder.size();
+        try {
+            encoder.encodeRecord(headers, message);
+        } catch (RuntimeException e) {
+            encoder.truncate(recordStart);
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+        rows++;
+        if (--outstanding == 0) {
+            requestMore();
+        }
+    }
+
+    @Override
+    public void onError(@NonNull Throwable throwable) {
+        if (!done) {
+            fail(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        done = true;
+        releaseEncoder();
+        if (recorder != null) {
+            recorder.completed();
+        }
+        result.complete(new ConversionResult(rows, writtenBytes));
+    }
+
+    @Override
+    public CompletableFuture<ConversionResult> getResult() {
+        return result;
+    }
+
+    private void requestMore() {
+        long averageRecordSize = rows == 0 ? 0 : Math.max(1, (writtenBytes + encoder.size()) / rows);
+        if (CsvConverter.FLUSH_THRESHOLD - encoder.size() < averageRecordSize) {
+            try {
+                write();
+            } catch (IOException e) {
+                subscription.cancel();
+                fail(e);
+                return;
+            }
+        }
+        int room = CsvConverter.FLUSH_THRESHOLD - encoder.size();
+        outstanding = rows == 0 ? INITIAL_REQUEST : Math.max(1, room / averageRecordSize);
+        subscription.request(outstanding);
+    }
+
+    private void write() throws IOException {
+        writtenBytes += encoder.size();
+        sink.write(encoder);
+    }
+
+    /**
+     * Writes records received so far and completes the result exceptionally
+     */
+    private void fail(Throwable cause) {
+        done = true;
+        if (encoder != null && encoder.size() > 0 && !(cause instanceof IOException)) {
+            try {
+                write();
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        releaseEncoder();
+        if (recorder != null) {
+            recorder.failed(cause);
+        }
+        result.completeExceptionally(cause);
+    }
+
+    private void releaseEncoder() {
+        if (encoder != null) {
+            encoder.flushCellCacheStatistics();
+            converter.releaseEncoder(encoder);
+            encoder = null;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.FileOutputOptions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Copies encoded chunks into direct buffers and writes them to a channel several buffers at a time. Direct buffers
+ * are borrowed from {@link DirectBufferPool} and returned on close, so conversions do not allocate them repeatedly.
+ * Closing the writer writes remaining data and applies {@link FileOutputOptions}, the channel itself is not closed
+ */
+class DirectBufferChannelWriter implements CsvChunkSink, Closeable {
+
+    private final WritableByteChannel channel;
+    private final DirectBufferPool pool;
+    private final FileOutputOptions options;
+    private final ByteBuffer[] buffers;
+    private int current;
+
+    DirectBufferChannelWriter(WritableByteChannel channel, FileOutputOptions options, DirectBufferPool pool)
+            throws IOException {
+        this.channel = channel;
+        this.options = options;
+        this.pool = pool;
+        this.buffers = new ByteBuffer[Math.max(options.getBuffersPerWrite(), 1)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(options.getBufferSize());
+        }
+        if (options.getExpectedSize() > 0 && channel instanceof FileChannel) {
+            FileChannel fileChannel = (FileChannel) channel;
+            try {
+                fileChannel.write(ByteBuffer.wrap(new byte[1]), fileChannel.position() + options.getExpectedSize() - 1);
+            } catch (IOException e) {
+                releaseBuffers();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void write(CsvEncoder encoder) throws IOException {
+        byte[] bytes = encoder.array();
+        int offset = 0;
+        int size = encoder.size();
+        while (offset < size) {
+            ByteBuffer buffer = buffers[current];
+            int length = Math.min(buffer.remaining(), size - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+            if (!buffer.hasRemaining() && ++current == buffers.length) {
+                writeBuffers();
+            }
+        }
+        encoder.reset();
+    }
+
+    /**
+     * Writes all buffered data to the channel
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        if (current > 0 || buffers[0].position() > 0) {
+            writeBuffers();
+        }
+    }
+
+    private void writeBuffers() throws IOException {
+        int count = current < buffers.length && buffers[current].position() > 0 ? current + 1 : current;
+        for (int i = 0; i < count; i++) {
+            buffers[i].flip();
+        }
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+            while (buffers[count - 1].hasRemaining()) {
+                gatheringChannel.write(buffers, 0, count);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                while (buffers[i].hasRemaining()) {
+                    channel.write(buffers[i]);
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            buffers[i].clear();
+        }
+        current = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffers[0] == null) {
+            return;
+        }
+        try {
+            flush();
+            if (channel instanceof FileChannel) {
+                FileChannel fileChannel = (FileChannel) channel;
+                if (options.getExpectedSize() > 0) {
+                    fileChannel.truncate(fileChannel.position());
+                }
+                if (options.getForcePolicy() == FileOutputOptions.ForcePolicy.ON_COMPLETION) {
+                    fileChannel.force(true);
+                }
+            }
+        } finally {
+            releaseBuffers();
+        }
+    }
+
+    private void releaseBuffers() {
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] != null) {
+                pool.release(buffers[i]);
+                buffers[i] = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.BufferPoolOptions;
+import org.eagleinvsys.test.converters.BufferPoolStatistics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of direct buffers of power of two sizes from 4 KB to 16 MB, larger buffers are allocated every time. Every
+ * platform thread keeps a few idle buffers for itself, others are shared by all threads in a stack per size, so
+ * recently used buffers are reused first. A thread keeps only buffers it borrowed itself, buffers passed to another
+ * thread and released there go to the shared stacks. Virtual threads are short-lived and many, so they use the shared
+ * stacks only. Total size of idle buffers of both tiers is limited, idle buffers of a finished thread are released
+ * together with the thread.
+ * <p>
+ * Instances are thread safe.
+ */
+public class DirectBufferPool {
+
+    private static final int MIN_SIZE_SHIFT = 12;
+    private static final int MAX_SIZE_SHIFT = 24;
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final MethodHandle IS_VIRTUAL = isVirtualMethod();
+
+    private static final DirectBufferPool DEFAULT = new DirectBufferPool(BufferPoolOptions.builder().build());
+
+    private final long maxPooledBytes;
+    private final int threadLocalBuffers;
+    private final boolean leakDetection;
+    private final List<ConcurrentLinkedDeque<ByteBuffer>> globalBuffers = new ArrayList<>();
+    private final ThreadLocal<LocalBuffers> localBuffers = ThreadLocal.withInitial(this::newLocalBuffers);
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final LongAdder threadLocalHits = new LongAdder();
+    private final LongAdder globalHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final LongAdder borrowedBuffers = new LongAdder();
+    private final Map<ByteBuffer, Exception> borrowedOrigins = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * @param options options of the pool
+     *
+     * @throws IllegalArgumentException if maximum pooled bytes or number of thread local buffers is negative
+     */
+    public DirectBufferPool(@NonNull BufferPoolOptions options) {
+        if (options.getMaxPooledBytes() < 0 || options.getThreadLocalBuffers() < 0) {
+            throw new IllegalArgumentException("Maximum pooled bytes and thread local buffers must not be negative.");
+        }
+        this.maxPooledBytes = options.getMaxPooledBytes();
+        this.threadLocalBuffers = options.getThreadLocalBuffers();
+        this.leakDetection = options.isLeakDetection();
+        for (int shift = MIN_SIZE_SHIFT; shift <= MAX_SIZE_SHIFT; shift++) {
+            globalBuffers.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    /**
+     * @return pool shared by converters created without a pool of their own
+     */
+    public static DirectBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Borrows a cleared direct buffer, it should be returned by {@link #release(ByteBuffer)} once not used
+     *
+     * @param size minimum capacity of the buffer, the capacity is rounded up to a power of two
+     *
+     * @throws IllegalArgumentException if size is not positive
+     */
+    public ByteBuffer acquire(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+        int shift = sizeShift(size);
+        ByteBuffer buffer = null;
+        LocalBuffers local = shift <= MAX_SIZE_SHIFT ? localBuffers() : null;
+        if (shift <= MAX_SIZE_SHIFT) {
+            buffer = local != null ? local.poll(shift) : null;
+            if (buffer != null) {
+                pooledBytes.addAndGet(-buffer.capacity());
+                threadLocalHits.increment();
+            } else {
+                buffer = globalBuffers.get(shift - MIN_SIZE_SHIFT).pollFirst();
+                if (buffer != null) {
+                    pooledBytes.addAndGet(-buffer.capacity());
+                    globalHits.increment();
+                }
+            }
+        }
+        if (buffer == null) {
+            misses.increment();
+            buffer = ByteBuffer.allocateDirect(shift <= MAX_SIZE_SHIFT ? 1 << shift : size);
+        }
+        if (local != null) {
+            local.borrowed(buffer);
+        }
+        borrowedBuffers.increment();
+        if (leakDetection) {
+            borrowedOrigins.put(buffer, new Exception("Buffer of " + buffer.capacity() + " bytes borrowed here."));
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns borrowed buffer to the pool, it must not be used afterwards
+     *
+     * @param buffer buffer borrowed from this pool
+     *
+     * @throws IllegalStateException if leak detection is on and the buffer is not borrowed from this pool
+     */
+    public void release(@NonNull ByteBuffer buffer) {
+        if (leakDetection && borrowedOrigins.remove(buffer) == null) {
+            throw new IllegalStateException("Buffer is not borrowed from this pool or is released twice.");
+        }
+        borrowedBuffers.decrement();
+        int capacity = buffer.capacity();
+        int shift = sizeShift(capacity);
+        LocalBuffers local = shift <= MAX_SIZE_SHIFT ? localBuffers() : null;
+        boolean borrowedHere = local != null && local.returned(buffer);
+        if (shift > MAX_SIZE_SHIFT || 1 << shift != capacity || !reserve(capacity)) {
+            drops.increment();
+            return;
+        }
+        buffer.clear();
+        if (!borrowedHere || !local.offer(buffer, shift)) {
+            globalBuffers.get(shift - MIN_SIZE_SHIFT).offerFirst(buffer);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if leak detection is on and any buffer is borrowed, the place where one of them
+     *                               was borrowed is the cause
+     */
+    public void checkNoLeaks() {
+        synchronized (borrowedOrigins) {
+            if (!borrowedOrigins.isEmpty()) {
+                throw new IllegalStateException(borrowedOrigins.size() + " buffers are not returned to the pool.",
+                        borrowedOrigins.values().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * @return statistics of the pool since it was created
+     */
+    public BufferPoolStatistics getStatistics() {
+        return new BufferPoolStatistics(threadLocalHits.sum(), globalHits.sum(), misses.sum(), drops.sum(),
+                pooledBytes.get(), borrowedBuffers.sum());
+    }
+
+    private boolean reserve(int capacity) {
+        long current;
+        do {
+            current = pooledBytes.get();
+            if (current + capacity > maxPooledBytes) {
+                return false;
+            }
+        } while (!pooledBytes.compareAndSet(current, current + capacity));
+        return true;
+    }
+
+    private static int sizeShift(int size) {
+        return Math.max(MIN_SIZE_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * @return idle buffers of the current thread, null if the thread keeps none
+     */
+    private LocalBuffers localBuffers() {
+        if (threadLocalBuffers == 0 || isVirtual(Thread.currentThread())) {
+            return null;
+        }
+        return localBuffers.get();
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return handle of Thread.isVirtual(), null if the JDK does not provide virtual threads
+     */
+    private static MethodHandle isVirtualMethod() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+                    MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private LocalBuffers newLocalBuffers() {
+        LocalBuffers buffers = new LocalBuffers(threadLocalBuffers);
+        AtomicLong heldBytes = buffers.heldBytes;
+        CLEANER.register(buffers, () -> pooledBytes.addAndGet(-heldBytes.get()));
+        return buffers;
+    }
+
+    /**
+     * Idle buffers of a single thread, most recently returned last, and up to twice as many buffers recently borrowed
+     * by the thread. Held bytes are only read by the cleaner once the thread is gone
+     */
+    private static final class LocalBuffers {
+
+        private final ByteBuffer[] buffers;
+        private final int[] shifts;
+        private final ByteBuffer[] borrowed;
+        private final AtomicLong heldBytes = new AtomicLong();
+        private int size;
+        private int nextBorrowed;
+
+        LocalBuffers(int capacity) {
+            this.buffers = new ByteBuffer[capacity];
+            this.shifts = new int[capacity];
+            this.borrowed = new ByteBuffer[2 * capacity];
+        }
+
+        /**
+         * Remembers buffer borrowed by the thread, replacing the oldest one remembered, which may have been released
+         * by another thread
+         */
+        void borrowed(ByteBuffer buffer) {
+            borrowed[nextBorrowed] = buffer;
+            nextBorrowed = (nextBorrowed + 1) % borrowed.length;
+        }
+
+        /**
+         * @return true if the buffer is one of the buffers recently borrowed by the thread, which forgets it
+         */
+        boolean returned(ByteBuffer buffer) {
+            for (int i = 0; i < borrowed.length; i++) {
+                if (borrowed[i] == buffer) {
+                    borrowed[i] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ByteBuffer poll(int shift) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (shifts[i] == shift) {
+                    ByteBuffer buffer = buffers[i];
+                    System.arraycopy(buffers, i + 1, buffers, i, size - i - 1);
+                    System.arraycopy(shifts, i + 1, shifts, i, size - i - 1);
+                    buffers[--size] = null;
+                    heldBytes.lazySet(heldBytes.get() - buffer.capacity());
+                    return buffer;
+                }
+            }
+            return null;
+        }
+
+        boolean offer(ByteBuffer buffer, int shift) {
+            if (size == buffers.length) {
+                return false;
+            }
+            buffers[size] = buffer;
+            shifts[size++] = shift;
+            heldBytes.lazySet(heldBytes.get() + buffer.capacity());
+            return true;
+        }
+    }
+
+}
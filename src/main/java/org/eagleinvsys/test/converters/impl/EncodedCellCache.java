@@ -0,0 +1,131 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.CsvOptions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of escaped and encoded values of a single column with clock eviction: every entry has a reference
+ * bit set on hit, the clock hand clears set bits and evicts the first entry without it. Hit ratio is checked after
+ * every window of lookups, and the cache switches itself off for good if it is below the minimum. Counts are kept
+ * locally and added to the shared {@link CellCacheCounters} by {@link #flush()}.
+ * <p>
+ * Instances are not thread safe, every encoder has its own caches.
+ */
+final class EncodedCellCache {
+
+    private final int capacity;
+    private final int sampleSize;
+    private final int minWindowHits;
+    private final int maxValueLength;
+    private final CellCacheCounters counters;
+    private Map<String, Entry> entries;
+    private Entry[] clock;
+    private int size;
+    private int hand;
+    private boolean enabled = true;
+    private int windowLookups;
+    private int windowHits;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    EncodedCellCache(CsvOptions options, CellCacheCounters counters) {
+        this.capacity = options.getCellCacheCapacity();
+        this.sampleSize = Math.max(1, options.getCellCacheSampleSize());
+        this.minWindowHits = (int) Math.ceil(options.getCellCacheMinHitRatio() * sampleSize);
+        this.maxValueLength = options.getCellCacheMaxValueLength();
+        this.counters = counters;
+        this.entries = new HashMap<>();
+        this.clock = new Entry[capacity];
+    }
+
+    /**
+     * @return true if the cache is enabled and the value is short enough to be cached
+     */
+    boolean accepts(String value) {
+        return enabled && value.length() <= maxValueLength;
+    }
+
+    /**
+     * @return encoded value, or null if it is not cached
+     */
+    byte[] lookup(String value) {
+        Entry entry = entries.get(value);
+        windowLookups++;
+        if (entry != null) {
+            entry.referenced = true;
+            hits++;
+            windowHits++;
+            checkWindow();
+            return entry.encoded;
+        }
+        misses++;
+        checkWindow();
+        return null;
+    }
+
+    /**
+     * Caches value encoded in the given range of bytes, evicting another value if the cache is full
+     */
+    void put(String value, byte[] bytes, int from, int to) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(value, Arrays.copyOfRange(bytes, from, to));
+        if (size < capacity) {
+            clock[size++] = entry;
+        } else {
+            while (clock[hand].referenced) {
+                clock[hand].referenced = false;
+                hand = (hand + 1) % capacity;
+            }
+            entries.remove(clock[hand].value);
+            clock[hand] = entry;
+            hand = (hand + 1) % capacity;
+            evictions++;
+        }
+        entries.put(value, entry);
+    }
+
+    /**
+     * Adds local counts to the shared counters
+     */
+    void flush() {
+        counters.hits.add(hits);
+        counters.misses.add(misses);
+        counters.evictions.add(evictions);
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private void checkWindow() {
+        if (windowLookups < sampleSize) {
+            return;
+        }
+        if (windowHits < minWindowHits) {
+            enabled = false;
+            entries = null;
+            clock = null;
+            counters.disabledConversions.increment();
+        }
+        windowLookups = 0;
+        windowHits = 0;
+    }
+
+    private static class Entry {
+
+        private final String value;
+        private final byte[] encoded;
+        private boolean referenced;
+
+        Entry(String value, byte[] encoded) {
+            this.value = value;
+            this.encoded = encoded;
+        }
+    }
+
+}
@@ -0,0 +1,468 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ConversionService;
+import org.eagleinvsys.test.converters.ConversionServiceOptions;
+import org.eagleinvsys.test.converters.ConversionServiceStatistics;
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.StandardConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Conversion service running every conversion on its own thread. Virtual threads, if the JDK provides them, are started
+ * as soon as the conversion is submitted, platform threads only once the conversion gets its first permit, so queued
+ * conversions do not hold platform threads. Encoding is CPU bound, so the number of conversions encoding at the same time is limited
+ * to {@link ConversionServiceOptions#getMaxConcurrentConversions()} permits. A conversion holds a permit only while it
+ * encodes: the permit is returned before every write to the output stream and taken again afterwards, so conversions
+ * blocked by slow consumers leave cores to others. Conversions waiting for their first permit are queued.
+ * <p>
+ * Free permits are handed to tenants in round-robin order of their waiting conversions, skipping tenants which hold
+ * their own limit of permits, so a tenant with many conversions delays others by at most one chunk per tenant ahead
+ * of them.
+ */
+public class FairConversionService implements ConversionService {
+
+    private final Converter converter;
+    private final StandardConverter standardConverter;
+    private final ConversionServiceOptions options;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private final Object lock = new Object();
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    private final Deque<Tenant> readyTenants = new ArrayDeque<>();
+    private int freePermits;
+    private int queuedConversions;
+    private int runningConversions;
+    private boolean closed;
+
+    private final LongAdder completedConversions = new LongAdder();
+    private final LongAdder failedConversions = new LongAdder();
+    private final LongAdder rejectedConversions = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public FairConversionService() {
+        this(ConversionServiceOptions.builder().build());
+    }
+
+    /**
+     * @param options options of scheduling conversions
+     */
+    public FairConversionService(@NonNull ConversionServiceOptions options) {
+        this(new CsvConverter(), options);
+    }
+
+    private FairConversionService(CsvConverter csvConverter, ConversionServiceOptions options) {
+        this(csvConverter, new StandardCsvConverter(csvConverter), options);
+    }
+
+    /**
+     * @param converter         converter of {@link ConvertibleCollection}
+     * @param standardConverter converter of {@link List<Map>}
+     * @param options           options of scheduling conversions
+     *
+     * @throws IllegalArgumentException if any limit of options is not positive
+     */
+    public FairConversionService(@NonNull Converter converter, @NonNull StandardConverter standardConverter,
+                                 @NonNull ConversionServiceOptions options) {
+        if (options.getMaxConcurrentConversions() <= 0 || options.getMaxConcurrentConversionsPerTenant() <= 0
+                || options.getMaxQueuedConversionsPerTenant() <= 0) {
+            throw new IllegalArgumentException("Limits of conversions must be positive.");
+        }
+        this.converter = converter;
+        this.standardConverter = standardConverter;
+        this.options = options;
+        ExecutorService virtualThreadExecutor = options.isVirtualThreads() ? newVirtualThreadPerTaskExecutor() : null;
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreads ? virtualThreadExecutor : newPlatformThreadPerTaskExecutor();
+        this.freePermits = options.getMaxConcurrentConversions();
+    }
+
+    /**
+     * @return whether conversions run on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @throws NullPointerException       if any argument is null
+     * @throws RejectedExecutionException if the service is closed or the tenant has too many queued conversions
+     */
+    @Override
+    public CompletableFuture<Void> submit(@NonNull String tenant, @NonNull ConvertibleCollection collectionToConvert,
+                                          @NonNull OutputStream outputStream) {
+        return enqueue(tenant, output -> converter.convert(collectionToConvert, output), outputStream);
+    }
+
+    /**
+     * @throws NullPointerException       if any argument is null
+     * @throws RejectedExecutionException if the service is closed or the tenant has too many queued conversions
+     */
+    @Override
+    public CompletableFuture<Void> submit(@NonNull String tenant, @NonNull List<Map<String, String>> collectionToConvert,
+                                          @NonNull OutputStream outputStream) {
+        return enqueue(tenant, output -> standardConverter.convert(collectionToConvert, output), outputStream);
+    }
+
+    @Override
+    public ConversionServiceStatistics getStatistics() {
+        Map<String, Integer> queuedByTenant = new TreeMap<>();
+        int queued;
+        int running;
+        synchronized (lock) {
+            tenants.forEach((name, tenant) -> {
+                if (tenant.queued > 0) {
+                    queuedByTenant.put(name, tenant.queued);
+                }
+            });
+            queued = queuedConversions;
+            running = runningConversions;
+        }
+        return new ConversionServiceStatistics(queued, Collections.unmodifiableMap(queuedByTenant), running,
+                completedConversions.sum(), failedConversions.sum(), rejectedConversions.sum(),
+                queueWait.percentile(0.5), queueWait.percentile(0.99),
+                latency.percentile(0.5), latency.percentile(0.99));
+    }
+
+    @Override
+    public void close() {
+        List<Waiter> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            readyTenants.clear();
+            for (Tenant tenant : tenants.values()) {
+                tenant.waiters.removeIf(waiter -> waiter.queued && cancelled.add(waiter));
+                queuedConversions -= tenant.queued;
+                tenant.queued = 0;
+                requeue(tenant);
+            }
+            cancelled.forEach(waiter -> waiter.grant.complete(false));
+            if (!virtualThreads) {
+                cancelled.forEach(waiter -> finish(waiter.job.tenant));
+            }
+        }
+        cancelled.forEach(waiter -> waiter.job.future.cancel(false));
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> enqueue(String tenantName, Consumer<OutputStream> conversion,
+                                            OutputStream outputStream) {
+        Waiter waiter;
+        synchronized (lock) {
+            if (closed) {
+                rejectedConversions.increment();
+                throw new RejectedExecutionException("Conversion service is closed.");
+            }
+            Tenant tenant = tenants.computeIfAbsent(tenantName, Tenant::new);
+            if (tenant.queued >= options.getMaxQueuedConversionsPerTenant()) {
+                rejectedConversions.increment();
+                throw new RejectedExecutionException("Too many queued conversions of tenant " + tenantName + ".");
+            }
+            waiter = new Waiter(new Job(tenant, conversion, outputStream), true);
+            tenant.jobs++;
+            tenant.queued++;
+            queuedConversions++;
+            await(waiter);
+        }
+        if (!virtualThreads) {
+            return waiter.job.future;
+        }
+        try {
+            executor.execute(() -> run(waiter));
+        } catch (RejectedExecutionException e) {
+            withdraw(waiter);
+            failedConversions.increment();
+            waiter.job.future.completeExceptionally(e);
+        }
+        return waiter.job.future;
+    }
+
+    private void run(Waiter queued) {
+        Job job = queued.job;
+        if (!queued.grant.join()) {
+            synchronized (lock) {
+                finish(job.tenant);
+            }
+            return;
+        }
+        queueWait.record(System.nanoTime() - job.submittedNanos);
+        Throwable failure = null;
+        try {
+            job.conversion.accept(new PermitReleasingOutputStream(job));
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        } finally {
+            release(job.tenant);
+        }
+        latency.record(System.nanoTime() - job.submittedNanos);
+        synchronized (lock) {
+            runningConversions--;
+            finish(job.tenant);
+        }
+        (failure == null ? completedConversions : failedConversions).increment();
+        if (failure == null) {
+            job.future.complete(null);
+        } else {
+            job.future.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Waits for a permit handed out in the fair order by a running conversion which returned its permit to write
+     */
+    private void acquire(Job job) {
+        Waiter waiter = new Waiter(job, false);
+        synchronized (lock) {
+            await(waiter);
+        }
+        waiter.grant.join();
+    }
+
+    /**
+     * Puts the waiter at the end of its tenant's waiters and hands free permits. Must be called holding the lock
+     */
+    private void await(Waiter waiter) {
+        Tenant tenant = waiter.job.tenant;
+        tenant.waiters.addLast(waiter);
+        if (tenant.waiters.size() == 1 && tenant.holding < options.getMaxConcurrentConversionsPerTenant()) {
+            readyTenants.addLast(tenant);
+        }
+        dispatch();
+    }
+
+    /**
+     * Forgets a queued conversion whose virtual thread could not be started, returning its permit if it was already
+     * granted. Waiters
+     * are granted only holding the lock, so a waiter which is not waiting any more is already granted or skipped
+     */
+    private void withdraw(Waiter queued) {
+        Tenant tenant = queued.job.tenant;
+        synchronized (lock) {
+            if (tenant.waiters.remove(queued)) {
+                tenant.queued--;
+                queuedConversions--;
+                if (tenant.waiters.isEmpty()) {
+                    readyTenants.remove(tenant);
+                }
+            } else if (queued.grant.join()) {
+                runningConversions--;
+                release(tenant);
+            }
+            finish(tenant);
+        }
+    }
+
+    /**
+     * Returns a permit and hands free permits to waiting conversions
+     */
+    private void release(Tenant tenant) {
+        synchronized (lock) {
+            tenant.holding--;
+            freePermits++;
+            if (tenant.holding == options.getMaxConcurrentConversionsPerTenant() - 1 && !tenant.waiters.isEmpty()) {
+                readyTenants.addLast(tenant);
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * Hands free permits to waiting conversions, taking one waiting conversion of every ready tenant in turn. Must be
+     * called holding the lock
+     */
+    private void dispatch() {
+        while (freePermits > 0 && !readyTenants.isEmpty()) {
+            Tenant tenant = readyTenants.pollFirst();
+            Waiter waiter = tenant.waiters.pollFirst();
+            if (waiter.queued) {
+                tenant.queued--;
+                queuedConversions--;
+                if (waiter.job.future.isDone() || !startPlatformThread(waiter)) {
+                    requeue(tenant);
+                    waiter.grant.complete(false);
+                    if (!virtualThreads) {
+                        finish(tenant);
+                    }
+                    continue;
+                }
+                runningConversions++;
+            }
+            freePermits--;
+            tenant.holding++;
+            requeue(tenant);
+            waiter.grant.complete(true);
+        }
+    }
+
+    /**
+     * Starts the platform thread of a queued conversion about to get its first permit, virtual threads are started on
+     * submit. Must be called holding the lock
+     *
+     * @return false if the executor rejects the conversion, which fails then
+     */
+    private boolean startPlatformThread(Waiter queued) {
+        if (virtualThreads) {
+            return true;
+        }
+        try {
+            executor.execute(() -> run(queued));
+            return true;
+        } catch (RejectedExecutionException e) {
+            failedConversions.increment();
+            queued.job.future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    /**
+     * Puts the tenant at the end of ready tenants if it has waiting conversions and is below its limit. Must be called
+     * holding the lock
+     */
+    private void requeue(Tenant tenant) {
+        if (!tenant.waiters.isEmpty() && tenant.holding < options.getMaxConcurrentConversionsPerTenant()) {
+            readyTenants.addLast(tenant);
+        }
+    }
+
+    /**
+     * Forgets the tenant once all its conversions are finished. Must be called holding the lock
+     */
+    private void finish(Tenant tenant) {
+        if (--tenant.jobs == 0) {
+            tenants.remove(tenant.name);
+        }
+    }
+
+    /**
+     * @return executor starting a virtual thread per task, null if the JDK does not provide virtual threads
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadPerTaskExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "conversion-service-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Output stream of a conversion returning its permit for the time of every write to the stream of the caller
+     */
+    private class PermitReleasingOutputStream extends OutputStream {
+
+        private final Job job;
+
+        PermitReleasingOutputStream(Job job) {
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            release(job.tenant);
+            try {
+                job.outputStream.write(b);
+            } finally {
+                acquire(job);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            release(job.tenant);
+            try {
+                job.outputStream.write(b, off, len);
+            } finally {
+                acquire(job);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            release(job.tenant);
+            try {
+                job.outputStream.flush();
+            } finally {
+                acquire(job);
+            }
+        }
+
+    }
+
+    private static final class Tenant {
+
+        private final String name;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private int jobs;
+        private int queued;
+        private int holding;
+
+        private Tenant(String name) {
+            this.name = name;
+        }
+
+    }
+
+    private static final class Job {
+
+        private final Tenant tenant;
+        private final Consumer<OutputStream> conversion;
+        private final OutputStream outputStream;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long submittedNanos = System.nanoTime();
+
+        private Job(Tenant tenant, Consumer<OutputStream> conversion, OutputStream outputStream) {
+            this.tenant = tenant;
+            this.conversion = conversion;
+            this.outputStream = outputStream;
+        }
+
+    }
+
+    /**
+     * Conversion waiting for a permit
+     */
+    private static final class Waiter {
+
+        private final Job job;
+        private final boolean queued;
+        private final CompletableFuture<Boolean> grant = new CompletableFuture<>();
+
+        private Waiter(Job job, boolean queued) {
+            this.job = job;
+            this.queued = queued;
+        }
+
+    }
+
+}
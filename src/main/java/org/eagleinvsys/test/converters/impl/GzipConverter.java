@@ -0,0 +1,70 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.GzipOptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Converter compressing results of another converter to gzip format on multiple threads with
+ * {@link ParallelGzipOutputStream}
+ */
+public class GzipConverter implements Converter {
+
+    private final Converter converter;
+    private final Executor executor;
+    private final GzipOptions options;
+
+    public GzipConverter(Converter converter) {
+        this(converter, ForkJoinPool.commonPool(), GzipOptions.builder().build());
+    }
+
+    /**
+     * @param converter converter producing uncompressed results
+     * @param executor  executor to compress blocks on
+     * @param options   options of compression
+     */
+    public GzipConverter(@NonNull Converter converter, @NonNull Executor executor, @NonNull GzipOptions options) {
+        this.converter = converter;
+        this.executor = executor;
+        this.options = options;
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} with the underlying converter and writes result compressed to
+     * multi-member gzip format to the provided {@link OutputStream}. Gzip stream is finished even if conversion fails,
+     * so it holds everything written before the failure
+     *
+     * @param collectionToConvert collection to convert
+     * @param outputStream        output stream to write compressed results to, it is not closed
+     *
+     * @throws NullPointerException if collectionToConvert or outputStream is null
+     * @throws UncheckedIOException if finishing gzip stream fails, suppressed by the exception of failed conversion
+     */
+    @Override
+    public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull OutputStream outputStream) {
+        ParallelGzipOutputStream gzipOutputStream = new ParallelGzipOutputStream(outputStream, executor, options);
+        try {
+            converter.convert(collectionToConvert, gzipOutputStream);
+        } catch (RuntimeException | Error e) {
+            try {
+                gzipOutputStream.finish();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        try {
+            gzipOutputStream.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with four buckets per power of two, so percentiles are reported with relative error below
+ * 25%. Recording is lock free.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final LongAdder[] counts = new LongAdder[64 * SUB_BUCKETS];
+
+    LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        counts[index(Math.max(nanos, 0))].increment();
+    }
+
+    /**
+     * @param percentile percentile from 0 to 1
+     *
+     * @return upper bound of the bucket holding the given percentile, 0 if nothing is recorded
+     */
+    long percentile(double percentile) {
+        long[] snapshot = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    private static int index(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS;
+        long subBucket = index % SUB_BUCKETS;
+        long upper = (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+        return upper <= 0 ? Long.MAX_VALUE : upper - 1;
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.eagleinvsys.test.converters.impl;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * {@link ConvertibleCollection} of rows of a memory mapped CSV file indexed by {@link MappedCsvParser}. Messages
+ * hold only their row position and decode values from the mapped file whenever they are read
+ */
+final class MappedCsvCollection implements ConvertibleCollection {
+
+    private static final byte QUOTE = '"';
+
+    private final List<String> headers;
+    private final Segment[] segments;
+    private final int rowCount;
+    private final Map<String, Integer> columnIndexes;
+    private final List<ConvertibleMessage> records;
+
+    MappedCsvCollection(List<String> headers, List<Segment> segments, int rowCount) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.segments = segments.toArray(new Segment[0]);
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>();
+        for (int column = headers.size() - 1; column >= 0; column--) {
+            columnIndexes.put(headers.get(column), column);
+        }
+        this.records = new RowView();
+    }
+
+    @Override
+    public Collection<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return random access view of rows, every row is read through a new lightweight message
+     */
+    @Override
+    public Iterable<ConvertibleMessage> getRecords() {
+        return records;
+    }
+
+    /**
+     * Decodes UTF-8 value of a field, removing enclosing quotes and undoubling double quotes of a quoted field
+     *
+     * @param buffer buffer holding the field
+     * @param start  index of the first byte of the field, inclusive
+     * @param end    index right after the last byte of the field, exclusive
+     * @param quoted whether the field is enclosed in double quotes
+     */
+    static String decode(ByteBuffer buffer, int start, int end, boolean quoted) {
+        if (quoted) {
+            start++;
+            end--;
+        }
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes, 0, length);
+        if (!quoted) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            bytes[written++] = b;
+            if (b == QUOTE) {
+                i++;
+            }
+        }
+        return new String(bytes, 0, written, StandardCharsets.UTF_8);
+    }
+
+    private Segment segmentOf(int row) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments[middle].firstRow <= row) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return segments[low];
+    }
+
+    /**
+     * Mapped part of the file holding whole rows, with ends of all fields relative to the start of the segment.
+     * Ends of quoted fields are stored as their bitwise complement
+     */
+    static final class Segment {
+
+        private final ByteBuffer buffer;
+        private final int firstRow;
+        private final int[] fieldEnds;
+
+        Segment(ByteBuffer buffer, int firstRow, int[] fieldEnds) {
+            this.buffer = buffer;
+            this.firstRow = firstRow;
+            this.fieldEnds = fieldEnds;
+        }
+
+        String value(int field) {
+            int start = field == 0 ? 0 : end(fieldEnds[field - 1]) + 1;
+            int end = fieldEnds[field];
+            return decode(buffer, start, end(end), end < 0);
+        }
+
+        private static int end(int fieldEnd) {
+            return fieldEnd < 0 ? ~fieldEnd : fieldEnd;
+        }
+    }
+
+    private class RowView extends AbstractList<ConvertibleMessage> implements RandomAccess {
+
+        @Override
+        public ConvertibleMessage get(int row) {
+            Objects.checkIndex(row, rowCount);
+            Segment segment = segmentOf(row);
+            return new RowMessage(segment, (row - segment.firstRow) * headers.size());
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private class RowMessage implements IndexedConvertibleMessage {
+
+        private final Segment segment;
+        private final int firstField;
+
+        RowMessage(Segment segment, int firstField) {
+            this.segment = segment;
+            this.firstField = firstField;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            Integer column = columnIndexes.get(elementId);
+            return column == null ? null : segment.value(firstField + column);
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            Objects.checkIndex(columnIndex, headers.size());
+            return segment.value(firstField + columnIndex);
+        }
+    }
+
+}
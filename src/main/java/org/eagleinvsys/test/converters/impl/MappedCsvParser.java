@@ -0,0 +1,310 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.Parser;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CSV parser reading files written by {@link CsvConverter}: fields separated by commas, lines ending with line feed,
+ * fields containing special characters enclosed in double quotes with double quotes doubled. The file is memory
+ * mapped in segments and offsets of all fields are indexed in a single pass, values are decoded as UTF-8 only when
+ * they are read, so parsing never creates any strings except headers.
+ * <p>
+ * The index takes four bytes per field. Empty fields are read as empty strings, so null values written by
+ * {@link CsvConverter} are read as empty strings too. Parsed collection is immutable and its messages may be read
+ * concurrently.
+ */
+public class MappedCsvParser implements Parser {
+
+    public static final int DEFAULT_MAX_SEGMENT_SIZE = 1 << 30;
+
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final byte QUOTE = '"';
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long DELIMITERS = ONES * DELIMITER;
+    private static final long LINE_SEPARATORS = ONES * LINE_SEPARATOR;
+    private static final long QUOTES = ONES * QUOTE;
+
+    private final int maxSegmentSize;
+
+    public MappedCsvParser() {
+        this(DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param maxSegmentSize maximum number of bytes mapped at once, every line must fit in it
+     *
+     * @throws IllegalArgumentException if maxSegmentSize is not positive
+     */
+    public MappedCsvParser(int maxSegmentSize) {
+        if (maxSegmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive.");
+        }
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Parses the CSV file at the provided path
+     *
+     * @param path path of the file to parse
+     * @return     collection of records of the file, messages decode values when they are read
+     *
+     * @throws NullPointerException       if path is null
+     * @throws InvalidCollectionException if the file is empty, any line is longer than the maximum segment size, has
+     *                                    different number of fields than the header line or has malformed quoting
+     * @throws UncheckedIOException       if reading the file fails
+     */
+    @Override
+    public ConvertibleCollection parse(@NonNull Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parse(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ConvertibleCollection parse(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            throw new InvalidCollectionException("File has no header line.");
+        }
+        MappedByteBuffer headerBuffer = map(channel, 0, size);
+        List<String> headers = new ArrayList<>();
+        int headerEnd = parseHeaders(headerBuffer, size <= maxSegmentSize, headers);
+
+        List<MappedCsvCollection.Segment> segments = new ArrayList<>();
+        long rows = 0;
+        long position = headerEnd;
+        while (position < size) {
+            MappedByteBuffer buffer = map(channel, position, size - position);
+            boolean last = position + buffer.limit() == size;
+            SegmentIndex index = new SegmentIndex(headers.size(), buffer.limit());
+            int consumed = index(buffer, last, index, rows);
+            if (index.rows == 0) {
+                throw new InvalidCollectionException("Row " + (rows + 1) + " is longer than " + maxSegmentSize + " bytes.");
+            }
+            segments.add(new MappedCsvCollection.Segment(buffer, (int) rows,
+                    Arrays.copyOf(index.fieldEnds, index.rows * headers.size())));
+            rows += index.rows;
+            if (rows > Integer.MAX_VALUE) {
+                throw new InvalidCollectionException("File has more than " + Integer.MAX_VALUE + " rows.");
+            }
+            position += consumed;
+        }
+        return new MappedCsvCollection(headers, segments, (int) rows);
+    }
+
+    private MappedByteBuffer map(FileChannel channel, long position, long remaining) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(remaining, maxSegmentSize));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Parses the header line
+     *
+     * @return number of bytes of the header line including its line separator
+     */
+    private static int parseHeaders(ByteBuffer buffer, boolean last, List<String> headers) {
+        int limit = buffer.limit();
+        int position = 0;
+        while (true) {
+            int end = fieldEnd(buffer, position, limit, last);
+            if (end == Integer.MIN_VALUE) {
+                throw new InvalidCollectionException("Header line is longer than " + limit + " bytes.");
+            }
+            boolean quoted = end < 0;
+            int valueEnd = quoted ? ~end : end;
+            headers.add(MappedCsvCollection.decode(buffer, position, valueEnd, quoted));
+            position = valueEnd;
+            if (position == limit) {
+                if (!last) {
+                    throw new InvalidCollectionException("Header line is longer than " + limit + " bytes.");
+                }
+                return position;
+            }
+            byte separator = buffer.get(position++);
+            if (separator == LINE_SEPARATOR) {
+                return position;
+            }
+            if (separator != DELIMITER) {
+                throw new InvalidCollectionException("Header line has a character after closing quote.");
+            }
+        }
+    }
+
+    /**
+     * Indexes complete rows of the segment
+     *
+     * @param buffer    mapped segment starting at the beginning of a row
+     * @param last      whether the segment ends at the end of the file
+     * @param index     index to fill
+     * @param firstRow  number of rows of the preceding segments
+     * @return          number of bytes of indexed rows
+     */
+    private static int index(ByteBuffer buffer, boolean last, SegmentIndex index, long firstRow) {
+        int limit = buffer.limit();
+        int columns = index.columns;
+        int position = 0;
+        while (position < limit) {
+            int rowStart = position;
+            int[] fieldEnds = index.reserveRow();
+            int field = index.rows * columns;
+            for (int column = 0; column < columns; column++) {
+                int end = fieldEnd(buffer, position, limit, last);
+                if (end == Integer.MIN_VALUE) {
+                    return rowStart;
+                }
+                fieldEnds[field + column] = end;
+                position = end < 0 ? ~end : end;
+                if (position == limit) {
+                    if (!last) {
+                        return rowStart;
+                    }
+                    if (column < columns - 1) {
+                        throw invalidRow(firstRow + index.rows, "has fewer fields than headers");
+                    }
+                    break;
+                }
+                byte separator = buffer.get(position++);
+                if (separator == DELIMITER) {
+                    if (column == columns - 1) {
+                        throw invalidRow(firstRow + index.rows, "has more fields than headers");
+                    }
+                } else if (separator == LINE_SEPARATOR) {
+                    if (column < columns - 1) {
+                        throw invalidRow(firstRow + index.rows, "has fewer fields than headers");
+                    }
+                } else {
+                    throw invalidRow(firstRow + index.rows, "has a character after closing quote");
+                }
+            }
+            index.rows++;
+        }
+        return position;
+    }
+
+    private static InvalidCollectionException invalidRow(long row, String reason) {
+        return new InvalidCollectionException("Row " + (row + 1) + " " + reason + ".");
+    }
+
+    /**
+     * Finds end of the field starting at the given position
+     *
+     * @return index right after the field, bitwise complement of it if the field is quoted, or
+     *         {@link Integer#MIN_VALUE} if the quoted field is not complete within the segment
+     */
+    private static int fieldEnd(ByteBuffer buffer, int position, int limit, boolean last) {
+        if (position == limit || buffer.get(position) != QUOTE) {
+            return indexOfSeparator(buffer, position, limit);
+        }
+        int i = position + 1;
+        while (true) {
+            i = indexOfQuote(buffer, i, limit);
+            if (i == limit) {
+                if (last) {
+                    throw new InvalidCollectionException("Quoted field is not closed.");
+                }
+                return Integer.MIN_VALUE;
+            }
+            if (i + 1 == limit && !last) {
+                // the next segment may start with the second quote of an escaped quote
+                return Integer.MIN_VALUE;
+            }
+            if (i + 1 < limit && buffer.get(i + 1) == QUOTE) {
+                i += 2;
+                continue;
+            }
+            return ~(i + 1);
+        }
+    }
+
+    /**
+     * @return index of the first delimiter or line separator in the range, or its end if there is none
+     */
+    private static int indexOfSeparator(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        for (int last = to - Long.BYTES; i <= last; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            long found = zeroBytes(word ^ DELIMITERS) | zeroBytes(word ^ LINE_SEPARATORS);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == DELIMITER || b == LINE_SEPARATOR) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * @return index of the first double quote in the range, or its end if there is none
+     */
+    private static int indexOfQuote(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        for (int last = to - Long.BYTES; i <= last; i += Long.BYTES) {
+            long found = zeroBytes(buffer.getLong(i) ^ QUOTES);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == QUOTE) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * @return word with the high bit set exactly in the bytes of the given word equal to zero
+     */
+    private static long zeroBytes(long word) {
+        return ~(((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word | LOW_SEVEN_BITS);
+    }
+
+    /**
+     * Growing index of field ends of a segment
+     */
+    private static final class SegmentIndex {
+
+        private final int columns;
+        private int[] fieldEnds;
+        private int rows;
+
+        SegmentIndex(int columns, int segmentSize) {
+            this.columns = columns;
+            // a field takes at least one byte, estimate sixteen to avoid reallocating for typical rows
+            this.fieldEnds = new int[Math.max(columns, Math.min(segmentSize / 16, 1 << 20))];
+        }
+
+        int[] reserveRow() {
+            long required = (long) (rows + 1) * columns;
+            if (required > fieldEnds.length) {
+                fieldEnds = Arrays.copyOf(fieldEnds, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(required, 2L * fieldEnds.length)));
+            }
+            return fieldEnds;
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats numbers as ASCII bytes directly into a byte array, independently of the default locale. Longs are written
+ * as by {@link Long#toString(long)} and doubles as by {@link Double#toString(double)}. Doubles of magnitude from
+ * 10<sup>-3</sup> to 10<sup>7</sup> with at most 15 significant digits, such as amounts and prices, are written
+ * without creating any objects, other doubles are formatted by {@link Double#toString(double)}
+ */
+public final class NumberFormatter {
+
+    /**
+     * Maximum number of bytes written for a single number
+     */
+    public static final int MAX_LENGTH = 32;
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[18];
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    // doubles of at most 15 significant digits are exactly identified by their digits
+    private static final double MAX_EXACT_DIGITS = 1e15;
+
+    static {
+        long power = 1;
+        for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+            DOUBLE_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i];
+        }
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private NumberFormatter() {
+    }
+
+    /**
+     * @return the same as {@link Long#toString(long)}
+     */
+    public static String toString(long value) {
+        return Long.toString(value);
+    }
+
+    /**
+     * @return decimal representation of the value, the same as written by {@link #putDouble(byte[], int, double)}
+     */
+    public static String toString(double value) {
+        byte[] bytes = new byte[MAX_LENGTH];
+        int length = putDouble(bytes, 0, value);
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes decimal digits of the value, preceded by minus sign if it is negative
+     *
+     * @param target   array to write to, at least {@link #MAX_LENGTH} bytes must be available from the position
+     * @param position index to write the first byte at
+     * @param value    value to write
+     * @return         index right after the last written byte
+     */
+    public static int putLong(byte[] target, int position, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG, 0, target, position, MIN_LONG.length);
+                return position + MIN_LONG.length;
+            }
+            target[position++] = '-';
+            value = -value;
+        }
+        return putDigits(target, position, value, digitCount(value));
+    }
+
+    /**
+     * Writes the value in the format of {@link Double#toString(double)}: plain decimal with at least one fraction
+     * digit for magnitudes from 10<sup>-3</sup> to 10<sup>7</sup>, computerized scientific notation otherwise
+     *
+     * @param target   array to write to, at least {@link #MAX_LENGTH} bytes must be available from the position
+     * @param position index to write the first byte at
+     * @param value    value to write
+     * @return         index right after the last written byte
+     */
+    public static int putDouble(byte[] target, int position, double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            for (int scale = 0; scale < DOUBLE_POWERS_OF_TEN.length; scale++) {
+                double scaled = magnitude * DOUBLE_POWERS_OF_TEN[scale];
+                if (scaled >= MAX_EXACT_DIGITS) {
+                    break;
+                }
+                long digits = Math.round(scaled);
+                // division by an exact power of ten is correctly rounded, so equality means the digits parse back
+                // to the value and the fewest fraction digits make them the shortest representation
+                if (digits / DOUBLE_POWERS_OF_TEN[scale] == magnitude) {
+                    if (value < 0) {
+                        target[position++] = '-';
+                    }
+                    return putDecimal(target, position, digits, scale);
+                }
+            }
+        } else if (value == 0) {
+            if (Double.doubleToRawLongBits(value) != 0) {
+                target[position++] = '-';
+            }
+            return putDecimal(target, position, 0, 0);
+        }
+        String formatted = Double.toString(value);
+        for (int i = 0; i < formatted.length(); i++) {
+            target[position++] = (byte) formatted.charAt(i);
+        }
+        return position;
+    }
+
+    /**
+     * Writes non negative digits divided by 10<sup>scale</sup> with at least one fraction digit
+     */
+    private static int putDecimal(byte[] target, int position, long digits, int scale) {
+        long power = LONG_POWERS_OF_TEN[scale];
+        long whole = digits / power;
+        position = putDigits(target, position, whole, digitCount(whole));
+        target[position++] = '.';
+        if (scale == 0) {
+            target[position++] = '0';
+            return position;
+        }
+        return putDigits(target, position, digits - whole * power, scale);
+    }
+
+    /**
+     * Writes exactly the given number of the lowest decimal digits of the non negative value, padded by zeros
+     */
+    private static int putDigits(byte[] target, int position, long value, int count) {
+        int p = position + count;
+        while (p - position >= 2) {
+            int pair = (int) (value % 100);
+            value /= 100;
+            target[--p] = DIGIT_ONES[pair];
+            target[--p] = DIGIT_TENS[pair];
+        }
+        if (p > position) {
+            target[--p] = (byte) ('0' + value % 10);
+        }
+        return position + count;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (count < LONG_POWERS_OF_TEN.length && value >= LONG_POWERS_OF_TEN[count]) {
+            count++;
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * CSV converter encoding chunks of records on multiple threads. Chunks are written to the output stream in the
+ * original record order, so the output is exactly the same as of {@link CsvConverter}, whichever output is used.
+ * <p>
+ * Records given as {@link RandomAccess} {@link List} are read by the worker threads directly, any other
+ * {@link Iterable} is iterated by the calling thread which hands chunks of messages over to the workers. In both
+ * cases messages are read concurrently and must not be reused between iteration steps. Rows of
+ * {@link ColumnarConvertibleCollection} are read by the worker threads by index.
+ */
+public class ParallelCsvConverter extends CsvConverter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    public ParallelCsvConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelCsvConverter(Executor executor) {
+        this(executor, DEFAULT_CHUNK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor          executor to encode chunks on
+     * @param chunkSize         number of records in a chunk
+     * @param maxChunksInFlight maximum number of chunks being encoded or waiting to be written at the same time
+     *
+     * @throws IllegalArgumentException if chunkSize or maxChunksInFlight is not positive
+     */
+    public ParallelCsvConverter(@NonNull Executor executor, int chunkSize, int maxChunksInFlight) {
+        this(executor, chunkSize, maxChunksInFlight, CsvOptions.builder().build());
+    }
+
+    /**
+     * @param executor          executor to encode chunks on
+     * @param chunkSize         number of records in a chunk
+     * @param maxChunksInFlight maximum number of chunks being encoded or waiting to be written at the same time
+     * @param options           options of conversion, every worker encoder has its own cell caches
+     *
+     * @throws IllegalArgumentException if chunkSize or maxChunksInFlight is not positive, or the charset of options is
+     *                                  not supported
+     */
+    public ParallelCsvConverter(@NonNull Executor executor, int chunkSize, int maxChunksInFlight,
+                                @NonNull CsvOptions options) {
+        super(options);
+        if (chunkSize <= 0 || maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and number of chunks in flight must be positive.");
+        }
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV in parallel, writing encoded chunks to the provided sink in
+     * the original record order
+     */
+    @Override
+    void convertRecords(ConvertibleCollection collectionToConvert, CsvChunkSink sink, boolean timed) throws IOException {
+        ConversionPlan plan = plan(collectionToConvert);
+        String[] headers = plan.headers();
+        ColumnType[] columnTypes = columnTypes(collectionToConvert, headers.length);
+        Iterable<ConvertibleMessage> records = collectionToConvert.getRecords();
+        Deque<CompletableFuture<CsvEncoder>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+        Queue<CsvEncoder> idleEncoders = new ConcurrentLinkedQueue<>();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        try {
+            CsvEncoder headerEncoder = newEncoder(plan, columnTypes, timed);
+            headerEncoder.putEncoded(plan.headerLine());
+            sink.write(headerEncoder);
+            idleEncoders.add(headerEncoder);
+            if (collectionToConvert instanceof ColumnarConvertibleCollection) {
+                ColumnarEncoding encoding = new ColumnarEncoding((ColumnarConvertibleCollection) collectionToConvert, charset());
+                int size = ((ColumnarConvertibleCollection) collectionToConvert).getRowCount();
+                for (int from = 0; from < size; from += chunkSize) {
+                    int chunkFrom = from;
+                    int chunkTo = Math.min(from + chunkSize, size);
+                    submit(plan, columnTypes, timed, encoder -> {
+                        for (int row = chunkFrom; row < chunkTo; row++) {
+                            encoding.encodeRow(encoder, row);
+                        }
+                    }, inFlight, idleEncoders, abandoned, sink);
+                }
+            } else if (records instanceof List && records instanceof RandomAccess) {
+                List<ConvertibleMessage> recordList = (List<ConvertibleMessage>) records;
+                int size = recordList.size();
+                for (int from = 0; from < size; from += chunkSize) {
+                    List<ConvertibleMessage> chunk = recordList.subList(from, Math.min(from + chunkSize, size));
+                    submit(plan, columnTypes, timed, encodingOf(headers, chunk), inFlight, idleEncoders, abandoned,
+                            sink);
+                }
+            } else {
+                List<ConvertibleMessage> chunk = new ArrayList<>(chunkSize);
+                try {
+                    for (ConvertibleMessage message :
+                            records) {
+                        chunk.add(message);
+                        if (chunk.size() == chunkSize) {
+                            submit(plan, columnTypes, timed, encodingOf(headers, chunk), inFlight, idleEncoders,
+                                    abandoned, sink);
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                    }
+                } catch (InvalidCollectionException e) {
+                    writePendingChunks(plan, columnTypes, timed, chunk, inFlight, idleEncoders, abandoned, sink, e);
+                    throw e;
+                }
+                if (!chunk.isEmpty()) {
+                    submit(plan, columnTypes, timed, encodingOf(headers, chunk), inFlight, idleEncoders, abandoned,
+                            sink);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldestChunk(inFlight, idleEncoders, sink);
+            }
+        } finally {
+            // chunks not started yet are skipped, the running ones are waited for so their encoders are not in use
+            abandoned.set(true);
+            for (CompletableFuture<CsvEncoder> future : inFlight) {
+                CsvEncoder encoder = future.exceptionally(failure -> null).join();
+                if (encoder != null) {
+                    idleEncoders.add(encoder);
+                }
+            }
+            for (CsvEncoder encoder = idleEncoders.poll(); encoder != null; encoder = idleEncoders.poll()) {
+                releaseEncoder(encoder);
+            }
+        }
+    }
+
+    private static Consumer<CsvEncoder> encodingOf(String[] headers, List<ConvertibleMessage> chunk) {
+        return encoder -> {
+            for (ConvertibleMessage message : chunk) {
+                encoder.encodeRecord(headers, message);
+            }
+        };
+    }
+
+    private void submit(ConversionPlan plan, ColumnType[] columnTypes, boolean timed,
+                        Consumer<CsvEncoder> chunkEncoding, Deque<CompletableFuture<CsvEncoder>> inFlight,
+                        Queue<CsvEncoder> idleEncoders, AtomicBoolean abandoned, CsvChunkSink sink)
+            throws IOException {
+        while (inFlight.size() >= maxChunksInFlight) {
+            writeOldestChunk(inFlight, idleEncoders, sink);
+        }
+        inFlight.addLast(CompletableFuture.supplyAsync(() -> {
+            if (abandoned.get()) {
+                return null;
+            }
+            CsvEncoder encoder = idleEncoders.poll();
+            if (encoder == null) {
+                encoder = newEncoder(plan, columnTypes, timed);
+            }
+            chunkEncoding.accept(encoder);
+            return encoder;
+        }, executor));
+    }
+
+    /**
+     * Writes all chunks collected before an invalid record was found, so the output ends right before the invalid record
+     */
+    private void writePendingChunks(ConversionPlan plan, ColumnType[] columnTypes, boolean timed,
+                                    List<ConvertibleMessage> lastChunk, Deque<CompletableFuture<CsvEncoder>> inFlight,
+                                    Queue<CsvEncoder> idleEncoders, AtomicBoolean abandoned, CsvChunkSink sink,
+                                    InvalidCollectionException cause) {
+        try {
+            if (!lastChunk.isEmpty()) {
+                submit(plan, columnTypes, timed, encodingOf(plan.headers(), lastChunk), inFlight, idleEncoders,
+                        abandoned, sink);
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldestChunk(inFlight, idleEncoders, sink);
+            }
+        } catch (IOException | RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private void writeOldestChunk(Deque<CompletableFuture<CsvEncoder>> inFlight, Queue<CsvEncoder> idleEncoders,
+                                  CsvChunkSink sink) throws IOException {
+        CsvEncoder encoder;
+        try {
+            encoder = inFlight.peekFirst().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        inFlight.removeFirst();
+        sink.write(encoder);
+        encoder.flushCellCacheStatistics();
+        idleEncoders.add(encoder);
+    }
+
+}
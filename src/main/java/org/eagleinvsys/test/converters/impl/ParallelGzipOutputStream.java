@@ -0,0 +1,267 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.GzipOptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream compressing written bytes to gzip format on multiple threads. Bytes are split into blocks of the
+ * configured size, every block is compressed independently into a complete gzip member, and members are written to
+ * the underlying stream in the original order. The result is a standard multi-member gzip stream, decompressed by any
+ * gzip implementation to the concatenation of the blocks.
+ * <p>
+ * Instances are not thread safe, only compression runs on the executor.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, // magic
+            Deflater.DEFLATED, // compression method
+            0,                 // flags
+            0, 0, 0, 0,        // modification time, not available
+            0,                 // extra flags
+            (byte) 0xff        // operating system, unknown
+    };
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final int blockSize;
+    private final int level;
+    private final int maxBlocksInFlight;
+    private final Deque<CompletableFuture<Block>> inFlight = new ArrayDeque<>();
+    private final Queue<Block> idleBlocks = new ConcurrentLinkedQueue<>();
+    private final Queue<Deflater> idleDeflaters = new ConcurrentLinkedQueue<>();
+    private Block current;
+    private long writtenMembers;
+    private boolean finished;
+    private boolean closed;
+    private volatile boolean abandoned;
+
+    /**
+     * @param out      underlying stream to write gzip members to
+     * @param executor executor to compress blocks on
+     * @param options  block size, compression level and number of blocks in flight
+     *
+     * @throws IllegalArgumentException if block size or number of blocks in flight is not positive, or level is invalid
+     */
+    public ParallelGzipOutputStream(@NonNull OutputStream out, @NonNull Executor executor, @NonNull GzipOptions options) {
+        if (options.getBlockSize() <= 0 || options.getMaxBlocksInFlight() <= 0) {
+            throw new IllegalArgumentException("Block size and number of blocks in flight must be positive.");
+        }
+        if (options.getLevel() != Deflater.DEFAULT_COMPRESSION
+                && (options.getLevel() < Deflater.NO_COMPRESSION || options.getLevel() > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Compression level must be from 0 to 9 or -1.");
+        }
+        this.out = out;
+        this.executor = executor;
+        this.blockSize = options.getBlockSize();
+        this.level = options.getLevel();
+        this.maxBlocksInFlight = options.getMaxBlocksInFlight();
+        this.current = new Block(blockSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureWritable();
+        current.input[current.inputLength++] = (byte) b;
+        if (current.inputLength == blockSize) {
+            submitCurrent();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureWritable();
+        while (len > 0) {
+            int count = Math.min(len, blockSize - current.inputLength);
+            System.arraycopy(b, off, current.input, current.inputLength, count);
+            current.inputLength += count;
+            off += count;
+            len -= count;
+            if (current.inputLength == blockSize) {
+                submitCurrent();
+            }
+        }
+    }
+
+    /**
+     * Ends the current block, writes all compressed members and flushes the underlying stream. Flushing often
+     * produces short blocks and worsens compression
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureWritable();
+        if (current.inputLength > 0) {
+            submitCurrent();
+        }
+        while (!inFlight.isEmpty()) {
+            writeOldestBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes all remaining compressed members without closing the underlying stream. Nothing can be written after
+     * the stream is finished
+     *
+     * @throws IOException if writing to the underlying stream or compression fails
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            // an empty gzip stream still consists of a single member
+            if (current.inputLength > 0 || writtenMembers + inFlight.size() == 0) {
+                submitCurrent();
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldestBlock();
+            }
+            out.flush();
+        } finally {
+            finished = true;
+            // blocks not started yet are skipped, the running ones are waited for so their deflaters are returned
+            abandoned = true;
+            inFlight.forEach(future -> future.exceptionally(failure -> null).join());
+            inFlight.clear();
+            Deflater deflater;
+            while ((deflater = idleDeflaters.poll()) != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void ensureWritable() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is already finished.");
+        }
+    }
+
+    private void submitCurrent() throws IOException {
+        while (inFlight.size() >= maxBlocksInFlight) {
+            writeOldestBlock();
+        }
+        Block block = current;
+        inFlight.addLast(CompletableFuture.supplyAsync(() -> compress(block), executor));
+        current = idleBlocks.poll();
+        if (current == null) {
+            current = new Block(blockSize);
+        }
+    }
+
+    private void writeOldestBlock() throws IOException {
+        Block block;
+        try {
+            block = inFlight.peekFirst().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        inFlight.removeFirst();
+        out.write(block.output, 0, block.outputLength);
+        writtenMembers++;
+        block.inputLength = 0;
+        idleBlocks.add(block);
+    }
+
+    /**
+     * Compresses block input into a complete gzip member in block output
+     */
+    private Block compress(Block block) {
+        if (abandoned) {
+            return block;
+        }
+        Deflater deflater = idleDeflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            int length = block.inputLength;
+            // stored blocks add 5 bytes per 16 KiB at most, compressed output is never larger
+            int bound = HEADER_SIZE + length + 5 * (length / 16_384 + 1) + TRAILER_SIZE;
+            if (block.output.length < bound) {
+                block.output = new byte[bound];
+            }
+            byte[] output = block.output;
+            System.arraycopy(HEADER, 0, output, 0, HEADER_SIZE);
+            deflater.setInput(block.input, 0, length);
+            deflater.finish();
+            int p = HEADER_SIZE;
+            while (!deflater.finished()) {
+                if (p == output.length - TRAILER_SIZE) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                p += deflater.deflate(output, p, output.length - TRAILER_SIZE - p);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(block.input, 0, length);
+            p = putIntLittleEndian(output, p, (int) crc.getValue());
+            p = putIntLittleEndian(output, p, length);
+            block.output = output;
+            block.outputLength = p;
+            return block;
+        } finally {
+            deflater.reset();
+            idleDeflaters.add(deflater);
+        }
+    }
+
+    private static int putIntLittleEndian(byte[] bytes, int p, int value) {
+        bytes[p++] = (byte) value;
+        bytes[p++] = (byte) (value >>> 8);
+        bytes[p++] = (byte) (value >>> 16);
+        bytes[p++] = (byte) (value >>> 24);
+        return p;
+    }
+
+    /**
+     * Uncompressed block and its compressed gzip member, reused once the member is written
+     */
+    private static class Block {
+
+        private final byte[] input;
+        private int inputLength;
+        private byte[] output = new byte[0];
+        private int outputLength;
+
+        Block(int blockSize) {
+            this.input = new byte[blockSize];
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ConversionSubscriber;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.ReactiveConverter;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CSV converter with {@link Flow} based input and output. Output is exactly the same as of {@link CsvConverter}
+ */
+public class ReactiveCsvConverter extends CsvConverter implements ReactiveConverter {
+
+    private final Executor executor;
+
+    public ReactiveCsvConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor executor to encode published chunks on
+     */
+    public ReactiveCsvConverter(@NonNull Executor executor) {
+        this(executor, CsvOptions.builder().build());
+    }
+
+    /**
+     * @param executor executor to encode published chunks on
+     * @param options  options of conversion, the conversion listener is called by the thread encoding published chunks
+     *                 or receiving messages, write time of a published chunk is the time of its onNext signal
+     *
+     * @throws IllegalArgumentException if the charset of options is not supported or plan cache capacity is negative
+     */
+    public ReactiveCsvConverter(@NonNull Executor executor, @NonNull CsvOptions options) {
+        super(options);
+        this.executor = executor;
+    }
+
+    /**
+     * Creates publisher of the given {@link ConvertibleCollection} converted to CSV chunks. Chunks are encoded on the
+     * configured executor only when requested, records failing iteration end the stream with onError right after
+     * the chunk holding all preceding records
+     *
+     * @param collectionToConvert collection to convert to CSV format
+     * @return                    publisher of CSV chunks
+     *
+     * @throws NullPointerException       if collectionToConvert is null
+     * @throws InvalidCollectionException if collectionToConvert is invalid
+     */
+    @Override
+    public Flow.Publisher<ByteBuffer> publish(@NonNull ConvertibleCollection collectionToConvert) {
+        ConversionPlan plan = plan(collectionToConvert);
+        return new CsvPublisher(this, plan, columnTypes(collectionToConvert, plan.headers().length),
+                collectionToConvert, executor);
+    }
+
+    /**
+     * Creates subscriber converting received messages to CSV and writing result to the provided
+     * {@link OutputStream}. Messages are requested in batches fitting into the free space of the output buffer, the
+     * buffer is written on the publisher's thread when it has no room for another batch
+     *
+     * @param headers      headers of received messages
+     * @param outputStream output stream to write CSV conversion result to, it is not closed
+     * @return             subscriber to subscribe to a publisher of messages
+     *
+     * @throws NullPointerException       if outputStream is null
+     * @throws InvalidCollectionException if headers are null or empty or any header is null
+     */
+    @Override
+    public ConversionSubscriber subscriber(Collection<String> headers, @NonNull OutputStream outputStream) {
+        return new CsvWritingSubscriber(this, plan(headers), encoder -> encoder.writeTo(outputStream));
+    }
+
+}
@@ -0,0 +1,348 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.CheckpointOptions;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.ConversionResult;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.ResumableConverter;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * CSV converter writing files which survive interrupted conversions. Every time the configured number of records or
+ * bytes has been written, written data is forced to the storage device and a checkpoint holding the number of
+ * written records and the file size is atomically replaced next to the file. A later conversion to the same file
+ * truncates it to the checkpoint and skips records written before it. Checkpoint is deleted once the conversion
+ * completes.
+ * <p>
+ * Records are skipped by index for {@link ColumnarConvertibleCollection} and {@link RandomAccess} {@link List}
+ * records, any other records are iterated over from the start.
+ */
+public class ResumableCsvConverter extends CsvConverter implements ResumableConverter {
+
+    private static final String CHECKPOINT_HEADER = "records,bytes";
+
+    private final CheckpointOptions checkpointOptions;
+
+    public ResumableCsvConverter() {
+        this(CheckpointOptions.builder().build());
+    }
+
+    /**
+     * @param checkpointOptions options of writing checkpoints
+     */
+    public ResumableCsvConverter(@NonNull CheckpointOptions checkpointOptions) {
+        this(CsvOptions.builder().build(), checkpointOptions);
+    }
+
+    /**
+     * @param options           options of conversion
+     * @param checkpointOptions options of writing checkpoints
+     *
+     * @throws IllegalArgumentException if any checkpoint interval is not positive or the charset of options is not
+     *                                  supported
+     */
+    public ResumableCsvConverter(@NonNull CsvOptions options, @NonNull CheckpointOptions checkpointOptions) {
+        super(options);
+        if (checkpointOptions.getCheckpointIntervalRows() <= 0 || checkpointOptions.getCheckpointIntervalBytes() <= 0) {
+            throw new IllegalArgumentException("Checkpoint intervals must be positive.");
+        }
+        this.checkpointOptions = checkpointOptions;
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV and writes result to the file at the provided path,
+     * resuming from the checkpoint of an interrupted conversion. The conversion starts from scratch if there is no
+     * checkpoint or the file is shorter than the checkpoint
+     *
+     * @param collectionToConvert   collection to convert to CSV format
+     * @param path                  path of the file to write CSV conversion result to
+     * @return                      number of records and bytes written by this call
+     *
+     * @throws NullPointerException       if collectionToConvert or path is null
+     * @throws InvalidCollectionException if the collection is invalid, has fewer records than the checkpoint or the
+     *                                    file was written with different headers. Records preceding an invalid
+     *                                    record are written and the checkpoint is kept
+     * @throws UncheckedIOException       if writing the file or the checkpoint fails, the checkpoint is kept
+     */
+    @Override
+    public ConversionResult convertResumable(@NonNull ConvertibleCollection collectionToConvert, @NonNull Path path) {
+        return convert(collectionToConvert, path, false);
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV and appends result to the file at the provided path,
+     * resuming from the checkpoint of an interrupted append
+     *
+     * @param collectionToConvert   collection to convert to CSV format
+     * @param path                  path of the file to append CSV conversion result to
+     * @return                      number of records and bytes written by this call
+     *
+     * @throws NullPointerException       if collectionToConvert or path is null
+     * @throws InvalidCollectionException if the collection is invalid, has fewer records than the checkpoint, the
+     *                                    file was written with different headers or does not end with a line
+     *                                    separator
+     * @throws IllegalStateException      if the file is shorter than the checkpoint
+     * @throws UncheckedIOException       if writing the file or the checkpoint fails, the checkpoint is kept
+     */
+    @Override
+    public ConversionResult append(@NonNull ConvertibleCollection collectionToConvert, @NonNull Path path) {
+        return convert(collectionToConvert, path, true);
+    }
+
+    private ConversionResult convert(ConvertibleCollection collectionToConvert, Path path, boolean append) {
+        ConversionPlan plan = plan(collectionToConvert);
+        ConversionRecorder recorder = startRecorder(null);
+        CsvEncoder encoder = newEncoder(plan, columnTypes(collectionToConvert, plan.headers().length), recorder != null);
+        if (recorder == null) {
+            try {
+                return convert(collectionToConvert, path, append, plan, encoder, null);
+            } finally {
+                releaseEncoder(encoder);
+            }
+        }
+        try {
+            ConversionResult result = convert(collectionToConvert, path, append, plan, encoder, recorder);
+            recorder.completed();
+            return result;
+        } catch (RuntimeException | Error e) {
+            recorder.failed(e);
+            throw e;
+        } finally {
+            releaseEncoder(encoder);
+        }
+    }
+
+    private ConversionResult convert(ConvertibleCollection collectionToConvert, Path path, boolean append,
+                                     ConversionPlan plan, CsvEncoder encoder, ConversionRecorder recorder) {
+        String[] headers = plan.headers();
+        Path checkpointFile = path.resolveSibling(path.getFileName() + checkpointOptions.getCheckpointFileSuffix());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            byte[] headerLine = plan.headerLine();
+
+            long size = channel.size();
+            long[] checkpoint = readCheckpoint(checkpointFile);
+            long skippedRecords = 0;
+            long offset;
+            if (checkpoint != null && checkpoint[1] <= size) {
+                skippedRecords = checkpoint[0];
+                offset = checkpoint[1];
+            } else if (checkpoint != null && append) {
+                throw new IllegalStateException("File is shorter than its checkpoint.");
+            } else {
+                offset = append ? size : 0;
+            }
+            if (offset > 0) {
+                verifyHeaderLine(channel, headerLine, encoder.lineSeparator(), offset);
+            }
+            channel.truncate(offset);
+            channel.position(offset);
+            if (offset == 0) {
+                encoder.putEncoded(headerLine);
+            }
+            ConversionResult result = convertRecords(collectionToConvert, headers, encoder, recorder, channel,
+                    checkpointFile, skippedRecords, offset);
+            Files.deleteIfExists(checkpointFile);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ConversionResult convertRecords(ConvertibleCollection collectionToConvert, String[] headers,
+                                            CsvEncoder encoder, ConversionRecorder recorder, FileChannel channel,
+                                            Path checkpointFile, long skippedRecords, long offset) throws IOException {
+        try (DirectBufferChannelWriter writer = new DirectBufferChannelWriter(channel,
+                checkpointOptions.getFileOutputOptions(), bufferPool())) {
+            CheckpointingSink sink = new CheckpointingSink(writer, recorder, channel, checkpointFile, skippedRecords,
+                    offset);
+            sink.checkpoint();
+            try {
+                if (collectionToConvert instanceof ColumnarConvertibleCollection) {
+                    ColumnarConvertibleCollection columnar = (ColumnarConvertibleCollection) collectionToConvert;
+                    ColumnarEncoding encoding = new ColumnarEncoding(columnar, charset());
+                    checkRecordCount(columnar.getRowCount(), skippedRecords);
+                    for (int row = (int) skippedRecords; row < columnar.getRowCount(); row++) {
+                        encoding.encodeRow(encoder, row);
+                        sink.recordEncoded(encoder);
+                    }
+                } else {
+                    Iterator<ConvertibleMessage> records = skip(collectionToConvert.getRecords(), skippedRecords);
+                    while (records.hasNext()) {
+                        encoder.encodeRecord(headers, records.next());
+                        sink.recordEncoded(encoder);
+                    }
+                }
+                sink.write(encoder);
+            } catch (InvalidCollectionException e) {
+                writePendingRecords(encoder, sink, e);
+                try {
+                    sink.checkpoint();
+                } catch (IOException checkpointException) {
+                    e.addSuppressed(checkpointException);
+                }
+                throw e;
+            } finally {
+                encoder.flushCellCacheStatistics();
+            }
+            writer.flush();
+            channel.force(true);
+            return new ConversionResult(sink.records - skippedRecords, sink.bytes - offset);
+        }
+    }
+
+    /**
+     * @return iterator positioned right after the given number of records
+     */
+    private static Iterator<ConvertibleMessage> skip(Iterable<ConvertibleMessage> records, long count) {
+        if (records instanceof List && records instanceof RandomAccess) {
+            List<ConvertibleMessage> list = (List<ConvertibleMessage>) records;
+            checkRecordCount(list.size(), count);
+            return list.subList((int) count, list.size()).iterator();
+        }
+        Iterator<ConvertibleMessage> iterator = records.iterator();
+        for (long i = 0; i < count; i++) {
+            if (!iterator.hasNext()) {
+                checkRecordCount(i, count);
+            }
+            iterator.next();
+        }
+        return iterator;
+    }
+
+    private static void checkRecordCount(long records, long skippedRecords) {
+        if (records < skippedRecords) {
+            throw new InvalidCollectionException("Collection has fewer records than the checkpoint.");
+        }
+    }
+
+    /**
+     * Checks that the file starts with the given header line and ends with the given line separator
+     */
+    private static void verifyHeaderLine(FileChannel channel, byte[] headerLine, byte[] lineSeparator, long size)
+            throws IOException {
+        ByteBuffer existing = ByteBuffer.allocate((int) Math.min(headerLine.length, size));
+        while (existing.hasRemaining()) {
+            if (channel.read(existing, existing.position()) < 0) {
+                break;
+            }
+        }
+        if (existing.position() != headerLine.length || !Arrays.equals(existing.array(), headerLine)) {
+            throw new InvalidCollectionException("File was written with different headers.");
+        }
+        ByteBuffer end = ByteBuffer.allocate(lineSeparator.length);
+        channel.read(end, size - lineSeparator.length);
+        if (!Arrays.equals(end.array(), lineSeparator)) {
+            throw new InvalidCollectionException("File does not end with a line separator.");
+        }
+    }
+
+    /**
+     * @return number of records and bytes of the checkpoint, null if there is no checkpoint
+     */
+    private static long[] readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+        String[] values = lines.size() == 2 && CHECKPOINT_HEADER.equals(lines.get(0)) ? lines.get(1).split(",") : null;
+        try {
+            if (values != null && values.length == 2) {
+                return new long[]{Long.parseLong(values[0]), Long.parseLong(values[1])};
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IOException("Malformed checkpoint " + checkpointFile + ".");
+    }
+
+    /**
+     * Writes encoded chunks to the file through the recorder, if any, and checkpoints once checkpoint intervals pass
+     */
+    private final class CheckpointingSink implements CsvChunkSink {
+
+        private final DirectBufferChannelWriter writer;
+        private final ConversionRecorder recorder;
+        private final FileChannel channel;
+        private final Path checkpointFile;
+        private long records;
+        private long bytes;
+        private long pendingRecords;
+        private long checkpointRecords;
+        private long checkpointBytes;
+
+        CheckpointingSink(DirectBufferChannelWriter writer, ConversionRecorder recorder, FileChannel channel,
+                          Path checkpointFile, long records, long bytes) {
+            this.writer = writer;
+            this.recorder = recorder;
+            this.channel = channel;
+            this.checkpointFile = checkpointFile;
+            this.records = records;
+            this.bytes = bytes;
+        }
+
+        void recordEncoded(CsvEncoder encoder) throws IOException {
+            pendingRecords++;
+            boolean checkpointDue = records + pendingRecords - checkpointRecords
+                    >= checkpointOptions.getCheckpointIntervalRows();
+            if (checkpointDue || encoder.size() >= FLUSH_THRESHOLD) {
+                write(encoder);
+                if (checkpointDue || bytes - checkpointBytes >= checkpointOptions.getCheckpointIntervalBytes()) {
+                    checkpoint();
+                }
+            }
+        }
+
+        @Override
+        public void write(CsvEncoder encoder) throws IOException {
+            bytes += encoder.size();
+            records += pendingRecords;
+            pendingRecords = 0;
+            if (recorder != null) {
+                recorder.write(encoder, writer);
+            } else {
+                writer.write(encoder);
+            }
+        }
+
+        /**
+         * Forces written data to the storage device and atomically replaces the checkpoint file
+         */
+        void checkpoint() throws IOException {
+            writer.flush();
+            channel.force(false);
+            Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            try (FileChannel checkpointChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer content = ByteBuffer.wrap((CHECKPOINT_HEADER + "\n" + records + "," + bytes + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                while (content.hasRemaining()) {
+                    checkpointChannel.write(content);
+                }
+                checkpointChannel.force(true);
+            }
+            Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            checkpointRecords = records;
+            checkpointBytes = bytes;
+        }
+    }
+
+}
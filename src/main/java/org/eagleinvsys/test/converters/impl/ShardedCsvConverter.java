@@ -0,0 +1,417 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.ColumnType;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.CsvOptions;
+import org.eagleinvsys.test.converters.ShardInfo;
+import org.eagleinvsys.test.converters.ShardedConverter;
+import org.eagleinvsys.test.converters.ShardingOptions;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * CSV converter splitting result into files of limited number of records and size. Records are encoded by the calling
+ * thread, which decides where every file ends, encoded chunks are written by the executor. Chunks of a single file
+ * are written one after another, different files are written concurrently, so the calling thread goes on encoding
+ * next files while previous ones are being written.
+ */
+public class ShardedCsvConverter extends CsvConverter implements ShardedConverter {
+
+    private final Executor executor;
+    private final ShardingOptions options;
+    private final CsvConverter manifestConverter;
+
+    public ShardedCsvConverter() {
+        this(ForkJoinPool.commonPool(), ShardingOptions.builder().build());
+    }
+
+    /**
+     * @param executor executor to write files on
+     * @param options  options of splitting result into files
+     *
+     * @throws IllegalArgumentException if maximum number of records, size or number of chunks in flight is not positive
+     */
+    public ShardedCsvConverter(@NonNull Executor executor, @NonNull ShardingOptions options) {
+        this(executor, options, DirectBufferPool.getDefault());
+    }
+
+    /**
+     * @param executor   executor to write files on
+     * @param options    options of splitting result into files
+     * @param bufferPool pool of direct buffers used to write files
+     *
+     * @throws IllegalArgumentException if maximum number of records, size or number of chunks in flight is not positive
+     */
+    public ShardedCsvConverter(@NonNull Executor executor, @NonNull ShardingOptions options,
+                               @NonNull DirectBufferPool bufferPool) {
+        this(executor, options, CsvOptions.builder().build(), bufferPool);
+    }
+
+    /**
+     * @param executor   executor to write files on
+     * @param options    options of splitting result into files
+     * @param csvOptions options of conversion of shards, the manifest is written with default options
+     *
+     * @throws IllegalArgumentException if maximum number of records, size or number of chunks in flight is not
+     *                                  positive, or csvOptions are not supported
+     */
+    public ShardedCsvConverter(@NonNull Executor executor, @NonNull ShardingOptions options,
+                               @NonNull CsvOptions csvOptions) {
+        this(executor, options, csvOptions, DirectBufferPool.getDefault());
+    }
+
+    /**
+     * @param executor   executor to write files on
+     * @param options    options of splitting result into files
+     * @param csvOptions options of conversion of shards, the manifest is written with default options
+     * @param bufferPool pool of direct buffers used to write files
+     *
+     * @throws IllegalArgumentException if maximum number of records, size or number of chunks in flight is not
+     *                                  positive, or csvOptions are not supported
+     */
+    public ShardedCsvConverter(@NonNull Executor executor, @NonNull ShardingOptions options,
+                               @NonNull CsvOptions csvOptions, @NonNull DirectBufferPool bufferPool) {
+        super(csvOptions, bufferPool);
+        if (options.getMaxRowsPerShard() <= 0 || options.getMaxBytesPerShard() <= 0
+                || options.getMaxChunksInFlight() <= 0) {
+            throw new IllegalArgumentException("Maximum rows, bytes and chunks in flight must be positive.");
+        }
+        this.executor = executor;
+        this.options = options;
+        this.manifestConverter = new CsvConverter(CsvOptions.builder().build(), bufferPool);
+    }
+
+    /**
+     * Converts given {@link ConvertibleCollection} to CSV files in the provided directory, named by
+     * {@link ShardingOptions#getFileNamePrefix()} and index. Manifest is a CSV file with file, rows and bytes columns
+     *
+     * @param collectionToConvert         collection to convert to CSV format
+     * @param directory                   directory to write files to, created if it does not exist
+     *
+     * @return written files in the order of records
+     *
+     * @throws NullPointerException       if collectionToConvert or directory is null
+     * @throws InvalidCollectionException if iterating records fails with it, all preceding records are written but
+     *                                    the manifest is not
+     * @throws UncheckedIOException       if writing any file fails
+     */
+    @Override
+    public List<ShardInfo> convertToShards(@NonNull ConvertibleCollection collectionToConvert, @NonNull Path directory) {
+        ConversionPlan plan = plan(collectionToConvert);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ShardedConversion conversion = new ShardedConversion(directory, plan,
+                columnTypes(collectionToConvert, plan.headers().length), startRecorder(null));
+        try {
+            conversion.encodeRecords(collectionToConvert.getRecords());
+        } catch (RuntimeException | Error e) {
+            try {
+                conversion.finish(e);
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        List<ShardInfo> shards = conversion.finish(null);
+        writeManifest(directory, shards);
+        return shards;
+    }
+
+    private void writeManifest(Path directory, List<ShardInfo> shards) {
+        String[] files = new String[shards.size()];
+        String[] rows = new String[shards.size()];
+        String[] bytes = new String[shards.size()];
+        for (int i = 0; i < shards.size(); i++) {
+            files[i] = shards.get(i).getFileName();
+            rows[i] = String.valueOf(shards.get(i).getRows());
+            bytes[i] = String.valueOf(shards.get(i).getBytes());
+        }
+        ColumnarConvertibleCollection manifest = ColumnarConvertibleCollection.builder()
+                .column("file", files)
+                .column("rows", rows)
+                .column("bytes", bytes)
+                .build();
+        manifestConverter.convert(manifest, directory.resolve(options.getManifestFileName()));
+    }
+
+    /**
+     * State of a single conversion, used by the calling thread only
+     */
+    private class ShardedConversion {
+
+        private final Path directory;
+        private final ConversionPlan plan;
+        private final String[] headers;
+        private final ColumnType[] columnTypes;
+        private final byte[] encodedHeaders;
+        private final ConversionRecorder recorder;
+        private final BlockingQueue<CsvEncoder> idleEncoders = new LinkedBlockingQueue<>();
+        private final List<Shard> shards = new ArrayList<>();
+        private int createdEncoders;
+        private Shard current;
+        private CsvEncoder encoder;
+
+        ShardedConversion(Path directory, ConversionPlan plan, ColumnType[] columnTypes, ConversionRecorder recorder) {
+            this.directory = directory;
+            this.plan = plan;
+            this.headers = plan.headers();
+            this.columnTypes = columnTypes;
+            this.encodedHeaders = plan.headerLine();
+            this.recorder = recorder;
+        }
+
+        /**
+         * Encodes records into shards, a record which would make the shard exceed its size starts the next shard
+         */
+        void encodeRecords(Iterable<ConvertibleMessage> records) {
+            for (ConvertibleMessage message :
+                    records) {
+                if (current == null || current.rows == options.getMaxRowsPerShard()) {
+                    startShard();
+                } else if (encoder == null) {
+                    encoder = takeEncoder();
+                }
+                int recordStart = encoder.size();
+                encoder.encodeRecord(headers, message);
+                int recordSize = encoder.size() - recordStart;
+                if (current.rows > 0 && current.bytes + recordSize > options.getMaxBytesPerShard()) {
+                    byte[] record = Arrays.copyOfRange(encoder.array(), recordStart, recordStart + recordSize);
+                    encoder.truncate(recordStart);
+                    startShard();
+                    encoder.putEncoded(record);
+                }
+                current.rows++;
+                current.bytes += recordSize;
+                if (encoder.size() >= FLUSH_THRESHOLD) {
+                    submitChunk();
+                }
+            }
+            if (current == null) {
+                startShard();
+            }
+        }
+
+        /**
+         * Writes pending records, closes all files and waits for them to be written, then reports the conversion to
+         * the recorder
+         *
+         * @param cause exception encoding records failed with, null if all records are encoded
+         *
+         * @return written files in the order of records
+         */
+        List<ShardInfo> finish(Throwable cause) {
+            if (current != null) {
+                endShard();
+            }
+            List<ShardInfo> shardInfos = new ArrayList<>(shards.size());
+            RuntimeException failure = null;
+            for (Shard shard : shards) {
+                try {
+                    await(shard.lastWrite);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+                shardInfos.add(new ShardInfo(shard.path.getFileName().toString(), shard.rows, shard.bytes));
+            }
+            for (CsvEncoder idleEncoder = idleEncoders.poll(); idleEncoder != null; idleEncoder = idleEncoders.poll()) {
+                releaseEncoder(idleEncoder);
+            }
+            if (recorder != null && (cause != null || failure != null)) {
+                recorder.failed(cause != null ? cause : failure);
+            } else if (recorder != null) {
+                recorder.completed();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return shardInfos;
+        }
+
+        private void startShard() {
+            if (current != null) {
+                endShard();
+            }
+            Path path = directory.resolve(String.format("%s%05d.csv", options.getFileNamePrefix(), shards.size()));
+            Shard shard = new Shard(path);
+            shard.lastWrite = CompletableFuture.runAsync(() -> shard.open(options, bufferPool()), executor);
+            shards.add(shard);
+            current = shard;
+            current.bytes = encodedHeaders.length;
+            encoder = takeEncoder();
+            encoder.putEncoded(encodedHeaders);
+        }
+
+        private void endShard() {
+            if (encoder != null && encoder.size() > 0) {
+                submitChunk();
+            } else if (encoder != null) {
+                encoder.flushCellCacheStatistics();
+                idleEncoders.add(encoder);
+                encoder = null;
+            }
+            Shard shard = current;
+            shard.lastWrite = shard.lastWrite.handleAsync((ignored, failure) -> {
+                try {
+                    shard.close();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        throw e;
+                    }
+                    failure.addSuppressed(e);
+                }
+                return rethrow(failure);
+            }, executor);
+            current = null;
+        }
+
+        /**
+         * Hands pending encoder over to the writer of the current shard
+         */
+        private void submitChunk() {
+            if (current.lastWrite.isCompletedExceptionally()) {
+                await(current.lastWrite);
+            }
+            CsvEncoder chunk = encoder;
+            Shard shard = current;
+            shard.lastWrite = shard.lastWrite.handleAsync((ignored, failure) -> {
+                try {
+                    if (failure == null && recorder != null) {
+                        recorder.write(chunk, shard.writer);
+                    } else if (failure == null) {
+                        shard.writer.write(chunk);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    chunk.flushCellCacheStatistics();
+                    chunk.reset();
+                    idleEncoders.add(chunk);
+                }
+                return rethrow(failure);
+            }, executor);
+            encoder = null;
+        }
+
+        /**
+         * Takes encoder written out already, waiting for one if the maximum number of chunks is in flight
+         */
+        private CsvEncoder takeEncoder() {
+            CsvEncoder idleEncoder = idleEncoders.poll();
+            if (idleEncoder != null) {
+                return idleEncoder;
+            }
+            if (createdEncoders < options.getMaxChunksInFlight()) {
+                createdEncoders++;
+                return newEncoder(plan, columnTypes, recorder != null);
+            }
+            try {
+                return idleEncoders.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for chunks to be written.");
+            }
+        }
+    }
+
+    /**
+     * Single output file, its channel and writer are used by the chained write tasks only
+     */
+    private static class Shard {
+
+        private final Path path;
+        private long rows;
+        private long bytes;
+        private CompletableFuture<Void> lastWrite;
+        private FileChannel channel;
+        private DirectBufferChannelWriter writer;
+
+        Shard(Path path) {
+            this.path = path;
+        }
+
+        void open(ShardingOptions options, DirectBufferPool bufferPool) {
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                writer = new DirectBufferChannelWriter(channel, options.getFileOutputOptions(), bufferPool);
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Writes remaining data and closes the writer, then the channel
+         */
+        void close() {
+            DirectBufferChannelWriter channelWriter = writer;
+            FileChannel fileChannel = channel;
+            writer = null;
+            channel = null;
+            IOException failure = null;
+            if (channelWriter != null) {
+                try {
+                    channelWriter.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+    }
+
+    private static Void rethrow(Throwable failure) {
+        if (failure == null) {
+            return null;
+        }
+        throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+    }
+
+    private static void await(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
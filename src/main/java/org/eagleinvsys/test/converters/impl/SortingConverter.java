@@ -0,0 +1,590 @@
+package org.eagleinvsys.test.converters.impl;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.BinaryColumnarOptions;
+import org.eagleinvsys.test.converters.ColumnarConvertibleCollection;
+import org.eagleinvsys.test.converters.Converter;
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+import org.eagleinvsys.test.converters.SortOptions;
+import org.eagleinvsys.test.converters.SortStatistics;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converter sorting records by values of given columns before converting them with another converter. Records are
+ * read into runs of an equal share of the memory budget, every full run is sorted and spilled to a temporary file in
+ * the format of {@link BinaryColumnarConverter} by a worker while the next run is read. Records fitting into a single
+ * run are sorted in memory, otherwise the last run is spilled too and runs are merged while the other converter reads
+ * records. At most {@link SortOptions#getMaxMergeFanIn()} runs are read at once: more runs are merged in passes
+ * writing merged runs back to temporary files. Row groups of spilled runs are sized so that the row groups read by a
+ * merge fit into the memory budget together. Sorting is stable.
+ * <p>
+ * Instances are thread safe if the other converter is.
+ */
+public class SortingConverter implements Converter {
+
+    private static final long ROW_OVERHEAD = 48;
+    private static final long VALUE_OVERHEAD = 48;
+    private static final int MAX_ROW_GROUP_SIZE = 65536;
+
+    private final Converter converter;
+    private final Executor executor;
+    private final SortOptions options;
+    private final long runBudget;
+    private final long rowGroupBudget;
+    private final LongAdder spilledRuns = new LongAdder();
+    private final LongAdder mergedRuns = new LongAdder();
+    private final AtomicInteger maxOpenRuns = new AtomicInteger();
+
+    public SortingConverter(Converter converter, SortOptions options) {
+        this(converter, ForkJoinPool.commonPool(), options);
+    }
+
+    /**
+     * @param converter converter of sorted records
+     * @param executor  executor to sort and spill runs on
+     * @param options   options of sorting
+     *
+     * @throws IllegalArgumentException if there are no sort columns, memory budget or maximum number of runs in
+     *                                  flight is not positive, or maximum merge fan-in is less than 2
+     */
+    public SortingConverter(@NonNull Converter converter, @NonNull Executor executor, @NonNull SortOptions options) {
+        if (options.getSortColumns().isEmpty()) {
+            throw new IllegalArgumentException("Sort columns must not be empty.");
+        }
+        if (options.getMemoryBudget() <= 0 || options.getMaxRunsInFlight() <= 0) {
+            throw new IllegalArgumentException("Memory budget and runs in flight must be positive.");
+        }
+        if (options.getMaxMergeFanIn() < 2) {
+            throw new IllegalArgumentException("Maximum merge fan-in must be at least 2.");
+        }
+        this.converter = converter;
+        this.executor = executor;
+        this.options = options;
+        this.runBudget = Math.max(1, options.getMemoryBudget() / (options.getMaxRunsInFlight() + 1));
+        // runs read by a merge and the row group of the run it writes share the budget
+        this.rowGroupBudget = Math.max(1, options.getMemoryBudget() / (options.getMaxMergeFanIn() + 1));
+    }
+
+    /**
+     * @return statistics of spilling and merging runs accumulated over all conversions of this converter
+     */
+    public SortStatistics getStatistics() {
+        return new SortStatistics(spilledRuns.sum(), mergedRuns.sum(), maxOpenRuns.get());
+    }
+
+    /**
+     * Sorts records of given {@link ConvertibleCollection} and converts them with the other converter to the provided
+     * {@link OutputStream}. Nothing is written if reading records fails. Values of typed messages are sorted and
+     * converted as strings
+     *
+     * @param collectionToConvert collection to sort and convert
+     * @param outputStream        output stream to write conversion result to
+     *
+     * @throws NullPointerException       if collectionToConvert or outputStream is null
+     * @throws InvalidCollectionException if getHeaders() returns null, empty collection or collection with null header
+     * @throws InvalidCollectionException if getRecords() returns null
+     * @throws InvalidCollectionException if any sort column is not among headers
+     * @throws InvalidCollectionException if iterating records fails with it
+     * @throws UncheckedIOException       if writing or reading temporary files fails
+     */
+    @Override
+    public void convert(@NonNull ConvertibleCollection collectionToConvert, @NonNull OutputStream outputStream) {
+        Collection<String> headerCollection = collectionToConvert.getHeaders();
+        CollectionValidation.validateHeaders(headerCollection);
+        Iterable<ConvertibleMessage> records = collectionToConvert.getRecords();
+        CollectionValidation.validateRecords(records);
+        List<String> headers = List.copyOf(headerCollection);
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int column = headers.size() - 1; column >= 0; column--) {
+            columnIndexes.put(headers.get(column), column);
+        }
+        int[] sortColumns = new int[options.getSortColumns().size()];
+        for (int i = 0; i < sortColumns.length; i++) {
+            Integer column = columnIndexes.get(options.getSortColumns().get(i));
+            if (column == null) {
+                throw new InvalidCollectionException("Sort column " + options.getSortColumns().get(i)
+                        + " is not among headers.");
+            }
+            sortColumns[i] = column;
+        }
+        new Sort(headers, columnIndexes, sortColumns).convert(records, outputStream);
+    }
+
+    /**
+     * State of a single conversion, used by the calling thread only
+     */
+    private class Sort {
+
+        private final List<String> headers;
+        private final Map<String, Integer> columnIndexes;
+        private final Comparator<String[]> rowComparator;
+        private final Deque<CompletableFuture<Path>> inFlight = new ArrayDeque<>();
+        private final List<Path> runFiles = new ArrayList<>();
+        private final List<Path> tempFiles = new ArrayList<>();
+        private final List<BinaryColumnarReader> readers = new ArrayList<>();
+        private long spilledRows;
+        private long spilledBytes;
+
+        Sort(List<String> headers, Map<String, Integer> columnIndexes, int[] sortColumns) {
+            this.headers = headers;
+            this.columnIndexes = columnIndexes;
+            Comparator<String> comparator = options.getComparator();
+            this.rowComparator = (first, second) -> {
+                for (int column : sortColumns) {
+                    int result = comparator.compare(first[column], second[column]);
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                return 0;
+            };
+        }
+
+        void convert(Iterable<ConvertibleMessage> records, OutputStream outputStream) {
+            try {
+                List<String[]> memoryRun = readRuns(records);
+                while (!inFlight.isEmpty()) {
+                    addRunFile(join(inFlight.pollFirst()));
+                }
+                if (runFiles.isEmpty()) {
+                    memoryRun.sort(rowComparator);
+                    converter.convert(new MergedCollection(List.of(new MemoryRun(0, memoryRun))), outputStream);
+                    return;
+                }
+                while (runFiles.size() > options.getMaxMergeFanIn()) {
+                    mergePass();
+                }
+                converter.convert(new MergedCollection(openRuns(runFiles)), outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                cleanUp();
+            }
+        }
+
+        /**
+         * Reads records into runs, spilling every full run by a worker. The last run is spilled too if any run was
+         *
+         * @return records of the only run if nothing was spilled, not sorted yet, empty otherwise
+         */
+        private List<String[]> readRuns(Iterable<ConvertibleMessage> records) {
+            int columns = headers.size();
+            List<String[]> run = new ArrayList<>();
+            long runBytes = 0;
+            for (ConvertibleMessage message : records) {
+                String[] row = new String[columns];
+                long rowBytes = ROW_OVERHEAD + 4L * columns;
+                for (int column = 0; column < columns; column++) {
+                    String value = message instanceof IndexedConvertibleMessage
+                            ? ((IndexedConvertibleMessage) message).getElement(column)
+                            : message.getElement(headers.get(column));
+                    row[column] = value;
+                    if (value != null) {
+                        rowBytes += VALUE_OVERHEAD + 2L * value.length();
+                    }
+                }
+                run.add(row);
+                runBytes += rowBytes;
+                if (runBytes >= runBudget) {
+                    spill(run, runBytes);
+                    run = new ArrayList<>();
+                    runBytes = 0;
+                }
+            }
+            if (spilledRows > 0 && !run.isEmpty()) {
+                spill(run, runBytes);
+                return List.of();
+            }
+            return run;
+        }
+
+        /**
+         * Sorts and spills the given run by a worker, waiting for the oldest run first if the maximum number of runs
+         * is in flight
+         */
+        private void spill(List<String[]> run, long runBytes) {
+            while (inFlight.size() >= options.getMaxRunsInFlight()) {
+                addRunFile(join(inFlight.pollFirst()));
+            }
+            spilledRows += run.size();
+            spilledBytes += runBytes;
+            int rowGroupSize = rowGroupSize(runBytes / run.size());
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> {
+                run.sort(rowComparator);
+                return write(new RowCollection(run), rowGroupSize);
+            }, executor));
+            spilledRuns.increment();
+        }
+
+        private void addRunFile(Path runFile) {
+            tempFiles.add(runFile);
+            runFiles.add(runFile);
+        }
+
+        /**
+         * Merges every {@link SortOptions#getMaxMergeFanIn()} consecutive runs into a single run, so equal rows keep
+         * their order
+         */
+        private void mergePass() throws IOException {
+            int fanIn = options.getMaxMergeFanIn();
+            List<Path> mergedFiles = new ArrayList<>((runFiles.size() + fanIn - 1) / fanIn);
+            for (int from = 0; from < runFiles.size(); from += fanIn) {
+                List<Path> group = runFiles.subList(from, Math.min(from + fanIn, runFiles.size()));
+                mergedFiles.add(group.size() == 1 ? group.get(0) : merge(group));
+            }
+            runFiles.clear();
+            runFiles.addAll(mergedFiles);
+        }
+
+        /**
+         * Merges given runs into a new run and deletes their files
+         */
+        private Path merge(List<Path> group) throws IOException {
+            Path mergedFile = write(new MergedCollection(openRuns(group)), rowGroupSize(spilledBytes / spilledRows));
+            tempFiles.add(mergedFile);
+            closeReaders();
+            for (Path runFile : group) {
+                Files.deleteIfExists(runFile);
+                tempFiles.remove(runFile);
+            }
+            mergedRuns.increment();
+            return mergedFile;
+        }
+
+        /**
+         * @return cursors of given runs in their order, their readers are closed by {@link #closeReaders()}
+         */
+        private List<RunCursor> openRuns(List<Path> files) throws IOException {
+            List<RunCursor> runs = new ArrayList<>(files.size());
+            for (Path runFile : files) {
+                BinaryColumnarReader reader = new BinaryColumnarReader(Files.newInputStream(runFile));
+                readers.add(reader);
+                runs.add(new SpilledRun(runs.size(), reader));
+            }
+            maxOpenRuns.accumulateAndGet(readers.size(), Math::max);
+            return runs;
+        }
+
+        private void closeReaders() {
+            for (BinaryColumnarReader reader : readers) {
+                reader.close();
+            }
+            readers.clear();
+        }
+
+        /**
+         * @return number of rows of a row group of a spilled run fitting into the share of the memory budget of every
+         * run read by a merge
+         */
+        private int rowGroupSize(long rowBytes) {
+            return (int) Math.max(1, Math.min(MAX_ROW_GROUP_SIZE, rowGroupBudget / Math.max(1, rowBytes)));
+        }
+
+        private Path write(ConvertibleCollection run, int rowGroupSize) {
+            BinaryColumnarConverter spillConverter = new BinaryColumnarConverter(BinaryColumnarOptions.builder()
+                    .rowGroupSize(rowGroupSize)
+                    .build());
+            Path file = null;
+            try {
+                file = options.getTempDirectory() == null
+                        ? Files.createTempFile("sort-run", ".bin")
+                        : Files.createTempFile(options.getTempDirectory(), "sort-run", ".bin");
+                try (OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+                    spillConverter.convert(run, fileStream);
+                }
+                return file;
+            } catch (IOException | RuntimeException e) {
+                if (file != null) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                if (e instanceof IOException) {
+                    throw new UncheckedIOException((IOException) e);
+                }
+                throw (RuntimeException) e;
+            }
+        }
+
+        private Path join(CompletableFuture<Path> run) {
+            try {
+                return run.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Closes readers and deletes files of all runs, waiting for runs still in flight
+         */
+        private void cleanUp() {
+            closeReaders();
+            while (!inFlight.isEmpty()) {
+                try {
+                    tempFiles.add(inFlight.pollFirst().join());
+                } catch (CompletionException ignored) {
+                    // the run deleted its file itself
+                }
+            }
+            for (Path tempFile : tempFiles) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // left to the operating system
+                }
+            }
+        }
+
+        /**
+         * Records of a run written to a spill file
+         */
+        private class RowCollection implements ConvertibleCollection {
+
+            private final List<String[]> rows;
+
+            RowCollection(List<String[]> rows) {
+                this.rows = rows;
+            }
+
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return () -> new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < rows.size();
+                    }
+
+                    @Override
+                    public ConvertibleMessage next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return new RowMessage(rows.get(next++));
+                    }
+                };
+            }
+        }
+
+        /**
+         * Sorted records of all runs, which can be iterated once
+         */
+        private class MergedCollection implements ConvertibleCollection {
+
+            private final List<RunCursor> runs;
+            private boolean iterated;
+
+            MergedCollection(List<RunCursor> runs) {
+                this.runs = runs;
+            }
+
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return () -> {
+                    if (iterated) {
+                        throw new IllegalStateException("Sorted records can be iterated once.");
+                    }
+                    iterated = true;
+                    return new MergeIterator(runs);
+                };
+            }
+        }
+
+        /**
+         * Merges runs by taking the least current row of all runs, rows of equal values are taken from the run read
+         * first
+         */
+        private class MergeIterator implements Iterator<ConvertibleMessage> {
+
+            private final PriorityQueue<RunCursor> queue;
+
+            MergeIterator(List<RunCursor> runs) {
+                this.queue = new PriorityQueue<>(Math.max(1, runs.size()), (first, second) -> {
+                    int result = rowComparator.compare(first.row(), second.row());
+                    return result != 0 ? result : Integer.compare(first.index, second.index);
+                });
+                for (RunCursor run : runs) {
+                    if (run.advance()) {
+                        queue.add(run);
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                RunCursor run = queue.poll();
+                if (run == null) {
+                    throw new NoSuchElementException();
+                }
+                String[] row = run.row();
+                if (run.advance()) {
+                    queue.add(run);
+                }
+                return new RowMessage(row);
+            }
+        }
+
+        private class RowMessage implements IndexedConvertibleMessage {
+
+            private final String[] values;
+
+            RowMessage(String[] values) {
+                this.values = values;
+            }
+
+            @Override
+            public String getElement(String elementId) {
+                Integer column = columnIndexes.get(elementId);
+                return column == null ? null : values[column];
+            }
+
+            @Override
+            public String getElement(int columnIndex) {
+                return values[columnIndex];
+            }
+        }
+    }
+
+    /**
+     * Current row of a sorted run
+     */
+    private abstract static class RunCursor {
+
+        /**
+         * Position of the run in the order runs were read
+         */
+        final int index;
+
+        RunCursor(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Moves to the next row
+         *
+         * @return false if there are no more rows
+         */
+        abstract boolean advance();
+
+        /**
+         * @return values of the current row
+         */
+        abstract String[] row();
+    }
+
+    private static class MemoryRun extends RunCursor {
+
+        private final List<String[]> rows;
+        private int next;
+        private String[] row;
+
+        MemoryRun(int index, List<String[]> rows) {
+            super(index);
+            this.rows = rows;
+        }
+
+        @Override
+        boolean advance() {
+            if (next == rows.size()) {
+                return false;
+            }
+            row = rows.set(next++, null);
+            return true;
+        }
+
+        @Override
+        String[] row() {
+            return row;
+        }
+    }
+
+    /**
+     * Run read back from its spill file one row group at a time
+     */
+    private static class SpilledRun extends RunCursor {
+
+        private final BinaryColumnarReader reader;
+        private ColumnarConvertibleCollection rowGroup;
+        private int nextRow;
+        private String[] row;
+
+        SpilledRun(int index, BinaryColumnarReader reader) {
+            super(index);
+            this.reader = reader;
+        }
+
+        @Override
+        boolean advance() {
+            if (rowGroup == null || nextRow == rowGroup.getRowCount()) {
+                rowGroup = reader.nextRowGroup();
+                nextRow = 0;
+                if (rowGroup == null) {
+                    return false;
+                }
+            }
+            int columns = rowGroup.getColumnCount();
+            row = new String[columns];
+            for (int column = 0; column < columns; column++) {
+                row[column] = rowGroup.getValue(nextRow, column);
+            }
+            nextRow++;
+            return true;
+        }
+
+        @Override
+        String[] row() {
+            return row;
+        }
+    }
+
+}
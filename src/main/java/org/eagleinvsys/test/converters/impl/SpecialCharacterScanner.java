@@ -0,0 +1,151 @@
+package org.eagleinvsys.test.converters.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Finds characters requiring CSV escaping in ASCII compatible encoded bytes in a single pass. Eight bytes are checked
+ * at a time with SWAR (SIMD within a register) arithmetic on longs, shorter ranges and tails are checked byte by byte.
+ * Bytes of multibyte UTF-8 sequences are never below 0x80, so they are never reported.
+ */
+public final class SpecialCharacterScanner {
+
+    /**
+     * Range contains comma, double quote or single quote, so the field has to be quoted
+     */
+    public static final int QUOTING = 1;
+    /**
+     * Range contains whitespace other than space, which has to be replaced by space
+     */
+    public static final int WHITESPACE = 2;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long COMMAS = ONES * ',';
+    private static final long QUOTES = ONES * '"';
+    private static final long SINGLE_QUOTES = ONES * '\'';
+    private static final long SPACES = ONES * ' ';
+    // whitespace other than space occupies 0x09 (tab) to 0x0D (carriage return)
+    private static final long AT_LEAST_TAB = ONES * (0x80 - 0x09);
+    private static final long ABOVE_CARRIAGE_RETURN = ONES * (0x80 - 0x0E);
+
+    private SpecialCharacterScanner() {
+    }
+
+    /**
+     * Scans given range of bytes
+     *
+     * @param bytes bytes to scan
+     * @param from  index of the first byte to scan, inclusive
+     * @param to    index of the last byte to scan, exclusive
+     * @return      combination of {@link #QUOTING} and {@link #WHITESPACE} flags found in the range, 0 if none
+     */
+    public static int scan(byte[] bytes, int from, int to) {
+        int i = from;
+        long quoting = 0;
+        long whitespace = 0;
+        for (int last = to - Long.BYTES; i <= last; i += Long.BYTES) {
+            long word = (long) LONGS.get(bytes, i);
+            quoting |= zeroBytes(word ^ COMMAS) | zeroBytes(word ^ QUOTES) | zeroBytes(word ^ SINGLE_QUOTES);
+            whitespace |= whitespaceBytes(word);
+        }
+        int flags = (quoting != 0 ? QUOTING : 0) | (whitespace != 0 ? WHITESPACE : 0);
+        return flags | scanScalar(bytes, i, to);
+    }
+
+    /**
+     * Scans given range of bytes one by one, produces the same result as {@link #scan(byte[], int, int)}
+     */
+    public static int scanScalar(byte[] bytes, int from, int to) {
+        int flags = 0;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b == ',' || b == '"' || b == '\'') {
+                flags |= QUOTING;
+            } else if (b >= 0x09 && b <= 0x0D) {
+                flags |= WHITESPACE;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Replaces whitespace other than space by space in the given range of bytes
+     *
+     * @param bytes bytes to replace whitespace in
+     * @param from  index of the first byte, inclusive
+     * @param to    index of the last byte, exclusive
+     */
+    public static void replaceWhitespace(byte[] bytes, int from, int to) {
+        int i = from;
+        for (int last = to - Long.BYTES; i <= last; i += Long.BYTES) {
+            long word = (long) LONGS.get(bytes, i);
+            long whitespace = whitespaceBytes(word);
+            if (whitespace != 0) {
+                long mask = (whitespace >>> 7) * 0xFF;
+                LONGS.set(bytes, i, (word & ~mask) | (SPACES & mask));
+            }
+        }
+        for (; i < to; i++) {
+            if (bytes[i] >= 0x09 && bytes[i] <= 0x0D) {
+                bytes[i] = ' ';
+            }
+        }
+    }
+
+    /**
+     * Moves given range of bytes towards the end of the array doubling double quotes and replacing whitespace by space
+     * on the way, words without any of them are moved eight bytes at a time. Bytes are moved from the end, so the
+     * target range may overlap the source range
+     *
+     * @param bytes     bytes to move
+     * @param from      index of the first byte to move, inclusive
+     * @param to        index of the last byte to move, exclusive
+     * @param targetEnd index right after the last moved byte, at least {@code to} plus number of double quotes
+     * @return          index of the first moved byte
+     */
+    public static int moveEscapingQuotes(byte[] bytes, int from, int to, int targetEnd) {
+        int i = to;
+        int p = targetEnd;
+        while (i > from) {
+            if (i - from >= Long.BYTES) {
+                long word = (long) LONGS.get(bytes, i - Long.BYTES);
+                if ((zeroBytes(word ^ QUOTES) | whitespaceBytes(word)) == 0) {
+                    i -= Long.BYTES;
+                    p -= Long.BYTES;
+                    LONGS.set(bytes, p, word);
+                    continue;
+                }
+            }
+            byte b = bytes[--i];
+            if (b >= 0x09 && b <= 0x0D) {
+                b = ' ';
+            } else if (b == '"') {
+                bytes[--p] = b;
+            }
+            bytes[--p] = b;
+        }
+        return p;
+    }
+
+    /**
+     * @return word with the high bit set exactly in the bytes of the given word equal to zero
+     */
+    private static long zeroBytes(long word) {
+        return ~(((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word | LOW_SEVEN_BITS);
+    }
+
+    /**
+     * @return word with the high bit set exactly in the bytes of the given word from 0x09 to 0x0D
+     */
+    private static long whitespaceBytes(long word) {
+        long lowBits = word & LOW_SEVEN_BITS;
+        // adding to seven low bits never carries into the next byte, high bit shows whether the threshold is reached
+        return (lowBits + AT_LEAST_TAB) & ~(lowBits + ABOVE_CARRIAGE_RETURN) & ~word & HIGH_BITS;
+    }
+
+}
@@ -4,6 +4,10 @@ import org.eagleinvsys.test.converters.ConvertibleCollection;
 import org.eagleinvsys.test.converters.StandardConverter;
 import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
 import org.eagleinvsys.test.converters.mappers.ConvertibleCollectionMapper;
+import org.eagleinvsys.test.converters.mappers.MappingMode;
+import org.eagleinvsys.test.converters.validators.CollectionValidator;
+import org.eagleinvsys.test.converters.validators.RecordValidator;
+import org.eagleinvsys.test.converters.validators.SequentialCollectionValidator;
 
 import java.io.OutputStream;
 import java.util.*;
@@ -11,9 +15,27 @@ import java.util.*;
 public class StandardCsvConverter implements StandardConverter {
 
     private final CsvConverter csvConverter;
+    private final CollectionValidator collectionValidator;
+    private final MappingMode mappingMode;
 
     public StandardCsvConverter(CsvConverter csvConverter) {
+        this(csvConverter, new SequentialCollectionValidator());
+    }
+
+    public StandardCsvConverter(CsvConverter csvConverter, CollectionValidator collectionValidator) {
+        this(csvConverter, collectionValidator, MappingMode.COPY);
+    }
+
+    /**
+     * @param csvConverter        converter to convert mapped collections with
+     * @param collectionValidator strategy of validating collections before or while they are written,
+     *                            {@link SequentialCollectionValidator} if null
+     * @param mappingMode         way of mapping collections for the converter, {@link MappingMode#COPY} if null
+     */
+    public StandardCsvConverter(CsvConverter csvConverter, CollectionValidator collectionValidator, MappingMode mappingMode) {
         this.csvConverter = csvConverter;
+        this.collectionValidator = Objects.isNull(collectionValidator) ? new SequentialCollectionValidator() : collectionValidator;
+        this.mappingMode = Objects.isNull(mappingMode) ? MappingMode.COPY : mappingMode;
     }
 
     /**
@@ -22,11 +44,20 @@ public class StandardCsvConverter implements StandardConverter {
      * @param collectionToConvert collection to convert to CSV format. All maps must have the same set of keys.
      *                            For stable columns order client should provide map that saves order of insertion. For example {@link LinkedHashMap}
      * @param outputStream        output stream to write CSV conversion result as text to
+     *
+     * @throws InvalidCollectionException if the collection is invalid according to the {@link CollectionValidator}. If
+     *                                    it validates while writing, maps preceding the invalid one are already written
      */
     @Override
     public void convert(List<Map<String, String>> collectionToConvert, OutputStream outputStream) {
-        validateCollection(collectionToConvert);
-        Optional<ConvertibleCollection> convertibleCollection = ConvertibleCollectionMapper.getInstance().toConvertibleCollection(collectionToConvert);
+        collectionValidator.validate(collectionToConvert);
+        if (collectionValidator.validatesWhileWriting()) {
+            convertStreaming(collectionToConvert.iterator(), outputStream);
+            return;
+        }
+        Optional<ConvertibleCollection> convertibleCollection = mappingMode == MappingMode.VIEW
+                ? ConvertibleCollectionMapper.getInstance().toConvertibleCollectionView(collectionToConvert)
+                : ConvertibleCollectionMapper.getInstance().toConvertibleCollection(collectionToConvert);
         if (convertibleCollection.isEmpty()) {
             return;
         }
@@ -34,32 +65,46 @@ public class StandardCsvConverter implements StandardConverter {
     }
 
     /**
-     * Validates given collection
+     * Converts maps provided by the given {@link Iterator} to CSV and outputs result as a text to the provided
+     * {@link OutputStream}. Every map is validated right before it is written, so memory use does not depend on the
+     * number of maps
      *
-     * @param collectionToConvert         collection to convert to CSV format. All maps must have the same set of keys.
+     * @param collectionToConvert iterator over maps to convert to CSV format. All maps must have the same set of keys.
+     *                            For stable columns order client should provide map that saves order of insertion. For example {@link LinkedHashMap}
+     * @param outputStream        output stream to write CSV conversion result as text to
      *
      * @throws InvalidCollectionException if collectionToConvert is null or empty
-     * @throws InvalidCollectionException if one of the maps is null or empty
-     * @throws InvalidCollectionException if maps have different set of keys
+     * @throws InvalidCollectionException if one of the maps is null or empty, or has different set of keys than the
+     *                                    first one. Headers and all maps preceding the invalid one are already written
      */
-    private void validateCollection(List<Map<String, String>> collectionToConvert) {
-        if (Objects.isNull(collectionToConvert) || collectionToConvert.isEmpty()) {
+    @Override
+    public void convertStreaming(Iterator<Map<String, String>> collectionToConvert, OutputStream outputStream) {
+        if (Objects.isNull(collectionToConvert) || !collectionToConvert.hasNext()) {
             throw new InvalidCollectionException("Provided collectionToConvert is empty or null.");
         }
-        Map<String, String> firstRecord = collectionToConvert.get(0);
-        if (Objects.isNull(firstRecord) || firstRecord.isEmpty()) {
-            throw new InvalidCollectionException("One of the maps is empty or null.");
-        }
-        Set<String> headers = firstRecord.keySet();
-        for (Map<String, String> map :
-                collectionToConvert) {
-            if (Objects.isNull(map) || map.isEmpty()) {
-                throw new InvalidCollectionException("One of the maps is empty or null.");
+        Map<String, String> firstRecord = collectionToConvert.next();
+        RecordValidator recordValidator = RecordValidator.forFirstRecord(firstRecord);
+        Iterator<Map<String, String>> validatedRecords = new Iterator<>() {
+            private Map<String, String> pendingFirstRecord = firstRecord;
+
+            @Override
+            public boolean hasNext() {
+                return pendingFirstRecord != null || collectionToConvert.hasNext();
             }
-            if (!map.keySet().equals(headers)) {
-                throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+
+            @Override
+            public Map<String, String> next() {
+                if (pendingFirstRecord != null) {
+                    Map<String, String> record = pendingFirstRecord;
+                    pendingFirstRecord = null;
+                    return record;
+                }
+                Map<String, String> record = collectionToConvert.next();
+                recordValidator.validate(record);
+                return record;
             }
-        }
+        };
+        csvConverter.convert(ConvertibleCollectionMapper.getInstance().toConvertibleCollection(recordValidator.getHeaders(), validatedRecords), outputStream);
     }
 
 }
\ No newline at end of file
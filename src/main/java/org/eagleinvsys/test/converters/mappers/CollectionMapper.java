@@ -3,6 +3,8 @@ package org.eagleinvsys.test.converters.mappers;
 import org.eagleinvsys.test.converters.ConvertibleCollection;
 import org.eagleinvsys.test.converters.ConvertibleMessage;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,4 +12,24 @@ import java.util.Optional;
 public interface CollectionMapper {
     ConvertibleMessage toConvertibleMessage(Map<String, String> record);
     Optional<ConvertibleCollection> toConvertibleCollection(List<Map<String, String>> data);
+
+    /**
+     * Maps given list to a collection reading the maps lazily. Default implementation copies them by
+     * {@link #toConvertibleCollection(List)}
+     */
+    default Optional<ConvertibleCollection> toConvertibleCollectionView(List<Map<String, String>> data) {
+        return toConvertibleCollection(data);
+    }
+
+    /**
+     * Maps maps of the given iterator to a collection of the given headers, reading them one by one while the
+     * collection is converted. Not supported by default
+     *
+     * @throws UnsupportedOperationException if the mapper does not map records one by one
+     */
+    default ConvertibleCollection toConvertibleCollection(Collection<String> headers,
+                                                          Iterator<Map<String, String>> records) {
+        throw new UnsupportedOperationException("Mapping of records one by one is not supported by "
+                + getClass().getName() + ".");
+    }
 }
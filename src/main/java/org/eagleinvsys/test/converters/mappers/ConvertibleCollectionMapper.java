@@ -3,42 +3,37 @@ package org.eagleinvsys.test.converters.mappers;
 import lombok.NonNull;
 import org.eagleinvsys.test.converters.ConvertibleCollection;
 import org.eagleinvsys.test.converters.ConvertibleMessage;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class ConvertibleCollectionMapper implements CollectionMapper {
 
-    private static ConvertibleCollectionMapper INSTANCE;
-
     private ConvertibleCollectionMapper() {
 
     }
 
+    /**
+     * @return the only instance, created on first call without any locking by the class initialization
+     */
     public static ConvertibleCollectionMapper getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ConvertibleCollectionMapper();
-        }
+        return InstanceHolder.INSTANCE;
+    }
 
-        return INSTANCE;
+    private static class InstanceHolder {
+        private static final ConvertibleCollectionMapper INSTANCE = new ConvertibleCollectionMapper();
     }
 
 
     /**
-     * Maps given {@link Map} into anonymous implementation of {@link ConvertibleMessage}
+     * Maps given {@link Map} into {@link ConvertibleMessage}
      *
      * @param record data presented as {@link Map} where key is header and value is value of the record
      * @return       wrapped data into {@link ConvertibleMessage}
      */
     public ConvertibleMessage toConvertibleMessage(@NonNull Map<String, String> record) {
-        return new ConvertibleMessage() {
-            private final Map<String, String> data = record;
-
-            @Override
-            public String getElement(String elementId) {
-                return data.get(elementId);
-            }
-        };
+        return new RecordMessage(record);
     }
 
     /**
@@ -54,8 +49,9 @@ public class ConvertibleCollectionMapper implements CollectionMapper {
         }
 
         Set<String> resultHeaders = data.get(0).keySet();
+        String[] columnOrder = resultHeaders.toArray(new String[0]);
         List<ConvertibleMessage> resultMessages = data.stream()
-                .map(this::toConvertibleMessage)
+                .map(record -> toIndexedMessage(record, columnOrder))
                 .collect(Collectors.toList());
 
         return Optional.of(new ConvertibleCollection() {
@@ -74,4 +70,218 @@ public class ConvertibleCollectionMapper implements CollectionMapper {
             }
         });
     }
+
+    /**
+     * Maps given {@link List} into {@link Optional} {@link ConvertibleCollection} viewing the list without copying it.
+     * Records are read from the list while they are iterated, so changes of the list are visible in the view.
+     * <p>
+     * Iterator of a view of {@link RandomAccess} list returns the same flyweight message rebound to every next record,
+     * so a message must not be used after the iterator moves on. Messages returned by {@link List#get(int)} of such
+     * view and its sub lists are independent, so chunks of the view can be read concurrently. Iterator of a view of any
+     * other list returns independent messages
+     *
+     * @param data {@link List} of records presented as {@link Map}
+     * @return     {@link Optional} {@link ConvertibleCollection} view of data
+     */
+    public Optional<ConvertibleCollection> toConvertibleCollectionView(List<Map<String, String>> data) {
+
+        if (Objects.isNull(data) || data.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> resultHeaders = data.get(0).keySet();
+        String[] columnOrder = resultHeaders.toArray(new String[0]);
+        List<ConvertibleMessage> resultMessages = data instanceof RandomAccess
+                ? new RandomAccessMessageView(data, columnOrder)
+                : new MessageView(data, columnOrder);
+
+        return Optional.of(new ConvertibleCollection() {
+
+            @Override
+            public Collection<String> getHeaders() {
+                return resultHeaders;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return resultMessages;
+            }
+        });
+    }
+
+    /**
+     * Maps given {@link Iterator} into single-use anonymous implementation of {@link ConvertibleCollection}. Records
+     * are mapped lazily while they are iterated, so they can be iterated only once. Messages can be read by position
+     * of the given headers
+     *
+     * @param headers headers of the records
+     * @param records {@link Iterator} over records presented as {@link Map}
+     * @return        {@link ConvertibleCollection} representation of data
+     */
+    public ConvertibleCollection toConvertibleCollection(@NonNull Collection<String> headers,
+                                                         @NonNull Iterator<Map<String, String>> records) {
+        String[] columnOrder = headers.toArray(new String[0]);
+        Iterator<ConvertibleMessage> resultMessages = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                return toIndexedMessage(records.next(), columnOrder);
+            }
+        };
+
+        return new ConvertibleCollection() {
+
+            @Override
+            public Collection<String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return () -> resultMessages;
+            }
+        };
+    }
+
+    /**
+     * Maps given record to a message readable by position of the column order. The singleton creates the message
+     * directly, so every record takes a single allocation. Any other instance is a subclass or a spy which may override
+     * {@link #toConvertibleMessage(Map)}, its messages are bound to the column order
+     */
+    private ConvertibleMessage toIndexedMessage(Map<String, String> record, String[] columnOrder) {
+        if (record != null && this == InstanceHolder.INSTANCE) {
+            return new IndexedRecordMessage(record, columnOrder);
+        }
+        return bindToColumnOrder(toConvertibleMessage(record), columnOrder);
+    }
+
+    /**
+     * Binds messages produced by {@link #toConvertibleMessage(Map)} to the column order of their collection, so they
+     * can be read by position. Other messages are returned as is
+     */
+    private ConvertibleMessage bindToColumnOrder(ConvertibleMessage message, String[] columnOrder) {
+        if (message instanceof RecordMessage) {
+            return new IndexedRecordMessage(((RecordMessage) message).data, columnOrder);
+        }
+        return message;
+    }
+
+    private static class RecordMessage implements ConvertibleMessage {
+
+        final Map<String, String> data;
+
+        RecordMessage(Map<String, String> data) {
+            this.data = data;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            return data.get(elementId);
+        }
+    }
+
+    private static class MessageView extends AbstractList<ConvertibleMessage> {
+
+        final List<Map<String, String>> data;
+        final String[] columnOrder;
+
+        MessageView(List<Map<String, String>> data, String[] columnOrder) {
+            this.data = data;
+            this.columnOrder = columnOrder;
+        }
+
+        @Override
+        public ConvertibleMessage get(int index) {
+            return new IndexedRecordMessage(data.get(index), columnOrder);
+        }
+
+        @Override
+        public int size() {
+            return data.size();
+        }
+
+        @Override
+        public Iterator<ConvertibleMessage> iterator() {
+            Iterator<Map<String, String>> records = data.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public ConvertibleMessage next() {
+                    return new IndexedRecordMessage(records.next(), columnOrder);
+                }
+            };
+        }
+    }
+
+    private static class RandomAccessMessageView extends MessageView implements RandomAccess {
+
+        RandomAccessMessageView(List<Map<String, String>> data, String[] columnOrder) {
+            super(data, columnOrder);
+        }
+
+        @Override
+        public Iterator<ConvertibleMessage> iterator() {
+            FlyweightMessage message = new FlyweightMessage(columnOrder);
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < data.size();
+                }
+
+                @Override
+                public ConvertibleMessage next() {
+                    if (index >= data.size()) {
+                        throw new NoSuchElementException();
+                    }
+                    message.data = data.get(index++);
+                    return message;
+                }
+            };
+        }
+    }
+
+    private static class FlyweightMessage implements IndexedConvertibleMessage {
+
+        private final String[] columnOrder;
+        private Map<String, String> data;
+
+        FlyweightMessage(String[] columnOrder) {
+            this.columnOrder = columnOrder;
+        }
+
+        @Override
+        public String getElement(String elementId) {
+            return data.get(elementId);
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            return data.get(columnOrder[columnIndex]);
+        }
+    }
+
+    private static class IndexedRecordMessage extends RecordMessage implements IndexedConvertibleMessage {
+
+        private final String[] columnOrder;
+
+        IndexedRecordMessage(Map<String, String> data, String[] columnOrder) {
+            super(data);
+            this.columnOrder = columnOrder;
+        }
+
+        @Override
+        public String getElement(int columnIndex) {
+            return data.get(columnOrder[columnIndex]);
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package org.eagleinvsys.test.converters.mappers;
+
+/**
+ * Way of mapping {@link java.util.List} of maps into {@link org.eagleinvsys.test.converters.ConvertibleCollection}
+ */
+public enum MappingMode {
+    /**
+     * Every map is wrapped into its own message collected into a new list, see
+     * {@link ConvertibleCollectionMapper#toConvertibleCollection(java.util.List)}
+     */
+    COPY,
+    /**
+     * Maps are read through a view of the original list without any copying, see
+     * {@link ConvertibleCollectionMapper#toConvertibleCollectionView(java.util.List)}
+     */
+    VIEW
+}
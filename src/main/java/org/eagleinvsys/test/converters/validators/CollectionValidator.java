@@ -0,0 +1,29 @@
+package org.eagleinvsys.test.converters.validators;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CollectionValidator {
+
+    /**
+     * Validates given collection before it is converted
+     *
+     * @param collectionToConvert         collection to convert. All maps must have the same set of keys
+     *
+     * @throws InvalidCollectionException if collectionToConvert is null or empty
+     * @throws InvalidCollectionException if one of the maps is null or empty
+     * @throws InvalidCollectionException if maps have different set of keys
+     */
+    void validate(List<Map<String, String>> collectionToConvert);
+
+    /**
+     * @return true if {@link #validate(List)} checks only the collection and its first map, leaving other maps to be
+     *         validated one by one right before they are written
+     */
+    default boolean validatesWhileWriting() {
+        return false;
+    }
+
+}
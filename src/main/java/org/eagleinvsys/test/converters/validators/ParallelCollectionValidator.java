@@ -0,0 +1,105 @@
+package org.eagleinvsys.test.converters.validators;
+
+import lombok.NonNull;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates chunks of a {@link RandomAccess} collection on multiple threads. If several maps are invalid, the one with
+ * the lowest index is reported, so the result is always the same as of {@link SequentialCollectionValidator}. Chunks
+ * after an already found invalid map are skipped. Other collections and collections not larger than a single chunk
+ * are validated on the calling thread
+ */
+public class ParallelCollectionValidator implements CollectionValidator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final Executor executor;
+    private final int chunkSize;
+
+    public ParallelCollectionValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelCollectionValidator(Executor executor) {
+        this(executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param executor  executor to validate chunks on
+     * @param chunkSize number of maps validated by a single task
+     *
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    public ParallelCollectionValidator(@NonNull Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void validate(List<Map<String, String>> collectionToConvert) {
+        if (Objects.isNull(collectionToConvert) || collectionToConvert.isEmpty()) {
+            throw new InvalidCollectionException("Provided collectionToConvert is empty or null.");
+        }
+        RecordValidator recordValidator = RecordValidator.forFirstRecord(collectionToConvert.get(0));
+        int size = collectionToConvert.size();
+        if (!(collectionToConvert instanceof RandomAccess) || size <= chunkSize) {
+            for (Map<String, String> map :
+                    collectionToConvert) {
+                recordValidator.validate(map);
+            }
+            return;
+        }
+        AtomicInteger firstInvalidIndex = new AtomicInteger(Integer.MAX_VALUE);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(size / chunkSize + 1);
+        for (int from = 0; from < size; from += chunkSize) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(from + chunkSize, size);
+            chunks.add(CompletableFuture.runAsync(() ->
+                    validateChunk(collectionToConvert, chunkFrom, chunkTo, recordValidator, firstInvalidIndex), executor));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        int invalidIndex = firstInvalidIndex.get();
+        if (invalidIndex != Integer.MAX_VALUE) {
+            // validated again on the calling thread to throw exactly the exception of the sequential validation
+            recordValidator.validate(collectionToConvert.get(invalidIndex));
+        }
+    }
+
+    private static void validateChunk(List<Map<String, String>> collectionToConvert, int from, int to,
+                                      RecordValidator recordValidator, AtomicInteger firstInvalidIndex) {
+        for (int i = from; i < to && i < firstInvalidIndex.get(); i++) {
+            try {
+                recordValidator.validate(collectionToConvert.get(i));
+            } catch (InvalidCollectionException e) {
+                int index = i;
+                firstInvalidIndex.accumulateAndGet(index, Math::min);
+                return;
+            }
+        }
+    }
+
+}
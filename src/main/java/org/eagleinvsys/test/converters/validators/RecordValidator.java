@@ -0,0 +1,105 @@
+package org.eagleinvsys.test.converters.validators;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Validates maps of a collection against the set of keys of its first map. Key sets are compared by a fingerprint
+ * of the first one before falling back to {@link Set#equals(Object)}: sizes are compared first, key sets of the same
+ * class are walked in iteration order comparing keys by identity and then by equals, which accepts maps with keys
+ * inserted in the same order without any hashing or lookups, and sets with different order independent hash codes
+ * are rejected. Every map is accepted or rejected exactly as by comparing key sets with {@link Set#equals(Object)}.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class RecordValidator {
+
+    private final Set<String> headers;
+    private final Class<?> keySetClass;
+    private final Object[] keys;
+    private final int hash;
+
+    private RecordValidator(Set<String> headers) {
+        this.headers = headers;
+        this.keySetClass = headers.getClass();
+        this.keys = headers.toArray();
+        this.hash = headers.hashCode();
+    }
+
+    /**
+     * Validates the first map of a collection and creates validator of the other maps
+     *
+     * @param firstRecord                 first map of the collection, its key set becomes the expected one
+     * @return                            validator of the other maps
+     *
+     * @throws InvalidCollectionException if firstRecord is null or empty
+     */
+    public static RecordValidator forFirstRecord(Map<String, String> firstRecord) {
+        validateNotEmpty(firstRecord);
+        return new RecordValidator(firstRecord.keySet());
+    }
+
+    /**
+     * @return key set of the first map
+     */
+    public Set<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Validates single map of the collection
+     *
+     * @param map                         map to validate
+     *
+     * @throws InvalidCollectionException if map is null or empty
+     * @throws InvalidCollectionException if map has different set of keys than the first map
+     */
+    public void validate(Map<String, String> map) {
+        validateNotEmpty(map);
+        if (!hasSameKeys(map.keySet())) {
+            throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+        }
+    }
+
+    private boolean hasSameKeys(Set<String> keySet) {
+        if (keySet == headers) {
+            return true;
+        }
+        if (keySet.size() != keys.length) {
+            return false;
+        }
+        if (keySet.getClass() == keySetClass && hasSameKeysInOrder(keySet)) {
+            return true;
+        }
+        // sorted sets may consider keys equal by their comparator regardless of hash codes
+        if (!(keySet instanceof SortedSet) && keySet.hashCode() != hash) {
+            return false;
+        }
+        return keySet.equals(headers);
+    }
+
+    private boolean hasSameKeysInOrder(Set<String> keySet) {
+        int i = 0;
+        for (String key : keySet) {
+            if (i == keys.length) {
+                return false;
+            }
+            Object expectedKey = keys[i++];
+            if (key != expectedKey && (key == null || !key.equals(expectedKey))) {
+                return false;
+            }
+        }
+        return i == keys.length;
+    }
+
+    private static void validateNotEmpty(Map<String, String> map) {
+        if (Objects.isNull(map) || map.isEmpty()) {
+            throw new InvalidCollectionException("One of the maps is empty or null.");
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.eagleinvsys.test.converters.validators;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Validates all maps of a collection one by one on the calling thread
+ */
+public class SequentialCollectionValidator implements CollectionValidator {
+
+    @Override
+    public void validate(List<Map<String, String>> collectionToConvert) {
+        if (Objects.isNull(collectionToConvert) || collectionToConvert.isEmpty()) {
+            throw new InvalidCollectionException("Provided collectionToConvert is empty or null.");
+        }
+        RecordValidator recordValidator = RecordValidator.forFirstRecord(collectionToConvert.get(0));
+        for (Map<String, String> map :
+                collectionToConvert) {
+            recordValidator.validate(map);
+        }
+    }
+
+}
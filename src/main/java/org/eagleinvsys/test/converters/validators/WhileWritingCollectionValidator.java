@@ -0,0 +1,29 @@
+package org.eagleinvsys.test.converters.validators;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Validates only the collection and its first map up front, other maps are validated by the converter right before
+ * they are written, so there is no separate validation pass. Invalid map is reported with the same exception as by
+ * {@link SequentialCollectionValidator}, but after all maps preceding it have been written
+ */
+public class WhileWritingCollectionValidator implements CollectionValidator {
+
+    @Override
+    public void validate(List<Map<String, String>> collectionToConvert) {
+        if (Objects.isNull(collectionToConvert) || collectionToConvert.isEmpty()) {
+            throw new InvalidCollectionException("Provided collectionToConvert is empty or null.");
+        }
+        RecordValidator.forFirstRecord(collectionToConvert.get(0));
+    }
+
+    @Override
+    public boolean validatesWhileWriting() {
+        return true;
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.AsyncCsvConverter;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.TestCollections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncCsvConverterTests {
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    AsyncCsvConverter asyncCsvConverter = new AsyncCsvConverter(executor);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenValidCollection_whenConvertAsyncToFileChannel_thenFileContainsSameBytesAsOutputStream() throws Exception {
+        ConvertibleCollection testCollection = testCollection(testRecords(50_000));
+        Path testPath = tempDir.resolve("result.csv");
+        byte[] expected = convertToBytes(testCollection);
+
+        ConversionResult result;
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(testPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            result = asyncCsvConverter.convertAsync(testCollection, channel).get(1, TimeUnit.MINUTES);
+        }
+
+        assertArrayEquals(expected, Files.readAllBytes(testPath));
+        assertEquals(50_000, result.getRowsWritten());
+        assertEquals(expected.length, result.getBytesWritten());
+    }
+
+    @Test
+    public void givenValidCollection_whenConvertAsyncToWritableChannel_thenChannelContainsSameBytesAsOutputStream() throws Exception {
+        ConvertibleCollection testCollection = testCollection(testRecords(50_000));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        ConversionResult result = asyncCsvConverter.convertAsync(testCollection, Channels.newChannel(testBaos))
+                .get(1, TimeUnit.MINUTES);
+
+        assertArrayEquals(convertToBytes(testCollection), testBaos.toByteArray());
+        assertEquals(50_000, result.getRowsWritten());
+        assertEquals(testBaos.size(), result.getBytesWritten());
+    }
+
+    @Test
+    public void givenEmptyRecords_whenConvertAsync_thenOnlyHeadersAreWritten() throws Exception {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        ConversionResult result = asyncCsvConverter.convertAsync(testCollection(List.of()), Channels.newChannel(testBaos))
+                .get(1, TimeUnit.MINUTES);
+
+        assertEquals("id,value\n", testBaos.toString());
+        assertEquals(0, result.getRowsWritten());
+    }
+
+    @Test
+    public void givenInvalidCollection_whenConvertAsync_thenFutureFailsWithInvalidCollectionException() {
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder().records(List.of()).build();
+
+        CompletableFuture<ConversionResult> result = asyncCsvConverter.convertAsync(testCollection,
+                Channels.newChannel(new ByteArrayOutputStream()));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof InvalidCollectionException);
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvertAsync_thenPrecedingRecordsAreWritten() {
+        List<ConvertibleMessage> testRecords = testRecords(10);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 7) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        CompletableFuture<ConversionResult> result = asyncCsvConverter.convertAsync(testCollection(failingRecords),
+                Channels.newChannel(testBaos));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof InvalidCollectionException);
+        assertArrayEquals(convertToBytes(testCollection(testRecords.subList(0, 7))), testBaos.toByteArray());
+    }
+
+    @Test
+    public void givenFailingChannel_whenConvertAsync_thenFutureFailsWithWriteException() {
+        WritableByteChannel failingChannel = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        CompletableFuture<ConversionResult> result = asyncCsvConverter.convertAsync(testCollection(testRecords(10)),
+                failingChannel);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void givenRunningConversion_whenCancelled_thenRecordsAreNoLongerRead() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicInteger readRecords = new AtomicInteger();
+        ConvertibleMessage testMessage = testRecords(1).get(0);
+        Iterable<ConvertibleMessage> endlessRecords = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (readRecords.incrementAndGet() == 1000) {
+                    started.countDown();
+                    try {
+                        cancelled.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return testMessage;
+            }
+        };
+
+        CompletableFuture<ConversionResult> result = asyncCsvConverter.convertAsync(testCollection(endlessRecords),
+                Channels.newChannel(new ByteArrayOutputStream()));
+        assertTrue(started.await(1, TimeUnit.MINUTES));
+        assertTrue(result.cancel(true));
+        cancelled.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(result.isCancelled());
+        assertEquals(1000, readRecords.get());
+    }
+
+    private static List<ConvertibleMessage> testRecords(int count) {
+        return TestCollections.testRecords(count, i -> "value, \"number\" " + i);
+    }
+
+    private static byte[] convertToBytes(ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        new CsvConverter().convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.BinaryColumnarConverter;
+import org.eagleinvsys.test.converters.impl.BinaryColumnarReader;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.IndexedConvertibleMessageTestImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryColumnarConverterTests {
+
+    private static final String VALUE_CHARACTERS = "abcXYZ019 ,\"'\n\u00e9\u4e2d";
+
+    private final BinaryColumnarConverter converter = new BinaryColumnarConverter(BinaryColumnarOptions.builder()
+            .rowGroupSize(16)
+            .maxDictionarySize(8)
+            .build());
+
+    @Test
+    public void givenRandomCollections_whenConvertAndRead_thenEqualToOriginal() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            List<String> headers = randomHeaders(random);
+            List<List<String>> expected = randomRows(random, headers.size());
+
+            byte[] output = convert(converter, collection(headers, expected));
+
+            assertEquals(headers, readHeaders(output), "seed iteration " + i);
+            assertEquals(expected, readRows(output), "seed iteration " + i);
+        }
+    }
+
+    @Test
+    public void givenDefaultOptions_whenConvertAndRead_thenEqualToOriginal() {
+        Random random = new Random(5);
+        List<String> headers = randomHeaders(random);
+        List<List<String>> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.addAll(randomRows(random, headers.size()));
+        }
+
+        assertEquals(expected, readRows(convert(new BinaryColumnarConverter(), collection(headers, expected))));
+    }
+
+    @Test
+    public void givenNullAndEmptyValues_whenConvertAndRead_thenNullsAreKept() {
+        List<List<String>> expected = List.of(
+                Arrays.asList(null, ""),
+                Arrays.asList("", null),
+                Arrays.asList(null, null));
+
+        assertEquals(expected, readRows(convert(converter, collection(List.of("k1", "k2"), expected))));
+    }
+
+    @Test
+    public void givenColumnsOfFewDistinctValues_whenRead_thenColumnsAreDictionaryEncoded() {
+        List<List<String>> rows = new ArrayList<>();
+        for (int row = 0; row < 16; row++) {
+            rows.add(List.of("repeated value " + row % 2, "unique value " + row));
+        }
+
+        try (BinaryColumnarReader reader = reader(convert(converter, collection(List.of("k1", "k2"), rows)))) {
+            ColumnarConvertibleCollection rowGroup = reader.nextRowGroup();
+
+            assertArrayEquals(new String[]{"repeated value 0", "repeated value 1"}, rowGroup.getColumnDictionary(0));
+            assertNull(rowGroup.getColumnValues(0));
+            assertNull(rowGroup.getColumnDictionary(1));
+            assertEquals("unique value 15", rowGroup.getValue(15, 1));
+            assertNull(reader.nextRowGroup());
+            assertNull(reader.nextRowGroup());
+        }
+    }
+
+    @Test
+    public void givenColumnarCollection_whenConvert_thenOutputIsSameAsOfMessages() {
+        List<List<String>> rows = randomRows(new Random(9), 2);
+        String[] first = new String[rows.size()];
+        String[] second = new String[rows.size()];
+        for (int row = 0; row < rows.size(); row++) {
+            first[row] = rows.get(row).get(0);
+            second[row] = rows.get(row).get(1);
+        }
+        ColumnarConvertibleCollection columnar = ColumnarConvertibleCollection.builder()
+                .column("k1", first)
+                .dictionaryColumn("k2", second)
+                .build();
+
+        assertArrayEquals(convert(converter, collection(List.of("k1", "k2"), rows)), convert(converter, columnar));
+    }
+
+    @Test
+    public void givenMapMessages_whenConvert_thenValuesAreReadByHeaders() {
+        ConvertibleCollection collection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("k1", "k2"))
+                .records(List.of(ConvertibleMessageTestImpl.builder().data(Map.of("k2", "v2", "k1", "v1")).build()))
+                .build();
+
+        assertEquals(List.of(List.of("v1", "v2")), readRows(convert(converter, collection)));
+    }
+
+    @Test
+    public void givenInvalidRecord_whenConvert_thenPrecedingRecordsAreWrittenAsCompleteFile() {
+        List<List<String>> rows = randomRows(new Random(1), 1);
+        List<ConvertibleMessage> records = new ArrayList<>(messages(List.of("k1"), rows.subList(0, 20)));
+        records.add(elementId -> {
+            throw new InvalidCollectionException("Invalid record.");
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(InvalidCollectionException.class, () -> converter.convert(ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("k1"))
+                .records(records)
+                .build(), output));
+        assertEquals(rows.subList(0, 20), readRows(output.toByteArray()));
+    }
+
+    @Test
+    public void givenInvalidCollections_whenConvert_thenThrowInvalidCollectionException() {
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, ConvertibleCollectionTestImpl.builder().headers(List.of()).records(List.of()).build()));
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, ConvertibleCollectionTestImpl.builder().headers(Arrays.asList("k1", null))
+                        .records(List.of()).build()));
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, ConvertibleCollectionTestImpl.builder().headers(List.of("k1")).build()));
+    }
+
+    @Test
+    public void givenMalformedStreams_whenRead_thenThrowInvalidCollectionException() {
+        byte[] output = convert(converter, collection(List.of("k1", "k2"), randomRows(new Random(2), 2)));
+
+        assertThrows(InvalidCollectionException.class, () -> reader(new byte[0]));
+        assertThrows(InvalidCollectionException.class, () -> reader("k1,k2\nv1,v2\n".getBytes()));
+        for (int length = output.length - 1; length > 0; length--) {
+            byte[] truncated = Arrays.copyOf(output, length);
+            assertThrows(InvalidCollectionException.class, () -> readRows(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    public void givenInvalidOptions_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryColumnarConverter(BinaryColumnarOptions.builder().rowGroupSize(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryColumnarConverter(BinaryColumnarOptions.builder().maxDictionarySize(-1).build()));
+    }
+
+    private static List<String> randomHeaders(Random random) {
+        int columns = 1 + random.nextInt(6);
+        Set<String> headers = new LinkedHashSet<>();
+        while (headers.size() < columns) {
+            headers.add("h" + randomValue(random, 8));
+        }
+        return new ArrayList<>(headers);
+    }
+
+    /**
+     * Generates rows mixing values repeated often enough for dictionary encoding with long unique values
+     */
+    private static List<List<String>> randomRows(Random random, int columns) {
+        int rows = random.nextInt(60);
+        List<List<String>> records = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            List<String> record = new ArrayList<>();
+            for (int column = 0; column < columns; column++) {
+                int kind = random.nextInt(8);
+                if (kind == 0) {
+                    record.add(null);
+                } else if (kind < 4) {
+                    record.add("value " + random.nextInt(4));
+                } else {
+                    record.add(randomValue(random, random.nextInt(4) == 0 ? 200 : 12));
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static String randomValue(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(VALUE_CHARACTERS.charAt(random.nextInt(VALUE_CHARACTERS.length())));
+        }
+        return value.toString();
+    }
+
+    private static List<ConvertibleMessage> messages(List<String> headers, List<List<String>> rows) {
+        List<ConvertibleMessage> messages = new ArrayList<>();
+        for (List<String> row : rows) {
+            messages.add(IndexedConvertibleMessageTestImpl.builder().headers(headers).values(row).build());
+        }
+        return messages;
+    }
+
+    private static ConvertibleCollection collection(List<String> headers, List<List<String>> rows) {
+        return ConvertibleCollectionTestImpl.builder().headers(headers).records(messages(headers, rows)).build();
+    }
+
+    private static byte[] convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        converter.convert(collection, output);
+        return output.toByteArray();
+    }
+
+    private static BinaryColumnarReader reader(byte[] bytes) {
+        return new BinaryColumnarReader(new ByteArrayInputStream(bytes));
+    }
+
+    private static List<String> readHeaders(byte[] bytes) {
+        try (BinaryColumnarReader reader = reader(bytes)) {
+            return reader.getHeaders();
+        }
+    }
+
+    private static List<List<String>> readRows(byte[] bytes) {
+        List<List<String>> rows = new ArrayList<>();
+        try (BinaryColumnarReader reader = reader(bytes)) {
+            ColumnarConvertibleCollection rowGroup;
+            while ((rowGroup = reader.nextRowGroup()) != null) {
+                for (ConvertibleMessage message : rowGroup.getRecords()) {
+                    List<String> row = new ArrayList<>();
+                    for (int column = 0; column < rowGroup.getColumnCount(); column++) {
+                        row.add(((IndexedConvertibleMessage) message).getElement(column));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+}
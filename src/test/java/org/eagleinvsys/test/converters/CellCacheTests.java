@@ -0,0 +1,162 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellCacheTests {
+
+    private static final String[] SPECIAL_VALUES = {"plain", "with, comma", "with \"quote\"", "tab\there",
+            "caf\u00e9", "\u043f\u0440\u0438\u0432\u0435\u0442, \u043c\u0438\u0440", "", null};
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenLowCardinalityColumns_whenConvertWithCellCache_thenOutputIsSameAsWithoutCache() {
+        ConvertibleCollection testCollection = testCollection(5_000, 8);
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder().cellCacheCapacity(16).build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("value");
+        assertEquals(Set.of("id", "value"), cachingConverter.getCellCacheStatistics().keySet());
+        assertTrue(actualStatistics.getHitRatio() > 0.9);
+        assertEquals(0, actualStatistics.getEvictions());
+        assertEquals(0, actualStatistics.getDisabledConversions());
+    }
+
+    @Test
+    public void givenCacheSmallerThanCardinality_whenConvertWithCellCache_thenValuesAreEvictedAndOutputIsSame() {
+        ConvertibleCollection testCollection = testCollection(5_000, 40);
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder()
+                .cellCacheCapacity(4)
+                .cellCacheMinHitRatio(0)
+                .build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("value");
+        assertTrue(actualStatistics.getEvictions() > 0);
+        assertEquals(0, actualStatistics.getDisabledConversions());
+    }
+
+    @Test
+    public void givenUniqueValues_whenConvertWithCellCache_thenCacheIsSwitchedOffAfterFirstSample() {
+        ConvertibleCollection testCollection = testCollection(10_000, Integer.MAX_VALUE);
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder()
+                .cellCacheCapacity(64)
+                .cellCacheSampleSize(1000)
+                .build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("id");
+        assertEquals(1, actualStatistics.getDisabledConversions());
+        assertEquals(1000, actualStatistics.getHits() + actualStatistics.getMisses());
+    }
+
+    @Test
+    public void givenSeveralConversions_whenGetCellCacheStatistics_thenStatisticsAreAccumulated() {
+        ConvertibleCollection testCollection = testCollection(100, 8);
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder().cellCacheCapacity(16).build());
+
+        convert(cachingConverter, testCollection);
+        convert(cachingConverter, testCollection);
+
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("value");
+        assertEquals(2 * (100 - countNulls(testCollection)), actualStatistics.getHits() + actualStatistics.getMisses());
+    }
+
+    @Test
+    public void givenLongValues_whenConvertWithCellCache_thenLongValuesAreNotCached() {
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("value"))
+                .records(Collections.nCopies(10, ConvertibleMessageTestImpl.builder()
+                        .data(Map.of("value", "x".repeat(300)))
+                        .build()))
+                .build();
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder().cellCacheCapacity(16).build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("value");
+        assertEquals(0, actualStatistics.getHits() + actualStatistics.getMisses());
+    }
+
+    @Test
+    public void givenColumnarCollection_whenConvertWithCellCache_thenOutputIsSameAsWithoutCache() {
+        String[] values = new String[3_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = SPECIAL_VALUES[i % SPECIAL_VALUES.length];
+        }
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder()
+                .column("value", values)
+                .dictionaryColumn("code", values)
+                .build();
+        CsvConverter cachingConverter = new CsvConverter(CsvOptions.builder().cellCacheCapacity(16).build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+        assertTrue(cachingConverter.getCellCacheStatistics().get("value").getHitRatio() > 0.9);
+    }
+
+    @Test
+    public void givenParallelConverter_whenConvertWithCellCache_thenOutputIsSameAsSequentialWithoutCache() {
+        ConvertibleCollection testCollection = testCollection(20_000, 8);
+        ParallelCsvConverter cachingConverter = new ParallelCsvConverter(executor, 500, 4,
+                CsvOptions.builder().cellCacheCapacity(16).build());
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), convert(cachingConverter, testCollection));
+
+        CellCacheStatistics actualStatistics = cachingConverter.getCellCacheStatistics().get("value");
+        assertEquals(20_000 - countNulls(testCollection), actualStatistics.getHits() + actualStatistics.getMisses());
+    }
+
+    private static byte[] convert(CsvConverter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        converter.convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+    private static long countNulls(ConvertibleCollection collection) {
+        long nulls = 0;
+        for (ConvertibleMessage message : collection.getRecords()) {
+            if (message.getElement("value") == null) {
+                nulls++;
+            }
+        }
+        return nulls;
+    }
+
+    /**
+     * Creates records with unique ids and values made of special values suffixed by row number modulo cardinality
+     */
+    private static ConvertibleCollection testCollection(int count, int cardinality) {
+        List<ConvertibleMessage> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> data = new HashMap<>();
+            data.put("id", String.valueOf(i));
+            String special = SPECIAL_VALUES[i % SPECIAL_VALUES.length];
+            data.put("value", special == null ? null : special + i % cardinality);
+            records.add(ConvertibleMessageTestImpl.builder().data(data).build());
+        }
+        return ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("id", "value"))
+                .records(records)
+                .build();
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testRecords;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelConverterTests {
+
+    @TempDir
+    Path tempDir;
+
+    CsvConverter csvConverter = new CsvConverter();
+
+    @Test
+    public void givenValidCollection_whenConvertToPath_thenFileContainsSameBytesAsOutputStream() throws IOException {
+        ConvertibleCollection testCollection = testCollection(50_000);
+        Path testPath = tempDir.resolve("result.csv");
+
+        csvConverter.convert(testCollection, testPath);
+
+        assertArrayEquals(convertToBytes(testCollection), Files.readAllBytes(testPath));
+    }
+
+    @Test
+    public void givenSmallBuffers_whenConvertToPath_thenFileContainsSameBytesAsOutputStream() throws IOException {
+        ConvertibleCollection testCollection = testCollection(10_000);
+        Path testPath = tempDir.resolve("result.csv");
+        FileOutputOptions testOptions = FileOutputOptions.builder()
+                .bufferSize(1000)
+                .buffersPerWrite(3)
+                .forcePolicy(FileOutputOptions.ForcePolicy.ON_COMPLETION)
+                .build();
+
+        csvConverter.convert(testCollection, testPath, testOptions);
+
+        assertArrayEquals(convertToBytes(testCollection), Files.readAllBytes(testPath));
+    }
+
+    @Test
+    public void givenExpectedSizeLargerThanResult_whenConvertToPath_thenFileIsTruncatedToResult() throws IOException {
+        ConvertibleCollection testCollection = testCollection(100);
+        Path testPath = tempDir.resolve("result.csv");
+        Files.write(testPath, new byte[1_000_000]);
+
+        csvConverter.convert(testCollection, testPath, FileOutputOptions.builder().expectedSize(10_000_000).build());
+
+        assertArrayEquals(convertToBytes(testCollection), Files.readAllBytes(testPath));
+    }
+
+    @Test
+    public void givenNonGatheringChannel_whenConvert_thenChannelContainsSameBytesAsOutputStream() {
+        ConvertibleCollection testCollection = testCollection(20_000);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        csvConverter.convert(testCollection, Channels.newChannel(testBaos));
+
+        assertArrayEquals(convertToBytes(testCollection), testBaos.toByteArray());
+    }
+
+    @Test
+    public void givenParallelConverter_whenConvertToPath_thenFileContainsSameBytesAsSequentialConverter() throws IOException {
+        ConvertibleCollection testCollection = testCollection(30_000);
+        Path testPath = tempDir.resolve("result.csv");
+
+        new ParallelCsvConverter().convert(testCollection, testPath);
+
+        assertArrayEquals(convertToBytes(testCollection), Files.readAllBytes(testPath));
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvertToPath_thenPrecedingRecordsAreWritten() throws IOException {
+        List<ConvertibleMessage> testRecords = testRecords(10);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 7) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        Path testPath = tempDir.resolve("result.csv");
+
+        assertThrows(InvalidCollectionException.class,
+                () -> csvConverter.convert(testCollection(failingRecords), testPath));
+        assertArrayEquals(convertToBytes(testCollection(testRecords.subList(0, 7))), Files.readAllBytes(testPath));
+    }
+
+    private byte[] convertToBytes(ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        csvConverter.convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarConvertibleCollectionTests {
+
+    private static final String[] TEST_VALUES = {"plain", "with, comma", "with \"quotes\"", "with\ttab", null, "",
+            "caf\u00e9", "it's"};
+
+    CsvConverter csvConverter = new CsvConverter();
+
+    @Test
+    public void givenColumnarCollection_whenConvert_thenOutputIsSameAsOfMapBackedCollection() {
+        String[][] testColumns = testColumns(3, 5000, new Random(3));
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder()
+                .column("plain", testColumns[0])
+                .dictionaryColumn("dictionary", testColumns[1])
+                .column("codes", codesOf(testColumns[2]), TEST_VALUES)
+                .build();
+
+        assertEquals(convertToString(mapBacked(List.of("plain", "dictionary", "codes"), testColumns)),
+                convertToString(testCollection));
+    }
+
+    @Test
+    public void givenColumnarCollection_whenConvertInParallel_thenOutputIsSameAsSequential() {
+        String[][] testColumns = testColumns(2, 10_000, new Random(4));
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder()
+                .column("plain", testColumns[0])
+                .dictionaryColumn("dictionary", testColumns[1])
+                .build();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new ParallelCsvConverter(ForkJoinPool.commonPool(), 333, 4).convert(testCollection, testBaos);
+
+        assertEquals(convertToString(testCollection), testBaos.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void givenColumnarCollection_whenReadRecords_thenMessagesProvideValuesByHeaderAndPosition() {
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder()
+                .column("k1", new String[]{"v11", "v21"})
+                .dictionaryColumn("k2", new String[]{"v12", "v12"})
+                .build();
+
+        List<ConvertibleMessage> actualRecords = (List<ConvertibleMessage>) testCollection.getRecords();
+        IndexedConvertibleMessage actualSecondMessage = (IndexedConvertibleMessage) actualRecords.get(1);
+
+        assertTrue(actualRecords instanceof RandomAccess);
+        assertEquals(2, actualRecords.size());
+        assertEquals(List.of("k1", "k2"), new ArrayList<>(testCollection.getHeaders()));
+        assertEquals("v21", actualSecondMessage.getElement("k1"));
+        assertEquals("v12", actualSecondMessage.getElement(1));
+        assertNull(actualSecondMessage.getElement("randomTestKey"));
+        assertEquals(1, testCollection.getColumnDictionary(1).length);
+    }
+
+    @Test
+    public void givenColumnsWithDifferentNumberOfRows_whenBuild_thenThrowInvalidCollectionException() {
+        ColumnarConvertibleCollection.Builder testBuilder = ColumnarConvertibleCollection.builder()
+                .column("k1", new String[]{"v11", "v21"})
+                .column("k2", new String[]{"v12"});
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class, testBuilder::build);
+
+        assertEquals("Columns have different number of rows.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenDictionaryCodeOutOfRange_whenBuild_thenThrowInvalidCollectionException() {
+        ColumnarConvertibleCollection.Builder testBuilder = ColumnarConvertibleCollection.builder()
+                .column("k1", new int[]{0, 2}, new String[]{"v1", "v2"});
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class, testBuilder::build);
+
+        assertEquals("Dictionary code is out of range.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenNoColumns_whenConvert_thenThrowInvalidCollectionException() {
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder().build();
+
+        assertThrows(InvalidCollectionException.class, () -> csvConverter.convert(testCollection, new ByteArrayOutputStream()));
+    }
+
+    private String convertToString(ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        csvConverter.convert(collection, testBaos);
+        return testBaos.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String[][] testColumns(int columns, int rows, Random random) {
+        String[][] testColumns = new String[columns][rows];
+        for (String[] column : testColumns) {
+            for (int row = 0; row < rows; row++) {
+                column[row] = TEST_VALUES[random.nextInt(TEST_VALUES.length)];
+            }
+        }
+        return testColumns;
+    }
+
+    private static int[] codesOf(String[] values) {
+        List<String> dictionary = Arrays.asList(TEST_VALUES);
+        return Arrays.stream(values).mapToInt(dictionary::indexOf).toArray();
+    }
+
+    private static ConvertibleCollection mapBacked(List<String> headers, String[][] columns) {
+        List<ConvertibleMessage> records = new ArrayList<>();
+        for (int row = 0; row < columns[0].length; row++) {
+            Map<String, String> data = new HashMap<>();
+            for (int column = 0; column < headers.size(); column++) {
+                data.put(headers.get(column), columns[column][row]);
+            }
+            records.add(ConvertibleMessageTestImpl.builder().data(data).build());
+        }
+        return ConvertibleCollectionTestImpl.builder()
+                .headers(headers)
+                .records(records)
+                .build();
+    }
+}
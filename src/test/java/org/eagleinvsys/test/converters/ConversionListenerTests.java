@@ -0,0 +1,342 @@
+package org.eagleinvsys.test.converters;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.AsyncCsvConverter;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.impl.ReactiveCsvConverter;
+import org.eagleinvsys.test.converters.impl.ResumableCsvConverter;
+import org.eagleinvsys.test.converters.impl.ShardedCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.TestCollections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionListenerTests {
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    RecordingListener listener = new RecordingListener();
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenListener_whenConvert_thenListenerReceivesMetricsOfConversionAndChunks() {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().conversionListener(listener).build());
+
+        byte[] actualBytes = convert(csvConverter, testCollection);
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), actualBytes);
+        ConversionMetrics actualMetrics = listener.completed;
+        assertEquals(20_000, actualMetrics.getRows());
+        assertEquals(actualBytes.length, actualMetrics.getBytes());
+        assertEquals(10_000, actualMetrics.getEscapedCells());
+        assertTrue(actualMetrics.getChunks() > 1);
+        assertTrue(actualMetrics.getReadNanos() > 0);
+        assertTrue(actualMetrics.getEncodeNanos() > 0);
+        assertTrue(actualMetrics.getTotalNanos() >= actualMetrics.getWriteNanos());
+        assertEquals(actualMetrics.getChunks(), listener.chunks.size());
+        assertEquals(actualMetrics.getRows(), listener.chunks.stream().mapToLong(ConversionMetrics::getRows).sum());
+        assertEquals(actualMetrics.getBytes(), listener.chunks.stream().mapToLong(ConversionMetrics::getBytes).sum());
+        assertNull(listener.failure);
+    }
+
+    @Test
+    public void givenListener_whenConvertInParallel_thenListenerReceivesMetricsOfAllChunks() {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        ParallelCsvConverter parallelConverter = new ParallelCsvConverter(executor, 1000, 4,
+                CsvOptions.builder().conversionListener(listener).build());
+
+        byte[] actualBytes = convert(parallelConverter, testCollection);
+
+        assertArrayEquals(convert(new CsvConverter(), testCollection), actualBytes);
+        assertEquals(20_000, listener.completed.getRows());
+        assertEquals(actualBytes.length, listener.completed.getBytes());
+        assertEquals(10_000, listener.completed.getEscapedCells());
+        assertEquals(21, listener.completed.getChunks());
+    }
+
+    @Test
+    public void givenOptions_whenConvertAsyncOrReactive_thenOutputIsSameAsOfCsvConverterAndListenerReceivesMetrics()
+            throws Exception {
+        List<ConvertibleMessage> testRecords = testRecords(20_000);
+        ConvertibleCollection testCollection = testCollection(testRecords);
+        byte[] expectedBytes = convert(new CsvConverter(utf16Options(null)), testCollection);
+        RecordingListener publisherListener = new RecordingListener();
+        RecordingListener subscriberListener = new RecordingListener();
+
+        ByteArrayOutputStream asyncOutput = new ByteArrayOutputStream();
+        new AsyncCsvConverter(executor, utf16Options(listener))
+                .convertAsync(testCollection, Channels.newChannel(asyncOutput))
+                .get(1, TimeUnit.MINUTES);
+        ByteArrayOutputStream publishedOutput = new ByteArrayOutputStream();
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        new ReactiveCsvConverter(executor, utf16Options(publisherListener)).publish(testCollection)
+                .subscribe(collectingSubscriber(publishedOutput, published));
+        published.get(1, TimeUnit.MINUTES);
+        ByteArrayOutputStream subscriberOutput = new ByteArrayOutputStream();
+        ConversionSubscriber subscriber = new ReactiveCsvConverter(executor, utf16Options(subscriberListener))
+                .subscriber(List.of("id", "value"), subscriberOutput);
+        try (SubmissionPublisher<ConvertibleMessage> publisher = new SubmissionPublisher<>(executor, 16)) {
+            publisher.subscribe(subscriber);
+            testRecords.forEach(publisher::submit);
+        }
+        subscriber.getResult().get(1, TimeUnit.MINUTES);
+
+        assertArrayEquals(expectedBytes, asyncOutput.toByteArray());
+        assertArrayEquals(expectedBytes, publishedOutput.toByteArray());
+        assertArrayEquals(expectedBytes, subscriberOutput.toByteArray());
+        for (RecordingListener actualListener : List.of(listener, publisherListener, subscriberListener)) {
+            assertEquals(20_000, actualListener.completed.getRows());
+            assertEquals(expectedBytes.length, actualListener.completed.getBytes());
+            assertEquals(10_000, actualListener.completed.getEscapedCells());
+            assertEquals(actualListener.completed.getChunks(), actualListener.chunks.size());
+            assertNull(actualListener.failure);
+        }
+    }
+
+    @Test
+    public void givenListener_whenConvertToShards_thenListenerReceivesMetricsOfAllShards() {
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxRowsPerShard(5000)
+                .build(), CsvOptions.builder().conversionListener(listener).build());
+
+        List<ShardInfo> actualShards = shardedConverter.convertToShards(testCollection(testRecords(20_000)), tempDir);
+
+        assertEquals(4, actualShards.size());
+        assertEquals(20_000, listener.completed.getRows());
+        assertEquals(actualShards.stream().mapToLong(ShardInfo::getBytes).sum(), listener.completed.getBytes());
+        assertEquals(10_000, listener.completed.getEscapedCells());
+        assertTrue(listener.completed.getEncodeNanos() > 0);
+        assertEquals(listener.completed.getChunks(), listener.chunks.size());
+        assertNull(listener.failure);
+    }
+
+    @Test
+    public void givenListener_whenConvertResumable_thenListenerReceivesMetricsOfRecordsWrittenByEveryCall() {
+        List<ConvertibleMessage> testRecords = testRecords(50);
+        Iterable<ConvertibleMessage> interruptedRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 37) {
+                    throw new IllegalStateException("Source is interrupted.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        ResumableCsvConverter resumableConverter = new ResumableCsvConverter(
+                CsvOptions.builder().conversionListener(listener).build(),
+                CheckpointOptions.builder().checkpointIntervalRows(20).build());
+        Path testFile = tempDir.resolve("export.csv");
+
+        assertThrows(IllegalStateException.class,
+                () -> resumableConverter.convertResumable(testCollection(interruptedRecords), testFile));
+        ConversionResult actualResult = resumableConverter.convertResumable(testCollection(testRecords), testFile);
+
+        assertEquals(20, listener.failed.getRows());
+        assertTrue(listener.failure instanceof IllegalStateException);
+        assertEquals(30, listener.completed.getRows());
+        assertEquals(actualResult.getBytesWritten(), listener.completed.getBytes());
+        assertTrue(listener.completed.getEncodeNanos() > 0);
+    }
+
+    @Test
+    public void givenListener_whenConvertColumnarCollection_thenListenerReceivesRowsAndBytes() {
+        ColumnarConvertibleCollection testCollection = ColumnarConvertibleCollection.builder()
+                .column("value", new String[]{"a", "b, c", "d"})
+                .build();
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().conversionListener(listener).build());
+
+        byte[] actualBytes = convert(csvConverter, testCollection);
+
+        assertEquals(3, listener.completed.getRows());
+        assertEquals(actualBytes.length, listener.completed.getBytes());
+        assertEquals(1, listener.completed.getEscapedCells());
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvert_thenListenerReceivesMetricsOfPrecedingRecords() {
+        List<ConvertibleMessage> testRecords = testRecords(10);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 7) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().conversionListener(listener).build());
+
+        assertThrows(InvalidCollectionException.class,
+                () -> csvConverter.convert(testCollection(failingRecords), new ByteArrayOutputStream()));
+
+        assertEquals(7, listener.failed.getRows());
+        assertTrue(listener.failure instanceof InvalidCollectionException);
+        assertNull(listener.completed);
+    }
+
+    @Test
+    public void givenFailingOutputStream_whenConvert_thenThrowUncheckedIOExceptionAndNotifyListener() {
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+        };
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().conversionListener(listener).build());
+
+        UncheckedIOException actualException = assertThrows(UncheckedIOException.class,
+                () -> csvConverter.convert(testCollection(testRecords(10)), failingStream));
+
+        assertEquals("Disk is full.", actualException.getCause().getMessage());
+        assertTrue(listener.failure instanceof IOException);
+        assertThrows(UncheckedIOException.class,
+                () -> new CsvConverter().convert(testCollection(testRecords(10)), failingStream));
+    }
+
+    @Test
+    public void givenJfrRecording_whenConvert_thenConversionAndChunkEventsAreRecorded() throws IOException {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        Path testPath = tempDir.resolve("conversion.jfr");
+        byte[] actualBytes;
+        try (Recording recording = new Recording()) {
+            recording.enable("org.eagleinvsys.test.converters.Conversion");
+            recording.enable("org.eagleinvsys.test.converters.ConversionChunk");
+            recording.start();
+            actualBytes = convert(new CsvConverter(), testCollection);
+            recording.stop();
+            recording.dump(testPath);
+        }
+
+        Map<String, List<RecordedEvent>> actualEvents = RecordingFile.readAllEvents(testPath).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        List<RecordedEvent> actualConversions = actualEvents.get("org.eagleinvsys.test.converters.Conversion");
+        List<RecordedEvent> actualChunks = actualEvents.get("org.eagleinvsys.test.converters.ConversionChunk");
+        assertEquals(1, actualConversions.size());
+        assertEquals(20_000, actualConversions.get(0).getLong("rows"));
+        assertEquals(actualBytes.length, actualConversions.get(0).getLong("bytes"));
+        assertFalse(actualConversions.get(0).getBoolean("failed"));
+        assertEquals(actualBytes.length, actualChunks.stream().mapToLong(event -> event.getLong("bytes")).sum());
+    }
+
+    private static List<ConvertibleMessage> testRecords(int count) {
+        return TestCollections.testRecords(count, i -> i % 2 == 0 ? "value, number " + i : "value " + i);
+    }
+
+    private static byte[] convert(CsvConverter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        converter.convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+    private static CsvOptions utf16Options(ConversionListener listener) {
+        return CsvOptions.builder()
+                .charset(StandardCharsets.UTF_16LE)
+                .byteOrderMark(true)
+                .cellCacheCapacity(16)
+                .conversionListener(listener)
+                .build();
+    }
+
+    private static Flow.Subscriber<ByteBuffer> collectingSubscriber(ByteArrayOutputStream output,
+                                                                   CompletableFuture<Void> completed) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer chunk) {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                output.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        };
+    }
+
+    private static class RecordingListener implements ConversionListener {
+
+        private final List<ConversionMetrics> chunks = new ArrayList<>();
+        private ConversionMetrics completed;
+        private ConversionMetrics failed;
+        private Throwable failure;
+
+        @Override
+        public void onChunkWritten(ConversionMetrics chunkMetrics) {
+            chunks.add(chunkMetrics);
+        }
+
+        @Override
+        public void onConversionCompleted(ConversionMetrics metrics) {
+            completed = metrics;
+        }
+
+        @Override
+        public void onConversionFailed(ConversionMetrics metrics, Throwable cause) {
+            failed = metrics;
+            failure = cause;
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.AsyncCsvConverter;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.impl.ReactiveCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ReferenceCsvFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionPlanCacheTests {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenCollectionsOfSameHeaders_whenConvert_thenPlanIsCompiledOnce() {
+        CsvConverter converter = new CsvConverter();
+        for (int i = 0; i < 10; i++) {
+            ConvertibleCollection collection = collection(new ArrayList<>(List.of("k1", "k,2")),
+                    Map.of("k1", "v" + i, "k,2", "\"" + i));
+
+            assertEquals(ReferenceCsvFormatter.format(collection), convert(converter, collection));
+        }
+
+        PlanCacheStatistics statistics = converter.getPlanCacheStatistics();
+        assertEquals(9, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+        assertEquals(1, statistics.getSize());
+        assertEquals(0.9, statistics.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void givenCachedHeaders_whenConvert_thenHeadersAreReadOnce() {
+        CsvConverter converter = new CsvConverter();
+        AtomicInteger headerReads = new AtomicInteger();
+        List<ConvertibleMessage> records = List.of(message(Map.of("k", "v1")), message(Map.of("k", "v2")));
+        ConvertibleCollection collection = new ConvertibleCollection() {
+            @Override
+            public Collection<String> getHeaders() {
+                headerReads.incrementAndGet();
+                return List.of("k");
+            }
+
+            @Override
+            public Iterable<ConvertibleMessage> getRecords() {
+                return records;
+            }
+        };
+        convert(converter, collection);
+        headerReads.set(0);
+
+        assertEquals("k\nv1\nv2\n", convert(converter, collection));
+        assertEquals(1, headerReads.get());
+    }
+
+    @Test
+    public void givenAsyncAndReactiveConversionsOfSameHeaders_whenConvert_thenCachedPlanIsUsed() throws Exception {
+        ConvertibleCollection collection = collection(List.of("k1", "k,2"), Map.of("k1", "v1", "k,2", "\"2"));
+        AsyncCsvConverter asyncConverter = new AsyncCsvConverter(executor);
+        ReactiveCsvConverter reactiveConverter = new ReactiveCsvConverter(executor);
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream asyncOutput = new ByteArrayOutputStream();
+            asyncConverter.convertAsync(collection, Channels.newChannel(asyncOutput)).get(10, TimeUnit.SECONDS);
+            assertEquals(ReferenceCsvFormatter.format(collection), asyncOutput.toString(StandardCharsets.UTF_8));
+
+            ByteArrayOutputStream subscriberOutput = new ByteArrayOutputStream();
+            ConversionSubscriber subscriber = reactiveConverter.subscriber(List.of("k1", "k,2"), subscriberOutput);
+            try (SubmissionPublisher<ConvertibleMessage> publisher = new SubmissionPublisher<>(executor, 16)) {
+                publisher.subscribe(subscriber);
+                collection.getRecords().forEach(publisher::submit);
+            }
+            subscriber.getResult().get(10, TimeUnit.SECONDS);
+            assertEquals(ReferenceCsvFormatter.format(collection), subscriberOutput.toString(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(1, asyncConverter.getPlanCacheStatistics().getHits());
+        assertEquals(1, reactiveConverter.getPlanCacheStatistics().getHits());
+    }
+
+    @Test
+    public void givenMoreLayoutsThanCapacity_whenConvert_thenEldestPlansAreEvicted() {
+        CsvConverter converter = new CsvConverter(CsvOptions.builder().planCacheCapacity(2).build());
+        for (String header : List.of("a", "b", "c", "c", "a")) {
+            assertEquals(header + "\nv\n", convert(converter, collection(List.of(header), Map.of(header, "v"))));
+        }
+
+        PlanCacheStatistics statistics = converter.getPlanCacheStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(4, statistics.getMisses());
+        assertEquals(2, statistics.getEvictions());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void givenDisabledCache_whenConvert_thenEveryPlanIsCompiled() {
+        CsvConverter converter = new CsvConverter(CsvOptions.builder().planCacheCapacity(0).build());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("k\nv\n", convert(converter, collection(List.of("k"), Map.of("k", "v"))));
+        }
+
+        assertEquals(new PlanCacheStatistics(0, 3, 0, 0), converter.getPlanCacheStatistics());
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvConverter(CsvOptions.builder().planCacheCapacity(-1).build()));
+    }
+
+    @Test
+    public void givenHeadersNotInList_whenConvert_thenPlanOfEqualListIsUsed() {
+        CsvConverter converter = new CsvConverter();
+        convert(converter, collection(List.of("k1", "k2"), Map.of("k1", "v1", "k2", "v2")));
+
+        assertEquals("k1,k2\nv1,v2\n", convert(converter, collection(new LinkedHashSet<>(List.of("k1", "k2")),
+                Map.of("k1", "v1", "k2", "v2"))));
+        assertEquals(1, converter.getPlanCacheStatistics().getHits());
+    }
+
+    @Test
+    public void givenInvalidHeadersAfterValidOnes_whenConvert_thenThrowInvalidCollectionException() {
+        CsvConverter converter = new CsvConverter();
+        convert(converter, collection(List.of("k"), Map.of("k", "v")));
+
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, collection(Arrays.asList("k", null), Map.of("k", "v"))));
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, collection(List.of(), Map.of("k", "v"))));
+        assertThrows(InvalidCollectionException.class,
+                () -> convert(converter, ConvertibleCollectionTestImpl.builder().headers(List.of("k")).build()));
+        assertEquals(1, converter.getPlanCacheStatistics().getSize());
+    }
+
+    @Test
+    public void givenCachedPlanWithByteOrderMark_whenConvertAgain_thenHeaderLineIsSame() {
+        CsvConverter converter = new CsvConverter(CsvOptions.builder()
+                .charset(StandardCharsets.UTF_16LE)
+                .byteOrderMark(true)
+                .build());
+        ConvertibleCollection collection = collection(List.of("k, \u00e9"), Map.of("k, \u00e9", "v"));
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        converter.convert(collection, first);
+        converter.convert(collection, second);
+
+        assertEquals("\uFEFF\"k, \u00e9\"\nv\n", second.toString(StandardCharsets.UTF_16LE));
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    @Test
+    public void givenConcurrentConversionsOfFewLayouts_whenConvert_thenOutputIsCorrectAndEveryLookupCounted()
+            throws Exception {
+        CsvConverter converter = new ParallelCsvConverter(executor, 2, 2);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String header = "h" + i % 3;
+                futures.add(callers.submit(() -> {
+                    ConvertibleCollection collection = collection(List.of(header, "k"), Map.of(header, "v", "k", "w"));
+                    assertEquals(header + ",k\nv,w\n", convert(converter, collection));
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        PlanCacheStatistics statistics = converter.getPlanCacheStatistics();
+        assertEquals(400, statistics.getHits() + statistics.getMisses());
+        assertEquals(3, statistics.getSize());
+    }
+
+    private static ConvertibleMessage message(Map<String, String> data) {
+        return ConvertibleMessageTestImpl.builder().data(data).build();
+    }
+
+    private static ConvertibleCollection collection(Collection<String> headers, Map<String, String> data) {
+        return ConvertibleCollectionTestImpl.builder().headers(headers).records(List.of(message(data))).build();
+    }
+
+    private static String convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        converter.convert(collection, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+}
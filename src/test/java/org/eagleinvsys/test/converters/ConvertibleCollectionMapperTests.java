@@ -1,5 +1,6 @@
 package org.eagleinvsys.test.converters;
 
+import org.eagleinvsys.test.converters.mappers.CollectionMapper;
 import org.eagleinvsys.test.converters.mappers.ConvertibleCollectionMapper;
 import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -84,6 +88,143 @@ public class ConvertibleCollectionMapperTests {
         assertEquals("v22", actualSecondsMessage.getElement("k2"));
     }
 
+    @Test
+    public void givenValidData_whenToConvertibleCollection_thenMessagesProvideValuesByHeaderPosition() {
+        Map<String, String> firstRecord = new LinkedHashMap<>();
+        firstRecord.put("k1", "v11");
+        firstRecord.put("k2", "v12");
+        Map<String, String> secondRecord = new LinkedHashMap<>();
+        secondRecord.put("k2", "v22"); //different order of insertion on purpose
+        secondRecord.put("k1", "v21");
+
+        ConvertibleCollection actualResult = mapper.toConvertibleCollection(List.of(firstRecord, secondRecord)).get();
+
+        Iterator<ConvertibleMessage> actualIterator = actualResult.getRecords().iterator();
+        IndexedConvertibleMessage actualFirstMessage = (IndexedConvertibleMessage) actualIterator.next();
+        IndexedConvertibleMessage actualSecondMessage = (IndexedConvertibleMessage) actualIterator.next();
+        assertEquals(List.of("k1", "k2"), new ArrayList<>(actualResult.getHeaders()));
+        assertEquals("v11", actualFirstMessage.getElement(0));
+        assertEquals("v12", actualFirstMessage.getElement(1));
+        assertEquals("v21", actualSecondMessage.getElement(0));
+        assertEquals("v22", actualSecondMessage.getElement(1));
+        assertEquals("v22", actualSecondMessage.getElement("k2"));
+    }
+
+    @Test
+    public void givenMapperInstance_whenToConvertibleCollection_thenMessagesProvideValuesByHeaderPosition() {
+        List<Map<String, String>> testData = List.of(Map.of("k1", "v11"), Map.of("k1", "v21"));
+
+        ConvertibleCollection actualResult = ConvertibleCollectionMapper.getInstance().toConvertibleCollection(testData)
+                .get();
+
+        List<String> actualValues = new ArrayList<>();
+        actualResult.getRecords().forEach(message -> actualValues.add(((IndexedConvertibleMessage) message).getElement(0)));
+        assertEquals(List.of("v11", "v21"), actualValues);
+        assertThrows(NullPointerException.class, () -> ConvertibleCollectionMapper.getInstance()
+                .toConvertibleCollection(Collections.singletonList(null)));
+    }
+
+    @Test
+    public void givenIterator_whenToConvertibleCollection_thenMessagesProvideValuesByHeaderPosition() {
+        Map<String, String> testRecord = new LinkedHashMap<>();
+        testRecord.put("k2", "v2"); //different order than headers on purpose
+        testRecord.put("k1", "v1");
+
+        ConvertibleCollection actualResult = mapper.toConvertibleCollection(List.of("k1", "k2"),
+                List.of(testRecord).iterator());
+
+        IndexedConvertibleMessage actualMessage = (IndexedConvertibleMessage) actualResult.getRecords().iterator().next();
+        assertEquals("v1", actualMessage.getElement(0));
+        assertEquals("v2", actualMessage.getElement(1));
+        assertEquals("v2", actualMessage.getElement("k2"));
+    }
+
+    @Test
+    public void givenNullOrEmptyData_whenToConvertibleCollectionView_thenReturnEmptyOptional() {
+        assertTrue(mapper.toConvertibleCollectionView(null).isEmpty());
+        assertTrue(mapper.toConvertibleCollectionView(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void givenRandomAccessData_whenToConvertibleCollectionView_thenIteratorReusesFlyweightMessage() {
+        Map<String, String> firstRecord = new LinkedHashMap<>();
+        firstRecord.put("k1", "v11");
+        firstRecord.put("k2", "v12");
+        List<Map<String, String>> testData = new ArrayList<>(List.of(firstRecord, Map.of("k1", "v21", "k2", "v22")));
+
+        ConvertibleCollection actualResult = mapper.toConvertibleCollectionView(testData).get();
+        Iterator<ConvertibleMessage> actualIterator = actualResult.getRecords().iterator();
+        IndexedConvertibleMessage actualFirstMessage = (IndexedConvertibleMessage) actualIterator.next();
+
+        assertEquals(List.of("k1", "k2"), new ArrayList<>(actualResult.getHeaders()));
+        assertEquals("v11", actualFirstMessage.getElement("k1"));
+        assertEquals("v12", actualFirstMessage.getElement(1));
+        IndexedConvertibleMessage actualSecondMessage = (IndexedConvertibleMessage) actualIterator.next();
+        assertSame(actualFirstMessage, actualSecondMessage);
+        assertEquals("v21", actualSecondMessage.getElement(0));
+        assertEquals("v22", actualSecondMessage.getElement("k2"));
+        assertFalse(actualIterator.hasNext());
+        assertThrows(NoSuchElementException.class, actualIterator::next);
+    }
+
+    @Test
+    public void givenRandomAccessData_whenToConvertibleCollectionView_thenRecordsAreRandomAccessWithIndependentMessages() {
+        List<Map<String, String>> testData = List.of(Map.of("k1", "v11"), Map.of("k1", "v21"), Map.of("k1", "v31"));
+
+        Iterable<ConvertibleMessage> actualRecords = mapper.toConvertibleCollectionView(testData).get().getRecords();
+
+        assertTrue(actualRecords instanceof RandomAccess);
+        List<ConvertibleMessage> actualList = (List<ConvertibleMessage>) actualRecords;
+        List<ConvertibleMessage> actualSubList = actualList.subList(1, 3);
+        assertEquals("v11", actualList.get(0).getElement("k1"));
+        assertEquals("v21", actualSubList.get(0).getElement("k1"));
+        assertEquals("v31", actualSubList.get(1).getElement("k1"));
+        assertNotSame(actualList.get(0), actualList.get(1));
+    }
+
+    @Test
+    public void givenSequentialData_whenToConvertibleCollectionView_thenIteratorReturnsIndependentMessages() {
+        List<Map<String, String>> testData = new LinkedList<>(List.of(Map.of("k1", "v11"), Map.of("k1", "v21")));
+
+        Iterable<ConvertibleMessage> actualRecords = mapper.toConvertibleCollectionView(testData).get().getRecords();
+        Iterator<ConvertibleMessage> actualIterator = actualRecords.iterator();
+        ConvertibleMessage actualFirstMessage = actualIterator.next();
+        ConvertibleMessage actualSecondMessage = actualIterator.next();
+
+        assertFalse(actualRecords instanceof RandomAccess);
+        assertEquals("v11", actualFirstMessage.getElement("k1"));
+        assertEquals("v21", actualSecondMessage.getElement("k1"));
+    }
+
+    @Test
+    public void givenData_whenToConvertibleCollectionView_thenLaterChangesOfDataAreVisible() {
+        List<Map<String, String>> testData = new ArrayList<>(List.of(Map.of("k1", "v11")));
+
+        ConvertibleCollection actualResult = mapper.toConvertibleCollectionView(testData).get();
+        testData.add(Map.of("k1", "v21"));
+
+        List<String> actualValues = new ArrayList<>();
+        actualResult.getRecords().forEach(message -> actualValues.add(message.getElement("k1")));
+        assertEquals(List.of("v11", "v21"), actualValues);
+    }
+
+    @Test
+    public void givenConcurrentCallers_whenGetInstance_thenSameInstanceIsReturned() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ConvertibleCollectionMapper>> actualInstances = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                actualInstances.add(executor.submit(ConvertibleCollectionMapper::getInstance));
+            }
+
+            for (Future<ConvertibleCollectionMapper> actualInstance : actualInstances) {
+                assertSame(ConvertibleCollectionMapper.getInstance(), actualInstance.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private <T> boolean collectionsEqual(Collection<T> firstCollection, Collection<T> secondCollection) {
         if (firstCollection == secondCollection) {
             return true;
@@ -94,4 +235,24 @@ public class ConvertibleCollectionMapperTests {
         return firstCollection.containsAll(secondCollection) && secondCollection.containsAll(firstCollection);
     }
 
+    @Test
+    public void givenMapperOfListsOnly_whenToConvertibleCollectionViewOrStreaming_thenListIsCopiedAndStreamingUnsupported() {
+        Optional<ConvertibleCollection> testCollection = mapper.toConvertibleCollection(List.of(Map.of("k1", "v1")));
+        CollectionMapper listMapper = new CollectionMapper() {
+            @Override
+            public ConvertibleMessage toConvertibleMessage(Map<String, String> record) {
+                return mapper.toConvertibleMessage(record);
+            }
+
+            @Override
+            public Optional<ConvertibleCollection> toConvertibleCollection(List<Map<String, String>> data) {
+                return testCollection;
+            }
+        };
+
+        assertSame(testCollection, listMapper.toConvertibleCollectionView(List.of(Map.of("k1", "v1"))));
+        assertThrows(UnsupportedOperationException.class,
+                () -> listMapper.toConvertibleCollection(List.of("k1"), List.of(Map.of("k1", "v1")).iterator()));
+    }
+
 }
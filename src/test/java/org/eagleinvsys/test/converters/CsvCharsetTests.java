@@ -0,0 +1,173 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.impl.ResumableCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ReferenceCsvFormatter;
+import org.eagleinvsys.test.converters.testDomain.TypedConvertibleMessageTestImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvCharsetTests {
+
+    private static final String ALPHABET = "abcXYZ019 ,\"'\t\n\u000B\f\r\u00e9\u00df\u0416\u4e2d\u20ac\ud83d\ude00\ud83d";
+    private static final List<Charset> CHARSETS = List.of(StandardCharsets.UTF_8, StandardCharsets.UTF_16,
+            StandardCharsets.UTF_16LE, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII, Charset.forName("UTF-32"));
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenCharsets_whenConvert_thenOutputIsSameAsOfStringGetBytes() {
+        ConvertibleCollection collection = randomCollection(new Random(3), 2000);
+        String expected = ReferenceCsvFormatter.format(collection);
+        for (Charset charset : CHARSETS) {
+            CsvOptions options = CsvOptions.builder().charset(charset).build();
+
+            assertArrayEquals(expected.getBytes(withoutByteOrderMark(charset)), convert(new CsvConverter(options), collection),
+                    charset.name());
+            assertArrayEquals(expected.getBytes(withoutByteOrderMark(charset)),
+                    convert(new ParallelCsvConverter(executor, 100, 4, options), collection), charset.name());
+        }
+    }
+
+    @Test
+    public void givenCharsetsAndCellCache_whenConvert_thenOutputIsSameAsOfStringGetBytes() {
+        ConvertibleCollection collection = randomCollection(new Random(5), 2000);
+        String expected = ReferenceCsvFormatter.format(collection);
+        for (Charset charset : CHARSETS) {
+            CsvOptions options = CsvOptions.builder().charset(charset).cellCacheCapacity(64).cellCacheMinHitRatio(0).build();
+
+            assertArrayEquals(expected.getBytes(withoutByteOrderMark(charset)), convert(new CsvConverter(options), collection),
+                    charset.name());
+        }
+    }
+
+    @Test
+    public void givenColumnarAndTypedCollections_whenConvertToUtf16_thenNumbersAndDictionariesAreEncoded() {
+        ColumnarConvertibleCollection columnar = ColumnarConvertibleCollection.builder()
+                .column("id", new String[]{"1", "2"})
+                .dictionaryColumn("name", new String[]{"\u00e9, a", "\u00e9, a"})
+                .build();
+        ConvertibleCollection typed = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("id", "price"))
+                .records(List.of(TypedConvertibleMessageTestImpl.builder()
+                        .headers(List.of("id", "price"))
+                        .values(Arrays.asList(-42L, 12.5))
+                        .build()))
+                .columnTypes(List.of(ColumnType.LONG, ColumnType.DOUBLE))
+                .build();
+        CsvConverter converter = new CsvConverter(CsvOptions.builder().charset(StandardCharsets.UTF_16LE).build());
+
+        assertEquals("id,name\n1,\"\u00e9, a\"\n2,\"\u00e9, a\"\n",
+                new String(convert(converter, columnar), StandardCharsets.UTF_16LE));
+        assertEquals("id,price\n-42,12.5\n", new String(convert(converter, typed), StandardCharsets.UTF_16LE));
+    }
+
+    @Test
+    public void givenByteOrderMark_whenConvert_thenOutputStartsWithByteOrderMark() {
+        ConvertibleCollection collection = collection(List.of(Map.of("k", "v")));
+
+        byte[] utf8 = convert(new CsvConverter(CsvOptions.builder().byteOrderMark(true).build()), collection);
+        byte[] utf16 = convert(new CsvConverter(CsvOptions.builder()
+                .charset(StandardCharsets.UTF_16)
+                .byteOrderMark(true)
+                .build()), collection);
+        byte[] utf16le = convert(new CsvConverter(CsvOptions.builder()
+                .charset(StandardCharsets.UTF_16LE)
+                .byteOrderMark(true)
+                .build()), collection);
+
+        assertArrayEquals("\uFEFFk\nv\n".getBytes(StandardCharsets.UTF_8), utf8);
+        assertArrayEquals("k\nv\n".getBytes(StandardCharsets.UTF_16), utf16);
+        assertArrayEquals("\uFEFFk\nv\n".getBytes(StandardCharsets.UTF_16LE), utf16le);
+    }
+
+    @Test
+    public void givenByteOrderMarkOfUtf16File_whenAppend_thenRecordsAreAddedAfterHeaders() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        CsvOptions options = CsvOptions.builder().charset(StandardCharsets.UTF_16LE).byteOrderMark(true).build();
+        ResumableCsvConverter converter = new ResumableCsvConverter(options, CheckpointOptions.builder().build());
+        new CsvConverter(options).convert(collection(List.of(Map.of("k", "1"))), file);
+
+        converter.append(collection(List.of(Map.of("k", "2"))), file);
+
+        assertEquals("\uFEFFk\n1\n2\n", Files.readString(file, StandardCharsets.UTF_16LE));
+        Files.writeString(file, "\uFEFFk\n1", StandardCharsets.UTF_16LE);
+        assertThrows(InvalidCollectionException.class, () -> converter.append(collection(List.of(Map.of("k", "3"))), file));
+    }
+
+    @Test
+    public void givenUnsupportedCharsetOptions_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvConverter(CsvOptions.builder()
+                .charset(StandardCharsets.ISO_8859_1)
+                .byteOrderMark(true)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new CsvConverter(CsvOptions.builder()
+                .charset(Charset.forName("ISO-2022-CN"))
+                .build()));
+    }
+
+    private static Charset withoutByteOrderMark(Charset charset) {
+        return StandardCharsets.UTF_16.equals(charset) ? StandardCharsets.UTF_16BE : charset;
+    }
+
+    private static ConvertibleCollection randomCollection(Random random, int rows) {
+        List<Map<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> record = new HashMap<>();
+            record.put("k", randomString(random, random.nextInt(4)));
+            record.put("long, \u00e9", randomString(random, random.nextInt(80)));
+            record.put("ascii", random.nextInt(5) == 0 ? null : "value \"" + random.nextInt(100) + "\" of 40 or more characters");
+            records.add(record);
+        }
+        return collection(records);
+    }
+
+    private static ConvertibleCollection collection(List<Map<String, String>> records) {
+        List<ConvertibleMessage> messages = new ArrayList<>();
+        for (Map<String, String> record : records) {
+            messages.add(ConvertibleMessageTestImpl.builder().data(record).build());
+        }
+        List<String> headers = new ArrayList<>(new TreeSet<>(records.get(0).keySet()));
+        return ConvertibleCollectionTestImpl.builder().headers(headers).records(messages).build();
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return result.toString();
+    }
+
+    private static byte[] convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        converter.convert(collection, output);
+        return output.toByteArray();
+    }
+
+}
@@ -4,17 +4,28 @@ import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
 import org.eagleinvsys.test.converters.impl.CsvConverter;
 import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
 import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.IndexedConvertibleMessageTestImpl;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 
 class CsvConverterTests {
@@ -261,4 +272,92 @@ class CsvConverterTests {
                 () -> csvConverter.convert(testInvalidCollection, OutputStream.nullOutputStream()));
         assertEquals("Records are null.", actualException.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenIndexedMessages_whenConvert_thenValuesAreReadByPosition() {
+        IndexedConvertibleMessage testIndexedMessage = mock(IndexedConvertibleMessage.class);
+        when(testIndexedMessage.getElement(0)).thenReturn("firstRecordValue1");
+        when(testIndexedMessage.getElement(1)).thenReturn("first, RecordValue2");
+        ConvertibleMessage testPlainMessage = ConvertibleMessageTestImpl.builder()
+                .data(Map.of("header1", "secondRecordValue1", "header2", "secondRecordValue2"))
+                .build();
+        ConvertibleMessage testIndexedTestImplMessage = IndexedConvertibleMessageTestImpl.builder()
+                .headers(List.of("header1", "header2"))
+                .values(List.of("thirdRecordValue1", "thirdRecordValue2"))
+                .build();
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("header1", "header2"))
+                .records(List.of(testIndexedMessage, testPlainMessage, testIndexedTestImplMessage))
+                .build();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        String expectedResult = "header1,header2" + "\n"
+                + "firstRecordValue1,\"first, RecordValue2\"" + "\n"
+                + "secondRecordValue1,secondRecordValue2" + "\n"
+                + "thirdRecordValue1,thirdRecordValue2" + "\n";
+        csvConverter.convert(testCollection, testBaos);
+        assertEquals(expectedResult, testBaos.toString());
+        verify(testIndexedMessage, never()).getElement(anyString());
+    }
+
+    @Test
+    public void givenConversionsOfDifferentLayouts_whenConvertWithSameConverter_thenOutputsAreSameAsWithNewConverters(
+            @TempDir Path directory) throws Exception {
+        CsvOptions options = CsvOptions.builder().cellCacheCapacity(16).build();
+        CsvConverter reusedConverter = new CsvConverter(options);
+        ConvertibleMessage failingMessage = mock(ConvertibleMessage.class);
+        when(failingMessage.getElement(anyString())).thenThrow(new InvalidCollectionException("Invalid value."));
+        ConvertibleCollection failingCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("header1", "header2", "header3"))
+                .records(List.of(failingMessage))
+                .build();
+        ConvertibleCollection wideCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("header1", "header2", "header3"))
+                .records(List.of(ConvertibleMessageTestImpl.builder()
+                        .data(Map.of("header1", "v1", "header2", "v,2", "header3", "v3"))
+                        .build()))
+                .build();
+        ConvertibleCollection narrowCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("header"))
+                .records(List.of(ConvertibleMessageTestImpl.builder().data(Map.of("header", "value")).build()))
+                .build();
+
+        assertThrows(InvalidCollectionException.class,
+                () -> reusedConverter.convert(failingCollection, OutputStream.nullOutputStream()));
+        ByteArrayOutputStream actualWide = new ByteArrayOutputStream();
+        reusedConverter.convert(wideCollection, actualWide);
+        ByteArrayOutputStream actualNarrow = new ByteArrayOutputStream();
+        reusedConverter.convert(narrowCollection, Channels.newChannel(actualNarrow));
+        Path actualWideFile = directory.resolve("wide.csv");
+        reusedConverter.convert(wideCollection, actualWideFile, FileOutputOptions.builder().build());
+
+        ByteArrayOutputStream expectedWide = new ByteArrayOutputStream();
+        new CsvConverter(options).convert(wideCollection, expectedWide);
+        ByteArrayOutputStream expectedNarrow = new ByteArrayOutputStream();
+        new CsvConverter(options).convert(narrowCollection, expectedNarrow);
+        assertArrayEquals(expectedWide.toByteArray(), actualWide.toByteArray());
+        assertArrayEquals(expectedNarrow.toByteArray(), actualNarrow.toByteArray());
+        assertArrayEquals(expectedWide.toByteArray(), Files.readAllBytes(actualWideFile));
+    }
+
+    @Test
+    public void givenConverterUsedBefore_whenConvertSmallCollection_thenEncoderBufferIsNotAllocatedAgain() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemoryEnabled());
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("header1", "header2"))
+                .records(List.of(ConvertibleMessageTestImpl.builder()
+                        .data(Map.of("header1", "value1", "header2", "value2"))
+                        .build()))
+                .build();
+        csvConverter.convert(testCollection, OutputStream.nullOutputStream());
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        csvConverter.convert(testCollection, OutputStream.nullOutputStream());
+        long actualAllocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue(actualAllocated < 16 * 1024, "Allocated " + actualAllocated + " bytes.");
+    }
+}
@@ -0,0 +1,106 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.CsvEncoder;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ReferenceCsvFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvEncoderTests {
+
+    private static final String ALPHABET = "abcXYZ019 ,\"'\t\n\u000B\f\r\u00e9\u00df\u0416\u4e2d\u20ac";
+
+    @Test
+    public void givenSpecialCharacters_whenEncodeCell_thenResultMatchesReferenceEscaping() {
+        List<String> testValues = List.of("", "plain", "with, comma", "with \"quotes\"", "can't",
+                "tab\there", "line\r\nbreak", "\u00e9t\u00e9", "\u4e2d\u6587, \"\u6587\"", "\ud83d\ude00 emoji",
+                "\ud83d unpaired", "unpaired \ude00", "\"", ",", "'");
+        for (String testValue : testValues) {
+            CsvEncoder encoder = new CsvEncoder();
+            encoder.encodeCell(testValue);
+            assertArrayEquals(ReferenceCsvFormatter.escapeSpecialCharacters(testValue).getBytes(StandardCharsets.UTF_8),
+                    encoder.toByteArray(), testValue);
+        }
+    }
+
+    @Test
+    public void givenNull_whenEncodeCell_thenNothingIsEncoded() {
+        CsvEncoder encoder = new CsvEncoder();
+        encoder.encodeCell(null);
+        assertEquals(0, encoder.size());
+    }
+
+    @Test
+    public void givenRandomValues_whenEncodeCell_thenResultMatchesReferenceEscaping() {
+        Random random = new Random(42);
+        CsvEncoder encoder = new CsvEncoder(16);
+        for (int i = 0; i < 10_000; i++) {
+            String testValue = randomString(random, random.nextInt(40));
+            encoder.reset();
+            encoder.encodeCell(testValue);
+            assertArrayEquals(ReferenceCsvFormatter.escapeSpecialCharacters(testValue).getBytes(StandardCharsets.UTF_8),
+                    encoder.toByteArray(), testValue);
+        }
+    }
+
+    @Test
+    public void givenLongAsciiValues_whenEncodeCell_thenResultMatchesReferenceEscaping() {
+        Random random = new Random(11);
+        String asciiAlphabet = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+        String specialCharacters = ",\"'\t\n\u000B\f\r";
+        CsvEncoder encoder = new CsvEncoder(16);
+        for (int i = 0; i < 5_000; i++) {
+            char[] testChars = new char[random.nextInt(300)];
+            for (int j = 0; j < testChars.length; j++) {
+                testChars[j] = asciiAlphabet.charAt(random.nextInt(asciiAlphabet.length()));
+            }
+            for (int j = random.nextInt(4); j > 0 && testChars.length > 0; j--) {
+                testChars[random.nextInt(testChars.length)] = specialCharacters.charAt(random.nextInt(specialCharacters.length()));
+            }
+            String testValue = new String(testChars);
+            encoder.reset();
+            encoder.encodeCell(testValue);
+            assertArrayEquals(ReferenceCsvFormatter.escapeSpecialCharacters(testValue).getBytes(StandardCharsets.UTF_8),
+                    encoder.toByteArray(), testValue);
+        }
+    }
+
+    @Test
+    public void givenCollectionLargerThanBuffer_whenConvert_thenOutputMatchesReferenceFormatting() {
+        Random random = new Random(7);
+        List<String> testHeaders = List.of("id", "name, full", "comment");
+        List<ConvertibleMessage> testRecords = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Map<String, String> data = new HashMap<>();
+            data.put("id", String.valueOf(i));
+            data.put("name, full", randomString(random, 20));
+            data.put("comment", i % 10 == 0 ? null : randomString(random, 60));
+            testRecords.add(ConvertibleMessageTestImpl.builder().data(data).build());
+        }
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(testHeaders)
+                .records(testRecords)
+                .build();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new CsvConverter().convert(testCollection, testBaos);
+
+        assertArrayEquals(ReferenceCsvFormatter.formatAsBytes(testCollection), testBaos.toByteArray());
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return result.toString();
+    }
+}
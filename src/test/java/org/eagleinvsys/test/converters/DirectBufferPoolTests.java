@@ -0,0 +1,208 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.DirectBufferPool;
+import org.eagleinvsys.test.converters.impl.ShardedCsvConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectBufferPoolTests {
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    DirectBufferPool pool = new DirectBufferPool(BufferPoolOptions.builder().leakDetection(true).build());
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenReleasedBuffer_whenAcquireOnSameThread_thenSameBufferIsReturnedFromThreadLocalTier() {
+        ByteBuffer testBuffer = pool.acquire(10_000);
+        testBuffer.put((byte) 1);
+        pool.release(testBuffer);
+
+        ByteBuffer actualBuffer = pool.acquire(16 * 1024);
+
+        assertSame(testBuffer, actualBuffer);
+        assertTrue(actualBuffer.isDirect());
+        assertEquals(0, actualBuffer.position());
+        assertEquals(16 * 1024, actualBuffer.limit());
+        BufferPoolStatistics actualStatistics = pool.getStatistics();
+        assertEquals(1, actualStatistics.getThreadLocalHits());
+        assertEquals(1, actualStatistics.getMisses());
+        assertEquals(1, actualStatistics.getBorrowedBuffers());
+        assertEquals(0, actualStatistics.getPooledBytes());
+        pool.release(actualBuffer);
+        pool.checkNoLeaks();
+    }
+
+    @Test
+    public void givenBuffersReleasedBeyondThreadLocalTier_whenAcquireOnOtherThread_thenBuffersComeFromGlobalTier()
+            throws Exception {
+        DirectBufferPool testPool = new DirectBufferPool(BufferPoolOptions.builder().threadLocalBuffers(1).build());
+        ByteBuffer firstBuffer = testPool.acquire(4096);
+        ByteBuffer secondBuffer = testPool.acquire(4096);
+        testPool.release(firstBuffer);
+        testPool.release(secondBuffer);
+
+        ByteBuffer actualBuffer = executor.submit(() -> testPool.acquire(4096)).get();
+
+        assertSame(secondBuffer, actualBuffer);
+        assertEquals(1, testPool.getStatistics().getGlobalHits());
+        assertEquals(4096, testPool.getStatistics().getPooledBytes());
+    }
+
+    @Test
+    public void givenBufferBorrowedOnOtherThread_whenRelease_thenBufferGoesToGlobalTier() throws Exception {
+        ByteBuffer testBuffer = executor.submit(() -> pool.acquire(4096)).get();
+
+        pool.release(testBuffer);
+        ByteBuffer actualBuffer = pool.acquire(4096);
+
+        assertSame(testBuffer, actualBuffer);
+        assertEquals(0, pool.getStatistics().getThreadLocalHits());
+        assertEquals(1, pool.getStatistics().getGlobalHits());
+        pool.release(actualBuffer);
+        pool.checkNoLeaks();
+    }
+
+    @Test
+    public void givenPoolAtCapacity_whenRelease_thenBufferIsDropped() {
+        DirectBufferPool testPool = new DirectBufferPool(BufferPoolOptions.builder()
+                .maxPooledBytes(8192)
+                .threadLocalBuffers(0)
+                .build());
+        List<ByteBuffer> testBuffers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            testBuffers.add(testPool.acquire(4096));
+        }
+        testBuffers.forEach(testPool::release);
+
+        BufferPoolStatistics actualStatistics = testPool.getStatistics();
+        assertEquals(8192, actualStatistics.getPooledBytes());
+        assertEquals(1, actualStatistics.getDrops());
+        assertEquals(0, actualStatistics.getBorrowedBuffers());
+    }
+
+    @Test
+    public void givenBufferLargerThanLargestPooledSize_whenRelease_thenBufferIsDropped() {
+        ByteBuffer testBuffer = pool.acquire(20 * 1024 * 1024);
+
+        pool.release(testBuffer);
+
+        assertEquals(20 * 1024 * 1024, testBuffer.capacity());
+        assertEquals(1, pool.getStatistics().getDrops());
+        assertEquals(0, pool.getStatistics().getPooledBytes());
+    }
+
+    @Test
+    public void givenBorrowedBuffer_whenCheckNoLeaks_thenThrowIllegalStateExceptionWithBorrowingPlace() {
+        pool.acquire(4096);
+
+        IllegalStateException actualException = assertThrows(IllegalStateException.class, pool::checkNoLeaks);
+
+        assertEquals("1 buffers are not returned to the pool.", actualException.getMessage());
+        assertTrue(actualException.getCause().getStackTrace()[0].getClassName().endsWith("DirectBufferPool"));
+    }
+
+    @Test
+    public void givenReleasedBuffer_whenReleaseAgain_thenThrowIllegalStateException() {
+        ByteBuffer testBuffer = pool.acquire(4096);
+        pool.release(testBuffer);
+
+        assertThrows(IllegalStateException.class, () -> pool.release(testBuffer));
+        assertThrows(IllegalStateException.class, () -> pool.release(ByteBuffer.allocateDirect(4096)));
+    }
+
+    @Test
+    public void givenInvalidArguments_whenUsePool_thenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(0));
+        assertThrows(NullPointerException.class, () -> pool.release(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DirectBufferPool(BufferPoolOptions.builder().maxPooledBytes(-1).build()));
+    }
+
+    @Test
+    public void givenConverterWithPool_whenConvertToChannelAndFileRepeatedly_thenBuffersAreReusedWithoutLeaks()
+            throws IOException {
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().build(), pool);
+        ConvertibleCollection testCollection = testCollection(5_000);
+        Path testPath = tempDir.resolve("result.csv");
+
+        for (int i = 0; i < 10; i++) {
+            csvConverter.convert(testCollection, Channels.newChannel(new ByteArrayOutputStream()));
+            csvConverter.convert(testCollection, testPath);
+        }
+
+        pool.checkNoLeaks();
+        BufferPoolStatistics actualStatistics = pool.getStatistics();
+        assertEquals(4, actualStatistics.getMisses());
+        assertEquals(76, actualStatistics.getThreadLocalHits());
+        assertEquals(outputSize(csvConverter, testCollection), Files.size(testPath));
+    }
+
+    @Test
+    public void givenFailingChannel_whenConvert_thenBuffersAreReturned() {
+        CsvConverter csvConverter = new CsvConverter(CsvOptions.builder().build(), pool);
+        WritableByteChannel failingChannel = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> csvConverter.convert(testCollection(50_000), failingChannel));
+
+        pool.checkNoLeaks();
+    }
+
+    @Test
+    public void givenShardedConverterWithPool_whenConvertToShards_thenBuffersAreReturned() {
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxRowsPerShard(1000)
+                .build(), pool);
+
+        shardedConverter.convertToShards(testCollection(10_000), tempDir);
+
+        pool.checkNoLeaks();
+        assertTrue(pool.getStatistics().getHitRatio() > 0);
+    }
+
+    private static long outputSize(CsvConverter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        converter.convert(collection, testBaos);
+        return testBaos.size();
+    }
+
+}
@@ -0,0 +1,308 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.FairConversionService;
+import org.eagleinvsys.test.converters.impl.StandardCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairConversionServiceTests {
+
+    private final BlockingConverter converter = new BlockingConverter();
+    private FairConversionService service;
+
+    @AfterEach
+    public void closeService() {
+        converter.releaseAll();
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    @Test
+    public void givenCollections_whenSubmit_thenConvertedToCsv() throws Exception {
+        service = new FairConversionService();
+        ConvertibleCollection collection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("k1", "k2"))
+                .records(List.of(ConvertibleMessageTestImpl.builder().data(Map.of("k1", "v1", "k2", "v,2")).build()))
+                .build();
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+
+        CompletableFuture<Void> first = service.submit("tenant", collection, firstOutput);
+        CompletableFuture<Void> second = service.submit("tenant", List.of(Map.of("k1", "v1")), secondOutput);
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertEquals("k1,k2\nv1,\"v,2\"\n", firstOutput.toString(StandardCharsets.UTF_8));
+        assertEquals("k1\nv1\n", secondOutput.toString(StandardCharsets.UTF_8));
+        assertEquals(2, service.getStatistics().getCompletedConversions());
+    }
+
+    @Test
+    public void givenTenantWithLongQueue_whenOtherTenantSubmits_thenOtherTenantRunsNext() throws Exception {
+        service = newService(1, 1, 100);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> blocking = service.submit("big", converter.blocking(), OutputStream.nullOutputStream());
+        converter.awaitStarted(1);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(service.submit("big", converter.recording(order, "big"), OutputStream.nullOutputStream()));
+        }
+        futures.add(service.submit("small", converter.recording(order, "small"), OutputStream.nullOutputStream()));
+
+        converter.releaseAll();
+        blocking.get(10, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(11, order.size());
+        assertEquals("small", order.get(0));
+    }
+
+    @Test
+    public void givenTenantAtItsLimit_whenSubmit_thenConversionWaitsWhilePermitsAreFree() throws Exception {
+        service = newService(4, 1, 100);
+
+        service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+        CompletableFuture<Void> second = service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+        CompletableFuture<Void> other = service.submit("other", converter.blocking(), OutputStream.nullOutputStream());
+        converter.awaitStarted(2);
+
+        ConversionServiceStatistics statistics = service.getStatistics();
+        assertEquals(2, statistics.getRunningConversions());
+        assertEquals(1, statistics.getQueuedConversions());
+        assertEquals(Map.of("tenant", 1), statistics.getQueuedConversionsByTenant());
+        assertFalse(second.isDone());
+
+        converter.releaseAll();
+        second.get(10, TimeUnit.SECONDS);
+        other.get(10, TimeUnit.SECONDS);
+        assertEquals(0, service.getStatistics().getQueuedConversions());
+    }
+
+    @Test
+    public void givenSlowConsumer_whenOtherTenantSubmits_thenOtherTenantCompletesWhileConsumerBlocks() throws Exception {
+        service = newService(1, 1, 100);
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch consumed = new CountDownLatch(1);
+        OutputStream slowOutput = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writeStarted.countDown();
+                try {
+                    consumed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ByteArrayOutputStream otherOutput = new ByteArrayOutputStream();
+
+        CompletableFuture<Void> slow = service.submit("slow", List.of(Map.of("k1", "v1")), slowOutput);
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> other = service.submit("other", List.of(Map.of("k1", "v2")), otherOutput);
+
+        other.get(10, TimeUnit.SECONDS);
+        assertEquals("k1\nv2\n", otherOutput.toString(StandardCharsets.UTF_8));
+        assertFalse(slow.isDone());
+        assertEquals(1, service.getStatistics().getRunningConversions());
+        consumed.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void givenFullTenantQueue_whenSubmit_thenRejectedOnlyForThatTenant() throws Exception {
+        service = newService(1, 1, 1);
+        service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+        converter.awaitStarted(1);
+        service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream()));
+        CompletableFuture<Void> other = service.submit("other", converter.blocking(), OutputStream.nullOutputStream());
+
+        assertEquals(1, service.getStatistics().getRejectedConversions());
+        converter.releaseAll();
+        other.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void givenFailingConversion_whenSubmit_thenFutureFailsAndNextConversionRuns() throws Exception {
+        ConvertibleCollection invalid = ConvertibleCollectionTestImpl.builder().headers(null).records(List.of()).build();
+        FairConversionService csvService = new FairConversionService(new CsvConverter(),
+                new StandardCsvConverter(new CsvConverter()), ConversionServiceOptions.builder()
+                .maxConcurrentConversions(1)
+                .build());
+        try {
+            CompletableFuture<Void> failed = csvService.submit("tenant", invalid, OutputStream.nullOutputStream());
+            CompletableFuture<Void> next = csvService.submit("tenant", List.of(Map.of("k1", "v1")),
+                    OutputStream.nullOutputStream());
+
+            ExecutionException actualException = assertThrows(ExecutionException.class,
+                    () -> failed.get(10, TimeUnit.SECONDS));
+            assertTrue(actualException.getCause() instanceof InvalidCollectionException);
+            next.get(10, TimeUnit.SECONDS);
+            assertEquals(1, csvService.getStatistics().getFailedConversions());
+            assertEquals(1, csvService.getStatistics().getCompletedConversions());
+        } finally {
+            csvService.close();
+        }
+    }
+
+    @Test
+    public void givenQueuedConversions_whenClose_thenQueuedAreCancelledAndRunningComplete() throws Exception {
+        service = newService(1, 1, 100);
+        CompletableFuture<Void> running = service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+        converter.awaitStarted(1);
+        CompletableFuture<Void> queued = service.submit("other", converter.blocking(), OutputStream.nullOutputStream());
+
+        service.close();
+
+        assertTrue(queued.isCancelled());
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream()));
+        converter.releaseAll();
+        running.get(10, TimeUnit.SECONDS);
+        assertEquals(0, service.getStatistics().getQueuedConversions());
+    }
+
+    @Test
+    public void givenPlatformThreads_whenConversionsAreQueued_thenQueuedConversionsDoNotStartThreads() throws Exception {
+        service = new FairConversionService(converter, new StandardCsvConverter(new CsvConverter()),
+                ConversionServiceOptions.builder()
+                        .maxConcurrentConversions(1)
+                        .virtualThreads(false)
+                        .build());
+        CompletableFuture<Void> running = service.submit("tenant", converter.blocking(), OutputStream.nullOutputStream());
+        converter.awaitStarted(1);
+        long threadsBeforeQueueing = conversionThreads();
+        List<CompletableFuture<Void>> queued = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            queued.add(service.submit("tenant" + i % 2, List.of(Map.of("k1", "v" + i)), OutputStream.nullOutputStream()));
+        }
+
+        assertTrue(conversionThreads() <= threadsBeforeQueueing);
+        assertEquals(20, service.getStatistics().getQueuedConversions());
+        converter.releaseAll();
+        running.get(10, TimeUnit.SECONDS);
+        CompletableFuture.allOf(queued.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        assertEquals(21, service.getStatistics().getCompletedConversions());
+    }
+
+    @Test
+    public void givenCompletedConversions_whenGetStatistics_thenLatencyPercentilesAreOrdered() throws Exception {
+        service = newService(2, 2, 100);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(service.submit("tenant" + i % 3, List.of(Map.of("k1", "v" + i)), OutputStream.nullOutputStream()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        ConversionServiceStatistics statistics = service.getStatistics();
+        assertEquals(50, statistics.getCompletedConversions());
+        assertEquals(0, statistics.getRunningConversions());
+        assertTrue(statistics.getLatencyP50Nanos() > 0);
+        assertTrue(statistics.getLatencyP99Nanos() >= statistics.getLatencyP50Nanos());
+        assertTrue(statistics.getQueueWaitP99Nanos() >= statistics.getQueueWaitP50Nanos());
+        assertTrue(statistics.getLatencyP99Nanos() >= statistics.getQueueWaitP99Nanos());
+    }
+
+    @Test
+    public void givenVirtualThreadsOption_whenCreated_thenVirtualThreadsUsedOnlyIfJdkProvidesThem() {
+        boolean jdkProvidesVirtualThreads = Runtime.version().feature() >= 21;
+        service = new FairConversionService();
+        try (FairConversionService platformService = new FairConversionService(ConversionServiceOptions.builder()
+                .virtualThreads(false)
+                .build())) {
+            assertFalse(platformService.usesVirtualThreads());
+        }
+        assertEquals(jdkProvidesVirtualThreads, service.usesVirtualThreads());
+    }
+
+    @Test
+    public void givenNonPositiveLimit_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> newService(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> newService(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> newService(1, 1, 0));
+    }
+
+    private static long conversionThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("conversion-service-"))
+                .count();
+    }
+
+    private FairConversionService newService(int maxConcurrent, int maxConcurrentPerTenant, int maxQueuedPerTenant) {
+        return new FairConversionService(converter, new StandardCsvConverter(new CsvConverter()),
+                ConversionServiceOptions.builder()
+                        .maxConcurrentConversions(maxConcurrent)
+                        .maxConcurrentConversionsPerTenant(maxConcurrentPerTenant)
+                        .maxQueuedConversionsPerTenant(maxQueuedPerTenant)
+                        .build());
+    }
+
+    /**
+     * Converter running actions registered for the given collections
+     */
+    private static class BlockingConverter implements Converter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Semaphore started = new Semaphore(0);
+        private final Map<ConvertibleCollection, Runnable> actions = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        ConvertibleCollection blocking() {
+            return withAction(() -> {
+                started.release();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        ConvertibleCollection recording(List<String> order, String tenant) {
+            return withAction(() -> order.add(tenant));
+        }
+
+        void awaitStarted(int conversions) throws InterruptedException {
+            assertTrue(started.tryAcquire(conversions, 10, TimeUnit.SECONDS));
+        }
+
+        void releaseAll() {
+            release.countDown();
+        }
+
+        @Override
+        public void convert(ConvertibleCollection collectionToConvert, OutputStream outputStream) {
+            actions.get(collectionToConvert).run();
+        }
+
+        private ConvertibleCollection withAction(Runnable action) {
+            ConvertibleCollection collection = ConvertibleCollectionTestImpl.builder()
+                    .headers(List.of("h"))
+                    .records(List.of())
+                    .build();
+            actions.put(collection, action);
+            return collection;
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.GzipConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testRecords;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipConverterTests {
+
+    CsvConverter csvConverter = new CsvConverter();
+
+    @Test
+    public void givenValidCollection_whenConvert_thenGunzipRestoresCsv() throws IOException {
+        ConvertibleCollection testCollection = testCollection(testRecords(30_000));
+        GzipConverter gzipConverter = new GzipConverter(csvConverter, ForkJoinPool.commonPool(),
+                GzipOptions.builder().blockSize(64 * 1024).level(1).build());
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        gzipConverter.convert(testCollection, testBaos);
+
+        assertArrayEquals(convertToBytes(testCollection), ParallelGzipOutputStreamTests.gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenParallelCsvConverter_whenConvert_thenGunzipRestoresCsv() throws IOException {
+        ConvertibleCollection testCollection = testCollection(testRecords(30_000));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new GzipConverter(new ParallelCsvConverter()).convert(testCollection, testBaos);
+
+        assertArrayEquals(convertToBytes(testCollection), ParallelGzipOutputStreamTests.gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvert_thenGzipHoldsPrecedingRecords() throws IOException {
+        List<ConvertibleMessage> testRecords = testRecords(10);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 7) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        assertThrows(InvalidCollectionException.class,
+                () -> new GzipConverter(csvConverter).convert(testCollection(failingRecords), testBaos));
+        assertArrayEquals(convertToBytes(testCollection(testRecords.subList(0, 7))),
+                ParallelGzipOutputStreamTests.gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenFailingOutputStream_whenConvert_thenThrowUncheckedIOException() {
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class,
+                () -> new GzipConverter(csvConverter).convert(testCollection(testRecords(10)), failingStream));
+    }
+
+    @Test
+    public void givenNullOutputStream_whenConvert_thenThrowNullPointerException() {
+        assertThrows(NullPointerException.class,
+                () -> new GzipConverter(csvConverter).convert(testCollection(testRecords(1)), null));
+    }
+
+    private byte[] convertToBytes(ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        csvConverter.convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+}
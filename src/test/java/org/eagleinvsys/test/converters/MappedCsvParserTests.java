@@ -0,0 +1,190 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.MappedCsvParser;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvParserTests {
+
+    private static final String VALUE_CHARACTERS = "abcXYZ019 ,\"'\u00e9\u4e2d";
+
+    @TempDir
+    Path tempDir;
+
+    private final CsvConverter converter = new CsvConverter();
+
+    @Test
+    public void givenConvertedCollections_whenParse_thenEqualToOriginal() throws IOException {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            List<Map<String, String>> expected = randomRecords(random);
+
+            assertEquals(expected, roundTrip(expected, new MappedCsvParser()), "seed iteration " + i);
+        }
+    }
+
+    @Test
+    public void givenSmallSegments_whenParse_thenRowsSpanningSegmentsAreEqualToOriginal() throws IOException {
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            List<Map<String, String>> expected = randomRecords(random);
+
+            assertEquals(expected, roundTrip(expected, new MappedCsvParser(2048)), "seed iteration " + i);
+        }
+    }
+
+    @Test
+    public void givenQuotedFields_whenParse_thenQuotesAreRemovedAndUndoubled() throws IOException {
+        ConvertibleCollection actual = parse("k1,\"k,2\"\n\"a\"\"b\",\"x\ny\"\n,\"\"\n");
+
+        List<ConvertibleMessage> records = toList(actual);
+        assertEquals(List.of("k1", "k,2"), new ArrayList<>(actual.getHeaders()));
+        assertEquals(2, records.size());
+        assertEquals("a\"b", records.get(0).getElement("k1"));
+        assertEquals("x\ny", records.get(0).getElement("k,2"));
+        assertEquals("", records.get(1).getElement("k1"));
+        assertEquals("", ((IndexedConvertibleMessage) records.get(1)).getElement(1));
+        assertNull(records.get(1).getElement("unknown"));
+    }
+
+    @Test
+    public void givenNoTrailingLineSeparator_whenParse_thenLastRowIsParsed() throws IOException {
+        List<ConvertibleMessage> records = toList(parse("k1,k2\nv1,v2\nv3,v4"));
+
+        assertEquals(2, records.size());
+        assertEquals("v4", records.get(1).getElement("k2"));
+    }
+
+    @Test
+    public void givenHeadersOnly_whenParse_thenNoRecords() throws IOException {
+        ConvertibleCollection actual = parse("k1,k2\n");
+
+        assertEquals(List.of("k1", "k2"), new ArrayList<>(actual.getHeaders()));
+        assertFalse(actual.getRecords().iterator().hasNext());
+    }
+
+    @Test
+    public void givenParsedFile_whenConvertInParallel_thenOutputIsTheSame() throws IOException {
+        String csv = "k1,k2\n" + "v1,\"v,2\"\n".repeat(10000);
+
+        ConvertibleCollection actual = parse(csv);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ParallelCsvConverter().convert(actual, output);
+
+        assertEquals(csv, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void givenMalformedFiles_whenParse_thenThrowInvalidCollectionException() {
+        assertThrows(InvalidCollectionException.class, () -> parse(""));
+        assertThrows(InvalidCollectionException.class, () -> parse("k1,k2\nv1\n"));
+        assertThrows(InvalidCollectionException.class, () -> parse("k1,k2\nv1,v2,v3\n"));
+        assertThrows(InvalidCollectionException.class, () -> parse("k1,k2\n\"v1\"x,v2\n"));
+        assertThrows(InvalidCollectionException.class, () -> parse("k1,k2\n\"v1,v2\n"));
+    }
+
+    @Test
+    public void givenRowLongerThanSegment_whenParse_thenThrowInvalidCollectionException() throws IOException {
+        Path file = write("k1\nshort\n" + "x".repeat(100) + "\n");
+
+        InvalidCollectionException actualException = assertThrows(InvalidCollectionException.class,
+                () -> new MappedCsvParser(64).parse(file));
+        assertTrue(actualException.getMessage().contains("Row 2"));
+    }
+
+    @Test
+    public void givenMissingFile_whenParse_thenThrowUncheckedIOException() {
+        assertThrows(UncheckedIOException.class, () -> new MappedCsvParser().parse(tempDir.resolve("missing.csv")));
+    }
+
+    @Test
+    public void givenNonPositiveSegmentSize_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedCsvParser(0));
+    }
+
+    private List<Map<String, String>> roundTrip(List<Map<String, String>> records, MappedCsvParser parser)
+            throws IOException {
+        List<String> headers = new ArrayList<>(records.get(0).keySet());
+        List<ConvertibleMessage> messages = new ArrayList<>();
+        for (Map<String, String> record : records) {
+            messages.add(ConvertibleMessageTestImpl.builder().data(record).build());
+        }
+        Path file = Files.createTempFile(tempDir, "round-trip", ".csv");
+        converter.convert(ConvertibleCollectionTestImpl.builder().headers(headers).records(messages).build(), file);
+
+        ConvertibleCollection parsed = parser.parse(file);
+        assertEquals(headers, new ArrayList<>(parsed.getHeaders()));
+        List<Map<String, String>> actual = new ArrayList<>();
+        for (ConvertibleMessage message : parsed.getRecords()) {
+            Map<String, String> record = new LinkedHashMap<>();
+            for (String header : headers) {
+                record.put(header, message.getElement(header));
+            }
+            actual.add(record);
+        }
+        return actual;
+    }
+
+    /**
+     * Generates records of values without whitespace other than space, which is the only data
+     * {@link CsvConverter} writes without changes
+     */
+    private static List<Map<String, String>> randomRecords(Random random) {
+        int columns = 1 + random.nextInt(6);
+        Set<String> headers = new LinkedHashSet<>();
+        while (headers.size() < columns) {
+            headers.add("h" + randomValue(random, 8));
+        }
+        int rows = 1 + random.nextInt(40);
+        List<Map<String, String>> records = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            Map<String, String> record = new LinkedHashMap<>();
+            for (String header : headers) {
+                record.put(header, randomValue(random, random.nextInt(4) == 0 ? 80 : 12));
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static String randomValue(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(VALUE_CHARACTERS.charAt(random.nextInt(VALUE_CHARACTERS.length())));
+        }
+        return value.toString();
+    }
+
+    private ConvertibleCollection parse(String csv) throws IOException {
+        return new MappedCsvParser().parse(write(csv));
+    }
+
+    private Path write(String csv) throws IOException {
+        Path file = Files.createTempFile(tempDir, "parsed", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<ConvertibleMessage> toList(ConvertibleCollection collection) {
+        List<ConvertibleMessage> records = new ArrayList<>();
+        collection.getRecords().forEach(records::add);
+        return records;
+    }
+
+}
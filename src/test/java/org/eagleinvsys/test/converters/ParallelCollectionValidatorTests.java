@@ -0,0 +1,107 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.validators.ParallelCollectionValidator;
+import org.eagleinvsys.test.converters.validators.SequentialCollectionValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCollectionValidatorTests {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    ParallelCollectionValidator parallelValidator = new ParallelCollectionValidator(executor, 1000);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenValidLargeCollection_whenValidate_thenNothingIsThrown() {
+        assertDoesNotThrow(() -> parallelValidator.validate(testCollection(100_000)));
+    }
+
+    @Test
+    public void givenSeveralInvalidMaps_whenValidate_thenMapWithLowestIndexIsReported() {
+        List<Map<String, String>> testCollection = testCollection(100_000);
+        testCollection.set(70_000, Map.of());
+        testCollection.set(30_000, Map.of("id", "1", "randomTestKey", "2"));
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> parallelValidator.validate(testCollection));
+
+        assertEquals("At least one of the maps has different set of keys.", actualException.getMessage());
+
+        testCollection.set(10_000, null);
+
+        actualException = assertThrows(InvalidCollectionException.class, () -> parallelValidator.validate(testCollection));
+
+        assertEquals("One of the maps is empty or null.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenRandomInvalidMaps_whenValidate_thenExceptionIsSameAsOfSequentialValidator() {
+        Random random = new Random(5);
+        SequentialCollectionValidator sequentialValidator = new SequentialCollectionValidator();
+        for (int i = 0; i < 20; i++) {
+            List<Map<String, String>> testCollection = testCollection(10_000);
+            for (int j = random.nextInt(3); j > 0; j--) {
+                testCollection.set(random.nextInt(10_000), random.nextBoolean() ? Map.of() : Map.of("randomTestKey", "1"));
+            }
+
+            String expectedMessage = messageOf(() -> sequentialValidator.validate(testCollection));
+            String actualMessage = messageOf(() -> parallelValidator.validate(testCollection));
+
+            assertEquals(expectedMessage, actualMessage);
+        }
+    }
+
+    @Test
+    public void givenNonRandomAccessCollection_whenValidate_thenInvalidMapIsReported() {
+        List<Map<String, String>> testCollection = new LinkedList<>(testCollection(5000));
+        testCollection.set(4000, Map.of("randomTestKey", "1", "value", "2"));
+
+        assertThrows(InvalidCollectionException.class, () -> parallelValidator.validate(testCollection));
+    }
+
+    @Test
+    public void givenNullOrEmptyCollection_whenValidate_thenThrowInvalidCollectionException() {
+        Throwable nullException = assertThrows(InvalidCollectionException.class, () -> parallelValidator.validate(null));
+        Throwable emptyException = assertThrows(InvalidCollectionException.class, () -> parallelValidator.validate(List.of()));
+
+        assertEquals("Provided collectionToConvert is empty or null.", nullException.getMessage());
+        assertEquals("Provided collectionToConvert is empty or null.", emptyException.getMessage());
+    }
+
+    @Test
+    public void givenNonPositiveChunkSize_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCollectionValidator(executor, 0));
+    }
+
+    private static String messageOf(Runnable validation) {
+        try {
+            validation.run();
+            return null;
+        } catch (InvalidCollectionException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static List<Map<String, String>> testCollection(int size) {
+        List<Map<String, String>> collection = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, String> map = new LinkedHashMap<>();
+            map.put("id", String.valueOf(i));
+            map.put("value", "value " + i);
+            collection.add(map);
+        }
+        return collection;
+    }
+}
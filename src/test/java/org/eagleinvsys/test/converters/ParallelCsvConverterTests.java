@@ -0,0 +1,182 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.TestCollections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvConverterTests {
+
+    ExecutorService testExecutor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        testExecutor.shutdownNow();
+    }
+
+    @Test
+    public void givenRandomAccessRecords_whenConvert_thenOutputMatchesSequentialConverter() {
+        ConvertibleCollection testCollection = testCollection(new ArrayList<>(testRecords(10_000)));
+
+        assertArrayEquals(convertSequentially(testCollection),
+                convert(new ParallelCsvConverter(testExecutor, 97, 3), testCollection));
+    }
+
+    @Test
+    public void givenIterableRecords_whenConvert_thenOutputMatchesSequentialConverter() {
+        ConvertibleCollection testCollection = testCollection(new LinkedList<>(testRecords(10_000)));
+
+        assertArrayEquals(convertSequentially(testCollection),
+                convert(new ParallelCsvConverter(testExecutor, 97, 3), testCollection));
+    }
+
+    @Test
+    public void givenEmptyRecords_whenConvert_thenOutputStreamContainsOnlyHeaders() {
+        ConvertibleCollection testCollection = testCollection(Collections.emptyList());
+
+        assertEquals("id,value" + "\n", new String(convert(new ParallelCsvConverter(), testCollection)));
+    }
+
+    @Test
+    public void givenManyChunks_whenConvert_thenChunksInFlightAreCapped() {
+        int maxChunksInFlight = 2;
+        AtomicInteger submittedChunks = new AtomicInteger();
+        AtomicInteger writtenChunks = new AtomicInteger(-1); // header is written separately
+        AtomicInteger maxObservedInFlight = new AtomicInteger();
+        OutputStream countingStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writtenChunks.incrementAndGet();
+            }
+        };
+        ParallelCsvConverter converter = new ParallelCsvConverter(task -> {
+            maxObservedInFlight.accumulateAndGet(submittedChunks.incrementAndGet() - writtenChunks.get(), Math::max);
+            testExecutor.execute(task);
+        }, 10, maxChunksInFlight);
+
+        converter.convert(testCollection(testRecords(1_000)), countingStream);
+
+        assertEquals(100, submittedChunks.get());
+        assertEquals(100, writtenChunks.get());
+        assertTrue(maxObservedInFlight.get() <= maxChunksInFlight);
+    }
+
+    @Test
+    public void givenFailingMessage_whenConvert_thenExceptionIsPropagated() {
+        List<ConvertibleMessage> testRecords = new ArrayList<>(testRecords(1_000));
+        testRecords.set(500, elementId -> {
+            throw new IllegalStateException("Broken message.");
+        });
+
+        Throwable actualException = assertThrows(IllegalStateException.class,
+                () -> new ParallelCsvConverter(testExecutor, 10, 4).convert(testCollection(testRecords), OutputStream.nullOutputStream()));
+        assertEquals("Broken message.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenFailingMessage_whenConvert_thenNoChunkIsEncodedAfterExceptionIsPropagated() {
+        AtomicInteger encodingMessages = new AtomicInteger();
+        CountDownLatch nextChunkStarted = new CountDownLatch(1);
+        List<ConvertibleMessage> testRecords = new ArrayList<>(testRecords(1_000));
+        testRecords.set(500, elementId -> {
+            try {
+                nextChunkStarted.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Broken message.");
+        });
+        testRecords.set(510, elementId -> {
+            encodingMessages.incrementAndGet();
+            nextChunkStarted.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            encodingMessages.decrementAndGet();
+            return elementId;
+        });
+
+        assertThrows(IllegalStateException.class, () -> new ParallelCsvConverter(testExecutor, 10, 4)
+                .convert(testCollection(testRecords), OutputStream.nullOutputStream()));
+        assertEquals(0, encodingMessages.get());
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvert_thenPrecedingRecordsAreWritten() {
+        List<ConvertibleMessage> testRecords = testRecords(25);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 23) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        assertThrows(InvalidCollectionException.class,
+                () -> new ParallelCsvConverter(testExecutor, 5, 2).convert(testCollection(failingRecords), testBaos));
+        assertArrayEquals(convertSequentially(testCollection(testRecords.subList(0, 23))), testBaos.toByteArray());
+    }
+
+    @Test
+    public void givenInvalidCollectionWithNullRecords_whenConvert_thenThrowInvalidCollectionException() {
+        ConvertibleCollection testInvalidCollection = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("testHeader"))
+                .records(null)
+                .build();
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> new ParallelCsvConverter().convert(testInvalidCollection, OutputStream.nullOutputStream()));
+        assertEquals("Records are null.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenNonPositiveChunkSize_whenCreate_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCsvConverter(testExecutor, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCsvConverter(testExecutor, 1, 0));
+    }
+
+    private static List<ConvertibleMessage> testRecords(int count) {
+        return TestCollections.testRecords(count, i -> i % 3 == 0 ? "value, with \"quotes\"" : "value" + i);
+    }
+
+    private static byte[] convertSequentially(ConvertibleCollection collection) {
+        return convert(new CsvConverter(), collection);
+    }
+
+    private static byte[] convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        converter.convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+}
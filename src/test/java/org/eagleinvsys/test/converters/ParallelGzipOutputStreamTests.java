@@ -0,0 +1,183 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.ParallelGzipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelGzipOutputStreamTests {
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenDataSpanningManyBlocks_whenWritten_thenGunzipRestoresData() throws IOException {
+        byte[] testData = testData(1_000_000);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().blockSize(10_000).maxBlocksInFlight(4).build())) {
+            gzip.write(testData, 0, 123);
+            gzip.write(testData, 123, testData.length - 123);
+        }
+
+        assertArrayEquals(testData, gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenSingleByteWritesOnBlockBoundaries_whenWritten_thenGunzipRestoresData() throws IOException {
+        byte[] testData = testData(4096);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().blockSize(1024).level(9).build())) {
+            for (byte b : testData) {
+                gzip.write(b);
+            }
+        }
+
+        assertArrayEquals(testData, gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenIncompressibleDataAndNoCompression_whenWritten_thenGunzipRestoresData() throws IOException {
+        byte[] testData = new byte[300_000];
+        new Random(42).nextBytes(testData);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().blockSize(100_000).level(0).build())) {
+            gzip.write(testData);
+        }
+
+        assertArrayEquals(testData, gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenFlushMidway_whenWritten_thenFlushedPartCanBeDecompressed() throws IOException {
+        byte[] testData = testData(50_000);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().blockSize(16_384).build())) {
+            gzip.write(testData, 0, 20_000);
+            gzip.flush();
+            assertArrayEquals(Arrays.copyOf(testData, 20_000), gunzip(testBaos.toByteArray()));
+            gzip.write(testData, 20_000, 30_000);
+        }
+
+        assertArrayEquals(testData, gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenNothingWritten_whenClosed_thenValidEmptyGzipIsWritten() throws IOException {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new ParallelGzipOutputStream(testBaos, executor, GzipOptions.builder().build()).close();
+
+        assertArrayEquals(new byte[0], gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenFinishedStream_whenWritten_thenThrowIOExceptionAndUnderlyingStreamStaysOpen() throws IOException {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("Underlying stream must not be closed.");
+            }
+        };
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(testBaos, executor, GzipOptions.builder().build());
+
+        gzip.write(1);
+        gzip.finish();
+
+        assertThrows(IOException.class, () -> gzip.write(2));
+        assertArrayEquals(new byte[]{1}, gunzip(testBaos.toByteArray()));
+    }
+
+    @Test
+    public void givenFailingUnderlyingStream_whenClosed_thenThrowIOExceptionAfterRunningBlocksAreCompressed()
+            throws IOException {
+        AtomicInteger submittedBlocks = new AtomicInteger();
+        AtomicInteger delayedBlocks = new AtomicInteger();
+        CountDownLatch secondBlockStarted = new CountDownLatch(1);
+        Executor testExecutor = task -> {
+            int block = submittedBlocks.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (block == 1) {
+                        secondBlockStarted.await(10, TimeUnit.SECONDS);
+                    } else if (block == 2) {
+                        delayedBlocks.incrementAndGet();
+                        secondBlockStarted.countDown();
+                        Thread.sleep(200);
+                        delayedBlocks.decrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                task.run();
+            });
+        };
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk is full.");
+            }
+        };
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(failingStream, testExecutor, GzipOptions.builder()
+                .blockSize(16)
+                .maxBlocksInFlight(4)
+                .build());
+        gzip.write(testData(48));
+
+        assertThrows(IOException.class, gzip::close);
+        assertEquals(0, delayedBlocks.get());
+    }
+
+    @Test
+    public void givenInvalidOptions_whenCreated_thenThrowIllegalArgumentException() {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().blockSize(0).build()));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().level(10).build()));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipOutputStream(testBaos, executor,
+                GzipOptions.builder().maxBlocksInFlight(0).build()));
+    }
+
+    static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gunzip.readAllBytes();
+        }
+    }
+
+    private static byte[] testData(int length) {
+        Random random = new Random(7);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,352 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ReactiveCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.TestCollections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveCsvConverterTests {
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    ReactiveCsvConverter reactiveCsvConverter = new ReactiveCsvConverter(executor);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenSlowSubscriber_whenPublish_thenChunksContainSameBytesAsOutputStream() throws Exception {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        CollectingSubscriber testSubscriber = new CollectingSubscriber(1, 1);
+
+        reactiveCsvConverter.publish(testCollection).subscribe(testSubscriber);
+
+        assertTrue(testSubscriber.completed.await(1, TimeUnit.MINUTES));
+        assertNull(testSubscriber.error);
+        assertArrayEquals(convertToBytes(testCollection), testSubscriber.bytes.toByteArray());
+        assertTrue(testSubscriber.chunks > 1);
+        assertFalse(testSubscriber.receivedUnrequested);
+    }
+
+    @Test
+    public void givenNoDemand_whenPublish_thenChunksAreEmittedOnlyWhenRequested() throws Exception {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        CollectingSubscriber testSubscriber = new CollectingSubscriber(0, 0);
+
+        reactiveCsvConverter.publish(testCollection).subscribe(testSubscriber);
+        Thread.sleep(50);
+        assertEquals(0, testSubscriber.chunks);
+        testSubscriber.subscription.request(1);
+        for (long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+             testSubscriber.chunks == 0 && System.nanoTime() < deadline; ) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+
+        assertEquals(1, testSubscriber.chunks);
+        assertFalse(testSubscriber.receivedUnrequested);
+        testSubscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(testSubscriber.completed.await(1, TimeUnit.MINUTES));
+        assertArrayEquals(convertToBytes(testCollection), testSubscriber.bytes.toByteArray());
+    }
+
+    @Test
+    public void givenNonPositiveRequest_whenPublish_thenSubscriberReceivesIllegalArgumentException() throws Exception {
+        CollectingSubscriber testSubscriber = new CollectingSubscriber(0, 0);
+
+        reactiveCsvConverter.publish(testCollection(testRecords(10))).subscribe(testSubscriber);
+        testSubscriber.subscription.request(0);
+
+        assertTrue(testSubscriber.completed.await(1, TimeUnit.MINUTES));
+        assertTrue(testSubscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenPublish_thenPrecedingRecordsArePublishedBeforeError() throws Exception {
+        List<ConvertibleMessage> testRecords = testRecords(10);
+        CollectingSubscriber testSubscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+
+        reactiveCsvConverter.publish(testCollection(failingRecords(testRecords, 7))).subscribe(testSubscriber);
+
+        assertTrue(testSubscriber.completed.await(1, TimeUnit.MINUTES));
+        assertTrue(testSubscriber.error instanceof InvalidCollectionException);
+        assertArrayEquals(convertToBytes(testCollection(testRecords.subList(0, 7))), testSubscriber.bytes.toByteArray());
+    }
+
+    @Test
+    public void givenRecordFailingOnSecondColumn_whenPublish_thenNoPartOfItIsPublished() throws Exception {
+        List<ConvertibleMessage> testRecords = testRecords(3);
+        List<ConvertibleMessage> publishedRecords = new ArrayList<>(testRecords);
+        publishedRecords.add(failingOnValue());
+        CollectingSubscriber testSubscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+
+        reactiveCsvConverter.publish(testCollection(publishedRecords)).subscribe(testSubscriber);
+
+        assertTrue(testSubscriber.completed.await(1, TimeUnit.MINUTES));
+        assertTrue(testSubscriber.error instanceof InvalidCollectionException);
+        assertArrayEquals(convertToBytes(testCollection(testRecords)), testSubscriber.bytes.toByteArray());
+    }
+
+    @Test
+    public void givenInvalidCollection_whenPublish_thenThrowInvalidCollectionException() {
+        ConvertibleCollection testCollection = ConvertibleCollectionTestImpl.builder().records(List.of()).build();
+
+        assertThrows(InvalidCollectionException.class, () -> reactiveCsvConverter.publish(testCollection));
+    }
+
+    @Test
+    public void givenSlowOutputStream_whenSubscribedToSubmissionPublisher_thenOutputContainsSameBytesAsOutputStream() throws Exception {
+        List<ConvertibleMessage> testRecords = testRecords(20_000);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        OutputStream slowOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                testBaos.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                testBaos.write(b, off, len);
+            }
+        };
+        ConversionSubscriber testSubscriber = reactiveCsvConverter.subscriber(List.of("id", "value"), slowOutputStream);
+
+        try (SubmissionPublisher<ConvertibleMessage> publisher = new SubmissionPublisher<>(executor, 16)) {
+            publisher.subscribe(testSubscriber);
+            testRecords.forEach(publisher::submit);
+        }
+        ConversionResult result = testSubscriber.getResult().get(1, TimeUnit.MINUTES);
+
+        assertArrayEquals(convertToBytes(testCollection(testRecords)), testBaos.toByteArray());
+        assertEquals(20_000, result.getRowsWritten());
+        assertEquals(testBaos.size(), result.getBytesWritten());
+    }
+
+    @Test
+    public void givenSubscriber_whenMessagesArrive_thenRequestsFitIntoOutputBuffer() {
+        ConvertibleMessage testMessage = ConvertibleMessageTestImpl.builder()
+                .data(Map.of("id", "1", "value", "x".repeat(98)))
+                .build();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        ConversionSubscriber testSubscriber = reactiveCsvConverter.subscriber(List.of("id", "value"), testBaos);
+        AtomicLong requested = new AtomicLong();
+        List<Long> requests = new ArrayList<>();
+        testSubscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requests.add(n);
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(requested.getAndDecrement() > 0);
+            testSubscriber.onNext(testMessage);
+        }
+        testSubscriber.onComplete();
+
+        // every record takes 101 bytes and the output buffer has less than 64 KiB
+        assertTrue(requests.stream().allMatch(n -> n > 0 && n * 101 <= 64 * 1024));
+        assertEquals(10_000L * 101 + "id,value\n".length(), testBaos.size());
+        assertTrue(testSubscriber.getResult().isDone());
+    }
+
+    @Test
+    public void givenPublisherError_whenSubscribed_thenReceivedRecordsAreWrittenAndResultFails() {
+        List<ConvertibleMessage> testRecords = testRecords(5);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        ConversionSubscriber testSubscriber = reactiveCsvConverter.subscriber(List.of("id", "value"), testBaos);
+        testSubscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        testRecords.forEach(testSubscriber::onNext);
+        testSubscriber.onError(new IllegalStateException("Cursor is closed."));
+
+        assertArrayEquals(convertToBytes(testCollection(testRecords)), testBaos.toByteArray());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> testSubscriber.getResult().get());
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void givenRecordFailingOnSecondColumn_whenSubscribed_thenNoPartOfItIsWritten() {
+        List<ConvertibleMessage> testRecords = testRecords(3);
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        ConversionSubscriber testSubscriber = reactiveCsvConverter.subscriber(List.of("id", "value"), testBaos);
+        testSubscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        testRecords.forEach(testSubscriber::onNext);
+        testSubscriber.onNext(failingOnValue());
+
+        assertArrayEquals(convertToBytes(testCollection(testRecords)), testBaos.toByteArray());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> testSubscriber.getResult().get());
+        assertTrue(exception.getCause() instanceof InvalidCollectionException);
+    }
+
+    @Test
+    public void givenNullHeader_whenCreateSubscriber_thenThrowInvalidCollectionException() {
+        List<String> testHeaders = new ArrayList<>();
+        testHeaders.add(null);
+
+        assertThrows(InvalidCollectionException.class,
+                () -> reactiveCsvConverter.subscriber(testHeaders, new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Subscriber requesting given number of chunks initially and after each received chunk from its own thread,
+     * recording whether more chunks than requested were received
+     */
+    private static class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private final long initialRequest;
+        private final long nextRequest;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicLong outstanding = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile int chunks;
+        private volatile boolean receivedUnrequested;
+        private volatile Throwable error;
+
+        CollectingSubscriber(long initialRequest, long nextRequest) {
+            this.initialRequest = initialRequest;
+            this.nextRequest = nextRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    outstanding.addAndGet(n);
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                }
+            };
+            if (initialRequest > 0) {
+                this.subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            if (outstanding.getAndDecrement() <= 0) {
+                receivedUnrequested = true;
+            }
+            byte[] chunk = new byte[item.remaining()];
+            item.get(chunk);
+            bytes.write(chunk, 0, chunk.length);
+            chunks++;
+            if (nextRequest > 0) {
+                ForkJoinPool.commonPool().execute(() -> {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    subscription.request(nextRequest);
+                });
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static List<ConvertibleMessage> testRecords(int count) {
+        return TestCollections.testRecords(count, i -> "value, \"number\" " + i);
+    }
+
+    private static Iterable<ConvertibleMessage> failingRecords(List<ConvertibleMessage> records, int failingIndex) {
+        return () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == failingIndex) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return records.get(index++);
+            }
+        };
+    }
+
+    /**
+     * @return message whose id is read successfully and whose value fails
+     */
+    private static ConvertibleMessage failingOnValue() {
+        return elementId -> {
+            if ("value".equals(elementId)) {
+                throw new InvalidCollectionException("Value can not be read.");
+            }
+            return "partial";
+        };
+    }
+
+    private static byte[] convertToBytes(ConvertibleCollection collection) {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        new CsvConverter().convert(collection, testBaos);
+        return testBaos.toByteArray();
+    }
+
+}
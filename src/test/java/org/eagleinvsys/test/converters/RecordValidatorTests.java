@@ -0,0 +1,100 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.validators.RecordValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordValidatorTests {
+
+    @Test
+    public void givenNullOrEmptyFirstMap_whenCreated_thenThrowInvalidCollectionException() {
+        Throwable nullException = assertThrows(InvalidCollectionException.class, () -> RecordValidator.forFirstRecord(null));
+        Throwable emptyException = assertThrows(InvalidCollectionException.class, () -> RecordValidator.forFirstRecord(Map.of()));
+
+        assertEquals("One of the maps is empty or null.", nullException.getMessage());
+        assertEquals("One of the maps is empty or null.", emptyException.getMessage());
+    }
+
+    @Test
+    public void givenMapsWithEqualKeysOfOtherInstancesAndClasses_whenValidate_thenMapsAreAccepted() {
+        RecordValidator testValidator = RecordValidator.forFirstRecord(Map.of("testKey1", "1", "testKey2", "2"));
+        Map<String, String> copiedKeys = new HashMap<>();
+        copiedKeys.put(new String("testKey2"), "2");
+        copiedKeys.put(new String("testKey1"), "1");
+        Map<String, String> linkedKeys = new LinkedHashMap<>(copiedKeys);
+        Map<String, String> sortedKeys = new TreeMap<>(copiedKeys);
+
+        assertDoesNotThrow(() -> testValidator.validate(Map.of("testKey1", "3", "testKey2", "4")));
+        assertDoesNotThrow(() -> testValidator.validate(copiedKeys));
+        assertDoesNotThrow(() -> testValidator.validate(linkedKeys));
+        assertDoesNotThrow(() -> testValidator.validate(sortedKeys));
+    }
+
+    @Test
+    public void givenMapWithDifferentKeysOfSameHashCode_whenValidate_thenThrowInvalidCollectionException() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        RecordValidator testValidator = RecordValidator.forFirstRecord(Map.of("Aa", "1", "testKey", "2"));
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> testValidator.validate(Map.of("BB", "1", "testKey", "2")));
+
+        assertEquals("At least one of the maps has different set of keys.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenSortedMapsWithKeysEqualByComparator_whenValidate_thenMapsAreAcceptedLikeByKeySetEquals() {
+        Map<String, String> firstMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        firstMap.put("testkey", "1");
+        Map<String, String> testMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        testMap.put("TESTKEY", "2");
+        RecordValidator testValidator = RecordValidator.forFirstRecord(firstMap);
+
+        assertTrue(testMap.keySet().equals(firstMap.keySet()));
+        assertDoesNotThrow(() -> testValidator.validate(testMap));
+    }
+
+    @Test
+    public void givenRandomMaps_whenValidate_thenResultIsSameAsOfKeySetEquals() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            Map<String, String> firstMap = randomMap(random);
+            Map<String, String> testMap = randomMap(random);
+            RecordValidator testValidator = RecordValidator.forFirstRecord(firstMap);
+
+            boolean expectedValid = testMap.keySet().equals(firstMap.keySet());
+            boolean actualValid;
+            try {
+                testValidator.validate(testMap);
+                actualValid = true;
+            } catch (InvalidCollectionException e) {
+                actualValid = false;
+            }
+
+            assertEquals(expectedValid, actualValid, firstMap + " " + testMap);
+        }
+    }
+
+    private static Map<String, String> randomMap(Random random) {
+        Map<String, String> map;
+        switch (random.nextInt(3)) {
+            case 0:
+                map = new HashMap<>();
+                break;
+            case 1:
+                map = new LinkedHashMap<>();
+                break;
+            default:
+                map = new TreeMap<>();
+        }
+        int size = 1 + random.nextInt(3);
+        while (map.size() < size) {
+            String key = String.valueOf((char) ('a' + random.nextInt(4)));
+            map.put(random.nextBoolean() ? key : new String(key), "value");
+        }
+        return map;
+    }
+}
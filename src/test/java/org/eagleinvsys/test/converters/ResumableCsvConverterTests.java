@@ -0,0 +1,219 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ResumableCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableCsvConverterTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final ResumableCsvConverter converter = new ResumableCsvConverter(CheckpointOptions.builder()
+            .checkpointIntervalRows(10)
+            .build());
+
+    @Test
+    public void givenNoCheckpoint_whenConvertResumable_thenOutputIsSameAsOfCsvConverterAndCheckpointIsDeleted() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        Files.writeString(file, "previous content which is longer than the result\n".repeat(100));
+
+        ConversionResult actualResult = converter.convertResumable(collection(records(0, 25)), file);
+
+        assertEquals(expectedCsv(0, 25), Files.readString(file));
+        assertEquals(25, actualResult.getRowsWritten());
+        assertEquals(Files.size(file), actualResult.getBytesWritten());
+        assertFalse(Files.exists(checkpointOf(file)));
+    }
+
+    @Test
+    public void givenInterruptedConversion_whenConvertResumable_thenResumedFromCheckpoint() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertResumable(collection(failingAfter(records(0, 25), 17)), file));
+        assertTrue(Files.exists(checkpointOf(file)));
+        Files.writeString(file, "partially written ro", StandardOpenOption.APPEND);
+
+        ConversionResult actualResult = converter.convertResumable(collection(records(0, 25)), file);
+
+        assertEquals(expectedCsv(0, 25), Files.readString(file));
+        assertEquals(15, actualResult.getRowsWritten());
+        assertFalse(Files.exists(checkpointOf(file)));
+    }
+
+    @Test
+    public void givenSequentialRecords_whenConvertResumable_thenWrittenRecordsAreSkippedByIteration() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertResumable(collection(failingAfter(records(0, 25), 12)), file));
+
+        ConversionResult actualResult = converter.convertResumable(collection(new LinkedList<>(records(0, 25))), file);
+
+        assertEquals(expectedCsv(0, 25), Files.readString(file));
+        assertEquals(15, actualResult.getRowsWritten());
+    }
+
+    @Test
+    public void givenInterruptedColumnarConversion_whenConvertResumable_thenResumedFromCheckpoint() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        String[] ids = new String[25];
+        String[] values = new String[25];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = String.valueOf(i);
+            values[i] = "v," + i;
+        }
+        ColumnarConvertibleCollection columnar = ColumnarConvertibleCollection.builder()
+                .column("id", ids)
+                .column("value", values)
+                .build();
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertResumable(collection(failingAfter(records(0, 25), 21)), file));
+
+        ConversionResult actualResult = converter.convertResumable(columnar, file);
+
+        assertEquals(expectedCsv(0, 25), Files.readString(file));
+        assertEquals(5, actualResult.getRowsWritten());
+    }
+
+    @Test
+    public void givenCheckpointOfDifferentHeaders_whenConvertResumable_thenThrowInvalidCollectionException() {
+        Path file = tempDir.resolve("export.csv");
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertResumable(collection(failingAfter(records(0, 25), 12)), file));
+
+        ConvertibleCollection otherHeaders = ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("other"))
+                .records(List.of())
+                .build();
+        assertThrows(InvalidCollectionException.class, () -> converter.convertResumable(otherHeaders, file));
+    }
+
+    @Test
+    public void givenCollectionShorterThanCheckpoint_whenConvertResumable_thenThrowInvalidCollectionException() {
+        Path file = tempDir.resolve("export.csv");
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertResumable(collection(failingAfter(records(0, 25), 22)), file));
+
+        assertThrows(InvalidCollectionException.class, () -> converter.convertResumable(collection(records(0, 5)), file));
+        assertThrows(InvalidCollectionException.class,
+                () -> converter.convertResumable(collection(new LinkedList<>(records(0, 5))), file));
+    }
+
+    @Test
+    public void givenExistingFile_whenAppend_thenRecordsAreAddedWithoutHeaders() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        new CsvConverter().convert(collection(records(0, 10)), file);
+
+        ConversionResult actualResult = converter.append(collection(records(10, 25)), file);
+
+        assertEquals(expectedCsv(0, 25), Files.readString(file));
+        assertEquals(15, actualResult.getRowsWritten());
+        assertFalse(Files.exists(checkpointOf(file)));
+    }
+
+    @Test
+    public void givenMissingFile_whenAppend_thenHeadersAreWritten() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+
+        converter.append(collection(records(0, 3)), file);
+
+        assertEquals(expectedCsv(0, 3), Files.readString(file));
+    }
+
+    @Test
+    public void givenInterruptedAppend_whenAppend_thenResumedFromCheckpoint() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        new CsvConverter().convert(collection(records(0, 10)), file);
+        assertThrows(IllegalStateException.class,
+                () -> converter.append(collection(failingAfter(records(10, 40), 25)), file));
+
+        ConversionResult actualResult = converter.append(collection(records(10, 40)), file);
+
+        assertEquals(expectedCsv(0, 40), Files.readString(file));
+        assertEquals(10, actualResult.getRowsWritten());
+    }
+
+    @Test
+    public void givenFileWithDifferentHeaders_whenAppend_thenThrowInvalidCollectionException() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        Files.writeString(file, "other,headers\n1,2\n");
+
+        assertThrows(InvalidCollectionException.class, () -> converter.append(collection(records(0, 3)), file));
+        assertEquals("other,headers\n1,2\n", Files.readString(file));
+    }
+
+    @Test
+    public void givenFileWithoutTrailingLineSeparator_whenAppend_thenThrowInvalidCollectionException() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        Files.writeString(file, "id,value\n1,2");
+
+        assertThrows(InvalidCollectionException.class, () -> converter.append(collection(records(0, 3)), file));
+    }
+
+    @Test
+    public void givenNonPositiveInterval_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResumableCsvConverter(CheckpointOptions.builder().checkpointIntervalRows(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResumableCsvConverter(CheckpointOptions.builder().checkpointIntervalBytes(0).build()));
+    }
+
+    private static List<ConvertibleMessage> records(int from, int to) {
+        List<ConvertibleMessage> records = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            records.add(ConvertibleMessageTestImpl.builder().data(Map.of("id", String.valueOf(i), "value", "v," + i)).build());
+        }
+        return records;
+    }
+
+    private static ConvertibleCollection collection(Iterable<ConvertibleMessage> records) {
+        return ConvertibleCollectionTestImpl.builder().headers(List.of("id", "value")).records(records).build();
+    }
+
+    /**
+     * @return records failing like an interrupted source when the record at the given index is read
+     */
+    private static Iterable<ConvertibleMessage> failingAfter(List<ConvertibleMessage> records, int failingIndex) {
+        return () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < records.size();
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == failingIndex) {
+                    throw new IllegalStateException("Source is interrupted.");
+                }
+                return records.get(index++);
+            }
+        };
+    }
+
+    private static String expectedCsv(int from, int to) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new CsvConverter().convert(collection(records(from, to)), output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Path checkpointOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+}
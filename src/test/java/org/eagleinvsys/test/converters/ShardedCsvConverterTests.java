@@ -0,0 +1,209 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ShardedCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testCollection;
+import static org.eagleinvsys.test.converters.testDomain.TestCollections.testRecords;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedCsvConverterTests {
+
+    private static final String HEADER_LINE = "id,value\n";
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenRowThreshold_whenConvertToShards_thenEveryShardHasHeaderAndAtMostMaxRows() throws IOException {
+        ConvertibleCollection testCollection = testCollection(testRecords(10_500));
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxRowsPerShard(1000)
+                .maxChunksInFlight(3)
+                .build());
+
+        List<ShardInfo> actualShards = shardedConverter.convertToShards(testCollection, tempDir);
+
+        assertEquals(11, actualShards.size());
+        assertEquals("part-00000.csv", actualShards.get(0).getFileName());
+        assertEquals(500, actualShards.get(10).getRows());
+        for (ShardInfo shard : actualShards.subList(0, 10)) {
+            assertEquals(1000, shard.getRows());
+        }
+        assertShardsHoldConversionResult(testCollection, actualShards);
+        assertManifestListsShards(actualShards);
+    }
+
+    @Test
+    public void givenByteThreshold_whenConvertToShards_thenNoShardExceedsMaxBytes() throws IOException {
+        ConvertibleCollection testCollection = testCollection(testRecords(20_000));
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxBytesPerShard(100_000)
+                .build());
+
+        List<ShardInfo> actualShards = shardedConverter.convertToShards(testCollection, tempDir);
+
+        assertTrue(actualShards.size() > 1);
+        for (ShardInfo shard : actualShards) {
+            assertTrue(shard.getBytes() <= 100_000);
+        }
+        for (ShardInfo shard : actualShards.subList(0, actualShards.size() - 1)) {
+            assertTrue(shard.getBytes() > 100_000 - 30);
+        }
+        assertShardsHoldConversionResult(testCollection, actualShards);
+        assertManifestListsShards(actualShards);
+    }
+
+    @Test
+    public void givenRecordLargerThanMaxBytes_whenConvertToShards_thenRecordGetsShardOfItsOwn() throws IOException {
+        List<ConvertibleMessage> testRecords = new ArrayList<>(testRecords(3));
+        testRecords.add(1, ConvertibleMessageTestImpl.builder()
+                .data(Map.of("id", "large", "value", "x".repeat(200)))
+                .build());
+        ConvertibleCollection testCollection = testCollection(testRecords);
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxBytesPerShard(100)
+                .build());
+
+        List<ShardInfo> actualShards = shardedConverter.convertToShards(testCollection, tempDir);
+
+        assertEquals(List.of(1L, 1L, 2L), actualShards.stream().map(ShardInfo::getRows).collect(Collectors.toList()));
+        assertShardsHoldConversionResult(testCollection, actualShards);
+    }
+
+    @Test
+    public void givenEmptyRecords_whenConvertToShards_thenSingleShardHasHeaderOnly() throws IOException {
+        List<ShardInfo> actualShards = new ShardedCsvConverter()
+                .convertToShards(testCollection(Collections.emptyList()), tempDir.resolve("nested"));
+
+        assertEquals(List.of(new ShardInfo("part-00000.csv", 0, HEADER_LINE.length())), actualShards);
+        assertEquals(HEADER_LINE, Files.readString(tempDir.resolve("nested").resolve("part-00000.csv")));
+    }
+
+    @Test
+    public void givenRecordsFailingValidationPartway_whenConvertToShards_thenPrecedingRecordsAreWrittenWithoutManifest()
+            throws IOException {
+        List<ConvertibleMessage> testRecords = testRecords(100);
+        Iterable<ConvertibleMessage> failingRecords = () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ConvertibleMessage next() {
+                if (index == 25) {
+                    throw new InvalidCollectionException("At least one of the maps has different set of keys.");
+                }
+                return testRecords.get(index++);
+            }
+        };
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxRowsPerShard(10)
+                .build());
+
+        assertThrows(InvalidCollectionException.class,
+                () -> shardedConverter.convertToShards(testCollection(failingRecords), tempDir));
+
+        assertFalse(Files.exists(tempDir.resolve("manifest.csv")));
+        assertEquals(HEADER_LINE + rowsOf(testRecords.subList(20, 25)), Files.readString(tempDir.resolve("part-00002.csv")));
+    }
+
+    @Test
+    public void givenDirectoryIsFile_whenConvertToShards_thenThrowUncheckedIOException() throws IOException {
+        Path testFile = Files.createFile(tempDir.resolve("file"));
+
+        assertThrows(UncheckedIOException.class,
+                () -> new ShardedCsvConverter().convertToShards(testCollection(testRecords(10)), testFile));
+    }
+
+    @Test
+    public void givenCsvOptions_whenConvertToShards_thenShardsUseThemAndManifestIsPlain() throws IOException {
+        ShardedCsvConverter shardedConverter = new ShardedCsvConverter(executor, ShardingOptions.builder()
+                .maxRowsPerShard(2)
+                .build(), CsvOptions.builder()
+                .charset(StandardCharsets.UTF_16LE)
+                .byteOrderMark(true)
+                .cellCacheCapacity(16)
+                .build());
+
+        List<ShardInfo> actualShards = shardedConverter.convertToShards(testCollection(testRecords(3)), tempDir);
+
+        assertEquals(2, actualShards.size());
+        assertEquals("\uFEFF" + HEADER_LINE + "2,\"value, number 2\"\n",
+                Files.readString(tempDir.resolve(actualShards.get(1).getFileName()), StandardCharsets.UTF_16LE));
+        assertManifestListsShards(actualShards);
+        assertEquals(1, shardedConverter.getPlanCacheStatistics().getSize());
+        assertEquals(Set.of("id", "value"), shardedConverter.getCellCacheStatistics().keySet());
+        for (CellCacheStatistics statistics : shardedConverter.getCellCacheStatistics().values()) {
+            assertEquals(3, statistics.getHits() + statistics.getMisses());
+        }
+    }
+
+    @Test
+    public void givenNonPositiveThreshold_whenCreateConverter_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardedCsvConverter(executor, ShardingOptions.builder().maxRowsPerShard(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardedCsvConverter(executor, ShardingOptions.builder().maxBytesPerShard(0).build()));
+    }
+
+    private void assertShardsHoldConversionResult(ConvertibleCollection collection, List<ShardInfo> shards)
+            throws IOException {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        new CsvConverter().convert(collection, testBaos);
+        StringBuilder actualRows = new StringBuilder(HEADER_LINE);
+        for (ShardInfo shard : shards) {
+            byte[] shardBytes = Files.readAllBytes(tempDir.resolve(shard.getFileName()));
+            assertEquals(shard.getBytes(), shardBytes.length);
+            String shardContent = new String(shardBytes, StandardCharsets.UTF_8);
+            assertTrue(shardContent.startsWith(HEADER_LINE));
+            assertEquals(shard.getRows(), shardContent.chars().filter(c -> c == '\n').count() - 1);
+            actualRows.append(shardContent.substring(HEADER_LINE.length()));
+        }
+        assertEquals(testBaos.toString(StandardCharsets.UTF_8), actualRows.toString());
+    }
+
+    private void assertManifestListsShards(List<ShardInfo> shards) throws IOException {
+        StringBuilder expectedManifest = new StringBuilder("file,rows,bytes\n");
+        for (ShardInfo shard : shards) {
+            expectedManifest.append(shard.getFileName()).append(',').append(shard.getRows()).append(',')
+                    .append(shard.getBytes()).append('\n');
+        }
+        assertEquals(expectedManifest.toString(), Files.readString(tempDir.resolve("manifest.csv")));
+    }
+
+    private static String rowsOf(List<ConvertibleMessage> records) {
+        StringBuilder rows = new StringBuilder();
+        for (ConvertibleMessage record : records) {
+            rows.append(record.getElement("id")).append(",\"").append(record.getElement("value")).append("\"\n");
+        }
+        return rows.toString();
+    }
+
+}
@@ -0,0 +1,222 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.impl.SortingConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.IndexedConvertibleMessageTestImpl;
+import org.eagleinvsys.test.converters.testDomain.ReferenceCsvFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortingConverterTests {
+
+    private static final List<String> HEADERS = List.of("key", "group", "value");
+
+    @TempDir
+    Path tempDir;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenRecordsExceedingMemoryBudget_whenConvert_thenOutputIsSortedAndRunsAreDeleted() throws IOException {
+        List<Map<String, String>> records = randomRecords(new Random(3), 5000);
+        SortOptions options = SortOptions.builder()
+                .sortColumn("key")
+                .memoryBudget(64 * 1024)
+                .maxRunsInFlight(3)
+                .tempDirectory(tempDir)
+                .build();
+        List<Map<String, String>> expected = new ArrayList<>(records);
+        expected.sort(Comparator.comparing(record -> record.get("key"), Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        assertEquals(format(expected), convert(new SortingConverter(new CsvConverter(), executor, options), records));
+        assertEquals(format(expected), convert(new SortingConverter(new ParallelCsvConverter(executor, 64, 4), executor,
+                options), records));
+        assertEquals(0, countFiles(tempDir));
+    }
+
+    @Test
+    public void givenMoreRunsThanMergeFanIn_whenConvert_thenRunsAreMergedInPassesReadingAtMostFanInRuns()
+            throws IOException {
+        List<Map<String, String>> records = randomRecords(new Random(11), 5000);
+        SortingConverter converter = new SortingConverter(new CsvConverter(), executor, SortOptions.builder()
+                .sortColumn("key")
+                .memoryBudget(16 * 1024)
+                .maxRunsInFlight(2)
+                .maxMergeFanIn(4)
+                .tempDirectory(tempDir)
+                .build());
+        List<Map<String, String>> expected = new ArrayList<>(records);
+        expected.sort(Comparator.comparing(record -> record.get("key"), Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        assertEquals(format(expected), convert(converter, records));
+
+        SortStatistics actualStatistics = converter.getStatistics();
+        assertTrue(actualStatistics.getSpilledRuns() > 16);
+        assertTrue(actualStatistics.getMergedRuns() > 4);
+        assertEquals(4, actualStatistics.getMaxOpenRuns());
+        assertEquals(0, countFiles(tempDir));
+    }
+
+    @Test
+    public void givenSeveralColumnsAndComparator_whenConvert_thenRecordsAreComparedByColumnsInOrder() {
+        List<Map<String, String>> records = randomRecords(new Random(5), 3000);
+        Comparator<String> reversed = Comparator.nullsLast(Comparator.<String>reverseOrder());
+        SortOptions options = SortOptions.builder()
+                .sortColumns(List.of("group", "key"))
+                .comparator(reversed)
+                .memoryBudget(32 * 1024)
+                .maxMergeFanIn(3)
+                .tempDirectory(tempDir)
+                .build();
+        List<Map<String, String>> expected = new ArrayList<>(records);
+        expected.sort(Comparator.<Map<String, String>, String>comparing(record -> record.get("group"), reversed)
+                .thenComparing(record -> record.get("key"), reversed));
+
+        assertEquals(format(expected), convert(new SortingConverter(new CsvConverter(), executor, options), records));
+    }
+
+    @Test
+    public void givenEqualKeysAcrossRuns_whenConvert_thenInputOrderIsKept() {
+        List<Map<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            records.add(Map.of("key", String.valueOf(i % 3), "group", "g", "value", String.valueOf(i)));
+        }
+        SortOptions options = SortOptions.builder().sortColumn("key").memoryBudget(16 * 1024).tempDirectory(tempDir).build();
+        List<Map<String, String>> expected = new ArrayList<>(records);
+        expected.sort(Comparator.comparing(record -> record.get("key")));
+
+        assertEquals(format(expected), convert(new SortingConverter(new CsvConverter(), executor, options), records));
+    }
+
+    @Test
+    public void givenRecordsWithinMemoryBudget_whenConvert_thenNothingIsSpilled() throws IOException {
+        List<ConvertibleMessage> messages = List.of(
+                IndexedConvertibleMessageTestImpl.builder().headers(HEADERS).values(Arrays.asList("b", "g", "1")).build(),
+                IndexedConvertibleMessageTestImpl.builder().headers(HEADERS).values(Arrays.asList(null, "g", "2")).build(),
+                IndexedConvertibleMessageTestImpl.builder().headers(HEADERS).values(Arrays.asList("a", "g", "3")).build());
+        SortingConverter converter = new SortingConverter(new CsvConverter(), executor,
+                SortOptions.builder().sortColumn("key").tempDirectory(tempDir).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        converter.convert(ConvertibleCollectionTestImpl.builder().headers(HEADERS).records(messages).build(), output);
+
+        assertEquals("key,group,value\n,g,2\na,g,3\nb,g,1\n", output.toString(StandardCharsets.UTF_8));
+        assertEquals(0, countFiles(tempDir));
+    }
+
+    @Test
+    public void givenInvalidRecord_whenConvert_thenNothingIsWrittenAndRunsAreDeleted() throws IOException {
+        List<ConvertibleMessage> messages = new ArrayList<>(messages(randomRecords(new Random(7), 1000)));
+        messages.add(elementId -> {
+            throw new InvalidCollectionException("Invalid record.");
+        });
+        SortingConverter converter = new SortingConverter(new CsvConverter(), executor, SortOptions.builder()
+                .sortColumn("key")
+                .memoryBudget(16 * 1024)
+                .tempDirectory(tempDir)
+                .build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(InvalidCollectionException.class, () -> converter.convert(ConvertibleCollectionTestImpl.builder()
+                .headers(HEADERS)
+                .records(messages)
+                .build(), output));
+        assertEquals(0, output.size());
+        assertEquals(0, countFiles(tempDir));
+    }
+
+    @Test
+    public void givenInvalidCollections_whenConvert_thenThrowInvalidCollectionException() {
+        SortingConverter converter = new SortingConverter(new CsvConverter(), SortOptions.builder().sortColumn("key").build());
+
+        assertThrows(InvalidCollectionException.class, () -> convert(converter, ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("group"))
+                .records(List.of())
+                .build()));
+        assertThrows(InvalidCollectionException.class, () -> convert(converter, ConvertibleCollectionTestImpl.builder()
+                .headers(Arrays.asList("key", null))
+                .records(List.of())
+                .build()));
+        assertThrows(InvalidCollectionException.class, () -> convert(converter, ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("key"))
+                .build()));
+    }
+
+    @Test
+    public void givenInvalidOptions_whenCreated_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SortingConverter(new CsvConverter(), SortOptions.builder().build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SortingConverter(new CsvConverter(), SortOptions.builder().sortColumn("key").memoryBudget(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SortingConverter(new CsvConverter(), SortOptions.builder().sortColumn("key").maxRunsInFlight(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SortingConverter(new CsvConverter(), SortOptions.builder().sortColumn("key").maxMergeFanIn(1).build()));
+    }
+
+    private static List<Map<String, String>> randomRecords(Random random, int rows) {
+        List<Map<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> record = new HashMap<>();
+            record.put("key", random.nextInt(20) == 0 ? null : "k" + random.nextInt(rows));
+            record.put("group", "g" + random.nextInt(4));
+            record.put("value", "value, \"" + i + "\"");
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static List<ConvertibleMessage> messages(List<Map<String, String>> records) {
+        List<ConvertibleMessage> messages = new ArrayList<>();
+        for (Map<String, String> record : records) {
+            messages.add(ConvertibleMessageTestImpl.builder().data(record).build());
+        }
+        return messages;
+    }
+
+    private static String format(List<Map<String, String>> records) {
+        return ReferenceCsvFormatter.format(ConvertibleCollectionTestImpl.builder()
+                .headers(HEADERS)
+                .records(messages(records))
+                .build());
+    }
+
+    private static String convert(Converter converter, List<Map<String, String>> records) {
+        return convert(converter, ConvertibleCollectionTestImpl.builder().headers(HEADERS).records(messages(records)).build());
+    }
+
+    private static String convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        converter.convert(collection, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.SpecialCharacterScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.eagleinvsys.test.converters.impl.SpecialCharacterScanner.QUOTING;
+import static org.eagleinvsys.test.converters.impl.SpecialCharacterScanner.WHITESPACE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpecialCharacterScannerTests {
+
+    @Test
+    public void givenEveryByteValueAtEveryPosition_whenScan_thenOnlySpecialCharactersAreReported() {
+        for (int value = 0; value < 256; value++) {
+            int expectedFlags = expectedFlags((byte) value);
+            for (int position = 0; position < 24; position++) {
+                byte[] testBytes = new byte[24];
+                Arrays.fill(testBytes, (byte) 'a');
+                testBytes[position] = (byte) value;
+
+                assertEquals(expectedFlags, SpecialCharacterScanner.scan(testBytes, 0, testBytes.length),
+                        "byte " + value + " at " + position);
+            }
+        }
+    }
+
+    @Test
+    public void givenSpecialCharacterOutsideOfRange_whenScan_thenItIsNotReported() {
+        byte[] testBytes = "\",abcdefghijklmnopq\t'".getBytes();
+
+        assertEquals(0, SpecialCharacterScanner.scan(testBytes, 2, testBytes.length - 2));
+        assertEquals(QUOTING, SpecialCharacterScanner.scan(testBytes, 1, testBytes.length - 2));
+        assertEquals(WHITESPACE, SpecialCharacterScanner.scan(testBytes, 2, testBytes.length - 1));
+    }
+
+    @Test
+    public void givenRandomRanges_whenScan_thenResultMatchesScalarScan() {
+        Random random = new Random(42);
+        byte[] alphabet = {'a', 'Z', '0', ' ', ',', '"', '\'', '\t', '\n', 0x0B, '\f', '\r', 0x08, 0x0E, (byte) 0xC3,
+                (byte) 0xA9, (byte) 0x8A, (byte) 0xAC, (byte) 0xA7, (byte) 0xFF};
+        for (int i = 0; i < 20_000; i++) {
+            byte[] testBytes = new byte[random.nextInt(64)];
+            for (int j = 0; j < testBytes.length; j++) {
+                testBytes[j] = random.nextInt(8) == 0 ? alphabet[random.nextInt(alphabet.length)] : (byte) 'x';
+            }
+            int from = testBytes.length == 0 ? 0 : random.nextInt(testBytes.length);
+            int to = from + random.nextInt(testBytes.length - from + 1);
+
+            assertEquals(SpecialCharacterScanner.scanScalar(testBytes, from, to), SpecialCharacterScanner.scan(testBytes, from, to));
+        }
+    }
+
+    private static int expectedFlags(byte value) {
+        if (value == ',' || value == '"' || value == '\'') {
+            return QUOTING;
+        }
+        if (value >= 0x09 && value <= 0x0D) {
+            return WHITESPACE;
+        }
+        return 0;
+    }
+}
@@ -2,8 +2,12 @@ package org.eagleinvsys.test.converters;
 
 import org.eagleinvsys.test.converters.exceptions.InvalidCollectionException;
 import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
 import org.eagleinvsys.test.converters.impl.StandardCsvConverter;
 import org.eagleinvsys.test.converters.mappers.ConvertibleCollectionMapper;
+import org.eagleinvsys.test.converters.mappers.MappingMode;
+import org.eagleinvsys.test.converters.validators.ParallelCollectionValidator;
+import org.eagleinvsys.test.converters.validators.WhileWritingCollectionValidator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -145,6 +151,167 @@ class StandardCsvConverterTests {
         }
     }
 
+    @Test
+    public void givenIteratorWithValidMaps_whenConvertStreaming_thenOutputStreamContainsValidCSV() {
+        List<Map<String, String>> testCollection = List.of(
+                linkedMap("testKey1", "firstTestValue1", "testKey2", "firstTestValue2"),
+                linkedMap("testKey1", "secondTestValue1", "testKey2", "secondTestValue2"));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new StandardCsvConverter(new CsvConverter()).convertStreaming(testCollection.iterator(), testBaos);
+
+        String expectedResult = "testKey1,testKey2" + "\n"
+                + "firstTestValue1,firstTestValue2" + "\n"
+                + "secondTestValue1,secondTestValue2" + "\n";
+        assertEquals(expectedResult, testBaos.toString());
+    }
+
+    @Test
+    public void givenStreamWithValidMaps_whenConvertStreaming_thenOutputStreamContainsValidCSV() {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new StandardCsvConverter(new CsvConverter()).convertStreaming(
+                IntStream.range(0, 3).mapToObj(i -> linkedMap("id", String.valueOf(i), "value", "v" + i)),
+                testBaos);
+
+        String expectedResult = "id,value" + "\n"
+                + "0,v0" + "\n"
+                + "1,v1" + "\n"
+                + "2,v2" + "\n";
+        assertEquals(expectedResult, testBaos.toString());
+    }
+
+    @Test
+    public void givenConverterOfListsOnly_whenConvertStreaming_thenMapsAreConvertedAsList() {
+        List<Map<String, String>> testCollection = List.of(Map.of("id", "0"), Map.of("id", "1"));
+        List<List<Map<String, String>>> actualLists = new ArrayList<>();
+        StandardConverter listConverter = (collection, outputStream) -> actualLists.add(collection);
+
+        listConverter.convertStreaming(testCollection.iterator(), OutputStream.nullOutputStream());
+
+        assertEquals(List.of(testCollection), actualLists);
+    }
+
+    @Test
+    public void givenNullOrEmptyIterator_whenConvertStreaming_thenThrowInvalidCollectionException() {
+        StandardCsvConverter testConverter = new StandardCsvConverter(new CsvConverter());
+
+        Throwable nullException = assertThrows(InvalidCollectionException.class,
+                () -> testConverter.convertStreaming((Iterator<Map<String, String>>) null, OutputStream.nullOutputStream()));
+        assertEquals("Provided collectionToConvert is empty or null.", nullException.getMessage());
+
+        Throwable emptyException = assertThrows(InvalidCollectionException.class,
+                () -> testConverter.convertStreaming(Collections.emptyIterator(), OutputStream.nullOutputStream()));
+        assertEquals("Provided collectionToConvert is empty or null.", emptyException.getMessage());
+    }
+
+    @Test
+    public void givenIteratorWithEmptyFirstMap_whenConvertStreaming_thenThrowInvalidCollectionExceptionWithoutOutput() {
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> new StandardCsvConverter(new CsvConverter()).convertStreaming(
+                        List.<Map<String, String>>of(Collections.emptyMap()).iterator(), testBaos));
+        assertEquals("One of the maps is empty or null.", actualException.getMessage());
+        assertEquals("", testBaos.toString());
+    }
+
+    @Test
+    public void givenIteratorWithInvalidMapPartway_whenConvertStreaming_thenPrecedingMapsAreWrittenAndExceptionThrown() {
+        List<Map<String, String>> testCollection = new ArrayList<>();
+        testCollection.add(linkedMap("testKey1", "firstTestValue1", "testKey2", "firstTestValue2"));
+        testCollection.add(linkedMap("testKey1", "secondTestValue1", "testKey2", "secondTestValue2"));
+        testCollection.add(linkedMap("testKey1", "thirdTestValue1", "randomTestKey", "thirdTestValue2"));
+        testCollection.add(linkedMap("testKey1", "fourthTestValue1", "testKey2", "fourthTestValue2"));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> new StandardCsvConverter(new CsvConverter()).convertStreaming(testCollection.iterator(), testBaos));
+
+        assertEquals("At least one of the maps has different set of keys.", actualException.getMessage());
+        String expectedResult = "testKey1,testKey2" + "\n"
+                + "firstTestValue1,firstTestValue2" + "\n"
+                + "secondTestValue1,secondTestValue2" + "\n";
+        assertEquals(expectedResult, testBaos.toString());
+    }
+
+    @Test
+    public void givenValidatorValidatingWhileWriting_whenConvert_thenOutputStreamContainsValidCSV() {
+        List<Map<String, String>> testCollection = List.of(
+                linkedMap("testKey1", "firstTestValue1", "testKey2", "firstTestValue2"),
+                linkedMap("testKey1", "secondTestValue1", "testKey2", "secondTestValue2"));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new StandardCsvConverter(new CsvConverter(), new WhileWritingCollectionValidator()).convert(testCollection, testBaos);
+
+        String expectedResult = "testKey1,testKey2" + "\n"
+                + "firstTestValue1,firstTestValue2" + "\n"
+                + "secondTestValue1,secondTestValue2" + "\n";
+        assertEquals(expectedResult, testBaos.toString());
+    }
+
+    @Test
+    public void givenValidatorValidatingWhileWritingAndInvalidMapPartway_whenConvert_thenPrecedingMapsAreWrittenAndExceptionThrown() {
+        List<Map<String, String>> testCollection = new ArrayList<>();
+        testCollection.add(linkedMap("testKey1", "firstTestValue1", "testKey2", "firstTestValue2"));
+        testCollection.add(new LinkedHashMap<>());
+        testCollection.add(linkedMap("testKey1", "thirdTestValue1", "testKey2", "thirdTestValue2"));
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        StandardCsvConverter testConverter = new StandardCsvConverter(new CsvConverter(), new WhileWritingCollectionValidator());
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> testConverter.convert(testCollection, testBaos));
 
+        assertEquals("One of the maps is empty or null.", actualException.getMessage());
+        assertEquals("testKey1,testKey2" + "\n" + "firstTestValue1,firstTestValue2" + "\n", testBaos.toString());
+    }
+
+    @Test
+    public void givenValidatorValidatingWhileWritingAndEmptyCollection_whenConvert_thenThrowInvalidCollectionException() {
+        StandardCsvConverter testConverter = new StandardCsvConverter(new CsvConverter(), new WhileWritingCollectionValidator());
+
+        Throwable actualException = assertThrows(InvalidCollectionException.class,
+                () -> testConverter.convert(List.of(), new ByteArrayOutputStream()));
+
+        assertEquals("Provided collectionToConvert is empty or null.", actualException.getMessage());
+    }
+
+    @Test
+    public void givenParallelValidatorAndLargeCollection_whenConvert_thenOutputIsSameAsWithDefaultValidator() {
+        List<Map<String, String>> testCollection = new ArrayList<>();
+        IntStream.range(0, 10_000).forEach(i -> testCollection.add(linkedMap("id", String.valueOf(i), "value", "value " + i)));
+        ByteArrayOutputStream expectedBaos = new ByteArrayOutputStream();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+
+        new StandardCsvConverter(new CsvConverter()).convert(testCollection, expectedBaos);
+        new StandardCsvConverter(new CsvConverter(), new ParallelCollectionValidator(ForkJoinPool.commonPool(), 100))
+                .convert(testCollection, testBaos);
+
+        assertEquals(expectedBaos.toString(), testBaos.toString());
+    }
+
+    @Test
+    public void givenViewMappingMode_whenConvert_thenOutputIsSameAsWithCopyMappingMode() {
+        List<Map<String, String>> testCollection = new ArrayList<>();
+        IntStream.range(0, 10_000).forEach(i -> testCollection.add(linkedMap("id", String.valueOf(i), "value", "value, " + i)));
+        ByteArrayOutputStream expectedBaos = new ByteArrayOutputStream();
+        ByteArrayOutputStream testBaos = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallelBaos = new ByteArrayOutputStream();
+
+        new StandardCsvConverter(new CsvConverter()).convert(testCollection, expectedBaos);
+        new StandardCsvConverter(new CsvConverter(), null, MappingMode.VIEW).convert(testCollection, testBaos);
+        new StandardCsvConverter(new ParallelCsvConverter(ForkJoinPool.commonPool(), 100, 4), null, MappingMode.VIEW)
+                .convert(testCollection, parallelBaos);
+
+        assertEquals(expectedBaos.toString(), testBaos.toString());
+        assertEquals(expectedBaos.toString(), parallelBaos.toString());
+    }
+
+    private static Map<String, String> linkedMap(String firstKey, String firstValue, String secondKey, String secondValue) {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put(firstKey, firstValue);
+        map.put(secondKey, secondValue);
+        return map;
+    }
 
 }
\ No newline at end of file
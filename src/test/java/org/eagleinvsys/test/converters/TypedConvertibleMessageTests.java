@@ -0,0 +1,146 @@
+package org.eagleinvsys.test.converters;
+
+import org.eagleinvsys.test.converters.impl.CsvConverter;
+import org.eagleinvsys.test.converters.impl.CsvEncoder;
+import org.eagleinvsys.test.converters.impl.NumberFormatter;
+import org.eagleinvsys.test.converters.impl.ParallelCsvConverter;
+import org.eagleinvsys.test.converters.testDomain.ConvertibleCollectionTestImpl;
+import org.eagleinvsys.test.converters.testDomain.TypedConvertibleMessageTestImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypedConvertibleMessageTests {
+
+    private static final List<String> HEADERS = List.of("name", "amount", "price");
+    private static final List<ColumnType> TYPES = List.of(ColumnType.STRING, ColumnType.LONG, ColumnType.DOUBLE);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenTypedColumns_whenConvert_thenNumbersAreWrittenAsByToString() {
+        List<ConvertibleMessage> records = List.of(
+                message("a,b", 42L, 12.5),
+                message("c", Long.MIN_VALUE, -0.001),
+                message(null, null, null),
+                message("d", 0L, 1.0E7),
+                message("e", -7L, Double.NaN));
+
+        String actual = convert(new CsvConverter(), typedCollection(records));
+
+        assertEquals("name,amount,price\n"
+                + "\"a,b\",42,12.5\n"
+                + "c,-9223372036854775808,-0.001\n"
+                + ",,\n"
+                + "d,0,1.0E7\n"
+                + "e,-7,NaN\n", actual);
+    }
+
+    @Test
+    public void givenTypedColumns_whenConvert_thenOutputIsSameAsOfStringColumns() {
+        Random random = new Random(5);
+        List<ConvertibleMessage> records = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            records.add(message("n" + i, random.nextLong() >> random.nextInt(64),
+                    random.nextInt(10) == 0 ? null : randomDouble(random)));
+        }
+
+        String expected = convert(new CsvConverter(), ConvertibleCollectionTestImpl.builder()
+                .headers(HEADERS)
+                .records(records)
+                .build());
+
+        assertEquals(expected, convert(new CsvConverter(), typedCollection(records)));
+        assertEquals(expected, convert(new ParallelCsvConverter(executor, 100, 8), typedCollection(records)));
+    }
+
+    @Test
+    public void givenUntypedMessages_whenConvertTypedCollection_thenValuesAreReadAsStrings() {
+        ConvertibleCollection collection = ConvertibleCollectionTestImpl.builder()
+                .headers(HEADERS)
+                .records(List.of(name -> name.equals("amount") ? "1" : "x"))
+                .columnTypes(TYPES)
+                .build();
+
+        assertEquals("name,amount,price\nx,1,x\n", convert(new CsvConverter(), collection));
+    }
+
+    @Test
+    public void givenRandomDoubles_whenPutDouble_thenSameAsDoubleToString() {
+        Random random = new Random(9);
+        byte[] target = new byte[NumberFormatter.MAX_LENGTH];
+        for (int i = 0; i < 1_000_000; i++) {
+            double value = randomDouble(random);
+
+            int length = NumberFormatter.putDouble(target, 0, value);
+
+            assertEquals(Double.toString(value), new String(target, 0, length, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void givenEdgeValues_whenPutNumbers_thenSameAsToString() {
+        for (long value : new long[]{0, 1, -1, 9, 10, 99, 100, 101, 1_000_000_007L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(Long.toString(value), NumberFormatter.toString(value));
+        }
+        for (double value : new double[]{0.0, -0.0, 1.0, 0.001, 9.99e-4, 1e7, 9999999.999999998, 0.1 + 0.2,
+                Double.MIN_VALUE, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN}) {
+            assertEquals(Double.toString(value), NumberFormatter.toString(value));
+        }
+    }
+
+    @Test
+    public void givenDefaultLocaleWithCommaDecimalSeparator_whenConvert_thenDotIsWritten() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            CsvEncoder encoder = new CsvEncoder();
+            encoder.encodeDouble(1234.5);
+
+            assertEquals("1234.5", new String(encoder.toByteArray(), StandardCharsets.US_ASCII));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static double randomDouble(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return (random.nextLong() % 100_000_000_000L) / Math.pow(10, random.nextInt(10));
+            case 1:
+                return Double.longBitsToDouble(random.nextLong());
+            default:
+                return random.nextDouble() * Math.pow(10, random.nextInt(12) - 4);
+        }
+    }
+
+    private static ConvertibleMessage message(String name, Long amount, Double price) {
+        return TypedConvertibleMessageTestImpl.builder()
+                .headers(HEADERS)
+                .values(Arrays.asList(name, amount, price))
+                .build();
+    }
+
+    private static ConvertibleCollection typedCollection(List<ConvertibleMessage> records) {
+        return ConvertibleCollectionTestImpl.builder().headers(HEADERS).records(records).columnTypes(TYPES).build();
+    }
+
+    private static String convert(Converter converter, ConvertibleCollection collection) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        converter.convert(collection, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+}
@@ -2,10 +2,12 @@ package org.eagleinvsys.test.converters.testDomain;
 
 import lombok.Builder;
 import lombok.Data;
+import org.eagleinvsys.test.converters.ColumnType;
 import org.eagleinvsys.test.converters.ConvertibleCollection;
 import org.eagleinvsys.test.converters.ConvertibleMessage;
 
 import java.util.Collection;
+import java.util.List;
 
 @Builder
 @Data
@@ -13,6 +15,7 @@ public class ConvertibleCollectionTestImpl implements ConvertibleCollection {
 
     private Collection<String> headers;
     private Iterable<ConvertibleMessage> records;
+    private List<ColumnType> columnTypes;
 
     @Override
     public Collection<String> getHeaders() {
@@ -23,4 +26,9 @@ public class ConvertibleCollectionTestImpl implements ConvertibleCollection {
     public Iterable<ConvertibleMessage> getRecords() {
         return records;
     }
+
+    @Override
+    public ColumnType getColumnType(int columnIndex) {
+        return columnTypes == null ? ColumnType.STRING : columnTypes.get(columnIndex);
+    }
 }
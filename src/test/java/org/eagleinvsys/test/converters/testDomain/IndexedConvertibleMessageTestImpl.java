@@ -0,0 +1,26 @@
+package org.eagleinvsys.test.converters.testDomain;
+
+import lombok.Builder;
+import lombok.Data;
+import org.eagleinvsys.test.converters.IndexedConvertibleMessage;
+
+import java.util.List;
+
+@Builder
+@Data
+public class IndexedConvertibleMessageTestImpl implements IndexedConvertibleMessage {
+
+    private List<String> headers;
+    private List<String> values;
+
+    @Override
+    public String getElement(String elementId) {
+        int columnIndex = headers.indexOf(elementId);
+        return columnIndex < 0 ? null : values.get(columnIndex);
+    }
+
+    @Override
+    public String getElement(int columnIndex) {
+        return values.get(columnIndex);
+    }
+}
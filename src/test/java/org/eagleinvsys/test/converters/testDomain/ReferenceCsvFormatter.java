@@ -0,0 +1,47 @@
+package org.eagleinvsys.test.converters.testDomain;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * String based CSV formatting as it was originally done by CsvConverter, used as an oracle for byte level encoding
+ */
+public final class ReferenceCsvFormatter {
+
+    private ReferenceCsvFormatter() {
+    }
+
+    public static String escapeSpecialCharacters(String data) {
+        if (Objects.isNull(data)) {
+            return "";
+        }
+        String escapedData = data.replaceAll("\\s", " ");
+        if (escapedData.contains(",") || escapedData.contains("\"") || escapedData.contains("'")) {
+            escapedData = escapedData.replace("\"", "\"\"");
+            escapedData = "\"" + escapedData + "\"";
+        }
+        return escapedData;
+    }
+
+    public static String format(ConvertibleCollection collection) {
+        StringBuilder result = new StringBuilder();
+        result.append(collection.getHeaders().stream()
+                .map(ReferenceCsvFormatter::escapeSpecialCharacters)
+                .collect(Collectors.joining(","))).append("\n");
+        for (ConvertibleMessage message : collection.getRecords()) {
+            result.append(collection.getHeaders().stream()
+                    .map(message::getElement)
+                    .map(ReferenceCsvFormatter::escapeSpecialCharacters)
+                    .collect(Collectors.joining(","))).append("\n");
+        }
+        return result.toString();
+    }
+
+    public static byte[] formatAsBytes(ConvertibleCollection collection) {
+        return format(collection).getBytes(StandardCharsets.UTF_8);
+    }
+}
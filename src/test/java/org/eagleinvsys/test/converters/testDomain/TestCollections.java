@@ -0,0 +1,53 @@
+package org.eagleinvsys.test.converters.testDomain;
+
+import org.eagleinvsys.test.converters.ConvertibleCollection;
+import org.eagleinvsys.test.converters.ConvertibleMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Collections of id and value columns shared by converter tests
+ */
+public final class TestCollections {
+
+    private TestCollections() {
+    }
+
+    /**
+     * @return records with ids from 0 and values containing a delimiter, so every value is escaped
+     */
+    public static List<ConvertibleMessage> testRecords(int count) {
+        return testRecords(count, i -> "value, number " + i);
+    }
+
+    /**
+     * @param count  number of records
+     * @param values values of the records by their ids
+     *
+     * @return records with ids from 0 and the given values
+     */
+    public static List<ConvertibleMessage> testRecords(int count, IntFunction<String> values) {
+        List<ConvertibleMessage> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(ConvertibleMessageTestImpl.builder()
+                    .data(Map.of("id", String.valueOf(i), "value", values.apply(i)))
+                    .build());
+        }
+        return records;
+    }
+
+    public static ConvertibleCollection testCollection(int count) {
+        return testCollection(testRecords(count));
+    }
+
+    public static ConvertibleCollection testCollection(Iterable<ConvertibleMessage> records) {
+        return ConvertibleCollectionTestImpl.builder()
+                .headers(List.of("id", "value"))
+                .records(records)
+                .build();
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.eagleinvsys.test.converters.testDomain;
+
+import lombok.Builder;
+import lombok.Data;
+import org.eagleinvsys.test.converters.TypedConvertibleMessage;
+
+import java.util.List;
+
+/**
+ * Message holding values as {@link Long}, {@link Double}, {@link String} or null
+ */
+@Builder
+@Data
+public class TypedConvertibleMessageTestImpl implements TypedConvertibleMessage {
+
+    private List<String> headers;
+    private List<Object> values;
+
+    @Override
+    public String getElement(String elementId) {
+        int columnIndex = headers.indexOf(elementId);
+        return columnIndex < 0 ? null : getElement(columnIndex);
+    }
+
+    @Override
+    public String getElement(int columnIndex) {
+        Object value = values.get(columnIndex);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+        return (Long) values.get(columnIndex);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+        return (Double) values.get(columnIndex);
+    }
+
+    @Override
+    public boolean isNull(int columnIndex) {
+        return values.get(columnIndex) == null;
+    }
+}